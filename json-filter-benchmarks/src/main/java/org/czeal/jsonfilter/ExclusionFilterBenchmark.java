@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Benchmarks of {@link ExclusionFilter}.
+ *
+ * <p>
+ * {@link #applyString(Payload)} parses the expression on every call, whereas
+ * {@link #applyCompiled(Payload)} uses a compiled filter. Comparing them with
+ * the {@code 1KB} payload shows the per-call parsing cost.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExclusionFilterBenchmark
+{
+    /**
+     * The minimum size of the arrays filtered in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1000;
+
+
+    /**
+     * The Gson instance serializing the filtered results, as a caller would.
+     */
+    private static final Gson GSON = new Gson();
+
+
+    /**
+     * A fresh copy of the payload tree for every invocation of the in-place
+     * benchmark, which modifies its source.
+     */
+    @State(Scope.Thread)
+    public static class MutableTree
+    {
+        JsonElement tree;
+
+
+        @Setup(Level.Invocation)
+        public void setUp(Payload payload)
+        {
+            tree = payload.tree.deepCopy();
+        }
+    }
+
+
+    private final ExclusionFilter filter = new ExclusionFilter();
+
+
+    @Benchmark
+    public JsonElement applyString(Payload payload)
+    {
+        return filter.apply(payload.tree, payload.expression);
+    }
+
+
+    @Benchmark
+    public JsonElement applyCompiled(Payload payload)
+    {
+        return filter.apply(payload.tree, payload.exclusion);
+    }
+
+
+    @Benchmark
+    public JsonElement applyShared(Payload payload)
+    {
+        return filter.applyShared(payload.tree, payload.exclusion);
+    }
+
+
+    @Benchmark
+    public JsonElement applyInParallel(Payload payload)
+    {
+        return filter.applyInParallel(payload.tree, payload.exclusion, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+
+    @Benchmark
+    public JsonElement applyInPlace(Payload payload, MutableTree mutable)
+    {
+        return filter.applyInPlace(mutable.tree, payload.exclusion);
+    }
+
+
+    @Benchmark
+    public void applyStream(Payload payload) throws IOException
+    {
+        filter.apply(payload.newReader(), new JsonWriter(Writer.nullWriter()), payload.exclusion);
+    }
+
+
+    @Benchmark
+    public void applyBytes(Payload payload) throws IOException
+    {
+        filter.apply(payload.bytes, OutputStream.nullOutputStream(), payload.exclusion);
+    }
+
+
+    @Benchmark
+    public void applyAndSerialize(Payload payload) throws IOException
+    {
+        Writer writer = new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+
+        GSON.toJson(filter.apply(payload.tree, payload.exclusion), writer);
+        writer.flush();
+    }
+
+
+    @Benchmark
+    public void applyTo(Payload payload) throws IOException
+    {
+        filter.applyTo(payload.tree, payload.exclusion, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.JsonElement;
+
+
+/**
+ * Benchmarks comparing {@link FanOutFilter} with applying the same compiled
+ * filters one by one.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FanOutFilterBenchmark
+{
+    /**
+     * Three variants of the payload: a narrow and a wide inclusion, and an
+     * exclusion.
+     */
+    @State(Scope.Benchmark)
+    public static class Variants
+    {
+        List<CompiledFilter> filters;
+        FanOutFilter fanOut;
+
+
+        @Setup
+        public void setUp(Payload payload)
+        {
+            FilterFactory factory = new FilterFactory();
+
+            filters = Arrays.asList(
+                    factory.compile(FilterType.INCLUSION, PayloadGenerator.expression(1, payload.depth)),
+                    payload.inclusion,
+                    payload.exclusion);
+
+            fanOut = new FanOutFilter(filters);
+        }
+    }
+
+
+    private final InclusionFilter inclusionFilter = new InclusionFilter();
+    private final ExclusionFilter exclusionFilter = new ExclusionFilter();
+
+
+    @Benchmark
+    public List<JsonElement> applySeparately(Payload payload, Variants variants)
+    {
+        List<JsonElement> results = new ArrayList<>(variants.filters.size());
+
+        for (CompiledFilter filter : variants.filters)
+        {
+            results.add(filter.getType() == FilterType.INCLUSION
+                    ? inclusionFilter.apply(payload.tree, filter)
+                    : exclusionFilter.apply(payload.tree, filter));
+        }
+
+        return results;
+    }
+
+
+    @Benchmark
+    public List<JsonElement> applyFanOut(Payload payload, Variants variants)
+    {
+        return variants.fanOut.apply(payload.tree);
+    }
+}
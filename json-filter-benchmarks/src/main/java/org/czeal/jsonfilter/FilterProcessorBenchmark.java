@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.JsonElement;
+
+
+/**
+ * Benchmarks of {@link FilterProcessor} passing the payload tree several times
+ * from a publisher to a subscriber requesting one result at a time, filtering on
+ * the delivering thread and on the common pool.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterProcessorBenchmark
+{
+    /**
+     * The number of items published, and the parallelism of the parallel
+     * processor.
+     */
+    @State(Scope.Thread)
+    public static class Stream
+    {
+        @Param({ "16" })
+        int items;
+
+        @Param({ "4" })
+        int parallelism;
+    }
+
+
+    /**
+     * A publisher emitting the same element on request.
+     */
+    private static final class RepeatPublisher implements Flow.Publisher<JsonElement>
+    {
+        private final JsonElement element;
+        private final int count;
+
+
+        RepeatPublisher(JsonElement element, int count)
+        {
+            this.element = element;
+            this.count   = count;
+        }
+
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super JsonElement> subscriber)
+        {
+            subscriber.onSubscribe(new Flow.Subscription()
+            {
+                private long requested;
+                private int emitted;
+                private boolean emitting;
+                private boolean cancelled;
+
+
+                @Override
+                public synchronized void request(long n)
+                {
+                    requested += n;
+
+                    if (emitting)
+                    {
+                        return;
+                    }
+
+                    emitting = true;
+
+                    while (!cancelled && requested > 0 && emitted < count)
+                    {
+                        requested--;
+                        emitted++;
+                        subscriber.onNext(element);
+                    }
+
+                    if (!cancelled && emitted == count)
+                    {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+
+                    emitting = false;
+                }
+
+
+                @Override
+                public synchronized void cancel()
+                {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+
+    /**
+     * A subscriber requesting one result at a time and counting the results.
+     */
+    private static final class CountingSubscriber implements Flow.Subscriber<JsonElement>
+    {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private volatile int count;
+
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+
+        @Override
+        public void onNext(JsonElement item)
+        {
+            count++;
+            subscription.request(1);
+        }
+
+
+        @Override
+        public void onError(Throwable throwable)
+        {
+            latch.countDown();
+        }
+
+
+        @Override
+        public void onComplete()
+        {
+            latch.countDown();
+        }
+    }
+
+
+    @Benchmark
+    public int sequential(Payload payload, Stream stream) throws InterruptedException
+    {
+        return run(payload, FilterProcessor.forElements(payload.inclusion), stream.items);
+    }
+
+
+    @Benchmark
+    public int parallel(Payload payload, Stream stream) throws InterruptedException
+    {
+        return run(payload, FilterProcessor.forElements(
+                payload.inclusion, ForkJoinPool.commonPool(), stream.parallelism), stream.items);
+    }
+
+
+    private static int run(Payload payload, FilterProcessor<JsonElement> processor, int items)
+            throws InterruptedException
+    {
+        CountingSubscriber subscriber = new CountingSubscriber();
+
+        processor.subscribe(subscriber);
+        new RepeatPublisher(payload.tree, items).subscribe(processor);
+        subscriber.latch.await();
+
+        return subscriber.count;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Benchmarks of {@link InclusionFilter}.
+ *
+ * <p>
+ * {@link #applyString(Payload)} parses the expression on every call, whereas
+ * {@link #applyCompiled(Payload)} uses a compiled filter. Comparing them with
+ * the {@code 1KB} payload shows the per-call parsing cost. {@link
+ * #applySpecialized(Payload)} uses a compiled filter specialized on its first use.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InclusionFilterBenchmark
+{
+    /**
+     * The minimum size of the arrays filtered in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1000;
+
+
+    /**
+     * The Gson instance serializing the filtered results, as a caller would.
+     */
+    private static final Gson GSON = new Gson();
+
+
+    private final InclusionFilter filter = new InclusionFilter();
+
+
+    @Benchmark
+    public JsonElement applyString(Payload payload)
+    {
+        return filter.apply(payload.tree, payload.expression);
+    }
+
+
+    @Benchmark
+    public JsonElement applyCompiled(Payload payload)
+    {
+        return filter.apply(payload.tree, payload.inclusion);
+    }
+
+
+    @Benchmark
+    public JsonElement applySpecialized(Payload payload)
+    {
+        return filter.apply(payload.tree, payload.specialized);
+    }
+
+
+    @Benchmark
+    public JsonElement applyShared(Payload payload)
+    {
+        return filter.applyShared(payload.tree, payload.inclusion);
+    }
+
+
+    @Benchmark
+    public JsonElement applyInParallel(Payload payload)
+    {
+        return filter.applyInParallel(payload.tree, payload.inclusion, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+
+    @Benchmark
+    public void applyStream(Payload payload) throws IOException
+    {
+        filter.apply(payload.newReader(), new JsonWriter(Writer.nullWriter()), payload.inclusion);
+    }
+
+
+    @Benchmark
+    public void applyBytes(Payload payload) throws IOException
+    {
+        filter.apply(payload.bytes, OutputStream.nullOutputStream(), payload.inclusion);
+    }
+
+
+    @Benchmark
+    public void applyAndSerialize(Payload payload) throws IOException
+    {
+        Writer writer = new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+
+        GSON.toJson(filter.apply(payload.tree, payload.inclusion), writer);
+        writer.flush();
+    }
+
+
+    @Benchmark
+    public void applyTo(Payload payload) throws IOException
+    {
+        filter.applyTo(payload.tree, payload.inclusion, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonElement;
+
+
+/**
+ * Benchmarks comparing {@link JacksonInclusionFilter} with converting a Jackson
+ * tree to Gson, filtering it with {@link InclusionFilter} and converting the
+ * result back.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JacksonFilterBenchmark
+{
+    /**
+     * The payload parsed into a Jackson tree.
+     */
+    @State(Scope.Benchmark)
+    public static class JacksonPayload
+    {
+        final ObjectMapper mapper = new ObjectMapper();
+        JsonNode tree;
+
+
+        @Setup
+        public void setUp(Payload payload) throws IOException
+        {
+            tree = mapper.readTree(payload.json);
+        }
+    }
+
+
+    private final InclusionFilter gsonFilter    = new InclusionFilter();
+    private final JacksonInclusionFilter filter = new JacksonInclusionFilter();
+
+
+    @Benchmark
+    public JsonNode applyTreeViaGson(Payload payload, JacksonPayload jackson) throws IOException
+    {
+        JsonElement source   = com.google.gson.JsonParser.parseString(jackson.mapper.writeValueAsString(jackson.tree));
+        JsonElement filtered = gsonFilter.apply(source, payload.inclusion);
+
+        return jackson.mapper.readTree(filtered.toString());
+    }
+
+
+    @Benchmark
+    public JsonNode applyTree(Payload payload, JacksonPayload jackson)
+    {
+        return filter.apply(jackson.tree, payload.inclusion);
+    }
+
+
+    @Benchmark
+    public void applyStream(Payload payload, JacksonPayload jackson) throws IOException
+    {
+        try (JsonParser parser = jackson.mapper.createParser(payload.json);
+             JsonGenerator generator = jackson.mapper.createGenerator(OutputStream.nullOutputStream()))
+        {
+            filter.apply(parser, generator, payload.inclusion);
+        }
+    }
+}
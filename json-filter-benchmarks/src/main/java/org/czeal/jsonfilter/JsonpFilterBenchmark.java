@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.stream.JsonWriter;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+
+
+/**
+ * Benchmarks comparing the streaming {@link JsonpInclusionFilter} with the
+ * streaming {@link InclusionFilter} over the same payload.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonpFilterBenchmark
+{
+    private final InclusionFilter gsonFilter  = new InclusionFilter();
+    private final JsonpInclusionFilter filter = new JsonpInclusionFilter();
+
+
+    @Benchmark
+    public void applyGsonStream(Payload payload) throws IOException
+    {
+        gsonFilter.apply(payload.newReader(), new JsonWriter(Writer.nullWriter()), payload.inclusion);
+    }
+
+
+    @Benchmark
+    public void applyStream(Payload payload)
+    {
+        try (JsonParser parser = Json.createParser(new StringReader(payload.json));
+             JsonGenerator generator = Json.createGenerator(Writer.nullWriter()))
+        {
+            filter.apply(parser, generator, payload.inclusion);
+        }
+    }
+}
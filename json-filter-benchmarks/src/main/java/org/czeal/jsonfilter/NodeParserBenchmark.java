@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks of {@link NodeParser#parse(String)} over expressions of various
+ * widths and depths.
+ *
+ * @author Hideki Ikeda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeParserBenchmark
+{
+    /**
+     * The number of selected members at each level of the expression.
+     */
+    @Param({ "1", "8", "64" })
+    public int expressionWidth;
+
+    /**
+     * The nesting depth of the expression.
+     */
+    @Param({ "0", "4", "16" })
+    public int depth;
+
+    private String expression;
+    private NodeParser parser;
+
+
+    @Setup
+    public void setUp()
+    {
+        expression = PayloadGenerator.expression(expressionWidth, depth);
+        parser     = new NodeParser();
+    }
+
+
+    @Benchmark
+    public Node parse()
+    {
+        return parser.parse(expression);
+    }
+}
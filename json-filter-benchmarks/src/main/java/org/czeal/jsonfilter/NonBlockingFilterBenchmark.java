@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks of {@link NonBlockingFilter} fed with chunks of the payload, to be
+ * compared with {@code applyBytes} of {@link InclusionFilterBenchmark} and {@link
+ * ExclusionFilterBenchmark}, which filter the whole payload at once.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NonBlockingFilterBenchmark
+{
+    /**
+     * The size of the chunks and of the output buffer, as an event loop would use.
+     */
+    @State(Scope.Thread)
+    public static class Chunks
+    {
+        @Param({ "1024", "16384" })
+        int size;
+    }
+
+
+    @Benchmark
+    public int feedInclusion(Payload payload, Chunks chunks) throws IOException
+    {
+        return feed(payload.bytes, new NonBlockingFilter(payload.inclusion), chunks.size);
+    }
+
+
+    @Benchmark
+    public int feedExclusion(Payload payload, Chunks chunks) throws IOException
+    {
+        return feed(payload.bytes, new NonBlockingFilter(payload.exclusion), chunks.size);
+    }
+
+
+    private static int feed(ByteBuffer source, NonBlockingFilter filter, int size) throws IOException
+    {
+        ByteBuffer chunk  = source.duplicate();
+        ByteBuffer output = ByteBuffer.allocate(size);
+        int total         = 0;
+
+        for (int i = source.position(); i < source.limit(); i += size)
+        {
+            chunk.limit(Math.min(i + size, source.limit())).position(i);
+            filter.feed(chunk);
+            total += drain(filter, output);
+        }
+
+        filter.end();
+
+        return total + drain(filter, output);
+    }
+
+
+    private static int drain(NonBlockingFilter filter, ByteBuffer output)
+    {
+        int total = 0;
+
+        while (filter.pending() > 0)
+        {
+            output.clear();
+            total += filter.drain(output);
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+
+/**
+ * The benchmark state holding a generated JSON payload and compiled filters.
+ *
+ * <p>
+ * The payload is generated once per trial by {@link PayloadGenerator} from the
+ * parameters below. Override them on the command line, e.g. {@code -p size=10MB
+ * -p depth=4}.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+@State(Scope.Benchmark)
+public class Payload
+{
+    /**
+     * The approximate size of the payload.
+     */
+    @Param({ "1KB", "100KB", "10MB", "100MB" })
+    public String size;
+
+    /**
+     * The nesting depth of the records.
+     */
+    @Param({ "1", "4" })
+    public int depth;
+
+    /**
+     * The length of the arrays in the records.
+     */
+    @Param({ "10", "100" })
+    public int arrayLength;
+
+    /**
+     * The number of selected scalar members at each level of the expression.
+     */
+    @Param({ "1", "8" })
+    public int expressionWidth;
+
+    /**
+     * The number of scalar members in each object of the payload.
+     */
+    @Param({ "16" })
+    public int fieldCount;
+
+    String json;
+    ByteBuffer bytes;
+    JsonElement tree;
+    String expression;
+    CompiledFilter inclusion;
+    CompiledFilter specialized;
+    CompiledFilter exclusion;
+
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        json       = PayloadGenerator.generate(PayloadGenerator.parseSize(size), depth, arrayLength, fieldCount);
+        bytes      = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        tree       = JsonParser.parseString(json);
+        expression = PayloadGenerator.expression(expressionWidth, depth);
+
+        FilterFactory factory = new FilterFactory();
+        inclusion   = factory.compile(FilterType.INCLUSION, expression);
+        specialized = factory.compile(FilterType.INCLUSION, expression, 0);
+        exclusion   = factory.compile(FilterType.EXCLUSION, expression);
+    }
+
+
+    /**
+     * Creates a reader of the payload.
+     *
+     * @return
+     *         A new reader of the payload.
+     */
+    JsonReader newReader()
+    {
+        return new JsonReader(new StringReader(json));
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.Random;
+
+
+/**
+ * A generator of synthetic JSON payloads and filter expressions for benchmarks.
+ *
+ * <p>
+ * Payloads are generated from a fixed random seed, so the same parameters always
+ * produce the same payload and benchmark results are reproducible offline.
+ * </p>
+ *
+ * <p>
+ * A payload is a JSON array of records. Each record is a JSON object having the
+ * following members.
+ * </p>
+ *
+ * <ul>
+ * <li>{@code f0} ... {@code f<fieldCount-1>} - Scalar values (strings, integers,
+ * decimals, booleans and nulls).</li>
+ * <li>{@code items} - A JSON array of {@code arrayLength} objects having scalar
+ * members {@code f0} ... {@code f<fieldCount-1>}.</li>
+ * <li>{@code child} - A nested record, down to the given depth.</li>
+ * </ul>
+ *
+ * @author Hideki Ikeda
+ */
+final class PayloadGenerator
+{
+    private static final long SEED = 20250101L;
+
+
+    private PayloadGenerator()
+    {
+    }
+
+
+    /**
+     * Parses a size string such as {@code "1KB"}, {@code "10MB"} or {@code "512"}
+     * into the number of bytes.
+     *
+     * @param size
+     *         The size string.
+     *
+     * @return
+     *         The number of bytes.
+     */
+    static int parseSize(String size)
+    {
+        String s = size.trim().toUpperCase();
+
+        if (s.endsWith("KB"))
+        {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024;
+        }
+
+        if (s.endsWith("MB"))
+        {
+            return Integer.parseInt(s.substring(0, s.length() - 2)) * 1024 * 1024;
+        }
+
+        return Integer.parseInt(s);
+    }
+
+
+    /**
+     * Generates a JSON payload.
+     *
+     * @param targetBytes
+     *         The approximate size of the payload. Records are appended until the
+     *         payload reaches this size, and at least one record is generated.
+     *
+     * @param depth
+     *         The number of nested {@code child} records in each record.
+     *
+     * @param arrayLength
+     *         The length of the {@code items} array in each record.
+     *
+     * @param fieldCount
+     *         The number of scalar members in each object.
+     *
+     * @return
+     *         The JSON payload.
+     */
+    static String generate(int targetBytes, int depth, int arrayLength, int fieldCount)
+    {
+        Random random      = new Random(SEED);
+        StringBuilder json = new StringBuilder(targetBytes + 1024);
+
+        json.append('[');
+
+        for (int id = 0; id == 0 || json.length() < targetBytes; id++)
+        {
+            if (id > 0)
+            {
+                json.append(',');
+            }
+
+            appendRecord(json, random, id, depth, arrayLength, fieldCount);
+        }
+
+        return json.append(']').toString();
+    }
+
+
+    /**
+     * Generates a filter expression selecting {@code width} scalar members, the
+     * first {@code width} members of the {@code items} elements and the nested
+     * {@code child} records down to the given depth.
+     *
+     * <p>
+     * For instance, {@code expression(2, 1)} returns {@code
+     * "f0,f1,items(f0,f1),child(f0,f1,items(f0,f1))"}.
+     * </p>
+     *
+     * @param width
+     *         The number of selected scalar members at each level.
+     *
+     * @param depth
+     *         The number of nested {@code child} records to select.
+     *
+     * @return
+     *         The filter expression.
+     */
+    static String expression(int width, int depth)
+    {
+        StringBuilder fields = new StringBuilder();
+
+        for (int i = 0; i < width; i++)
+        {
+            if (i > 0)
+            {
+                fields.append(',');
+            }
+
+            fields.append('f').append(i);
+        }
+
+        StringBuilder expression = new StringBuilder()
+                .append(fields).append(",items(").append(fields).append(')');
+
+        if (depth > 0)
+        {
+            expression.append(",child(").append(expression(width, depth - 1)).append(')');
+        }
+
+        return expression.toString();
+    }
+
+
+    private static void appendRecord(
+            StringBuilder json, Random random, int id, int depth, int arrayLength, int fieldCount)
+    {
+        json.append("{\"id\":").append(id);
+
+        appendFields(json, random, fieldCount);
+
+        json.append(",\"items\":[");
+
+        for (int i = 0; i < arrayLength; i++)
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+
+            json.append("{\"index\":").append(i);
+            appendFields(json, random, fieldCount);
+            json.append('}');
+        }
+
+        json.append(']');
+
+        if (depth > 0)
+        {
+            json.append(",\"child\":");
+            appendRecord(json, random, id, depth - 1, arrayLength, fieldCount);
+        }
+
+        json.append('}');
+    }
+
+
+    private static void appendFields(StringBuilder json, Random random, int fieldCount)
+    {
+        for (int i = 0; i < fieldCount; i++)
+        {
+            json.append(",\"f").append(i).append("\":");
+
+            switch (random.nextInt(5))
+            {
+                case 0:
+                    json.append("\"value-").append(Long.toHexString(random.nextLong())).append('"');
+                    break;
+
+                case 1:
+                    json.append(random.nextInt(1_000_000));
+                    break;
+
+                case 2:
+                    json.append(random.nextInt(100_000) / 100.0);
+                    break;
+
+                case 3:
+                    json.append(random.nextBoolean());
+                    break;
+
+                default:
+                    json.append("null");
+            }
+        }
+    }
+}
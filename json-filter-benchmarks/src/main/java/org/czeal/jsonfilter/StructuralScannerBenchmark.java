@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks comparing the scalar, SWAR and vector {@link StructuralScanner}s,
+ * both on skipping and validating a whole payload and on skipping its records
+ * one by one. The vector scanner is measured only when the benchmarks run with
+ * {@code -jvmArgsAppend --add-modules=jdk.incubator.vector}; otherwise it falls
+ * back to the SWAR scanner.
+ *
+ * @author Hideki Ikeda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StructuralScannerBenchmark
+{
+    /**
+     * The scanner under measurement.
+     */
+    @State(Scope.Benchmark)
+    public static class Scanner
+    {
+        @Param({ "scalar", "swar", "vector" })
+        public String scanner;
+
+        StructuralScanner instance;
+
+
+        @Setup
+        public void setUp()
+        {
+            instance = StructuralScanner.select(scanner);
+        }
+    }
+
+
+    @Benchmark
+    public int skipValue(Payload payload, Scanner scanner) throws IOException
+    {
+        ByteBuffer source = payload.bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        return new RawValueScanner(scanner.instance).skip(source, 0, source.limit());
+    }
+
+
+    @Benchmark
+    public void skipRecords(Payload payload, Scanner scanner) throws IOException
+    {
+        Utf8JsonReader reader = new Utf8JsonReader(payload.bytes, scanner.instance);
+        Utf8JsonWriter writer = new Utf8JsonWriter(OutputStream.nullOutputStream());
+
+        // Skip everything but the top-level structure, which is what dominates
+        // when a narrow inclusion filter is applied to large objects.
+        reader.beginArray();
+        writer.beginArray();
+
+        while (reader.hasNext())
+        {
+            reader.skipValue();
+            writer.nullValue();
+        }
+
+        reader.endArray();
+        writer.endArray();
+        writer.flush();
+    }
+}
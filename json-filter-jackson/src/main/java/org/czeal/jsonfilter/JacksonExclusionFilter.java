@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+
+/**
+ * An exclusion filter working on Jackson trees and streams.
+ *
+ * <p>
+ * This class applies a compiled exclusion filter to a Jackson {@link JsonNode}
+ * or to a {@link JsonParser} / {@link JsonGenerator} pair, without converting
+ * the source to Gson. The results are the same as the ones of {@link
+ * ExclusionFilter} for the same JSON: members keep the order they appear in the
+ * source, a member whose value is {@code null} is removed if the filter
+ * expression looks into it, and a source excluded as a whole results in {@code
+ * null}.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are stateless and can be shared across threads.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "a,b(c)");
+ * JacksonExclusionFilter filter = new JacksonExclusionFilter();
+ *
+ * // Filter a tree.
+ * JsonNode filtered = filter.apply(jsonNode, compiled);
+ *
+ * // Filter a stream. Excluded values are skipped with skipChildren().
+ * try (JsonParser parser = mapper.createParser(in);
+ *      JsonGenerator generator = mapper.createGenerator(out))
+ * {
+ *     filter.apply(parser, generator, compiled);
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class JacksonExclusionFilter
+{
+    /**
+     * Creates a JSON node by excluding JSON nodes from the given JSON node based
+     * on the compiled filter.
+     *
+     * @param source
+     *         The source JSON node to filter, which should be either a JSON object
+     *         or an array.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         A new {@link JsonNode} instance built by filtering the {@code
+     *         source}. Value nodes, which are immutable, may be shared with the
+     *         source.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public JsonNode apply(JsonNode source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return filter(source, filter.getNode(FilterType.EXCLUSION));
+    }
+
+
+    /**
+     * Reads a JSON value from the parser and writes the JSON value built by
+     * excluding JSON values based on the compiled filter to the generator.
+     *
+     * <p>
+     * If the parser has no current token, the next token is read first. When this
+     * method returns, the parser is positioned at the last token of the value,
+     * in the same way as {@code ObjectMapper.readTree(JsonParser)}. Excluded
+     * values are skipped with {@link JsonParser#skipChildren()} without being
+     * written. This method neither flushes nor closes the parser or the
+     * generator.
+     * </p>
+     *
+     * @param parser
+     *         The parser to read the source JSON value from.
+     *
+     * @param generator
+     *         The generator to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs, the source is empty or the source is not a
+     *         valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(JsonParser parser, JsonGenerator generator, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.EXCLUSION);
+
+        if (parser.currentToken() == null && parser.nextToken() == null)
+        {
+            // There is no JSON value to read.
+            throw new EOFException("The source has no JSON value.");
+        }
+
+        filter(parser, generator, node);
+    }
+
+
+    private JsonNode filter(JsonNode source, Node node)
+    {
+        if (source == null || source.isNull() || source.isMissingNode())
+        {
+            // The source is null.
+            return NullNode.getInstance();
+        }
+
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, the whole value is excluded. A
+            // NullNode instance is returned in the same way as ExclusionFilter.
+            return NullNode.getInstance();
+        }
+
+        if (source.isObject())
+        {
+            // The source is a JSON object.
+            return filterObjectNode((ObjectNode)source, node);
+        }
+
+        if (source.isArray())
+        {
+            // The source is a JSON array.
+            return filterArrayNode((ArrayNode)source, node);
+        }
+
+        // Value nodes can't be filtered. They are immutable, so the deep copy of
+        // a value node is the node itself.
+        return source.deepCopy();
+    }
+
+
+    private JsonNode filterObjectNode(ObjectNode source, Node node)
+    {
+        // The target JSON object we copy the remaining members into, created by
+        // the node factory of the source.
+        ObjectNode target = source.objectNode();
+
+        for (Map.Entry<String, JsonNode> member : source.properties())
+        {
+            Node subNode = node.getSubNode(member.getKey());
+
+            if (subNode == null)
+            {
+                // The key is not specified. Keep the member as is.
+                target.set(member.getKey(), member.getValue().deepCopy());
+            }
+            else if (subNode.getSubNodes() != null && !member.getValue().isNull())
+            {
+                // Filter the member based on the sub node. Members excluded as a
+                // whole and null members looked into are removed.
+                target.set(member.getKey(), filter(member.getValue(), subNode));
+            }
+        }
+
+        return target;
+    }
+
+
+    private JsonNode filterArrayNode(ArrayNode source, Node node)
+    {
+        // The target JSON array we copy JSON nodes into.
+        ArrayNode target = source.arrayNode(source.size());
+
+        for (Iterator<JsonNode> it = source.elements(); it.hasNext(); )
+        {
+            // Filter the JSON node based on the node. Elements are never removed
+            // from arrays.
+            target.add(filter(it.next(), node));
+        }
+
+        return target;
+    }
+
+
+    private void filter(JsonParser parser, JsonGenerator generator, Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, the whole value is excluded.
+            // Write null in the same way as the tree-based filter.
+            parser.skipChildren();
+            generator.writeNull();
+        }
+        else if (parser.currentToken() == JsonToken.START_OBJECT)
+        {
+            // The source is a JSON object.
+            filterObject(parser, generator, node);
+        }
+        else if (parser.currentToken() == JsonToken.START_ARRAY)
+        {
+            // The source is a JSON array.
+            filterArray(parser, generator, node);
+        }
+        else
+        {
+            // Scalars and null can't be filtered. Copy the value as is.
+            JacksonStreams.copyToken(parser, generator, parser.currentToken());
+        }
+    }
+
+
+    private void filterObject(JsonParser parser, JsonGenerator generator, Node node) throws IOException
+    {
+        generator.writeStartObject();
+
+        JsonToken token;
+
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME)
+        {
+            String key   = parser.currentName();
+            Node subNode = node.getSubNode(key);
+
+            // Move to the value.
+            JsonToken value = parser.nextToken();
+
+            if (subNode == null)
+            {
+                // The key is not specified. Pass the member through as is.
+                generator.writeFieldName(key);
+                JacksonStreams.copy(parser, generator);
+            }
+            else if (subNode.getSubNodes() == null || value == JsonToken.VALUE_NULL)
+            {
+                // The member is excluded, or its value is null which is removed
+                // by the tree-based filter as well. Skip the value without writing
+                // it.
+                parser.skipChildren();
+            }
+            else
+            {
+                // Write the key and then filter the value based on the sub node.
+                generator.writeFieldName(key);
+                filter(parser, generator, subNode);
+            }
+        }
+
+        if (token == null)
+        {
+            // The source ended in the middle of the JSON object.
+            throw new EOFException("The source ended in a JSON object.");
+        }
+
+        generator.writeEndObject();
+    }
+
+
+    private void filterArray(JsonParser parser, JsonGenerator generator, Node node) throws IOException
+    {
+        generator.writeStartArray();
+
+        JsonToken token;
+
+        // For each JSON value in the JSON array, filter the value based on the
+        // node.
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY)
+        {
+            if (token == null)
+            {
+                // The source ended in the middle of the JSON array.
+                throw new EOFException("The source ended in a JSON array.");
+            }
+
+            filter(parser, generator, node);
+        }
+
+        generator.writeEndArray();
+    }
+}
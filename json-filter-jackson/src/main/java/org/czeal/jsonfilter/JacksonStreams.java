@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A utility class for the streaming filters built on Jackson's {@link
+ * JsonParser} and {@link JsonGenerator}.
+ *
+ * <p>
+ * The methods of this class take the parser positioned at the first token of a
+ * JSON value, and leave it at the last token of the value.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class JacksonStreams
+{
+    private JacksonStreams()
+    {
+    }
+
+
+    /**
+     * Copies the JSON value starting at the current token from the parser to the
+     * generator token by token.
+     *
+     * <p>
+     * Unlike {@link JsonGenerator#copyCurrentStructure(JsonParser)}, numbers are
+     * copied as their text, so that they keep their notation (e.g. {@code 1.10})
+     * and numbers out of the range of {@code double} (e.g. {@code 1e400}) stay
+     * numbers.
+     * </p>
+     *
+     * @param parser
+     *         The parser positioned at the first token of the JSON value.
+     *
+     * @param generator
+     *         The generator to copy the JSON value into.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source ends in the JSON value.
+     */
+    static void copy(JsonParser parser, JsonGenerator generator) throws IOException
+    {
+        // The nesting depth relative to the first token.
+        int depth = 0;
+
+        for (JsonToken token = parser.currentToken(); ; token = parser.nextToken())
+        {
+            if (token == null)
+            {
+                // The source ended in the middle of the JSON value.
+                throw new EOFException("The source ended in a JSON object or array.");
+            }
+
+            switch (token)
+            {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+
+                default:
+                    break;
+            }
+
+            copyToken(parser, generator, token);
+
+            if (depth == 0)
+            {
+                // The whole value has been copied.
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Copies the current token from the parser to the generator, copying a
+     * finite number as its text.
+     *
+     * @param parser
+     *         The parser positioned at the token.
+     *
+     * @param generator
+     *         The generator to copy the token into.
+     *
+     * @param token
+     *         The current token of the parser.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    static void copyToken(JsonParser parser, JsonGenerator generator, JsonToken token) throws IOException
+    {
+        boolean number = (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT);
+
+        // NaN and infinity, e.g. doubles of a tree, have no number text. Let the
+        // generator write them.
+        if (number && !parser.isNaN())
+        {
+            generator.writeNumber(parser.getText());
+        }
+        else
+        {
+            generator.copyCurrentEvent(parser);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.io.StringWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class JacksonExclusionFilterTest
+{
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+
+    private static final String[] DOCUMENTS = {
+        "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+        "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+        "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+        "{\"d\":{\"b\":\"\\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+        "{}",
+        "[]",
+        "\"s\"",
+        "null",
+    };
+
+
+    private static final String[] EXPRESSIONS = {
+        "a", "a,b", "b(c)", "b(d(c)),a", "a(a(a)),c", "b(a,c(a)),d()", "d(c(a))", "e,c(x)", null,
+    };
+
+
+    /**
+     * The results of filtering each document by each expression, as a tree or a
+     * stream.
+     */
+    private static final String[][] RESULTS = {
+        {
+            "{\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"b\":{\"c\":2,\"d\":[{\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}",
+            "null",
+        },
+        {
+            "[{},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{},{},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "null",
+        },
+        {
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[]}",
+            "{\"e\":[]}",
+            "{\"b\":{\"a\":null},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[]}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{}}}",
+            "{\"b\":{\"c\":{\"d\":1.5}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"a\":{\"a\":{\"a\":-1}}}",
+            "null",
+        },
+        {
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "null",
+        },
+        {
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "null",
+        },
+        {
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "null",
+        },
+        {
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "null",
+        },
+        {
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+        },
+    };
+
+
+    private final JacksonExclusionFilter filter = new JacksonExclusionFilter();
+    private final FilterFactory factory  = new FilterFactory();
+
+
+    private String applyTree(String json, String expression) throws IOException
+    {
+        return MAPPER.writeValueAsString(
+                filter.apply(MAPPER.readTree(json), factory.compile(FilterType.EXCLUSION, expression)));
+    }
+
+
+    private String applyStream(String json, String expression) throws IOException
+    {
+        StringWriter out = new StringWriter();
+
+        try (JsonParser parser = MAPPER.createParser(json);
+             JsonGenerator generator = MAPPER.createGenerator(out))
+        {
+            filter.apply(parser, generator, factory.compile(FilterType.EXCLUSION, expression));
+        }
+
+        return out.toString();
+    }
+
+
+    @Test
+    @DisplayName("filter a tree in the order of the source")
+    void testApplyTree1() throws IOException
+    {
+        assertEquals("{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}", applyTree(DOCUMENTS[0], "b(c),c(x)"));
+        assertEquals("null", applyTree(DOCUMENTS[0], null));
+    }
+
+
+    @Test
+    @DisplayName("filter every document by every expression as a tree")
+    void testApplyTree2() throws IOException
+    {
+        for (int i = 0; i < DOCUMENTS.length; i++)
+        {
+            for (int j = 0; j < EXPRESSIONS.length; j++)
+            {
+                assertEquals(RESULTS[i][j], applyTree(DOCUMENTS[i], EXPRESSIONS[j]), DOCUMENTS[i] + " " + EXPRESSIONS[j]);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("a filtered tree is independent of the source")
+    void testApplyTree3() throws IOException
+    {
+        JsonNode source = MAPPER.readTree(DOCUMENTS[0]);
+        JsonNode result = filter.apply(source, factory.compile(FilterType.EXCLUSION, "a"));
+
+        ((ObjectNode)result.get("b")).put("z", 1);
+
+        assertEquals(MAPPER.readTree(DOCUMENTS[0]), source);
+        assertEquals(NullNode.getInstance(), filter.apply(null, factory.compile(FilterType.EXCLUSION, "a")));
+    }
+
+
+    @Test
+    @DisplayName("filter a stream in the order of the source")
+    void testApplyStream1() throws IOException
+    {
+        assertEquals("{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}", applyStream(DOCUMENTS[0], "b(c),c(x)"));
+        assertEquals("null", applyStream(DOCUMENTS[0], null));
+    }
+
+
+    @Test
+    @DisplayName("filter every document by every expression as a stream")
+    void testApplyStream2() throws IOException
+    {
+        for (int i = 0; i < DOCUMENTS.length; i++)
+        {
+            for (int j = 0; j < EXPRESSIONS.length; j++)
+            {
+                assertEquals(RESULTS[i][j], applyStream(DOCUMENTS[i], EXPRESSIONS[j]), DOCUMENTS[i] + " " + EXPRESSIONS[j]);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("leave the parser at the end of the value")
+    void testApplyStream3() throws IOException
+    {
+        StringWriter out = new StringWriter();
+
+        try (JsonParser parser = MAPPER.createParser("{\"a\":1,\"b\":2} {\"a\":3}");
+             JsonGenerator generator = MAPPER.createGenerator(out))
+        {
+            CompiledFilter compiled = factory.compile(FilterType.EXCLUSION, "a");
+
+            filter.apply(parser, generator, compiled);
+            parser.nextToken();
+            filter.apply(parser, generator, compiled);
+        }
+
+        assertEquals("{\"b\":2} {}", out.toString());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments and sources")
+    void testApplyStream4()
+    {
+        CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> { filter.apply(MAPPER.nullNode(), null); });
+        assertThrows(IllegalArgumentException.class, () -> { filter.apply(MAPPER.nullNode(), inclusion); });
+        assertThrows(IOException.class, () -> { applyStream("", "a"); });
+        assertThrows(IOException.class, () -> { applyStream("{\"b\":[1,", "b(c)"); });
+        assertThrows(IOException.class, () -> { applyStream("{\"b\":{\"c\"", "b(c)"); });
+    }
+
+
+    @Test
+    @DisplayName("copy numbers in a stream exactly as they are written")
+    void testApplyStream5() throws IOException
+    {
+        String json = "{\"a\":1.10,\"b\":{\"c\":1e400,\"d\":[-0,2E+3]},\"e\":12345678901234567890123}";
+
+        assertEquals("{\"a\":1.10,\"b\":{\"c\":1e400,\"d\":[-0,2E+3]}}", applyStream(json, "e"));
+        assertEquals("{\"a\":1.10,\"b\":{\"c\":1e400},\"e\":12345678901234567890123}", applyStream(json, "b(d)"));
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.Collections;
+import java.util.Map;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonBuilderFactory;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+
+
+/**
+ * An exclusion filter working on Jakarta JSON-P trees and streams.
+ *
+ * <p>
+ * This class applies a compiled exclusion filter to a {@link JsonValue} or to a
+ * {@link JsonParser} / {@link JsonGenerator} pair, without converting the source
+ * to Gson. The results are the same as the ones of {@link ExclusionFilter} for
+ * the same JSON: members keep the order they appear in the source, a member
+ * whose value is {@code null} is removed if the filter expression looks into it,
+ * and a source excluded as a whole results in {@code null}.
+ * </p>
+ *
+ * <p>
+ * JSON-P values are immutable, so the tree-based filter shares the values it
+ * doesn't look into with the source instead of copying them. Instances of this
+ * class are stateless and can be shared across threads.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "a,b(c)");
+ * JsonpExclusionFilter filter = new JsonpExclusionFilter();
+ *
+ * // Filter a tree.
+ * JsonValue filtered = filter.apply(jsonValue, compiled);
+ *
+ * // Filter a stream.
+ * try (JsonParser parser = Json.createParser(in);
+ *      JsonGenerator generator = Json.createGenerator(out))
+ * {
+ *     filter.apply(parser, generator, compiled);
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class JsonpExclusionFilter
+{
+    private final JsonBuilderFactory factory;
+
+
+    /**
+     * Constructs a {@link JsonpExclusionFilter} instance which builds JSON values
+     * with the builder factory of the default JSON-P provider.
+     */
+    public JsonpExclusionFilter()
+    {
+        this(Json.createBuilderFactory(Collections.emptyMap()));
+    }
+
+
+    /**
+     * Constructs a {@link JsonpExclusionFilter} instance which builds JSON values
+     * with the given builder factory.
+     *
+     * @param factory
+     *         The builder factory used to build filtered JSON objects and arrays.
+     *
+     * @throws NullPointerException
+     *         If the builder factory is {@code null}.
+     */
+    public JsonpExclusionFilter(JsonBuilderFactory factory)
+    {
+        if (factory == null)
+        {
+            // The builder factory can't be null.
+            throw new NullPointerException("The builder factory can't be null.");
+        }
+
+        this.factory = factory;
+    }
+
+
+    /**
+     * Creates a JSON value by excluding JSON values from the given JSON value
+     * based on the compiled filter.
+     *
+     * @param source
+     *         The source JSON value to filter, which should be either a JSON
+     *         object or an array.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         A {@link JsonValue} built by filtering the {@code source}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public JsonValue apply(JsonValue source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return filter(source, filter.getNode(FilterType.EXCLUSION));
+    }
+
+
+    /**
+     * Reads the next JSON value from the parser and writes the JSON value built
+     * by excluding JSON values based on the compiled filter to the generator.
+     *
+     * <p>
+     * When this method returns, the parser is positioned at the last event of
+     * the value. Excluded values are skipped without being written. This method
+     * neither flushes nor closes the parser or the generator.
+     * </p>
+     *
+     * @param parser
+     *         The parser to read the source JSON value from.
+     *
+     * @param generator
+     *         The generator to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     *
+     * @throws jakarta.json.JsonException
+     *         If the source is empty or the source is not a valid JSON value.
+     */
+    public void apply(JsonParser parser, JsonGenerator generator, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.EXCLUSION);
+
+        filter(parser, generator, JsonpStreams.first(parser), node);
+    }
+
+
+    private JsonValue filter(JsonValue source, Node node)
+    {
+        if (source == null || node.getSubNodes() == null)
+        {
+            // The source is null, or the sub nodes are not specified, which means
+            // the whole value is excluded. JsonValue.NULL is returned in the same
+            // way as ExclusionFilter.
+            return JsonValue.NULL;
+        }
+
+        switch (source.getValueType())
+        {
+            case OBJECT:
+                // The source is a JSON object.
+                return filterJsonObject(source.asJsonObject(), node);
+
+            case ARRAY:
+                // The source is a JSON array.
+                return filterJsonArray(source.asJsonArray(), node);
+
+            default:
+                // Scalars and null can't be filtered.
+                return source;
+        }
+    }
+
+
+    private JsonValue filterJsonObject(JsonObject source, Node node)
+    {
+        // The builder of the target JSON object. Members are added in the order
+        // of the source.
+        JsonObjectBuilder target = factory.createObjectBuilder();
+
+        for (Map.Entry<String, JsonValue> member : source.entrySet())
+        {
+            Node subNode = node.getSubNode(member.getKey());
+
+            if (subNode == null)
+            {
+                // The key is not specified. Keep the member as is.
+                target.add(member.getKey(), member.getValue());
+            }
+            else if (subNode.getSubNodes() != null && member.getValue().getValueType() != JsonValue.ValueType.NULL)
+            {
+                // Filter the member based on the sub node. Members excluded as a
+                // whole and null members looked into are removed.
+                target.add(member.getKey(), filter(member.getValue(), subNode));
+            }
+        }
+
+        return target.build();
+    }
+
+
+    private JsonValue filterJsonArray(JsonArray source, Node node)
+    {
+        // The builder of the target JSON array.
+        JsonArrayBuilder target = factory.createArrayBuilder();
+
+        for (JsonValue e : source)
+        {
+            // Filter the JSON value based on the node. Elements are never removed
+            // from arrays.
+            target.add(filter(e, node));
+        }
+
+        return target.build();
+    }
+
+
+    private void filter(JsonParser parser, JsonGenerator generator, Event event, Node node)
+    {
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, the whole value is excluded.
+            // Write null in the same way as the tree-based filter.
+            JsonpStreams.skip(parser, event);
+            generator.writeNull();
+        }
+        else if (event == Event.START_OBJECT)
+        {
+            // The source is a JSON object.
+            filterJsonObject(parser, generator, node);
+        }
+        else if (event == Event.START_ARRAY)
+        {
+            // The source is a JSON array.
+            filterJsonArray(parser, generator, node);
+        }
+        else
+        {
+            // Scalars and null can't be filtered. Copy the value as is.
+            JsonpStreams.writeScalar(parser, generator, event);
+        }
+    }
+
+
+    private void filterJsonObject(JsonParser parser, JsonGenerator generator, Node node)
+    {
+        generator.writeStartObject();
+
+        while (parser.next() == Event.KEY_NAME)
+        {
+            String key   = parser.getString();
+            Node subNode = node.getSubNode(key);
+
+            // Move to the value.
+            Event event = parser.next();
+
+            if (subNode == null)
+            {
+                // The key is not specified. Pass the member through as is.
+                generator.writeKey(key);
+                JsonpStreams.copy(parser, generator, event);
+            }
+            else if (subNode.getSubNodes() == null || event == Event.VALUE_NULL)
+            {
+                // The member is excluded, or its value is null which is removed
+                // by the tree-based filter as well. Skip the value without writing
+                // it.
+                JsonpStreams.skip(parser, event);
+            }
+            else
+            {
+                // Write the key and then filter the value based on the sub node.
+                generator.writeKey(key);
+                filter(parser, generator, event, subNode);
+            }
+        }
+
+        generator.writeEnd();
+    }
+
+
+    private void filterJsonArray(JsonParser parser, JsonGenerator generator, Node node)
+    {
+        generator.writeStartArray();
+
+        Event event;
+
+        // For each JSON value in the JSON array, filter the value based on the
+        // node.
+        while ((event = parser.next()) != Event.END_ARRAY)
+        {
+            filter(parser, generator, event, node);
+        }
+
+        generator.writeEnd();
+    }
+}
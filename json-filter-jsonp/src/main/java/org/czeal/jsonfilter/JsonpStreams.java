@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A utility class for the streaming filters built on JSON-P's {@link JsonParser}
+ * and {@link JsonGenerator}.
+ *
+ * <p>
+ * The methods of this class take the event the parser has just returned for the
+ * first token of a JSON value, and leave the parser at the last event of the
+ * value.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class JsonpStreams
+{
+    private JsonpStreams()
+    {
+    }
+
+
+    /**
+     * Reads the event of the first token of the next JSON value.
+     *
+     * @param parser
+     *         The parser to read the event from.
+     *
+     * @return
+     *         The event of the first token of the next JSON value.
+     *
+     * @throws JsonException
+     *         If the parser has no more JSON value to read.
+     */
+    static Event first(JsonParser parser)
+    {
+        if (!parser.hasNext())
+        {
+            // There is no JSON value to read.
+            throw new JsonException("The source has no JSON value.");
+        }
+
+        return parser.next();
+    }
+
+
+    /**
+     * Copies the JSON value starting at the given event from the parser to the
+     * generator event by event.
+     *
+     * <p>
+     * Numbers are copied without losing precision, but the JSON-P implementation
+     * may write them in another notation (e.g. {@code 1E+10} for {@code 1e10}).
+     * </p>
+     *
+     * @param parser
+     *         The parser which has just returned {@code event}.
+     *
+     * @param generator
+     *         The generator to copy the JSON value into.
+     *
+     * @param event
+     *         The event of the first token of the JSON value.
+     */
+    static void copy(JsonParser parser, JsonGenerator generator, Event event)
+    {
+        // The nesting depth relative to the first event.
+        int depth = 0;
+
+        while (true)
+        {
+            switch (event)
+            {
+                case START_OBJECT:
+                    generator.writeStartObject();
+                    depth++;
+                    break;
+
+                case START_ARRAY:
+                    generator.writeStartArray();
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                case END_ARRAY:
+                    generator.writeEnd();
+                    depth--;
+                    break;
+
+                case KEY_NAME:
+                    generator.writeKey(parser.getString());
+                    break;
+
+                default:
+                    writeScalar(parser, generator, event);
+            }
+
+            if (depth == 0)
+            {
+                // The whole value has been copied.
+                return;
+            }
+
+            event = parser.next();
+        }
+    }
+
+
+    /**
+     * Skips the JSON value starting at the given event without writing it.
+     *
+     * <p>
+     * This method counts the nesting depth by itself rather than calling {@code
+     * JsonParser.skipObject()} or {@code JsonParser.skipArray()}, whose behavior
+     * in nested values differs among JSON-P implementations.
+     * </p>
+     *
+     * @param parser
+     *         The parser which has just returned {@code event}.
+     *
+     * @param event
+     *         The event of the first token of the JSON value.
+     */
+    static void skip(JsonParser parser, Event event)
+    {
+        if (event != Event.START_OBJECT && event != Event.START_ARRAY)
+        {
+            // A scalar has no more events.
+            return;
+        }
+
+        for (int depth = 1; depth > 0; )
+        {
+            switch (parser.next())
+            {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+
+
+    /**
+     * Writes the scalar value of the given event.
+     *
+     * @param parser
+     *         The parser which has just returned {@code event}.
+     *
+     * @param generator
+     *         The generator to write the value into.
+     *
+     * @param event
+     *         The event of a scalar value.
+     */
+    static void writeScalar(JsonParser parser, JsonGenerator generator, Event event)
+    {
+        switch (event)
+        {
+            case VALUE_STRING:
+                generator.write(parser.getString());
+                break;
+
+            case VALUE_NUMBER:
+                // Let the implementation pick the number type which keeps the
+                // precision.
+                generator.write(parser.getValue());
+                break;
+
+            case VALUE_TRUE:
+                generator.write(true);
+                break;
+
+            case VALUE_FALSE:
+                generator.write(false);
+                break;
+
+            case VALUE_NULL:
+                generator.writeNull();
+                break;
+
+            default:
+                // The event is not the first token of a JSON value.
+                throw new JsonException(String.format("Expected a JSON value but was %s.", event));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.StringReader;
+import java.io.StringWriter;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class JsonpExclusionFilterTest
+{
+    private static final String[] DOCUMENTS = {
+        "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+        "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+        "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+        "{\"d\":{\"b\":\"\\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+        "{}",
+        "[]",
+        "\"s\"",
+        "null",
+    };
+
+
+    private static final String[] EXPRESSIONS = {
+        "a", "a,b", "b(c)", "b(d(c)),a", "a(a(a)),c", "b(a,c(a)),d()", "d(c(a))", "e,c(x)", null,
+    };
+
+
+    /**
+     * The results of filtering each document by each expression, as a tree or a
+     * stream.
+     */
+    private static final String[][] RESULTS = {
+        {
+            "{\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"b\":{\"c\":2,\"d\":[{\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"c\":null,\"d\":\"x\"}",
+            "{\"a\":1,\"b\":{\"c\":2,\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}",
+            "null",
+        },
+        {
+            "[{},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{},{},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "[{\"a\":{\"b\":1}},{\"b\":[1,{\"a\":null}]},3,null,[{\"c\":{}}]]",
+            "null",
+        },
+        {
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[]}",
+            "{\"e\":[]}",
+            "{\"b\":{\"a\":null},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[]}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{}}}",
+            "{\"b\":{\"c\":{\"d\":1.5}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"e\":[],\"a\":{\"a\":{\"a\":-1}}}",
+            "{\"b\":{\"a\":null,\"c\":{\"d\":1.5,\"a\":true}},\"a\":{\"a\":{\"a\":-1}}}",
+            "null",
+        },
+        {
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]}}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{}]]},\"a\":[]}",
+            "{\"d\":{\"b\":\"\u00e9\\n\",\"c\":[[{\"a\":1}]]},\"a\":[]}",
+            "null",
+        },
+        {
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "{}",
+            "null",
+        },
+        {
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "[]",
+            "null",
+        },
+        {
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "\"s\"",
+            "null",
+        },
+        {
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+            "null",
+        },
+    };
+
+
+    private final JsonpExclusionFilter filter = new JsonpExclusionFilter();
+    private final FilterFactory factory = new FilterFactory();
+
+
+    private static JsonValue read(String json)
+    {
+        try (jakarta.json.JsonReader reader = Json.createReader(new StringReader(json)))
+        {
+            return reader.readValue();
+        }
+    }
+
+
+    private String applyTree(String json, String expression)
+    {
+        return filter.apply(read(json), factory.compile(FilterType.EXCLUSION, expression)).toString();
+    }
+
+
+    private String applyStream(String json, String expression)
+    {
+        StringWriter out = new StringWriter();
+
+        try (JsonParser parser = Json.createParser(new StringReader(json));
+             JsonGenerator generator = Json.createGenerator(out))
+        {
+            filter.apply(parser, generator, factory.compile(FilterType.EXCLUSION, expression));
+        }
+
+        return out.toString();
+    }
+
+
+    @Test
+    @DisplayName("filter a tree in the order of the source")
+    void testApplyTree1()
+    {
+        assertEquals("{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}", applyTree(DOCUMENTS[0], "b(c),c(x)"));
+        assertEquals("null", applyTree(DOCUMENTS[0], null));
+    }
+
+
+    @Test
+    @DisplayName("filter every document by every expression as a tree")
+    void testApplyTree2()
+    {
+        for (int i = 0; i < DOCUMENTS.length; i++)
+        {
+            for (int j = 0; j < EXPRESSIONS.length; j++)
+            {
+                assertEquals(RESULTS[i][j], applyTree(DOCUMENTS[i], EXPRESSIONS[j]), DOCUMENTS[i] + " " + EXPRESSIONS[j]);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("values not looked into are shared with the source")
+    void testApplyTree3()
+    {
+        JsonValue source = read(DOCUMENTS[0]);
+        JsonValue result = filter.apply(source, factory.compile(FilterType.EXCLUSION, "a"));
+
+        assertSame(source.asJsonObject().get("b"), result.asJsonObject().get("b"));
+        assertEquals(JsonValue.NULL, filter.apply(null, factory.compile(FilterType.EXCLUSION, "a")));
+    }
+
+
+    @Test
+    @DisplayName("filter a stream in the order of the source")
+    void testApplyStream1()
+    {
+        assertEquals("{\"a\":1,\"b\":{\"d\":[{\"c\":3,\"e\":4},5,null]},\"d\":\"x\"}", applyStream(DOCUMENTS[0], "b(c),c(x)"));
+        assertEquals("null", applyStream(DOCUMENTS[0], null));
+    }
+
+
+    @Test
+    @DisplayName("filter every document by every expression as a stream")
+    void testApplyStream2()
+    {
+        for (int i = 0; i < DOCUMENTS.length; i++)
+        {
+            for (int j = 0; j < EXPRESSIONS.length; j++)
+            {
+                assertEquals(RESULTS[i][j], applyStream(DOCUMENTS[i], EXPRESSIONS[j]), DOCUMENTS[i] + " " + EXPRESSIONS[j]);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments and sources")
+    void testApply1()
+    {
+        CompiledFilter other = factory.compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> { new JsonpExclusionFilter(null); });
+        assertThrows(NullPointerException.class, () -> { filter.apply(JsonValue.NULL, null); });
+        assertThrows(IllegalArgumentException.class, () -> { filter.apply(JsonValue.NULL, other); });
+        assertThrows(JsonException.class, () -> { applyStream("", "b(c)"); });
+        assertThrows(RuntimeException.class, () -> { applyStream("{\"b\":[1,", "b(c)"); });
+    }
+}
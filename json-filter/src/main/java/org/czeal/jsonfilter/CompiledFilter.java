@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.stream.Collectors;
+import com.google.gson.JsonElement;
+
+
+/**
+ * A filter expression that has been parsed and merged once so that it can be
+ * applied repeatedly without any parsing cost.
+ *
+ * <p>
+ * Instances of this class are created by {@link FilterFactory#compile(FilterType,
+ * String)}. A compiled filter holds the filter type, the merged node tree built
+ * from the filter expression and the normalized expression. These never change,
+ * and instances can be safely shared across threads.
+ * </p>
+ *
+ * <p>
+ * An inclusion filter compiled by {@link FilterFactory#compile(FilterType,
+ * String, int)} is specialized once it has been applied a given number of
+ * times: {@link InclusionFilter#apply(JsonElement, CompiledFilter)} then runs a
+ * class generated for its node tree instead of interpreting the tree. Such a
+ * filter counts its applications until then, which is the only state that
+ * changes; the other filters don't count them.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * FilterFactory factory = new FilterFactory();
+ *
+ * // Parse the expression only once.
+ * CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a,b(c)");
+ *
+ * Filter filter = factory.create(FilterType.INCLUSION);
+ *
+ * // Apply the compiled filter as many times as needed.
+ * JsonElement filtered = filter.apply(jsonElement, compiled);
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class CompiledFilter
+{
+    /**
+     * The number of uses meaning the filter is never specialized.
+     */
+    static final int NEVER = Integer.MAX_VALUE;
+
+
+    private final FilterType type;
+    private final Node node;
+    private final String expression;
+    private final int specializeAfter;
+
+
+    /**
+     * The number of times {@link #getProgram()} has been called before the
+     * program is built. This counter is not synchronized, so concurrent uses may
+     * be counted only approximately.
+     */
+    private int uses;
+
+
+    /**
+     * The program specialized for the node tree, or {@code null} if it is not
+     * built or can't be built. Published by {@link #specialized}.
+     */
+    private InclusionProgram program;
+
+
+    /**
+     * Whether {@link #program} is final, i.e. it has been built, it can't be
+     * built, or this filter is never specialized.
+     */
+    private volatile boolean specialized;
+
+
+    /**
+     * The lock under which the program is built, so that only one class is
+     * generated for this filter.
+     */
+    private final Object specializationLock = new Object();
+
+
+    /**
+     * Constructs a {@link CompiledFilter} instance from the given filter type and
+     * node tree.
+     *
+     * @param type
+     *         The filter type.
+     *
+     * @param node
+     *         The merged node tree.
+     */
+    CompiledFilter(FilterType type, Node node)
+    {
+        this(type, node, NEVER);
+    }
+
+
+    /**
+     * Constructs a {@link CompiledFilter} instance from the given filter type and
+     * node tree, which is specialized after the given number of uses.
+     *
+     * @param type
+     *         The filter type.
+     *
+     * @param node
+     *         The merged node tree.
+     *
+     * @param specializeAfter
+     *         The number of uses after which a specialized program is built, or
+     *         {@link #NEVER}.
+     */
+    CompiledFilter(FilterType type, Node node, int specializeAfter)
+    {
+        this.type            = type;
+        this.node            = node;
+        this.expression      = toExpression(node);
+        this.specializeAfter = specializeAfter;
+        this.specialized     = (specializeAfter == NEVER || type != FilterType.INCLUSION);
+    }
+
+
+    /**
+     * Builds the normalized filter expression of the given node tree, which is
+     * parsed back into the same node tree.
+     */
+    private static String toExpression(Node node)
+    {
+        if (node.getSubNodes() == null)
+        {
+            // The tree was built from a null expression.
+            return null;
+        }
+
+        return node.getSubNodes().stream().map(Node::toString).collect(Collectors.joining(","));
+    }
+
+
+    /**
+     * Returns the filter type of this compiled filter.
+     *
+     * @return
+     *         The filter type.
+     */
+    public FilterType getType()
+    {
+        return type;
+    }
+
+
+    /**
+     * Returns the normalized filter expression of this compiled filter.
+     *
+     * <p>
+     * The expression has the same meaning as the one this filter was compiled
+     * from, with the whitespace removed and the duplicate nodes merged (e.g.
+     * {@code "b(c),a"} for {@code " b ( c ) , a, b"}).
+     * </p>
+     *
+     * @return
+     *         The normalized filter expression, or {@code null} if this filter was
+     *         compiled from a {@code null} expression.
+     */
+    public String getExpression()
+    {
+        return expression;
+    }
+
+
+    /**
+     * Returns the merged node tree of this compiled filter.
+     *
+     * @return
+     *         The merged node tree.
+     */
+    Node getNode()
+    {
+        return node;
+    }
+
+
+    /**
+     * Checks that this compiled filter has the given filter type.
+     *
+     * @param expected
+     *         The filter type expected by the caller.
+     *
+     * @return
+     *         The merged node tree of this compiled filter.
+     *
+     * @throws IllegalArgumentException
+     *         If the filter type of this compiled filter is not {@code expected}.
+     */
+    Node getNode(FilterType expected)
+    {
+        if (type != expected)
+        {
+            // The compiled filter can't be applied by a filter of another type.
+            throw new IllegalArgumentException(String.format(
+                    "The compiled filter type is %s, but %s is expected.", type, expected));
+        }
+
+        return node;
+    }
+
+
+    /**
+     * Counts a use of this compiled filter and returns the program specialized
+     * for its node tree once the filter has been used often enough.
+     *
+     * <p>
+     * The program is built once, by the first call which finds the filter used
+     * often enough; calls racing with it wait for it. After that, this method
+     * only reads a volatile field.
+     * </p>
+     *
+     * @return
+     *         The specialized program, or {@code null} if this compiled filter is
+     *         not an inclusion filter, has not been used often enough yet, or
+     *         can't be specialized.
+     */
+    InclusionProgram getProgram()
+    {
+        if (specialized)
+        {
+            // Already specialized, or never specialized.
+            return program;
+        }
+
+        if (uses < specializeAfter)
+        {
+            // Not hot enough yet. Keep interpreting the node tree.
+            uses++;
+            return null;
+        }
+
+        synchronized (specializationLock)
+        {
+            if (!specialized)
+            {
+                program     = InclusionProgram.compile(node);
+                specialized = true;
+            }
+        }
+
+        return program;
+    }
+
+
+    /**
+     * Returns the string representation of this compiled filter.
+     *
+     * @return
+     *         The string representation of this compiled filter (e.g. {@code
+     *         "INCLUSION:ROOT(a,b(c))"}).
+     */
+    @Override
+    public String toString()
+    {
+        return type + ":" + node;
+    }
+}
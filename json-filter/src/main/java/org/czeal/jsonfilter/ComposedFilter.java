@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A filter applying an inclusion filter and then an exclusion filter in a single
+ * pass.
+ *
+ * <p>
+ * Instances of this class are created by {@link FilterFactory#compose(CompiledFilter,
+ * CompiledFilter)}. The two node trees are composed into one program on creation:
+ * members selected by the inclusion but excluded as a whole are dropped from the
+ * program, and the parts where only one of the filters applies are delegated to
+ * that filter. Applying this filter therefore costs a single traversal and a
+ * single copy, and produces the same result as applying the two filters in order.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are immutable and can be shared across threads.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * FilterFactory factory = new FilterFactory();
+ *
+ * // The fields requested by the client, then the compliance redaction.
+ * ComposedFilter filter = factory.compose(
+ *         factory.compile(FilterType.INCLUSION, "id,user(name,email,ssn)"),
+ *         factory.compile(FilterType.EXCLUSION, "user(ssn)"));
+ *
+ * // Same as excluding "user(ssn)" from the result of including "id,user(name,email,ssn)".
+ * JsonElement filtered = filter.apply(jsonElement);
+ *
+ * System.out.println(filter); // COMPOSED:ROOT(+id,user(+name,+email))
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class ComposedFilter
+{
+    private final ComposedNode root;
+    private final InclusionFilter inclusionFilter = new InclusionFilter();
+    private final ExclusionFilter exclusionFilter = new ExclusionFilter();
+
+
+    ComposedFilter(ComposedNode root)
+    {
+        this.root = root;
+    }
+
+
+    /**
+     * Returns the root of the composed program.
+     *
+     * @return
+     *         The root of the composed program.
+     */
+    ComposedNode getRoot()
+    {
+        return root;
+    }
+
+
+    /**
+     * Creates a JSON element by applying the inclusion filter and then the
+     * exclusion filter to the given JSON element.
+     *
+     * <p>
+     * The result is the same as {@link ExclusionFilter#apply(JsonElement,
+     * CompiledFilter)} applied to the result of {@link
+     * InclusionFilter#apply(JsonElement, CompiledFilter)}.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source}.
+     */
+    public JsonElement apply(JsonElement source)
+    {
+        return apply(source, root);
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON value built by
+     * applying the inclusion filter and then the exclusion filter to the writer.
+     *
+     * <p>
+     * The result is the same as {@link ExclusionFilter#apply(JsonReader,
+     * JsonWriter, CompiledFilter)} applied to the output of {@link
+     * InclusionFilter#apply(JsonReader, JsonWriter, CompiledFilter)}. The
+     * members of a JSON object are written in the order they appear in the
+     * source. This method does not close the reader or the writer.
+     * </p>
+     *
+     * @param reader
+     *         The reader positioned at the beginning of the source JSON value.
+     *
+     * @param writer
+     *         The writer to write the filtered JSON value into.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     */
+    public void apply(JsonReader reader, JsonWriter writer) throws IOException
+    {
+        apply(reader, writer, root);
+    }
+
+
+    /**
+     * Returns the string representation of this filter, which shows the composed
+     * program.
+     *
+     * <p>
+     * In the program, {@code +key} includes a whole value, {@code +key(...)}
+     * applies the inclusion only, {@code -key} removes a whole value, {@code
+     * -key(...)} applies the exclusion only, and {@code key(...)} applies both.
+     * </p>
+     *
+     * @return
+     *         The string representation of this filter (e.g. {@code
+     *         "COMPOSED:ROOT(+id,user(+name))"}).
+     */
+    @Override
+    public String toString()
+    {
+        return "COMPOSED:" + root;
+    }
+
+
+    private JsonElement apply(JsonElement source, ComposedNode node)
+    {
+        switch (node.getKind())
+        {
+            case INCLUDE:
+                // Only the inclusion applies.
+                return inclusionFilter.apply(source, node.getFilter());
+
+            case EXCLUDE:
+                // Only the exclusion applies.
+                return exclusionFilter.apply(source, node.getFilter());
+
+            case REMOVE:
+                // The whole value is excluded.
+                return JsonNull.INSTANCE;
+
+            default:
+                break;
+        }
+
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            return filterJsonObject((JsonObject)source, node);
+        }
+
+        if (source.isJsonArray())
+        {
+            // The source is a JSON array.
+            return filterJsonArray((JsonArray)source, node);
+        }
+
+        // JsonPrimitive values can't be filtered. Then, in this case, the deep
+        // copy of the original element is returned.
+        return source.deepCopy();
+    }
+
+
+    private JsonElement filterJsonObject(JsonObject source, ComposedNode node)
+    {
+        // The target JSON object we copy filtered JSON elements into. The members
+        // are added in the order of the inclusion.
+        JsonObject target = new JsonObject();
+
+        for (ComposedNode subNode : node.getSubNodes())
+        {
+            JsonElement newSource = source.get(subNode.getKey());
+
+            if (newSource == null || (subNode.isRemovedIfNull() && newSource instanceof JsonNull))
+            {
+                // The member doesn't exist, or it's null and removed by the
+                // exclusion.
+                continue;
+            }
+
+            target.add(subNode.getKey(), apply(newSource, subNode));
+        }
+
+        return target;
+    }
+
+
+    private JsonElement filterJsonArray(JsonArray source, ComposedNode node)
+    {
+        // The target JSON array we copy JSON elements into.
+        JsonArray target = new JsonArray(source.size());
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        for (JsonElement e : source)
+        {
+            target.add(apply(e, node));
+        }
+
+        return target;
+    }
+
+
+    private void apply(JsonReader reader, JsonWriter writer, ComposedNode node) throws IOException
+    {
+        switch (node.getKind())
+        {
+            case INCLUDE:
+                // Only the inclusion applies.
+                inclusionFilter.apply(reader, writer, node.getFilter());
+                return;
+
+            case EXCLUDE:
+                // Only the exclusion applies.
+                exclusionFilter.apply(reader, writer, node.getFilter());
+                return;
+
+            case REMOVE:
+                // The whole value is excluded. Write null in the same way as the
+                // exclusion filter.
+                reader.skipValue();
+                writer.nullValue();
+                return;
+
+            default:
+                break;
+        }
+
+        switch (reader.peek())
+        {
+            case BEGIN_OBJECT:
+                // The source is a JSON object.
+                filterJsonObject(reader, writer, node);
+                break;
+
+            case BEGIN_ARRAY:
+                // The source is a JSON array.
+                filterJsonArray(reader, writer, node);
+                break;
+
+            default:
+                // JsonPrimitive values and null can't be filtered. Then, in this
+                // case, the original value is copied as is.
+                JsonStreams.copy(reader, writer);
+        }
+    }
+
+
+    private void filterJsonObject(JsonReader reader, JsonWriter writer, ComposedNode node) throws IOException
+    {
+        reader.beginObject();
+        writer.beginObject();
+
+        while (reader.hasNext())
+        {
+            String key           = reader.nextName();
+            ComposedNode subNode = node.getSubNode(key);
+
+            if (subNode == null || (subNode.isRemovedIfNull() && reader.peek() == JsonToken.NULL))
+            {
+                // The member is not included, is excluded, or is null and removed
+                // by the exclusion. Skip the value without reading it.
+                reader.skipValue();
+                continue;
+            }
+
+            // Write the key and then filter the value based on the sub node.
+            writer.name(key);
+            apply(reader, writer, subNode);
+        }
+
+        reader.endObject();
+        writer.endObject();
+    }
+
+
+    private void filterJsonArray(JsonReader reader, JsonWriter writer, ComposedNode node) throws IOException
+    {
+        reader.beginArray();
+        writer.beginArray();
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        while (reader.hasNext())
+        {
+            apply(reader, writer, node);
+        }
+
+        reader.endArray();
+        writer.endArray();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A node of the program built by composing an inclusion node tree with an
+ * exclusion node tree.
+ *
+ * <p>
+ * A composed node is one of the following kinds.
+ * </p>
+ *
+ * <table border="1" cellspacing="0" cellpadding="5">
+ * <tr>
+ * <th>Kind</th>
+ * <th>Behavior</th>
+ * <th>String representation</th>
+ * </tr>
+ * <tr>
+ * <td>{@link Kind#INCLUDE INCLUDE}</td>
+ * <td>Only the inclusion applies below this node.</td>
+ * <td>{@code +key(...)}, or {@code +key} to copy the whole value.</td>
+ * </tr>
+ * <tr>
+ * <td>{@link Kind#EXCLUDE EXCLUDE}</td>
+ * <td>The whole value is included, and only the exclusion applies below this node.</td>
+ * <td>{@code -key(...)}</td>
+ * </tr>
+ * <tr>
+ * <td>{@link Kind#REMOVE REMOVE}</td>
+ * <td>The whole value is excluded.</td>
+ * <td>{@code -key}</td>
+ * </tr>
+ * <tr>
+ * <td>{@link Kind#COMPOSITE COMPOSITE}</td>
+ * <td>Both apply. The members are selected by the sub nodes.</td>
+ * <td>{@code key(...)}</td>
+ * </tr>
+ * </table>
+ *
+ * @author Hideki Ikeda
+ */
+final class ComposedNode
+{
+    /**
+     * The kinds of composed nodes.
+     */
+    enum Kind
+    {
+        INCLUDE,
+        EXCLUDE,
+        REMOVE,
+        COMPOSITE,
+    }
+
+
+    private final String key;
+    private final Kind kind;
+
+    /**
+     * The filter applied by an {@code INCLUDE} or {@code EXCLUDE} node.
+     */
+    private final CompiledFilter filter;
+
+    /**
+     * Whether the member having this node is removed if its value is null. The
+     * exclusion removes null members it specifies, even if they are not excluded.
+     */
+    private final boolean removedIfNull;
+
+    /**
+     * The sub nodes of a {@code COMPOSITE} node in the order of the inclusion.
+     */
+    private final List<ComposedNode> subNodes;
+    private final Map<String, ComposedNode> index;
+
+
+    private ComposedNode(
+            String key, Kind kind, CompiledFilter filter, boolean removedIfNull, List<ComposedNode> subNodes)
+    {
+        this.key           = key;
+        this.kind          = kind;
+        this.filter        = filter;
+        this.removedIfNull = removedIfNull;
+        this.subNodes      = (subNodes == null) ? null : List.copyOf(subNodes);
+        this.index         = (subNodes == null) ? null : buildIndex(this.subNodes);
+    }
+
+
+    private static Map<String, ComposedNode> buildIndex(List<ComposedNode> subNodes)
+    {
+        Map<String, ComposedNode> index = new HashMap<>();
+
+        for (ComposedNode subNode : subNodes)
+        {
+            index.putIfAbsent(subNode.key, subNode);
+        }
+
+        return index;
+    }
+
+
+    static ComposedNode include(Node node, boolean removedIfNull)
+    {
+        return new ComposedNode(node.getKey(), Kind.INCLUDE,
+                new CompiledFilter(FilterType.INCLUSION, node), removedIfNull, null);
+    }
+
+
+    static ComposedNode exclude(Node node, boolean removedIfNull)
+    {
+        return new ComposedNode(node.getKey(), Kind.EXCLUDE,
+                new CompiledFilter(FilterType.EXCLUSION, node), removedIfNull, null);
+    }
+
+
+    static ComposedNode remove(String key)
+    {
+        return new ComposedNode(key, Kind.REMOVE, null, false, null);
+    }
+
+
+    static ComposedNode composite(String key, boolean removedIfNull, List<ComposedNode> subNodes)
+    {
+        return new ComposedNode(key, Kind.COMPOSITE, null, removedIfNull, subNodes);
+    }
+
+
+    String getKey()
+    {
+        return key;
+    }
+
+
+    Kind getKind()
+    {
+        return kind;
+    }
+
+
+    CompiledFilter getFilter()
+    {
+        return filter;
+    }
+
+
+    boolean isRemovedIfNull()
+    {
+        return removedIfNull;
+    }
+
+
+    List<ComposedNode> getSubNodes()
+    {
+        return subNodes;
+    }
+
+
+    /**
+     * Returns the sub node of a {@code COMPOSITE} node which has the given key.
+     *
+     * @return
+     *         The sub node, or {@code null} if the member having the key is not
+     *         written.
+     */
+    ComposedNode getSubNode(String key)
+    {
+        return index.get(key);
+    }
+
+
+    @Override
+    public String toString()
+    {
+        switch (kind)
+        {
+            case INCLUDE:
+                return "+" + filter.getNode();
+
+            case EXCLUDE:
+                return "-" + filter.getNode();
+
+            case REMOVE:
+                return "-" + key;
+
+            default:
+                return key + subNodes.stream().map(ComposedNode::toString).collect(Collectors.joining(",", "(", ")"));
+        }
+    }
+}
@@ -0,0 +1,1310 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * A filter implementation that excludes specified JSON elements from a given JSON
+ * element. The exclusion rules are defined using a comma-separated string where
+ * nested fields can be specified using parentheses.
+ *
+ * <p>Example of node specification:</p>
+ * <ul>
+ * <li>{@code "a,b(c,d)"} - Excludes top-level elements {@code a} and sub-elements
+ * {@code c} and {@code d} inside {@code b}.</li>
+ * <li>{@code "x(y)"} - Excludes the sub-element {@code y} inside {@code x}, while
+ * keeping other elements in {@code x}.</li>
+ * </ul>
+ *
+ * <p>
+ * If the input JSON is a primitive value or {@code null}, it is returned as is.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+public class ExclusionFilter implements Filter
+{
+    /**
+     * The array size threshold meaning arrays are never filtered in parallel.
+     */
+    private static final int SEQUENTIAL = Integer.MAX_VALUE;
+
+
+    private final FilterCache cache;
+
+
+    /**
+     * Constructs an {@link ExclusionFilter} instance which parses the filter
+     * expression on every call of {@link #apply(JsonElement, String)}.
+     */
+    public ExclusionFilter()
+    {
+        this(null);
+    }
+
+
+    /**
+     * Constructs an {@link ExclusionFilter} instance which looks up parsed filter
+     * expressions in the given cache.
+     *
+     * @param cache
+     *         The cache of parsed filter expressions, or {@code null} to parse
+     *         the filter expression on every call of {@link #apply(JsonElement,
+     *         String)}.
+     */
+    public ExclusionFilter(FilterCache cache)
+    {
+        this.cache = cache;
+    }
+
+
+    /**
+     * Creates a JSON element by excluding JSON elements from the given JSON element
+     * based on the nodes string. The nodes string is provided as a comma-separated
+     * string, where each node defines a portion of the JSON structure to exclude
+     * from the result. Nested fields can be specified using parentheses. For example,
+     * a nodes string might be {@code "a,b(c,d)"}, indicating that the output should
+     * not include the top-level element {@code a} and sub-elements {@code c} and
+     * {@code d} inside {@code b}.
+     *
+     * <p><b>Examples:</b></p>
+     *
+     * <p><b>Example 1: For a flat JSON object</b></p>
+     * <pre>
+     * JsonElement jsonElement = JsonParser.parseString("{\"a\":1,\"b\":2,\"c\":3}");
+     *
+     * JsonElement filtered = new ExclusionFilter().apply(jsonElement, "a,b");
+     *
+     * System.out.println(filtered); // {"c":3}
+     * </pre>
+     *
+     * <p><b>Example 2: For a nested JSON object</b></p>
+     * <pre>
+     * JsonElement jsonElement = JsonParser.parseString("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}");
+     *
+     * JsonElement filtered = new ExclusionFilter().apply(jsonElement, "x(y)");
+     *
+     * System.out.println(filtered); // {"x":{"w":10},"v":20}
+     * </pre>
+     *
+     * <p><b>Example 3: For nested arrays</b></p>
+     * <pre>
+     * JsonElement jsonElement = JsonParser.parseString("[[[{\"name\":\"john\",\"type\":0}]]]");
+     *
+     * JsonElement filtered = new ExclusionFilter().apply(jsonElement, "name");
+     *
+     * System.out.println(filtered); // [[[{"type":0}]]]
+     * </pre>
+     *
+     * <p>
+     * If the source JSON is a primitive or {@code null}, filtering is not applicable
+     * and the deep copy of the source is returned unmodified.
+     * </p>
+     *
+     * <p>
+     * Invoking this method is equivalent to invoking {@link #filter(JsonElement, Node)}{@code
+     * (source, new NodeParser.parse(nodes))}.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param nodes
+     *         A comma-separated string defining allowed JSON nodes to include.
+     *         Each node can specify nested fields using parentheses.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source} based on the given {@code nodes}.
+     *
+     * @throws IllegalArgumentException
+     *         If the source JSON element is an invalid JSON element.
+     */
+    @Override
+    public JsonElement apply(JsonElement source, String nodes)
+    {
+        return filter(source, parse(nodes), SEQUENTIAL);
+    }
+
+
+    /**
+     * Creates a JSON element by excluding JSON elements from the given JSON element
+     * based on the compiled filter.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonElement, String)}
+     * except that the filter expression has been parsed in advance by {@link
+     * FilterFactory#compile(FilterType, String)}.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source} based on the given compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    @Override
+    public JsonElement apply(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return filter(source, filter.getNode(FilterType.EXCLUSION), SEQUENTIAL);
+    }
+
+
+    /**
+     * Creates a JSON element by excluding JSON elements from the given JSON element
+     * based on the compiled filter, filtering large JSON arrays in parallel.
+     *
+     * <p>
+     * This method produces the same JSON as {@link #apply(JsonElement, CompiledFilter)}.
+     * Every JSON array, at the top level or nested, whose size is equal to or
+     * greater than {@code threshold} is split into chunks which are filtered
+     * independently on the given pool, and the filtered chunks are reassembled in
+     * the original order. Smaller arrays are filtered sequentially.
+     * </p>
+     *
+     * <p>
+     * The source must not be modified during this call.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "id,name");
+     *
+     * // Filter arrays having 10,000 or more elements on the common pool.
+     * JsonElement filtered = new ExclusionFilter().applyInParallel(
+     *         jsonElement, compiled, ForkJoinPool.commonPool(), 10_000);
+     * </pre>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @param pool
+     *         The pool to filter large JSON arrays on, such as {@link
+     *         ForkJoinPool#commonPool()}.
+     *
+     * @param threshold
+     *         The minimum size of a JSON array to filter in parallel.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source} based on the given compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the pool is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter, or the threshold
+     *         is less than 1.
+     */
+    public JsonElement applyInParallel(JsonElement source, CompiledFilter filter, ForkJoinPool pool, int threshold)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        if (pool == null)
+        {
+            // The pool can't be null.
+            throw new NullPointerException("The pool can't be null.");
+        }
+
+        if (threshold < 1)
+        {
+            // The threshold must be positive.
+            throw new IllegalArgumentException("The threshold must be positive.");
+        }
+
+        Node node = filter.getNode(FilterType.EXCLUSION);
+
+        // Filter the source in the pool so that large arrays are split into tasks
+        // of the pool.
+        return pool.invoke(ForkJoinTask.adapt(() -> filter(source, node, threshold)));
+    }
+
+
+    /**
+     * Creates a JSON element by excluding JSON elements from the given JSON element
+     * based on the compiled filter, sharing unchanged subtrees with the source.
+     *
+     * <p>
+     * This method produces the same JSON as {@link #apply(JsonElement, CompiledFilter)},
+     * but it does not copy the source. New {@link JsonObject} and {@link JsonArray}
+     * instances are allocated only along the paths that actually change, and all
+     * the other elements of the result are the very instances of the source. The
+     * allocation is therefore proportional to the number of touched elements
+     * rather than to the size of the source.
+     * </p>
+     *
+     * <p>
+     * <b>NOTE:</b> The result aliases the source. Modifying either of them after
+     * calling this method may modify the other as well, so this method should be
+     * used only when both are treated as read-only.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         A {@link JsonElement} instance built by filtering the {@code source}
+     *         based on the given compiled filter, which may share elements with
+     *         the {@code source}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public JsonElement applyShared(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return share(source, filter.getNode(FilterType.EXCLUSION));
+    }
+
+
+    /**
+     * Returns a lazy view of the result of filtering the given JSON element based
+     * on the compiled filter.
+     *
+     * <p>
+     * The view represents the same JSON as {@link #apply(JsonElement,
+     * CompiledFilter)} would return, but nothing is copied when this method is
+     * called. The members and the elements of the view are computed on their
+     * first access, and {@link FilteredView#write(JsonWriter)} writes the result
+     * directly from the source. This is cheaper than {@link #apply(JsonElement,
+     * CompiledFilter)} when the result is consumed partially or written once.
+     * </p>
+     *
+     * <p>
+     * The source must not be modified while the view is in use.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         A view of the filtered JSON element.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public FilteredView view(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return FilteredView.of(source, filter.getNode(FilterType.EXCLUSION), false);
+    }
+
+
+    /**
+     * Writes the JSON built by filtering the given JSON element based on the
+     * compiled filter to the given {@link Appendable}.
+     *
+     * <p>
+     * The written JSON is the same as the string representation of the result of
+     * {@link #apply(JsonElement, CompiledFilter)}, but the result is never built:
+     * the source is walked and the selected elements are written directly. This
+     * method does not close the destination.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @param out
+     *         The destination of the filtered JSON, such as a {@link Writer} or
+     *         a {@link StringBuilder}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the destination is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public void applyTo(JsonElement source, CompiledFilter filter, Appendable out) throws IOException
+    {
+        if (out == null)
+        {
+            // The destination can't be null.
+            throw new NullPointerException("The destination can't be null.");
+        }
+
+        JsonWriter writer = new JsonWriter(JsonStreams.writer(out));
+
+        // Write NaN and infinite numbers as JsonElement.toString() does.
+        writer.setLenient(true);
+
+        view(source, filter).write(writer);
+        writer.flush();
+    }
+
+
+    /**
+     * Writes the JSON built by filtering the given JSON element based on the
+     * compiled filter to the given output stream in UTF-8.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #applyTo(JsonElement,
+     * CompiledFilter, Appendable)}. The JSON is encoded into a buffer taken from
+     * a pool shared by all filters, so that no buffer is allocated for each call.
+     * This method does not close the output stream.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON into.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the output stream is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public void applyTo(JsonElement source, CompiledFilter filter, OutputStream out) throws IOException
+    {
+        if (out == null)
+        {
+            // The output stream can't be null.
+            throw new NullPointerException("The output stream can't be null.");
+        }
+
+        FilteredView view = view(source, filter);
+
+        try (PooledUtf8Writer encoder = new PooledUtf8Writer(out))
+        {
+            JsonWriter writer = new JsonWriter(encoder);
+
+            // Write NaN and infinite numbers as JsonElement.toString() does.
+            writer.setLenient(true);
+
+            view.write(writer);
+        }
+    }
+
+
+    /**
+     * Excludes JSON elements from the given JSON element in place based on the
+     * compiled filter.
+     *
+     * <p>
+     * Unlike {@link #apply(JsonElement, CompiledFilter)}, this method copies
+     * nothing: excluded members are removed directly from the {@link JsonObject}
+     * instances of the source, and the source itself is returned. This method is
+     * intended for callers that own the source and discard the original after
+     * filtering.
+     * </p>
+     *
+     * <p>
+     * If the source is {@code null} or the whole source is excluded (i.e. the
+     * compiled filter has no nodes), {@link JsonNull#INSTANCE} is returned and the
+     * source is left unmodified.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * JsonElement jsonElement = JsonParser.parseString("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}");
+     *
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "x(y)");
+     *
+     * new ExclusionFilter().applyInPlace(jsonElement, compiled);
+     *
+     * System.out.println(jsonElement); // {"x":{"w":10},"v":20}
+     * </pre>
+     *
+     * @param source
+     *         The source JSON element to filter, which is modified by this method.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         The {@code source} from which the JSON elements have been removed,
+     *         or {@link JsonNull#INSTANCE}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public JsonElement applyInPlace(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.EXCLUSION);
+
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (node.getSubNodes() == null)
+        {
+            // The whole source is excluded. The root can't be removed from its
+            // parent, so a JsonNull instance is returned in the same way as the
+            // other methods.
+            return JsonNull.INSTANCE;
+        }
+
+        removeInPlace(source, node);
+
+        return source;
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON value built by
+     * excluding JSON elements based on the compiled filter to the writer.
+     *
+     * <p>
+     * Unlike {@link #apply(JsonElement, CompiledFilter)}, this method never builds
+     * a {@link JsonElement} tree nor copies one. Tokens are passed through from
+     * the reader to the writer while walking the node tree in lockstep, and the
+     * values of excluded keys are skipped by {@link JsonReader#skipValue()}. The
+     * memory used by this method is therefore bounded by the nesting depth of the
+     * JSON value rather than by its size.
+     * </p>
+     *
+     * <p>
+     * This method does not close the reader or the writer.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "x(y)");
+     *
+     * JsonReader reader = new JsonReader(new StringReader("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}"));
+     * StringWriter out  = new StringWriter();
+     *
+     * new ExclusionFilter().apply(reader, new JsonWriter(out), compiled);
+     *
+     * System.out.println(out); // {"x":{"w":10},"v":20}
+     * </pre>
+     *
+     * @param reader
+     *         The reader positioned at the beginning of the source JSON value.
+     *
+     * @param writer
+     *         The writer to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(JsonReader reader, JsonWriter writer, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        filter(reader, writer, filter.getNode(FilterType.EXCLUSION));
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON value built by
+     * excluding JSON elements based on the compiled filter to the writer.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonReader, JsonWriter,
+     * CompiledFilter)}, except that data after the JSON value is rejected. The
+     * writer is flushed, but neither the reader nor the writer is closed.
+     * </p>
+     *
+     * @param reader
+     *         The reader to read the source JSON value from.
+     *
+     * @param writer
+     *         The writer to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(Reader reader, Writer writer, CompiledFilter filter) throws IOException
+    {
+        JsonReader jsonReader = new JsonReader(reader);
+        JsonWriter jsonWriter = new JsonWriter(writer);
+
+        apply(jsonReader, jsonWriter, filter);
+
+        if (jsonReader.peek() != JsonToken.END_DOCUMENT)
+        {
+            // The reader must hold exactly one JSON value.
+            throw new MalformedJsonException("Unexpected data after the JSON value.");
+        }
+
+        jsonWriter.flush();
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the input stream and writes the UTF-8
+     * encoded JSON value built by excluding JSON elements based on the compiled
+     * filter to the output stream.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonReader, JsonWriter,
+     * CompiledFilter)}, except that data after the JSON value is rejected. The
+     * output stream is flushed, but neither the input stream nor the output
+     * stream is closed.
+     * </p>
+     *
+     * @param in
+     *         The input stream to read the source JSON value from.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(InputStream in, OutputStream out, CompiledFilter filter) throws IOException
+    {
+        apply(new InputStreamReader(in, StandardCharsets.UTF_8),
+              new OutputStreamWriter(out, StandardCharsets.UTF_8), filter);
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the source file and writes the UTF-8
+     * encoded JSON value built by excluding JSON elements based on the compiled
+     * filter to the target file.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(ByteBuffer,
+     * OutputStream, CompiledFilter)}. The source file is read through
+     * memory-mapped segments, which are filtered in place by a {@link
+     * NonBlockingFilter} without decoding the source into characters, and the
+     * output is written to the target file through a buffered channel. Therefore,
+     * the heap usage does not depend on the file size. The target file is created
+     * if it does not exist, and truncated otherwise.
+     * </p>
+     *
+     * @param source
+     *         The file to read the source JSON value from.
+     *
+     * @param target
+     *         The file to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(Path source, Path target, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        // Check the type of the compiled filter before creating the target file.
+        filter.getNode(FilterType.EXCLUSION);
+
+        try (FileChannel in  = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            new NonBlockingFilter(filter).transfer(new MappedSegments(in), out);
+        }
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the buffer and writes the UTF-8
+     * encoded JSON value built by excluding JSON elements based on the compiled
+     * filter to the output stream, without decoding the source into characters.
+     *
+     * <p>
+     * Keys are matched against the compiled filter by comparing their encoded
+     * bytes, values which are not written are skipped, and the written keys and
+     * values are copied from the source byte for byte. Therefore, no strings are
+     * created for the source except for keys having escape sequences or non-ASCII
+     * characters. Skipped and copied values are validated against the JSON
+     * grammar in the same way as {@link JsonReader}, so an invalid source is
+     * rejected even where it is not written.
+     * </p>
+     *
+     * <p>
+     * The output is equivalent to the output of {@link #apply(JsonReader,
+     * JsonWriter, CompiledFilter)}, except that copied values keep their original
+     * bytes, including whitespace and escape sequences. The JSON value must be the
+     * only content of the buffer between its position and limit, except for
+     * whitespace and a leading byte order mark. The position of the buffer is not
+     * changed. The output stream is flushed, but not closed.
+     * </p>
+     *
+     * @param source
+     *         The buffer holding the source JSON value.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public void apply(ByteBuffer source, OutputStream out, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.EXCLUSION);
+
+        Utf8JsonReader reader = new Utf8JsonReader(source);
+        Utf8JsonWriter writer = new Utf8JsonWriter(out);
+
+        filter(reader, writer, node);
+
+        reader.endDocument();
+        writer.flush();
+    }
+
+
+    /**
+     * Creates a UTF-8 encoded JSON value by excluding JSON elements from the
+     * given UTF-8 encoded JSON value based on the compiled filter, without
+     * decoding the source into characters.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(ByteBuffer,
+     * OutputStream, CompiledFilter)}.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre><code>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "x(y)");
+     *
+     * byte[] source   = "{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}".getBytes(StandardCharsets.UTF_8);
+     * byte[] filtered = new ExclusionFilter().apply(source, compiled);
+     *
+     * System.out.println(new String(filtered, StandardCharsets.UTF_8)); // {"x":{"w":10},"v":20}
+     * </code></pre>
+     *
+     * @param source
+     *         The source JSON value.
+     *
+     * @param filter
+     *         A compiled exclusion filter.
+     *
+     * @return
+     *         The filtered JSON value.
+     *
+     * @throws IOException
+     *         If the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the source or the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an exclusion filter.
+     */
+    public byte[] apply(byte[] source, CompiledFilter filter) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length);
+
+        apply(ByteBuffer.wrap(source), out, filter);
+
+        return out.toByteArray();
+    }
+
+
+    private JsonElement filter(JsonElement source, Node node, int threshold)
+    {
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (node == null)
+        {
+            // If no path is specified, we don't need to filter out anything from
+            // the original source.
+            return source.deepCopy();
+        }
+
+        List<Node> subNodes = node.getSubNodes();
+
+        if (subNodes == null)
+        {
+            // If the sub nodes are not specified, a JsonNull instance is returned.
+            // This indicates the source element should be removed from its parent
+            // node.
+            return JsonNull.INSTANCE;
+        }
+
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            return filterJsonObject((JsonObject)source, node, threshold);
+        }
+
+        if (source.isJsonArray())
+        {
+            // The source is a JSON array.
+            return filterJsonArray((JsonArray)source, node, threshold);
+        }
+
+        // JsonPrimitive values can't be filtered. Then, in this case, the deep
+        // copy of the original element is returned.
+        return source.deepCopy();
+    }
+
+
+    private JsonElement filterJsonObject(JsonObject source, Node node, int threshold)
+    {
+        // Deep copy the source object.
+        JsonObject copiedSource = source.deepCopy();
+
+        for (Node subNode : node.getSubNodes())
+        {
+            String keyOfSubNode = subNode.getKey();
+
+            // Get the JSON element for the key from the source. A single lookup
+            // tells whether the key exists as well.
+            JsonElement newSource = copiedSource.get(keyOfSubNode);
+
+            if (newSource != null)
+            {
+                // Filter the JSON element based on the sub node.
+                JsonElement filtered = filter(newSource, subNode, threshold);
+
+                // If the filtered element is an JsonNull instance, it indicates that
+                // the element should be removed from the source. Otherwise, it should
+                // replace the existing element for the key.
+                if (filtered instanceof JsonNull)
+                {
+                    copiedSource.remove(keyOfSubNode);
+                }
+                else
+                {
+                    copiedSource.add(keyOfSubNode, filtered);
+                }
+            }
+        }
+
+        return copiedSource;
+    }
+
+
+    private JsonElement filterJsonArray(JsonArray source, Node node, int threshold)
+    {
+        if (source.size() >= threshold && ForkJoinTask.inForkJoinPool())
+        {
+            // The array is large enough. Split it into chunks and filter them
+            // in parallel on the current pool.
+            return ParallelArrays.map(source, e -> filter(e, node, threshold));
+        }
+
+        // The target JSON array we copy JSON elements into.
+        JsonArray target = new JsonArray();
+
+        // For each JSON element in the JSON array.
+        for (JsonElement e : source)
+        {
+            // Filter the JSON element based on the node. Then, add the filtered
+            // element to the target JSON object.
+            JsonElement filtered = filter(e, node, threshold);
+            target.add(filtered);
+        }
+
+        return target;
+    }
+
+
+    private JsonElement share(JsonElement source, Node node)
+    {
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, a JsonNull instance is returned.
+            // This indicates the source element should be removed from its parent
+            // node.
+            return JsonNull.INSTANCE;
+        }
+
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            return shareJsonObject((JsonObject)source, node);
+        }
+
+        if (source.isJsonArray())
+        {
+            // The source is a JSON array.
+            return shareJsonArray((JsonArray)source, node);
+        }
+
+        // JsonPrimitive values can't be filtered, and they are immutable. Then,
+        // in this case, the original element is shared.
+        return source;
+    }
+
+
+    private JsonElement shareJsonObject(JsonObject source, Node node)
+    {
+        // The target JSON object, which is created only when any member changes.
+        JsonObject target = null;
+
+        for (Node subNode : node.getSubNodes())
+        {
+            String keyOfSubNode = subNode.getKey();
+            JsonElement value   = source.get(keyOfSubNode);
+
+            if (value == null)
+            {
+                // The source has no member for the key.
+                continue;
+            }
+
+            JsonElement filtered = share(value, subNode);
+
+            if (!(filtered instanceof JsonNull) && filtered == value)
+            {
+                // The member has not changed.
+                continue;
+            }
+
+            if (target == null)
+            {
+                // The first changed member. Copy the members of the source
+                // shallowly.
+                target = shallowCopy(source);
+            }
+
+            // If the filtered element is an JsonNull instance, it indicates that
+            // the element should be removed. Otherwise, it should replace the
+            // existing element for the key.
+            if (filtered instanceof JsonNull)
+            {
+                target.remove(keyOfSubNode);
+            }
+            else
+            {
+                target.add(keyOfSubNode, filtered);
+            }
+        }
+
+        // If no member has changed, share the original source object.
+        return (target == null) ? source : target;
+    }
+
+
+    private JsonElement shareJsonArray(JsonArray source, Node node)
+    {
+        // The target JSON array, which is created only when any element changes.
+        JsonArray target = null;
+
+        for (int i = 0; i < source.size(); i++)
+        {
+            JsonElement e        = source.get(i);
+            JsonElement filtered = share(e, node);
+
+            if (target == null && filtered != e)
+            {
+                // The first changed element. Copy the preceding elements, which
+                // have not changed.
+                target = new JsonArray(source.size());
+
+                for (int j = 0; j < i; j++)
+                {
+                    target.add(source.get(j));
+                }
+            }
+
+            if (target != null)
+            {
+                target.add(filtered);
+            }
+        }
+
+        // If no element has changed, share the original source array.
+        return (target == null) ? source : target;
+    }
+
+
+    private void removeInPlace(JsonElement source, Node node)
+    {
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            removeInPlace((JsonObject)source, node);
+        }
+        else if (source.isJsonArray())
+        {
+            // The source is a JSON array. Remove the JSON elements from each
+            // element of the array based on the node.
+            for (JsonElement e : (JsonArray)source)
+            {
+                removeInPlace(e, node);
+            }
+        }
+
+        // JsonPrimitive values and null can't be filtered. Nothing to do.
+    }
+
+
+    private void removeInPlace(JsonObject source, Node node)
+    {
+        for (Node subNode : node.getSubNodes())
+        {
+            String keyOfSubNode = subNode.getKey();
+            JsonElement value   = source.get(keyOfSubNode);
+
+            if (value == null)
+            {
+                // The source has no member for the key.
+                continue;
+            }
+
+            if (subNode.getSubNodes() == null || value instanceof JsonNull)
+            {
+                // The member is excluded, or its value is null which is removed
+                // by the copying filter as well.
+                source.remove(keyOfSubNode);
+            }
+            else
+            {
+                // Remove the JSON elements from the value based on the sub node.
+                removeInPlace(value, subNode);
+            }
+        }
+    }
+
+
+    private static JsonObject shallowCopy(JsonObject source)
+    {
+        JsonObject copy = new JsonObject();
+
+        for (Map.Entry<String, JsonElement> entry : source.entrySet())
+        {
+            copy.add(entry.getKey(), entry.getValue());
+        }
+
+        return copy;
+    }
+
+
+    private void filter(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, the whole value is excluded.
+            // Write null in the same way as the tree-based filter.
+            reader.skipValue();
+            writer.nullValue();
+            return;
+        }
+
+        switch (reader.peek())
+        {
+            case BEGIN_OBJECT:
+                // The source is a JSON object.
+                filterJsonObject(reader, writer, node);
+                break;
+
+            case BEGIN_ARRAY:
+                // The source is a JSON array.
+                filterJsonArray(reader, writer, node);
+                break;
+
+            default:
+                // JsonPrimitive values and null can't be filtered. Then, in this
+                // case, the original value is copied as is.
+                JsonStreams.copy(reader, writer);
+        }
+    }
+
+
+    private void filterJsonObject(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginObject();
+        writer.beginObject();
+
+        while (reader.hasNext())
+        {
+            String key   = reader.nextName();
+            Node subNode = node.getSubNode(key);
+
+            if (subNode == null)
+            {
+                // The key is not specified. Pass the member through as is.
+                writer.name(key);
+                JsonStreams.copy(reader, writer);
+            }
+            else if (subNode.getSubNodes() == null || reader.peek() == JsonToken.NULL)
+            {
+                // The member is excluded, or its value is null which is removed
+                // by the tree-based filter as well. Skip the value without reading
+                // it.
+                reader.skipValue();
+            }
+            else
+            {
+                // Write the key and then filter the value based on the sub node.
+                writer.name(key);
+                filter(reader, writer, subNode);
+            }
+        }
+
+        reader.endObject();
+        writer.endObject();
+    }
+
+
+    private void filterJsonArray(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginArray();
+        writer.beginArray();
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        while (reader.hasNext())
+        {
+            filter(reader, writer, node);
+        }
+
+        reader.endArray();
+        writer.endArray();
+    }
+
+
+    private void filter(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // If the sub nodes are not specified, the whole value is excluded.
+            // Write null in the same way as the tree-based filter.
+            reader.skipValue();
+            writer.nullValue();
+            return;
+        }
+
+        switch (reader.peek())
+        {
+            case '{':
+                // The source is a JSON object.
+                filterJsonObject(reader, writer, node);
+                break;
+
+            case '[':
+                // The source is a JSON array.
+                filterJsonArray(reader, writer, node);
+                break;
+
+            default:
+                // JsonPrimitive values and null can't be filtered. Then, in this
+                // case, the original bytes are copied as is.
+                reader.copyValue(writer);
+        }
+    }
+
+
+    private void filterJsonObject(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginObject();
+        writer.beginObject();
+
+        while (reader.hasNext())
+        {
+            Node subNode = reader.nextName(node);
+
+            if (subNode == null)
+            {
+                // The key is not specified. Pass the member through as is.
+                reader.copyName(writer);
+                reader.copyValue(writer);
+            }
+            else if (subNode.getSubNodes() == null || reader.peek() == 'n')
+            {
+                // The member is excluded, or its value is null which is removed
+                // by the tree-based filter as well. Skip the value without copying
+                // it.
+                reader.skipValue();
+            }
+            else
+            {
+                // Copy the key and then filter the value based on the sub node.
+                reader.copyName(writer);
+                filter(reader, writer, subNode);
+            }
+        }
+
+        reader.endObject();
+        writer.endObject();
+    }
+
+
+    private void filterJsonArray(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginArray();
+        writer.beginArray();
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        while (reader.hasNext())
+        {
+            filter(reader, writer, node);
+        }
+
+        reader.endArray();
+        writer.endArray();
+    }
+
+
+    private Node parse(String nodes)
+    {
+        // Look up the cache if available. Otherwise, parse the nodes.
+        return (cache == null) ? new NodeParser().parse(nodes) : cache.get(nodes);
+    }
+}
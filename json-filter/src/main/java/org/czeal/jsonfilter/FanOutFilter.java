@@ -0,0 +1,731 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A filter applying several compiled filters to one source in a single traversal.
+ *
+ * <p>
+ * Applying N filters one by one traverses the source N times. This class
+ * traverses the source once instead: each JSON object member and each JSON array
+ * element is visited once, and it is handed to all the filters that need it. For
+ * a tree source, the N filtered trees are built at the same time. For a stream
+ * source, the source is read and tokenized once, and the N filtered values are
+ * written to N writers at the same time.
+ * </p>
+ *
+ * <p>
+ * The results are the same as those of applying each filter separately with
+ * {@link InclusionFilter} or {@link ExclusionFilter}: {@link #apply(JsonElement)}
+ * corresponds to {@link InclusionFilter#apply(JsonElement, CompiledFilter)} and
+ * {@link ExclusionFilter#apply(JsonElement, CompiledFilter)}, and {@link
+ * #apply(JsonReader, List)} corresponds to {@link InclusionFilter#apply(JsonReader,
+ * JsonWriter, CompiledFilter)} and {@link ExclusionFilter#apply(JsonReader,
+ * JsonWriter, CompiledFilter)}. Inclusion and exclusion filters can be mixed.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are immutable and can be shared across threads.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * FilterFactory factory = new FilterFactory();
+ *
+ * FanOutFilter filter = new FanOutFilter(Arrays.asList(
+ *         factory.compile(FilterType.INCLUSION, "id,title"),            // mobile
+ *         factory.compile(FilterType.INCLUSION, "id,title,body"),       // web
+ *         factory.compile(FilterType.EXCLUSION, "internal,author(email)") // partner
+ * ));
+ *
+ * // One traversal produces the three variants.
+ * List&lt;JsonElement&gt; variants = filter.apply(jsonElement);
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FanOutFilter
+{
+    /**
+     * The node indicating that a member is not written for a target.
+     */
+    private static final Node SKIP = new Node(null, null);
+
+
+    private final List<CompiledFilter> filters;
+    private final FilterType[] types;
+    private final Node[] roots;
+
+
+    /**
+     * Constructs a {@link FanOutFilter} instance applying the given compiled
+     * filters.
+     *
+     * @param filters
+     *         The compiled filters to apply. The results are returned in the same
+     *         order.
+     *
+     * @throws NullPointerException
+     *         If the list or any of the compiled filters is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the list is empty.
+     */
+    public FanOutFilter(List<CompiledFilter> filters)
+    {
+        if (filters == null)
+        {
+            // The compiled filters can't be null.
+            throw new NullPointerException("The compiled filters can't be null.");
+        }
+
+        if (filters.isEmpty())
+        {
+            // At least one compiled filter is needed.
+            throw new IllegalArgumentException("The compiled filters can't be empty.");
+        }
+
+        this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+        this.types   = new FilterType[filters.size()];
+        this.roots   = new Node[filters.size()];
+
+        for (int i = 0; i < types.length; i++)
+        {
+            CompiledFilter filter = this.filters.get(i);
+
+            if (filter == null)
+            {
+                // The compiled filter can't be null.
+                throw new NullPointerException("The compiled filter can't be null.");
+            }
+
+            types[i] = filter.getType();
+            roots[i] = filter.getNode();
+        }
+    }
+
+
+    /**
+     * Returns the compiled filters applied by this filter.
+     *
+     * @return
+     *         An unmodifiable list of the compiled filters.
+     */
+    public List<CompiledFilter> getFilters()
+    {
+        return filters;
+    }
+
+
+    /**
+     * Creates JSON elements by applying all the compiled filters to the given
+     * JSON element in a single traversal.
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @return
+     *         A list of new {@link JsonElement} instances, each of which is built
+     *         by filtering the {@code source} based on the compiled filter at the
+     *         same index.
+     */
+    public List<JsonElement> apply(JsonElement source)
+    {
+        int count = roots.length;
+
+        int[] ids             = new int[count];
+        JsonElement[] results = new JsonElement[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            ids[i] = i;
+        }
+
+        project(source, count, ids, roots.clone(), results);
+
+        return Arrays.asList(results);
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON values built by
+     * applying all the compiled filters to the writers, reading the source only
+     * once.
+     *
+     * <p>
+     * The members of a JSON object are written in the order they appear in the
+     * source. This method does not close the reader or the writers.
+     * </p>
+     *
+     * @param reader
+     *         The reader positioned at the beginning of the source JSON value.
+     *
+     * @param writers
+     *         The writers to write the filtered JSON values into. The writer at
+     *         each index receives the result of the compiled filter at the same
+     *         index.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the list of writers or any of the writers is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the number of writers differs from the number of compiled
+     *         filters.
+     */
+    public void apply(JsonReader reader, List<JsonWriter> writers) throws IOException
+    {
+        if (writers == null)
+        {
+            // The writers can't be null.
+            throw new NullPointerException("The writers can't be null.");
+        }
+
+        if (writers.size() != roots.length)
+        {
+            // One writer is needed for each compiled filter.
+            throw new IllegalArgumentException(String.format(
+                    "The number of writers is %d, but %d is expected.", writers.size(), roots.length));
+        }
+
+        int count = roots.length;
+
+        int[] ids            = new int[count];
+        JsonWriter[] targets = new JsonWriter[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            ids[i]     = i;
+            targets[i] = writers.get(i);
+
+            if (targets[i] == null)
+            {
+                // The writer can't be null.
+                throw new NullPointerException("The writer can't be null.");
+            }
+        }
+
+        project(reader, targets, count, ids, roots.clone());
+    }
+
+
+    /**
+     * Whether the given target copies the value it is given as is. The node of a
+     * target is {@code null} when the target copies a whole value.
+     */
+    private boolean copies(int id, Node node, boolean object)
+    {
+        return node == null || (object && types[id] == FilterType.INCLUSION && node.getSubNodes() == null);
+    }
+
+
+    /**
+     * Whether the given target excludes the value it is given as a whole.
+     */
+    private boolean excludes(int id, Node node)
+    {
+        return node != null && types[id] == FilterType.EXCLUSION && node.getSubNodes() == null;
+    }
+
+
+    /**
+     * Determines the node of a member for the given target.
+     *
+     * @return
+     *         The sub node, {@code null} if the member is copied as is, or {@link
+     *         #SKIP} if the member is not written.
+     */
+    private Node memberNode(int id, Node node, String key, boolean valueIsNull)
+    {
+        if (node == null)
+        {
+            // The target copies the whole object, so it copies the member as well.
+            return null;
+        }
+
+        Node subNode = node.getSubNode(key);
+
+        if (types[id] == FilterType.INCLUSION)
+        {
+            // Only the specified members are included.
+            return (subNode == null) ? SKIP : subNode;
+        }
+
+        if (subNode == null)
+        {
+            // The member is not specified. Pass it through as is.
+            return null;
+        }
+
+        if (subNode.getSubNodes() == null || valueIsNull)
+        {
+            // The member is excluded, or its value is null which is removed as
+            // well.
+            return SKIP;
+        }
+
+        return subNode;
+    }
+
+
+    private void project(JsonElement source, int count, int[] ids, Node[] nodes, JsonElement[] results)
+    {
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null. It's null for all the targets.
+            Arrays.fill(results, 0, count, JsonNull.INSTANCE);
+            return;
+        }
+
+        if (source.isJsonPrimitive())
+        {
+            // JsonPrimitive values can't be filtered. They are copied unless the
+            // whole value is excluded.
+            for (int k = 0; k < count; k++)
+            {
+                results[k] = excludes(ids[k], nodes[k]) ? JsonNull.INSTANCE : source.deepCopy();
+            }
+
+            return;
+        }
+
+        boolean object = source.isJsonObject();
+
+        // Count the targets which filter the source. The others either exclude or
+        // copy it as a whole.
+        int active = 0;
+
+        for (int k = 0; k < count; k++)
+        {
+            if (excludes(ids[k], nodes[k]))
+            {
+                results[k] = JsonNull.INSTANCE;
+            }
+            else if (copies(ids[k], nodes[k], object))
+            {
+                // Each target gets its own copy.
+                results[k] = source.deepCopy();
+            }
+            else
+            {
+                active++;
+            }
+        }
+
+        if (active == count)
+        {
+            // All the targets filter the source. This is the common case.
+            projectJsonContainer(source, object, count, ids, nodes, results);
+            return;
+        }
+
+        if (active == 0)
+        {
+            return;
+        }
+
+        int[] activeIds        = new int[active];
+        int[] activeIndexes    = new int[active];
+        Node[] activeNodes     = new Node[active];
+        JsonElement[] filtered = new JsonElement[active];
+
+        for (int k = 0, j = 0; k < count; k++)
+        {
+            if (!excludes(ids[k], nodes[k]) && !copies(ids[k], nodes[k], object))
+            {
+                activeIds[j]     = ids[k];
+                activeIndexes[j] = k;
+                activeNodes[j]   = nodes[k];
+                j++;
+            }
+        }
+
+        projectJsonContainer(source, object, active, activeIds, activeNodes, filtered);
+
+        for (int j = 0; j < active; j++)
+        {
+            results[activeIndexes[j]] = filtered[j];
+        }
+    }
+
+
+    private void projectJsonContainer(
+            JsonElement source, boolean object, int count, int[] ids, Node[] nodes, JsonElement[] results)
+    {
+        if (object)
+        {
+            projectJsonObject((JsonObject)source, count, ids, nodes, results);
+        }
+        else
+        {
+            projectJsonArray((JsonArray)source, count, ids, nodes, results);
+        }
+    }
+
+
+    private void projectJsonObject(JsonObject source, int count, int[] ids, Node[] nodes, JsonElement[] results)
+    {
+        JsonObject[] targets = new JsonObject[count];
+
+        for (int k = 0; k < count; k++)
+        {
+            targets[k] = new JsonObject();
+        }
+
+        int[] childIds       = new int[count];
+        int[] childIndexes   = new int[count];
+        Node[] childNodes    = new Node[count];
+        JsonElement[] values = new JsonElement[count];
+
+        for (Map.Entry<String, JsonElement> member : source.entrySet())
+        {
+            String key        = member.getKey();
+            JsonElement value = member.getValue();
+
+            // Collect the targets which need the member.
+            int children = 0;
+
+            for (int k = 0; k < count; k++)
+            {
+                Node childNode = memberNode(ids[k], nodes[k], key, value instanceof JsonNull);
+
+                if (childNode == SKIP)
+                {
+                    // The member is not written for the target.
+                    continue;
+                }
+
+                childIds[children]     = ids[k];
+                childIndexes[children] = k;
+                childNodes[children]   = childNode;
+                children++;
+            }
+
+            if (children == 0)
+            {
+                continue;
+            }
+
+            // Filter the member value once for all the targets which need it.
+            project(value, children, childIds, childNodes, values);
+
+            for (int j = 0; j < children; j++)
+            {
+                targets[childIndexes[j]].add(key, values[j]);
+            }
+        }
+
+        for (int k = 0; k < count; k++)
+        {
+            results[k] = (types[ids[k]] == FilterType.INCLUSION) ? reorder(targets[k], nodes[k]) : targets[k];
+        }
+    }
+
+
+    /**
+     * Reorders the members of a filtered object in the order of the sub nodes, in
+     * the same way as {@link InclusionFilter}.
+     */
+    private static JsonObject reorder(JsonObject target, Node node)
+    {
+        if (target.size() < 2 || isOrdered(target, node))
+        {
+            return target;
+        }
+
+        JsonObject reordered = new JsonObject();
+
+        for (Node subNode : node.getSubNodes())
+        {
+            JsonElement value = target.get(subNode.getKey());
+
+            if (value != null)
+            {
+                reordered.add(subNode.getKey(), value);
+            }
+        }
+
+        return reordered;
+    }
+
+
+    /**
+     * Whether the members of the filtered object are already in the order of the
+     * sub nodes.
+     */
+    private static boolean isOrdered(JsonObject target, Node node)
+    {
+        int i = 0;
+        List<Node> subNodes = node.getSubNodes();
+
+        for (String key : target.keySet())
+        {
+            while (i < subNodes.size() && !subNodes.get(i).getKey().equals(key))
+            {
+                i++;
+            }
+
+            if (i == subNodes.size())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private void projectJsonArray(JsonArray source, int count, int[] ids, Node[] nodes, JsonElement[] results)
+    {
+        JsonArray[] targets = new JsonArray[count];
+
+        for (int k = 0; k < count; k++)
+        {
+            targets[k] = new JsonArray(source.size());
+        }
+
+        JsonElement[] values = new JsonElement[count];
+
+        // For each JSON element in the JSON array, filter the element once for all
+        // the targets.
+        for (JsonElement e : source)
+        {
+            project(e, count, ids, nodes, values);
+
+            for (int k = 0; k < count; k++)
+            {
+                targets[k].add(values[k]);
+            }
+        }
+
+        System.arraycopy(targets, 0, results, 0, count);
+    }
+
+
+    private void project(JsonReader reader, JsonWriter[] writers, int count, int[] ids, Node[] nodes) throws IOException
+    {
+        JsonToken token = reader.peek();
+
+        if (token == JsonToken.BEGIN_OBJECT)
+        {
+            projectJsonObject(reader, writers, count, ids, nodes);
+        }
+        else if (token == JsonToken.BEGIN_ARRAY)
+        {
+            projectJsonArray(reader, writers, count, ids, nodes);
+        }
+        else
+        {
+            projectPrimitive(reader, writers, count, ids, nodes, token);
+        }
+    }
+
+
+    private void projectPrimitive(
+            JsonReader reader, JsonWriter[] writers, int count, int[] ids, Node[] nodes, JsonToken token) throws IOException
+    {
+        // Read the value once and write it for all the targets.
+        String value = null;
+        boolean flag = false;
+
+        switch (token)
+        {
+            case STRING:
+            case NUMBER:
+                value = reader.nextString();
+                break;
+
+            case BOOLEAN:
+                flag = reader.nextBoolean();
+                break;
+
+            case NULL:
+                reader.nextNull();
+                break;
+
+            default:
+                throw new IllegalStateException("Unexpected token: " + token);
+        }
+
+        for (int k = 0; k < count; k++)
+        {
+            JsonWriter writer = writers[ids[k]];
+
+            if (excludes(ids[k], nodes[k]) || token == JsonToken.NULL)
+            {
+                writer.nullValue();
+            }
+            else if (token == JsonToken.STRING)
+            {
+                writer.value(value);
+            }
+            else if (token == JsonToken.NUMBER)
+            {
+                writer.jsonValue(value);
+            }
+            else
+            {
+                writer.value(flag);
+            }
+        }
+    }
+
+
+    private void projectJsonObject(JsonReader reader, JsonWriter[] writers, int count, int[] ids, Node[] nodes) throws IOException
+    {
+        // The targets which write the object. The others exclude it as a whole.
+        int active = 0;
+        int[] activeIds    = new int[count];
+        Node[] activeNodes = new Node[count];
+
+        for (int k = 0; k < count; k++)
+        {
+            if (excludes(ids[k], nodes[k]))
+            {
+                writers[ids[k]].nullValue();
+                continue;
+            }
+
+            activeIds[active]   = ids[k];
+            activeNodes[active] = copies(ids[k], nodes[k], true) ? null : nodes[k];
+            active++;
+
+            writers[ids[k]].beginObject();
+        }
+
+        if (active == 0)
+        {
+            reader.skipValue();
+            return;
+        }
+
+        int[] childIds    = new int[active];
+        Node[] childNodes = new Node[active];
+
+        reader.beginObject();
+
+        while (reader.hasNext())
+        {
+            String key = reader.nextName();
+
+            boolean valueIsNull = (reader.peek() == JsonToken.NULL);
+
+            int children = 0;
+
+            for (int k = 0; k < active; k++)
+            {
+                int id    = activeIds[k];
+                Node node = activeNodes[k];
+
+                Node childNode = memberNode(id, node, key, valueIsNull);
+
+                if (childNode == SKIP)
+                {
+                    // The member is not written for the target.
+                    continue;
+                }
+
+                writers[id].name(key);
+
+                childIds[children]   = id;
+                childNodes[children] = childNode;
+                children++;
+            }
+
+            if (children == 0)
+            {
+                // No target needs the member. Skip the value without reading it.
+                reader.skipValue();
+                continue;
+            }
+
+            project(reader, writers, children, childIds, childNodes);
+        }
+
+        reader.endObject();
+
+        for (int k = 0; k < active; k++)
+        {
+            writers[activeIds[k]].endObject();
+        }
+    }
+
+
+    private void projectJsonArray(JsonReader reader, JsonWriter[] writers, int count, int[] ids, Node[] nodes) throws IOException
+    {
+        // The targets which write the array. The others exclude it as a whole.
+        int active = 0;
+        int[] activeIds    = new int[count];
+        Node[] activeNodes = new Node[count];
+
+        for (int k = 0; k < count; k++)
+        {
+            if (excludes(ids[k], nodes[k]))
+            {
+                writers[ids[k]].nullValue();
+                continue;
+            }
+
+            activeIds[active]   = ids[k];
+            activeNodes[active] = nodes[k];
+            active++;
+
+            writers[ids[k]].beginArray();
+        }
+
+        if (active == 0)
+        {
+            reader.skipValue();
+            return;
+        }
+
+        reader.beginArray();
+
+        // For each JSON element in the JSON array, filter the element once for all
+        // the targets.
+        while (reader.hasNext())
+        {
+            project(reader, writers, active, activeIds, activeNodes);
+        }
+
+        reader.endArray();
+
+        for (int k = 0; k < active; k++)
+        {
+            writers[activeIds[k]].endArray();
+        }
+    }
+}
@@ -68,4 +68,52 @@ public interface Filter
      *         source} object based on the given {@code nodes} string.
      */
     public JsonElement apply(JsonElement source, String nodes);
+
+
+    /**
+     * Applies the filtering strategy to the target {@code source} based on the
+     * given compiled filter.
+     *
+     * <p>
+     * Unlike {@link #apply(JsonElement, String)}, the filters created by {@link
+     * FilterFactory} do not parse any filter expression in this method. Use {@link
+     * FilterFactory#compile(FilterType, String)} to compile an expression once and
+     * apply it repeatedly.
+     * </p>
+     *
+     * <p>
+     * The default implementation applies the normalized expression of the
+     * compiled filter (see {@link CompiledFilter#getExpression()}) by {@link
+     * #apply(JsonElement, String)}, so implementations written before this method
+     * was added keep working, though they parse the expression on every call. It
+     * can't tell the filter type of this filter, so the type of the compiled
+     * filter is not checked; implementations which know their type should
+     * override this method.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         The compiled filter.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source} object based on the given compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     */
+    public default JsonElement apply(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        // Apply the normalized expression, which has the same meaning as the
+        // compiled node tree.
+        return apply(source, filter.getExpression());
+    }
 }
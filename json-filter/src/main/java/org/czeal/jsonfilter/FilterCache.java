@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A bounded, thread-safe cache of parsed filter expressions.
+ *
+ * <p>
+ * This cache memoizes the merged node trees built from filter expressions, keyed
+ * by the raw expression string. When a filter is created with a cache (see {@link
+ * FilterFactory#FilterFactory(FilterCache)}), parsing an expression that has been
+ * seen before costs a single hash lookup.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free. The number of cached expressions is bounded by the
+ * maximum size given on construction. When the cache is full, an entry is evicted
+ * using the CLOCK algorithm, which approximates LRU eviction: entries that have
+ * been used since the last eviction sweep are given a second chance, and the
+ * first entry that has not been used is evicted.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * // A cache which holds up to 1000 filter expressions.
+ * FilterCache cache = new FilterCache(1000);
+ *
+ * Filter filter = new FilterFactory(cache).create(FilterType.INCLUSION);
+ *
+ * // The expression "a,b" is parsed only once.
+ * filter.apply(jsonElement1, "a,b");
+ * filter.apply(jsonElement2, "a,b");
+ *
+ * System.out.println(cache.getHitCount());  // 1
+ * System.out.println(cache.getMissCount()); // 1
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilterCache
+{
+    /**
+     * A cache entry.
+     */
+    private static final class Entry
+    {
+        private final String key;
+        private final Node node;
+
+        /**
+         * Whether this entry has been used since the last eviction sweep.
+         */
+        private volatile boolean referenced;
+
+
+        private Entry(String key, Node node)
+        {
+            this.key  = key;
+            this.node = node;
+        }
+    }
+
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final Object evictionLock = new Object();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Constructs a {@link FilterCache} instance with the given maximum size.
+     *
+     * @param maximumSize
+     *         The maximum number of filter expressions held by this cache.
+     *
+     * @throws IllegalArgumentException
+     *         If the maximum size is less than 1.
+     */
+    public FilterCache(int maximumSize)
+    {
+        if (maximumSize < 1)
+        {
+            // The maximum size must be positive.
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+
+        this.maximumSize = maximumSize;
+    }
+
+
+    /**
+     * Returns the maximum number of filter expressions held by this cache.
+     *
+     * @return
+     *         The maximum size of this cache.
+     */
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+
+    /**
+     * Returns the number of filter expressions currently held by this cache.
+     *
+     * @return
+     *         The number of cached filter expressions.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+
+    /**
+     * Returns the number of lookups that found a cached node tree.
+     *
+     * @return
+     *         The hit count.
+     */
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+
+    /**
+     * Returns the number of lookups that had to parse the filter expression.
+     *
+     * @return
+     *         The miss count.
+     */
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+
+    /**
+     * Returns the number of entries evicted because the cache was full.
+     *
+     * @return
+     *         The eviction count.
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
+
+
+    /**
+     * Removes all the cached filter expressions. The hit, miss and eviction
+     * counts are not reset.
+     */
+    public void clear()
+    {
+        // Clear the clock first. An entry added to the map after this point
+        // is always added to the clock after this point as well.
+        clock.clear();
+        entries.clear();
+    }
+
+
+    /**
+     * Returns the merged node tree for the given filter expression, parsing it
+     * only if it is not cached.
+     *
+     * @param nodes
+     *         The filter expression.
+     *
+     * @return
+     *         The merged node tree.
+     *
+     * @throws IllegalArgumentException
+     *         If the filter expression has invalid syntax.
+     */
+    Node get(String nodes)
+    {
+        if (nodes == null)
+        {
+            // A null expression can't be a key of the map, and parsing it is
+            // trivial anyway.
+            return new NodeParser().parse(null);
+        }
+
+        Entry entry = entries.get(nodes);
+
+        if (entry != null)
+        {
+            hitCount.increment();
+
+            // Avoid the volatile write when the entry is already marked.
+            if (!entry.referenced)
+            {
+                entry.referenced = true;
+            }
+
+            return entry.node;
+        }
+
+        missCount.increment();
+
+        // Parse the expression. An invalid expression throws here and is never
+        // cached.
+        Entry created = new Entry(nodes, new NodeParser().parse(nodes));
+        Entry existing = entries.putIfAbsent(nodes, created);
+
+        if (existing != null)
+        {
+            // Another thread has cached the same expression in the meantime.
+            return existing.node;
+        }
+
+        clock.add(created);
+
+        if (entries.size() > maximumSize)
+        {
+            evict();
+        }
+
+        return created.node;
+    }
+
+
+    private void evict()
+    {
+        synchronized (evictionLock)
+        {
+            while (entries.size() > maximumSize)
+            {
+                Entry candidate = clock.poll();
+
+                if (candidate == null)
+                {
+                    return;
+                }
+
+                if (candidate.referenced)
+                {
+                    // Give the entry a second chance.
+                    candidate.referenced = false;
+                    clock.add(candidate);
+                }
+                else if (entries.remove(candidate.key, candidate))
+                {
+                    evictionCount.increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import com.google.gson.JsonElement;
+
+
+/**
+ * A factory class for creating filtering strategy implementations.
+ *
+ * <p>This factory provides instances of filters that can either include or exclude
+ * specified JSON elements based on a given filtering strategy.</p>
+ *
+ * <p>Supported filtering strategies:</p>
+ * <ul>
+ * <li>{@code INCLUSION} - Retains only the specified JSON elements.</li>
+ * <li>{@code EXCLUSION} - Removes the specified JSON elements.</li>
+ * </ul>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * FilterFactory factory = new FilterFactory();
+ *
+ * Filter filter = factory.create(FilterType.INCLUSION);
+ *
+ * // A factory whose filters cache parsed filter expressions.
+ * Filter cachingFilter = new FilterFactory(new FilterCache(1000)).create(FilterType.INCLUSION);
+ *
+ * CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a,b(c)");
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public class FilterFactory
+{
+    private final FilterCache cache;
+
+
+    /**
+     * Constructs a {@link FilterFactory} instance whose filters parse the filter
+     * expression on every call.
+     */
+    public FilterFactory()
+    {
+        this(null);
+    }
+
+
+    /**
+     * Constructs a {@link FilterFactory} instance whose filters and compiled
+     * filters look up parsed filter expressions in the given cache.
+     *
+     * @param cache
+     *         The cache of parsed filter expressions, or {@code null} to parse
+     *         the filter expression on every call.
+     */
+    public FilterFactory(FilterCache cache)
+    {
+        this.cache = cache;
+    }
+
+
+    /**
+     * Creates a filter based on the given filter type.
+     *
+     * @param type
+     *         The filter type.
+     *
+     * @return
+     *         A filter implementation.
+     *
+     * @throws NullPointerException
+     *         If the filter type is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the filter type is unknown.
+     */
+    public Filter create(FilterType type)
+    {
+        if (type == null)
+        {
+            // The filter type can't be null.
+            throw new NullPointerException("The filter type can't be null.");
+        }
+
+        switch (type)
+        {
+            case INCLUSION:
+                // Create an inclusion filter.
+                return new InclusionFilter(cache);
+
+            case EXCLUSION:
+                // Create an exclusion filter.
+                return new ExclusionFilter(cache);
+
+            default:
+                // Unknown filter type.
+                throw new IllegalArgumentException("Unknown filter type.");
+        }
+    }
+
+
+    /**
+     * Compiles the given filter expression into a {@link CompiledFilter}.
+     *
+     * <p>
+     * The expression is parsed and merged only once here. The returned compiled
+     * filter is immutable and can be applied repeatedly, from any thread, by
+     * {@link Filter#apply(JsonElement, CompiledFilter)}.
+     * </p>
+     *
+     * @param type
+     *         The filter type.
+     *
+     * @param nodes
+     *         A comma-separated string defining JSON nodes. Each node can specify
+     *         nested fields using parentheses.
+     *
+     * @return
+     *         A compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the filter type is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the filter expression has invalid syntax.
+     */
+    public CompiledFilter compile(FilterType type, String nodes)
+    {
+        return compile(type, nodes, CompiledFilter.NEVER);
+    }
+
+
+    /**
+     * Compiles the given filter expression into a {@link CompiledFilter} which is
+     * specialized for its node tree after the given number of uses.
+     *
+     * <p>
+     * The compiled filter is interpreted for the first {@code specializeAfter}
+     * applications by {@link InclusionFilter#apply(JsonElement, CompiledFilter)}.
+     * After that, a class specialized for the node tree is generated once and
+     * used instead. The class has the keys of each level as constants and checks
+     * them in straight-line code, which pays off for the few expressions that
+     * are applied most often. The results are the same either way.
+     * </p>
+     *
+     * <p>
+     * Each specialized filter defines a class which is never unloaded, so
+     * compile the expressions applied most often once and keep the compiled
+     * filters. If the class can't be generated, e.g. because the node tree is
+     * too large, the filter keeps being interpreted.
+     * </p>
+     *
+     * <p>
+     * Only inclusion filters are specialized. For exclusion filters, this method
+     * behaves in the same way as {@link #compile(FilterType, String)}.
+     * </p>
+     *
+     * @param type
+     *         The filter type.
+     *
+     * @param nodes
+     *         A comma-separated string defining JSON nodes. Each node can specify
+     *         nested fields using parentheses.
+     *
+     * @param specializeAfter
+     *         The number of uses after which the compiled filter is specialized.
+     *         {@code 0} specializes it on the first use.
+     *
+     * @return
+     *         A compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the filter type is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the filter expression has invalid syntax or {@code
+     *         specializeAfter} is negative.
+     */
+    public CompiledFilter compile(FilterType type, String nodes, int specializeAfter)
+    {
+        if (type == null)
+        {
+            // The filter type can't be null.
+            throw new NullPointerException("The filter type can't be null.");
+        }
+
+        if (specializeAfter < 0)
+        {
+            // The number of uses can't be negative.
+            throw new IllegalArgumentException("The number of uses can't be negative.");
+        }
+
+        // Look up the cache if available. Otherwise, parse the nodes.
+        Node node = (cache == null) ? new NodeParser().parse(nodes) : cache.get(nodes);
+
+        return new CompiledFilter(type, node, specializeAfter);
+    }
+
+
+    /**
+     * Composes an inclusion filter and an exclusion filter into a {@link
+     * ComposedFilter} which applies both in a single pass.
+     *
+     * <p>
+     * Applying the returned filter is equivalent to applying the inclusion
+     * filter and then applying the exclusion filter to the result. The two node
+     * trees are combined here, once: members which are included but excluded as a
+     * whole are removed from the program, and the parts of the trees where only
+     * one of the filters applies are handed to that filter as they are.
+     * </p>
+     *
+     * @param inclusion
+     *         A compiled inclusion filter, applied first.
+     *
+     * @param exclusion
+     *         A compiled exclusion filter, applied second.
+     *
+     * @return
+     *         A composed filter.
+     *
+     * @throws NullPointerException
+     *         If either of the compiled filters is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If {@code inclusion} is not an inclusion filter or {@code
+     *         exclusion} is not an exclusion filter.
+     */
+    public ComposedFilter compose(CompiledFilter inclusion, CompiledFilter exclusion)
+    {
+        if (inclusion == null || exclusion == null)
+        {
+            // The compiled filters can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return new ComposedFilter(new NodeComposer().compose(
+                inclusion.getNode(FilterType.INCLUSION), exclusion.getNode(FilterType.EXCLUSION)));
+    }
+}
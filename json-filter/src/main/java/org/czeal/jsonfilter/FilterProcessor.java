@@ -0,0 +1,620 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import com.google.gson.JsonElement;
+
+
+/**
+ * A {@link Flow.Processor} which applies a compiled filter to the items flowing
+ * through it.
+ *
+ * <p>
+ * The processor is created by one of the factory methods:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #forElements(CompiledFilter)} filters each {@link JsonElement} item
+ * on the thread delivering it, by {@link InclusionFilter#apply(JsonElement,
+ * CompiledFilter)} or {@link ExclusionFilter#apply(JsonElement,
+ * CompiledFilter)}.</li>
+ * <li>{@link #forElements(CompiledFilter, Executor, int)} filters up to the given
+ * number of {@link JsonElement} items at the same time on the executor, and
+ * publishes the results in the order of the items.</li>
+ * <li>{@link #forChunks(CompiledFilter)} filters a UTF-8 encoded JSON value
+ * received as a sequence of {@link ByteBuffer} chunks with a {@link
+ * NonBlockingFilter}, and publishes the filtered bytes as they become
+ * available.</li>
+ * </ul>
+ *
+ * <p>
+ * The processor honors backpressure. Filtering on the delivering thread, it
+ * requests an item from the upstream only when the downstream has requested a
+ * result for it. Filtering on an executor, it requests items ahead of the demand
+ * so that they are filtered in parallel, but keeps at most as many items as the
+ * parallelism in progress or waiting for the demand. A failure of the filter cancels the
+ * upstream and is signaled to the downstream by {@code onError}. Only one
+ * subscriber is supported, and a processor can't be reused.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * // Filter 4 documents at a time on the common pool.
+ * FilterProcessor&lt;JsonElement&gt; processor =
+ *         FilterProcessor.forElements(compiled, ForkJoinPool.commonPool(), 4);
+ *
+ * publisher.subscribe(processor);
+ * processor.subscribe(subscriber);
+ * </code>
+ * </pre>
+ *
+ * @param <T>
+ *         The type of the items and the results.
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilterProcessor<T> implements Flow.Processor<T, T>
+{
+    /**
+     * An item in progress, and its result once done.
+     */
+    private static final class Slot<T>
+    {
+        T value;
+        Throwable error;
+        volatile boolean done;
+    }
+
+
+    /**
+     * Filters an item. A {@code null} result is not published.
+     */
+    private final Function<T, T> mapper;
+
+
+    /**
+     * Produces the last result after the upstream has completed, or {@code null}.
+     */
+    private final Supplier<T> finisher;
+
+
+    /**
+     * The executor to filter the items on, or {@code null} to filter them on the
+     * thread delivering them.
+     */
+    private final Executor executor;
+    private final int parallelism;
+
+
+    /**
+     * The items in progress and done, in the order of the items.
+     */
+    private final Queue<Slot<T>> slots = new ConcurrentLinkedQueue<>();
+
+
+    /**
+     * The number of results requested by the downstream.
+     */
+    private final AtomicLong requested = new AtomicLong();
+
+
+    /**
+     * The number of the threads wanting to run the drain loop.
+     */
+    private final AtomicInteger wip = new AtomicInteger();
+
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super T> downstream;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile boolean cancelled;
+
+
+    /**
+     * The fields below are accessed only in the drain loop: the number of the
+     * results published, the number of the items requested from the upstream
+     * and not taken from the slots yet, and whether a terminal signal has been
+     * sent.
+     */
+    private long emitted;
+    private long outstanding;
+    private boolean terminated;
+
+
+    private FilterProcessor(Function<T, T> mapper, Supplier<T> finisher, Executor executor, int parallelism)
+    {
+        this.mapper      = mapper;
+        this.finisher    = finisher;
+        this.executor    = executor;
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Creates a processor which filters {@link JsonElement} items on the thread
+     * delivering them.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @return
+     *         A new processor.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     */
+    public static FilterProcessor<JsonElement> forElements(CompiledFilter filter)
+    {
+        return new FilterProcessor<>(elementMapper(filter), null, null, 1);
+    }
+
+
+    /**
+     * Creates a processor which filters up to the given number of {@link
+     * JsonElement} items at the same time on the executor.
+     *
+     * <p>
+     * The results are published in the order of the items, from the threads of
+     * the executor.
+     * </p>
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @param executor
+     *         The executor to filter the items on.
+     *
+     * @param parallelism
+     *         The maximum number of the items filtered at the same time.
+     *
+     * @return
+     *         A new processor.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the executor is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the parallelism is less than 1.
+     */
+    public static FilterProcessor<JsonElement> forElements(CompiledFilter filter, Executor executor, int parallelism)
+    {
+        if (executor == null)
+        {
+            // The executor can't be null.
+            throw new NullPointerException("The executor can't be null.");
+        }
+
+        if (parallelism < 1)
+        {
+            // The parallelism must be positive.
+            throw new IllegalArgumentException("The parallelism must be positive.");
+        }
+
+        return new FilterProcessor<>(elementMapper(filter), null, executor, parallelism);
+    }
+
+
+    /**
+     * Creates a processor which filters a UTF-8 encoded JSON value received as a
+     * sequence of {@link ByteBuffer} chunks.
+     *
+     * <p>
+     * Each result holds the filtered bytes produced by one chunk, or by the end of
+     * the source. Chunks which produce no bytes have no result. The results are
+     * the same as the output of {@link NonBlockingFilter}, and a malformed source
+     * is signaled by {@code onError} with an {@link UncheckedIOException}.
+     * </p>
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @return
+     *         A new processor.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     */
+    public static FilterProcessor<ByteBuffer> forChunks(CompiledFilter filter)
+    {
+        NonBlockingFilter nonBlocking = new NonBlockingFilter(filter);
+
+        return new FilterProcessor<>(
+            chunk -> {
+                try
+                {
+                    nonBlocking.feed(chunk);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+
+                return drain(nonBlocking);
+            },
+            () -> {
+                try
+                {
+                    nonBlocking.end();
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+
+                return drain(nonBlocking);
+            },
+            null, 1);
+    }
+
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber)
+    {
+        if (subscriber == null)
+        {
+            // The subscriber can't be null.
+            throw new NullPointerException("The subscriber can't be null.");
+        }
+
+        if (!subscribed.compareAndSet(false, true))
+        {
+            // Only one subscriber is supported.
+            subscriber.onSubscribe(new Flow.Subscription()
+            {
+                @Override
+                public void request(long n)
+                {
+                }
+
+
+                @Override
+                public void cancel()
+                {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The processor already has a subscriber."));
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription()
+        {
+            @Override
+            public void request(long n)
+            {
+                if (n <= 0)
+                {
+                    // A non-positive request is a violation of the specification.
+                    upstreamError = new IllegalArgumentException("The number of requested items must be positive.");
+                    cancelUpstream();
+                }
+                else
+                {
+                    requested.getAndUpdate(r -> (Long.MAX_VALUE - r < n) ? Long.MAX_VALUE : r + n);
+                }
+
+                drain();
+            }
+
+
+            @Override
+            public void cancel()
+            {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+
+        downstream = subscriber;
+        drain();
+    }
+
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription)
+    {
+        if (upstream != null || cancelled)
+        {
+            // Already subscribed to a publisher, or cancelled.
+            subscription.cancel();
+            return;
+        }
+
+        upstream = subscription;
+        drain();
+    }
+
+
+    @Override
+    public void onNext(T item)
+    {
+        if (item == null)
+        {
+            // The item can't be null (rule 2.13 of Reactive Streams).
+            throw new NullPointerException("The item can't be null.");
+        }
+
+        Slot<T> slot = new Slot<>();
+
+        slots.add(slot);
+
+        if (executor == null)
+        {
+            // Filter the item on this thread.
+            process(slot, item);
+            return;
+        }
+
+        try
+        {
+            executor.execute(() -> process(slot, item));
+        }
+        catch (RuntimeException e)
+        {
+            // The executor has rejected the task.
+            slot.error = e;
+            slot.done  = true;
+            drain();
+        }
+    }
+
+
+    @Override
+    public void onError(Throwable throwable)
+    {
+        upstreamError = throwable;
+        upstreamDone  = true;
+        drain();
+    }
+
+
+    @Override
+    public void onComplete()
+    {
+        if (finisher != null)
+        {
+            // The last result, produced after all the items.
+            Slot<T> slot = new Slot<>();
+
+            slots.add(slot);
+
+            try
+            {
+                slot.value = finisher.get();
+            }
+            catch (RuntimeException e)
+            {
+                slot.error = e;
+            }
+
+            slot.done = true;
+        }
+
+        upstreamDone = true;
+        drain();
+    }
+
+
+    private void process(Slot<T> slot, T item)
+    {
+        try
+        {
+            slot.value = mapper.apply(item);
+        }
+        catch (RuntimeException e)
+        {
+            slot.error = e;
+        }
+
+        slot.done = true;
+        drain();
+    }
+
+
+    /**
+     * Publishes the results done in order as the demand allows, sends a terminal
+     * signal when due, and requests more items from the upstream. Only one
+     * thread runs the loop at a time.
+     */
+    private void drain()
+    {
+        if (wip.getAndIncrement() != 0)
+        {
+            // Another thread is running the loop, and will run it once more.
+            return;
+        }
+
+        int missed = 1;
+
+        do
+        {
+            Flow.Subscriber<? super T> subscriber = downstream;
+
+            if (!terminated && subscriber != null)
+            {
+                emit(subscriber);
+            }
+
+            missed = wip.addAndGet(-missed);
+        }
+        while (missed != 0);
+    }
+
+
+    private void emit(Flow.Subscriber<? super T> subscriber)
+    {
+        if (cancelled)
+        {
+            terminated = true;
+            slots.clear();
+            return;
+        }
+
+        Throwable error = upstreamError;
+
+        if (error != null)
+        {
+            // The upstream has failed. Signal the error without waiting for the
+            // items in progress.
+            terminate(subscriber, error);
+            return;
+        }
+
+        for (Slot<T> slot = slots.peek(); slot != null && slot.done; slot = slots.peek())
+        {
+            if (slot.error != null)
+            {
+                // The filter has failed.
+                cancelUpstream();
+                terminate(subscriber, slot.error);
+                return;
+            }
+
+            if (slot.value != null && emitted == requested.get())
+            {
+                // No more demand.
+                break;
+            }
+
+            slots.poll();
+            outstanding--;
+
+            if (slot.value != null)
+            {
+                emitted++;
+                subscriber.onNext(slot.value);
+            }
+
+            if (cancelled)
+            {
+                // Cancelled by the subscriber in onNext.
+                terminated = true;
+                slots.clear();
+                return;
+            }
+        }
+
+        if (upstreamDone)
+        {
+            if (slots.isEmpty())
+            {
+                // Everything has been published.
+                terminated = true;
+                subscriber.onComplete();
+            }
+
+            return;
+        }
+
+        Flow.Subscription subscription = upstream;
+
+        if (subscription == null)
+        {
+            return;
+        }
+
+        // Request as many items as the demand not covered by the items in
+        // progress. On an executor, read ahead up to the parallelism so that the
+        // items are filtered while the earlier results wait for the demand.
+        long limit = (executor == null) ? requested.get() - emitted : parallelism;
+        long want  = Math.min(parallelism, limit) - outstanding;
+
+        if (want > 0)
+        {
+            outstanding += want;
+            subscription.request(want);
+        }
+    }
+
+
+    private void terminate(Flow.Subscriber<? super T> subscriber, Throwable error)
+    {
+        terminated = true;
+        slots.clear();
+        subscriber.onError(error);
+    }
+
+
+    private void cancelUpstream()
+    {
+        Flow.Subscription subscription = upstream;
+
+        if (subscription != null)
+        {
+            subscription.cancel();
+        }
+    }
+
+
+    private static Function<JsonElement, JsonElement> elementMapper(CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        if (filter.getType() == FilterType.INCLUSION)
+        {
+            InclusionFilter inclusionFilter = new InclusionFilter();
+
+            return element -> inclusionFilter.apply(element, filter);
+        }
+
+        ExclusionFilter exclusionFilter = new ExclusionFilter();
+
+        return element -> exclusionFilter.apply(element, filter);
+    }
+
+
+    /**
+     * Takes the pending output of the filter, or returns {@code null} if there is
+     * none.
+     */
+    private static ByteBuffer drain(NonBlockingFilter filter)
+    {
+        if (filter.pending() == 0)
+        {
+            return null;
+        }
+
+        ByteBuffer output = ByteBuffer.allocate(filter.pending());
+
+        filter.drain(output);
+
+        return output.flip();
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A lazy, read-only view of the result of filtering a JSON element.
+ *
+ * <p>
+ * A view is returned by {@link InclusionFilter#view(JsonElement, CompiledFilter)}
+ * and {@link ExclusionFilter#view(JsonElement, CompiledFilter)}. It holds the
+ * source and the node tree of the filter, and copies nothing up front. The
+ * members and the elements of a view are views as well, which are computed on
+ * their first access. {@link #write(JsonWriter)} and {@link #toString()}
+ * serialize the result directly from the source, and {@link #toJsonElement()}
+ * builds the result as a new {@link JsonElement}.
+ * </p>
+ *
+ * <p>
+ * A view represents the same JSON as {@link InclusionFilter#apply(JsonElement,
+ * CompiledFilter)} or {@link ExclusionFilter#apply(JsonElement, CompiledFilter)}
+ * would return. It is therefore cheaper than them when the result is consumed
+ * partially or written once.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE:</b> A view reads the source whenever it is accessed. The source must
+ * not be modified while the view is in use. Instances of this class are not
+ * thread-safe.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * FilteredView view = new InclusionFilter().view(jsonElement, compiled);
+ *
+ * // Only the "author" member is looked into.
+ * String name = view.get("author").get("name").toJsonElement().getAsString();
+ *
+ * // Written directly from the source.
+ * view.write(jsonWriter);
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilteredView
+{
+    /**
+     * The source of this view, which is never {@code null}.
+     */
+    private final JsonElement source;
+
+
+    /**
+     * The node which filters the source, or {@code null} if the source is taken
+     * as is. If not {@code null}, the node has sub nodes.
+     */
+    private final Node node;
+
+
+    private final boolean inclusion;
+
+
+    /**
+     * The members and the elements of this view, computed on their first access.
+     */
+    private Map<String, FilteredView> members;
+    private FilteredView[] elements;
+
+
+    private FilteredView(JsonElement source, Node node, boolean inclusion)
+    {
+        this.source    = (source == null) ? JsonNull.INSTANCE : source;
+        this.node      = (source != null && (source.isJsonObject() || source.isJsonArray())) ? node : null;
+        this.inclusion = inclusion;
+    }
+
+
+    /**
+     * Creates a view of the result of filtering the source by the root node.
+     */
+    static FilteredView of(JsonElement source, Node root, boolean inclusion)
+    {
+        if (root.getSubNodes() != null)
+        {
+            // Filter the source by the root node.
+            return new FilteredView(source, root, inclusion);
+        }
+
+        // The inclusion includes the whole source, and the exclusion excludes it.
+        return new FilteredView(inclusion ? source : JsonNull.INSTANCE, null, inclusion);
+    }
+
+
+    /**
+     * Returns whether this view is a JSON object.
+     *
+     * @return
+     *         {@code true} if this view is a JSON object.
+     */
+    public boolean isJsonObject()
+    {
+        return source.isJsonObject();
+    }
+
+
+    /**
+     * Returns whether this view is a JSON array.
+     *
+     * @return
+     *         {@code true} if this view is a JSON array.
+     */
+    public boolean isJsonArray()
+    {
+        return source.isJsonArray();
+    }
+
+
+    /**
+     * Returns whether this view is a JSON primitive.
+     *
+     * @return
+     *         {@code true} if this view is a JSON primitive.
+     */
+    public boolean isJsonPrimitive()
+    {
+        return source.isJsonPrimitive();
+    }
+
+
+    /**
+     * Returns whether this view is {@code null}.
+     *
+     * @return
+     *         {@code true} if this view is {@code null}.
+     */
+    public boolean isJsonNull()
+    {
+        return source.isJsonNull();
+    }
+
+
+    /**
+     * Returns the names of the members of this view, in the order of the result.
+     *
+     * @return
+     *         An unmodifiable set of the member names.
+     *
+     * @throws IllegalStateException
+     *         If this view is not a JSON object.
+     */
+    public Set<String> keySet()
+    {
+        return members().keySet();
+    }
+
+
+    /**
+     * Returns whether this view has a member with the given name.
+     *
+     * @param name
+     *         The name of the member.
+     *
+     * @return
+     *         {@code true} if this view has the member.
+     *
+     * @throws IllegalStateException
+     *         If this view is not a JSON object.
+     */
+    public boolean has(String name)
+    {
+        return members().containsKey(name);
+    }
+
+
+    /**
+     * Returns the view of the member with the given name.
+     *
+     * @param name
+     *         The name of the member.
+     *
+     * @return
+     *         The view of the member, or {@code null} if this view has no member
+     *         with the name.
+     *
+     * @throws IllegalStateException
+     *         If this view is not a JSON object.
+     */
+    public FilteredView get(String name)
+    {
+        return members().get(name);
+    }
+
+
+    /**
+     * Returns the view of the element at the given index.
+     *
+     * @param index
+     *         The index of the element.
+     *
+     * @return
+     *         The view of the element.
+     *
+     * @throws IllegalStateException
+     *         If this view is not a JSON array.
+     *
+     * @throws IndexOutOfBoundsException
+     *         If the index is out of range.
+     */
+    public FilteredView get(int index)
+    {
+        FilteredView[] elements = elements();
+
+        if (index < 0 || elements.length <= index)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        }
+
+        if (elements[index] == null)
+        {
+            // Array elements are filtered by the node of the array.
+            elements[index] = new FilteredView(source.getAsJsonArray().get(index), node, inclusion);
+        }
+
+        return elements[index];
+    }
+
+
+    /**
+     * Returns the number of the members or the elements of this view.
+     *
+     * @return
+     *         The number of the members if this view is a JSON object, or the
+     *         number of the elements if this view is a JSON array.
+     *
+     * @throws IllegalStateException
+     *         If this view is neither a JSON object nor a JSON array.
+     */
+    public int size()
+    {
+        if (source.isJsonArray())
+        {
+            // Array elements are never removed.
+            return source.getAsJsonArray().size();
+        }
+
+        if (!source.isJsonObject())
+        {
+            // Only a JSON object or a JSON array has a size.
+            throw new IllegalStateException("The view is neither a JSON object nor a JSON array.");
+        }
+
+        return members().size();
+    }
+
+
+    /**
+     * Builds the JSON element this view represents.
+     *
+     * <p>
+     * A new {@link JsonElement} instance is built on every call, which is equal to
+     * the result of the corresponding {@code apply} method of the filter.
+     * </p>
+     *
+     * @return
+     *         A new {@link JsonElement} instance.
+     */
+    public JsonElement toJsonElement()
+    {
+        return build(source, node);
+    }
+
+
+    /**
+     * Writes the JSON this view represents, directly from the source.
+     *
+     * @param writer
+     *         The writer to write the JSON into.
+     *
+     * @throws NullPointerException
+     *         If the writer is {@code null}.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public void write(JsonWriter writer) throws IOException
+    {
+        if (writer == null)
+        {
+            // The writer can't be null.
+            throw new NullPointerException("The writer can't be null.");
+        }
+
+        write(writer, source, node);
+    }
+
+
+    /**
+     * Returns the JSON this view represents, written directly from the source.
+     *
+     * @return
+     *         The JSON string.
+     */
+    @Override
+    public String toString()
+    {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+
+        // Write NaN and infinite numbers as JsonElement.toString() does.
+        writer.setLenient(true);
+
+        try
+        {
+            write(writer);
+        }
+        catch (IOException e)
+        {
+            // Never happens with a StringWriter.
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toString();
+    }
+
+
+    private Map<String, FilteredView> members()
+    {
+        if (members != null)
+        {
+            return members;
+        }
+
+        if (!source.isJsonObject())
+        {
+            // Only a JSON object has members.
+            throw new IllegalStateException("The view is not a JSON object.");
+        }
+
+        JsonObject object               = source.getAsJsonObject();
+        Map<String, FilteredView> views = new LinkedHashMap<>();
+
+        if (node == null)
+        {
+            // Taken as is.
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                views.put(entry.getKey(), new FilteredView(entry.getValue(), null, inclusion));
+            }
+        }
+        else if (inclusion)
+        {
+            // The members in the order of the sub nodes.
+            for (Node subNode : node.getSubNodes())
+            {
+                JsonElement value = object.get(subNode.getKey());
+
+                if (value != null)
+                {
+                    views.put(subNode.getKey(), new FilteredView(value, included(subNode), inclusion));
+                }
+            }
+        }
+        else
+        {
+            // The members which are not removed, in the source order.
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                Node subNode = node.getSubNode(entry.getKey());
+
+                if (!removed(subNode, entry.getValue()))
+                {
+                    views.put(entry.getKey(), new FilteredView(entry.getValue(), subNode, inclusion));
+                }
+            }
+        }
+
+        return members = Collections.unmodifiableMap(views);
+    }
+
+
+    private FilteredView[] elements()
+    {
+        if (elements != null)
+        {
+            return elements;
+        }
+
+        if (!source.isJsonArray())
+        {
+            // Only a JSON array has elements.
+            throw new IllegalStateException("The view is not a JSON array.");
+        }
+
+        return elements = new FilteredView[source.getAsJsonArray().size()];
+    }
+
+
+    /**
+     * Returns the node to filter a member included by the sub node with, or
+     * {@code null} if the member is included as is.
+     */
+    private static Node included(Node subNode)
+    {
+        return (subNode.getSubNodes() == null) ? null : subNode;
+    }
+
+
+    /**
+     * Returns whether the exclusion removes a member, in the same way as
+     * ExclusionFilter.
+     */
+    private static boolean removed(Node subNode, JsonElement value)
+    {
+        // Excluded as a whole, or a null member looked into.
+        return subNode != null && (subNode.getSubNodes() == null || value.isJsonNull());
+    }
+
+
+    private JsonElement build(JsonElement source, Node node)
+    {
+        if (node == null)
+        {
+            // Taken as is.
+            return source.deepCopy();
+        }
+
+        if (source.isJsonArray())
+        {
+            JsonArray array  = source.getAsJsonArray();
+            JsonArray target = new JsonArray(array.size());
+
+            for (JsonElement e : array)
+            {
+                target.add(build(e, container(e, node)));
+            }
+
+            return target;
+        }
+
+        JsonObject object = source.getAsJsonObject();
+        JsonObject target = new JsonObject();
+
+        if (inclusion)
+        {
+            for (Node subNode : node.getSubNodes())
+            {
+                JsonElement value = object.get(subNode.getKey());
+
+                if (value != null)
+                {
+                    target.add(subNode.getKey(), build(value, container(value, included(subNode))));
+                }
+            }
+        }
+        else
+        {
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                Node subNode = node.getSubNode(entry.getKey());
+
+                if (!removed(subNode, entry.getValue()))
+                {
+                    target.add(entry.getKey(), build(entry.getValue(), container(entry.getValue(), subNode)));
+                }
+            }
+        }
+
+        return target;
+    }
+
+
+    private void write(JsonWriter writer, JsonElement source, Node node) throws IOException
+    {
+        if (source.isJsonObject())
+        {
+            writer.beginObject();
+            writeMembers(writer, source.getAsJsonObject(), node);
+            writer.endObject();
+        }
+        else if (source.isJsonArray())
+        {
+            writer.beginArray();
+
+            // Array elements are filtered by the node of the array.
+            for (JsonElement e : source.getAsJsonArray())
+            {
+                write(writer, e, node);
+            }
+
+            writer.endArray();
+        }
+        else if (source.isJsonNull())
+        {
+            writer.nullValue();
+        }
+        else
+        {
+            writePrimitive(writer, source.getAsJsonPrimitive());
+        }
+    }
+
+
+    private void writeMembers(JsonWriter writer, JsonObject object, Node node) throws IOException
+    {
+        if (node == null)
+        {
+            // Taken as is.
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                writer.name(entry.getKey());
+                write(writer, entry.getValue(), null);
+            }
+        }
+        else if (inclusion)
+        {
+            for (Node subNode : node.getSubNodes())
+            {
+                JsonElement value = object.get(subNode.getKey());
+
+                if (value != null)
+                {
+                    writer.name(subNode.getKey());
+                    write(writer, value, included(subNode));
+                }
+            }
+        }
+        else
+        {
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                Node subNode = node.getSubNode(entry.getKey());
+
+                if (!removed(subNode, entry.getValue()))
+                {
+                    writer.name(entry.getKey());
+                    write(writer, entry.getValue(), subNode);
+                }
+            }
+        }
+    }
+
+
+    private static void writePrimitive(JsonWriter writer, JsonPrimitive primitive) throws IOException
+    {
+        if (primitive.isBoolean())
+        {
+            writer.value(primitive.getAsBoolean());
+        }
+        else if (primitive.isNumber())
+        {
+            writer.value(primitive.getAsNumber());
+        }
+        else
+        {
+            writer.value(primitive.getAsString());
+        }
+    }
+
+
+    /**
+     * Returns the node if the value is a container to filter, or {@code null}.
+     */
+    private static Node container(JsonElement value, Node node)
+    {
+        return (value.isJsonObject() || value.isJsonArray()) ? node : null;
+    }
+}
@@ -0,0 +1,638 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * A {@link JsonReader} which applies a compiled filter to the JSON value it
+ * reads, so that the caller only sees the selected members.
+ *
+ * <p>
+ * Members which are not selected are skipped with {@link #skipValue()} as soon
+ * as their names are read, before the caller sees them. When Gson deserializes
+ * from this reader, e.g. by {@link com.google.gson.Gson#fromJson(JsonReader,
+ * java.lang.reflect.Type) Gson.fromJson(JsonReader, Type)}, unselected members
+ * are therefore never converted into Java objects or {@link
+ * com.google.gson.JsonElement}s, and their strings and numbers are never
+ * decoded.
+ * </p>
+ *
+ * <p>
+ * The JSON value seen through this reader is the same as the result of the
+ * streaming filters, i.e. {@link InclusionFilter#apply(JsonReader,
+ * com.google.gson.stream.JsonWriter, CompiledFilter)} and {@link
+ * ExclusionFilter#apply(JsonReader, com.google.gson.stream.JsonWriter,
+ * CompiledFilter)}, applied to the source: members keep the source order, and
+ * a root value excluded as a whole is seen as {@code null}. Data after the JSON
+ * value is not read, so that the reader doesn't block on a source which stays
+ * open. Call {@link #endDocument()} to reject it.
+ * </p>
+ *
+ * <p>
+ * The source is read by a separate {@link JsonReader}, which is made as lenient
+ * as this reader. The state of the super class is never used. Gson reads the
+ * entries of a {@link java.util.Map} through an internal hook which works only
+ * on the state of its own readers, so a {@code Map} can be read from this reader
+ * only by a Gson instance with {@link FilteringTypeAdapterFactory} registered.
+ * The factory reads the filtered entries into a {@link
+ * com.google.gson.JsonObject} first. Instances of this class are not
+ * thread-safe.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * try (JsonReader reader = new FilteringJsonReader(in, compiled))
+ * {
+ *     // Only "id" and "author.name" are converted.
+ *     Article article = gson.fromJson(reader, Article.class);
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilteringJsonReader extends JsonReader
+{
+    /**
+     * Actions for a value.
+     */
+    private static final int PASS   = 0;
+    private static final int FILTER = 1;
+
+
+    /**
+     * The reader given to the super class. Only Gson's internal hook for the
+     * entries of a {@code Map} reads it.
+     */
+    private static final Reader UNUSED = new Reader()
+    {
+        @Override
+        public int read(char[] buffer, int off, int len)
+        {
+            throw new IllegalStateException(
+                    "A Map can be read from FilteringJsonReader only with FilteringTypeAdapterFactory registered.");
+        }
+
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
+
+    private final JsonReader delegate;
+    private final boolean inclusion;
+    private final Node root;
+
+
+    /**
+     * The nodes of the containers being filtered, and whether each of them is a
+     * JSON object.
+     */
+    private Node[] nodes      = new Node[16];
+    private boolean[] objects = new boolean[16];
+    private int depth;
+
+
+    /**
+     * The nesting depth inside a value read as is.
+     */
+    private int passDepth;
+
+
+    /**
+     * The name of the next selected member, read from the source but not yet
+     * returned by {@link #nextName()}.
+     */
+    private String pendingName;
+
+
+    /**
+     * Whether the name of the current member has been returned and its value is
+     * read next, and the action and the node for the value.
+     */
+    private boolean valueNext;
+    private int nextAction;
+    private Node nextNode;
+
+
+    /**
+     * Whether the root value is excluded as a whole and not read yet.
+     */
+    private boolean nullRoot;
+
+
+    /**
+     * Whether the root value has been read.
+     */
+    private boolean rootEnded;
+
+
+    /**
+     * Constructs a {@link FilteringJsonReader} instance.
+     *
+     * @param in
+     *         The source of the JSON value.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @throws NullPointerException
+     *         If the source or the compiled filter is {@code null}.
+     */
+    public FilteringJsonReader(Reader in, CompiledFilter filter)
+    {
+        super(UNUSED);
+
+        if (in == null)
+        {
+            // The source can't be null.
+            throw new NullPointerException("The source can't be null.");
+        }
+
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        this.delegate  = new JsonReader(in);
+        this.inclusion = (filter.getType() == FilterType.INCLUSION);
+        this.root      = filter.getNode();
+        this.nullRoot  = !inclusion && root.getSubNodes() == null;
+    }
+
+
+    @Override
+    public void beginArray() throws IOException
+    {
+        checkNullRoot(JsonToken.BEGIN_ARRAY);
+
+        int action = beginValue();
+        delegate().beginArray();
+        begin(action, false);
+    }
+
+
+    @Override
+    public void endArray() throws IOException
+    {
+        delegate().endArray();
+        end();
+    }
+
+
+    @Override
+    public void beginObject() throws IOException
+    {
+        checkNullRoot(JsonToken.BEGIN_OBJECT);
+
+        int action = beginValue();
+        delegate().beginObject();
+        begin(action, true);
+    }
+
+
+    @Override
+    public void endObject() throws IOException
+    {
+        if (namesFiltered())
+        {
+            // Skip the remaining members which are not selected.
+            advance();
+        }
+
+        delegate().endObject();
+        end();
+    }
+
+
+    @Override
+    public boolean hasNext() throws IOException
+    {
+        if (namesFiltered())
+        {
+            return advance();
+        }
+
+        return delegate().hasNext();
+    }
+
+
+    @Override
+    public JsonToken peek() throws IOException
+    {
+        if (nullRoot)
+        {
+            // The root value excluded as a whole is seen as null.
+            return JsonToken.NULL;
+        }
+
+        if (namesFiltered() && advance())
+        {
+            return JsonToken.NAME;
+        }
+
+        return delegate().peek();
+    }
+
+
+    @Override
+    public String nextName() throws IOException
+    {
+        if (!namesFiltered())
+        {
+            return delegate().nextName();
+        }
+
+        if (!advance())
+        {
+            // No more selected members. Let the delegate report the error.
+            return delegate().nextName();
+        }
+
+        String name = pendingName;
+        pendingName = null;
+        valueNext   = true;
+
+        return name;
+    }
+
+
+    @Override
+    public String nextString() throws IOException
+    {
+        checkNullRoot(JsonToken.STRING);
+        beginValue();
+
+        String value = delegate().nextString();
+        endValue();
+
+        return value;
+    }
+
+
+    @Override
+    public boolean nextBoolean() throws IOException
+    {
+        checkNullRoot(JsonToken.BOOLEAN);
+        beginValue();
+
+        boolean value = delegate().nextBoolean();
+        endValue();
+
+        return value;
+    }
+
+
+    @Override
+    public void nextNull() throws IOException
+    {
+        if (nullRoot)
+        {
+            // Discard the root value excluded as a whole.
+            nullRoot = false;
+            delegate().skipValue();
+            endValue();
+            return;
+        }
+
+        beginValue();
+        delegate().nextNull();
+        endValue();
+    }
+
+
+    @Override
+    public double nextDouble() throws IOException
+    {
+        checkNullRoot(JsonToken.NUMBER);
+        beginValue();
+
+        double value = delegate().nextDouble();
+        endValue();
+
+        return value;
+    }
+
+
+    @Override
+    public long nextLong() throws IOException
+    {
+        checkNullRoot(JsonToken.NUMBER);
+        beginValue();
+
+        long value = delegate().nextLong();
+        endValue();
+
+        return value;
+    }
+
+
+    @Override
+    public int nextInt() throws IOException
+    {
+        checkNullRoot(JsonToken.NUMBER);
+        beginValue();
+
+        int value = delegate().nextInt();
+        endValue();
+
+        return value;
+    }
+
+
+    @Override
+    public void skipValue() throws IOException
+    {
+        if (nullRoot)
+        {
+            nullRoot = false;
+            delegate().skipValue();
+            endValue();
+            return;
+        }
+
+        if (namesFiltered())
+        {
+            if (advance())
+            {
+                // Skip the name of the next selected member, in the same way as
+                // the super class.
+                pendingName = null;
+                valueNext   = true;
+                return;
+            }
+
+            // Let the delegate handle the end of the object.
+            delegate().skipValue();
+            return;
+        }
+
+        beginValue();
+        delegate().skipValue();
+        endValue();
+    }
+
+
+    /**
+     * Checks that the source has no data after the JSON value which has been
+     * read.
+     *
+     * <p>
+     * This method reads the source up to its end, so it blocks until a source
+     * which stays open, such as a socket, is closed.
+     * </p>
+     *
+     * @throws IOException
+     *         If an I/O error occurs, or the source has data after the JSON
+     *         value.
+     *
+     * @throws IllegalStateException
+     *         If the JSON value has not been read.
+     */
+    public void endDocument() throws IOException
+    {
+        if (!rootEnded)
+        {
+            // The root value must be read first.
+            throw new IllegalStateException("The JSON value has not been read.");
+        }
+
+        if (delegate().peek() != JsonToken.END_DOCUMENT)
+        {
+            // The source must hold exactly one JSON value.
+            throw new MalformedJsonException("Unexpected data after the JSON value at path " + getPath());
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        delegate.close();
+    }
+
+
+    @Override
+    public String getPath()
+    {
+        return delegate.getPath();
+    }
+
+
+    @Override
+    public String getPreviousPath()
+    {
+        return delegate.getPreviousPath();
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + " on " + delegate;
+    }
+
+
+    /**
+     * Returns the reader of the source, made as lenient as this reader. Gson
+     * changes the leniency of this reader while it deserializes from it.
+     */
+    private JsonReader delegate()
+    {
+        if (delegate.isLenient() != isLenient())
+        {
+            delegate.setLenient(isLenient());
+        }
+
+        return delegate;
+    }
+
+
+    /**
+     * Returns whether the next token is a name of the JSON object being filtered.
+     */
+    private boolean namesFiltered()
+    {
+        return passDepth == 0 && depth > 0 && objects[depth - 1] && !valueNext;
+    }
+
+
+    /**
+     * Skips the members of the JSON object being filtered until the next selected
+     * member, and returns whether there is one.
+     */
+    private boolean advance() throws IOException
+    {
+        if (pendingName != null)
+        {
+            // Already found.
+            return true;
+        }
+
+        JsonReader source = delegate();
+        Node node = nodes[depth - 1];
+
+        while (source.hasNext())
+        {
+            String name  = source.nextName();
+            Node subNode = node.getSubNode(name);
+            int action;
+
+            if (inclusion)
+            {
+                if (subNode == null)
+                {
+                    // Not selected.
+                    source.skipValue();
+                    continue;
+                }
+
+                // Selected as a whole, or looked into.
+                action = (subNode.getSubNodes() == null) ? PASS : FILTER;
+            }
+            else
+            {
+                if (subNode != null && (subNode.getSubNodes() == null || source.peek() == JsonToken.NULL))
+                {
+                    // Excluded as a whole, or a null member looked into, which is
+                    // removed in the same way as ExclusionFilter.
+                    source.skipValue();
+                    continue;
+                }
+
+                // Not specified, or looked into.
+                action = (subNode == null) ? PASS : FILTER;
+            }
+
+            pendingName = name;
+            nextAction  = action;
+            nextNode    = subNode;
+
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Decides the action for the value being started.
+     */
+    private int beginValue()
+    {
+        if (passDepth > 0)
+        {
+            // Inside a value read as is.
+            return PASS;
+        }
+
+        if (depth == 0)
+        {
+            // A root value.
+            nextNode = root;
+
+            return (root.getSubNodes() != null) ? FILTER : PASS;
+        }
+
+        if (objects[depth - 1])
+        {
+            // A member of a JSON object, decided by its name. The delegate reports
+            // a missing name.
+            valueNext = false;
+
+            return nextAction;
+        }
+
+        // An element of a JSON array. Elements are filtered by the node of the
+        // array.
+        nextNode = nodes[depth - 1];
+
+        return FILTER;
+    }
+
+
+    private void begin(int action, boolean object)
+    {
+        if (action == PASS)
+        {
+            // Read the container as is.
+            passDepth++;
+            return;
+        }
+
+        // Filter the container based on the node of the value.
+        if (depth == nodes.length)
+        {
+            nodes   = Arrays.copyOf(nodes, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+
+        nodes[depth]   = nextNode;
+        objects[depth] = object;
+        depth++;
+    }
+
+
+    private void end()
+    {
+        if (passDepth > 0)
+        {
+            passDepth--;
+        }
+        else
+        {
+            depth--;
+        }
+
+        endValue();
+    }
+
+
+    /**
+     * Records the end of the root value once it has been read.
+     */
+    private void endValue()
+    {
+        if (depth == 0 && passDepth == 0)
+        {
+            rootEnded = true;
+        }
+    }
+
+
+    private void checkNullRoot(JsonToken expected)
+    {
+        if (nullRoot)
+        {
+            // The root value excluded as a whole is seen as null.
+            throw new IllegalStateException("Expected " + expected + " but was NULL at path $");
+        }
+    }
+}
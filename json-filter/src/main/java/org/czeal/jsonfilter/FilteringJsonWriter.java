@@ -0,0 +1,607 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A {@link JsonWriter} which applies a compiled filter to the JSON value written
+ * into it and writes the result to another {@link JsonWriter}.
+ *
+ * <p>
+ * Names and values are filtered as they are written, in the same way as the
+ * streaming filters, i.e. {@link InclusionFilter#apply(JsonReader, JsonWriter,
+ * CompiledFilter)} and {@link ExclusionFilter#apply(JsonReader, JsonWriter,
+ * CompiledFilter)}: members are written in the order they are written into this
+ * writer, and nothing is buffered. Values which are not selected are discarded
+ * without reaching the underlying writer.
+ * </p>
+ *
+ * <p>
+ * Serializers can call {@link #skipsNextValue()} to find out whether the value
+ * they are about to write will be discarded, and write {@code null} instead of
+ * converting it. {@link FilteringTypeAdapterFactory} does this for every type,
+ * so that unselected fields of Java objects are never converted.
+ * </p>
+ *
+ * <p>
+ * This writer starts with the settings of the underlying writer, such as {@link
+ * #getSerializeNulls()}, so that serializers see them. Changing the settings of
+ * this writer has no effect: the settings of the underlying writer apply.
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * JsonWriter writer = new FilteringJsonWriter(gson.newJsonWriter(out), compiled);
+ *
+ * // Only "id" and "author.name" are written to out.
+ * gson.toJson(article, Article.class, writer);
+ * writer.flush();
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilteringJsonWriter extends JsonWriter
+{
+    /**
+     * The writer given to the super class, which is never written to.
+     */
+    private static final Writer UNUSED = Writer.nullWriter();
+
+
+    /**
+     * Actions for a value.
+     */
+    private static final int PASS   = 0;
+    private static final int FILTER = 1;
+    private static final int SKIP   = 2;
+    private static final int IGNORE = 3;
+    private static final int NONE   = -1;
+
+
+    private final JsonWriter out;
+    private final boolean inclusion;
+    private final Node root;
+
+
+    /**
+     * The nodes of the containers being filtered, and whether each of them is a
+     * JSON object.
+     */
+    private Node[] nodes       = new Node[16];
+    private boolean[] objects  = new boolean[16];
+    private int depth;
+
+
+    /**
+     * The action and the node for the next value, decided by {@link
+     * #name(String)}.
+     */
+    private int nextAction = NONE;
+    private Node nextNode;
+    private String pendingName;
+    private boolean removedIfNull;
+
+
+    /**
+     * The node of the value being started.
+     */
+    private Node currentNode;
+
+
+    /**
+     * The nesting depths inside a discarded value and a value copied as is.
+     */
+    private int skipDepth;
+    private int passDepth;
+
+
+    /**
+     * Constructs a {@link FilteringJsonWriter} instance.
+     *
+     * @param out
+     *         The writer to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @throws NullPointerException
+     *         If the writer or the compiled filter is {@code null}.
+     */
+    public FilteringJsonWriter(JsonWriter out, CompiledFilter filter)
+    {
+        super(UNUSED);
+
+        if (out == null)
+        {
+            // The writer can't be null.
+            throw new NullPointerException("The writer can't be null.");
+        }
+
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        this.out       = out;
+        this.inclusion = (filter.getType() == FilterType.INCLUSION);
+        this.root      = filter.getNode();
+
+        setLenient(out.isLenient());
+        setHtmlSafe(out.isHtmlSafe());
+        setSerializeNulls(out.getSerializeNulls());
+    }
+
+
+    /**
+     * Returns whether the next value written into this writer is discarded.
+     *
+     * <p>
+     * If this method returns {@code true}, the caller can write {@code null}
+     * instead of the value, which is discarded in the same way.
+     * </p>
+     *
+     * @return
+     *         {@code true} if the next value is discarded.
+     */
+    public boolean skipsNextValue()
+    {
+        if (skipDepth > 0)
+        {
+            // Inside a discarded value.
+            return true;
+        }
+
+        if (passDepth > 0)
+        {
+            // Inside a value copied as is.
+            return false;
+        }
+
+        if (nextAction != NONE)
+        {
+            // Decided by the name.
+            return nextAction == SKIP;
+        }
+
+        // A root value is discarded only if the exclusion excludes the whole
+        // value.
+        return depth == 0 && !inclusion && root.getSubNodes() == null;
+    }
+
+
+    @Override
+    public JsonWriter beginArray() throws IOException
+    {
+        return beginContainer(false);
+    }
+
+
+    @Override
+    public JsonWriter endArray() throws IOException
+    {
+        return endContainer(false);
+    }
+
+
+    @Override
+    public JsonWriter beginObject() throws IOException
+    {
+        return beginContainer(true);
+    }
+
+
+    @Override
+    public JsonWriter endObject() throws IOException
+    {
+        return endContainer(true);
+    }
+
+
+    @Override
+    public JsonWriter name(String name) throws IOException
+    {
+        if (name == null)
+        {
+            // The name can't be null.
+            throw new NullPointerException("The name can't be null.");
+        }
+
+        if (skipDepth > 0)
+        {
+            // Inside a discarded value.
+            return this;
+        }
+
+        if (passDepth > 0)
+        {
+            // Inside a value copied as is.
+            out.name(name);
+            return this;
+        }
+
+        if (depth == 0 || !objects[depth - 1] || nextAction != NONE)
+        {
+            // A name is allowed only in a JSON object, once per member.
+            throw new IllegalStateException("A name is not expected here.");
+        }
+
+        Node subNode = nodes[depth - 1].getSubNode(name);
+
+        if (inclusion)
+        {
+            // Not selected, selected as a whole, or looked into.
+            nextAction    = (subNode == null) ? SKIP : (subNode.getSubNodes() == null) ? PASS : FILTER;
+            removedIfNull = false;
+        }
+        else
+        {
+            // Not specified, excluded as a whole, or looked into. A null member
+            // looked into is removed in the same way as ExclusionFilter.
+            nextAction    = (subNode == null) ? PASS : (subNode.getSubNodes() == null) ? SKIP : FILTER;
+            removedIfNull = (nextAction == FILTER);
+        }
+
+        nextNode    = subNode;
+        pendingName = name;
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(String value) throws IOException
+    {
+        if (beginScalar(value == null))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException
+    {
+        if (beginScalar(value == null))
+        {
+            out.jsonValue(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter nullValue() throws IOException
+    {
+        if (beginScalar(true))
+        {
+            out.nullValue();
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException
+    {
+        if (beginScalar(false))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException
+    {
+        if (beginScalar(value == null))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Writes a float value. This method overrides {@code JsonWriter.value(float)}
+     * of the Gson versions which have it.
+     *
+     * @param value
+     *         The value to write.
+     *
+     * @return
+     *         This writer.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public JsonWriter value(float value) throws IOException
+    {
+        if (beginScalar(false))
+        {
+            // Written as a Number, which every Gson version supports.
+            out.value((Number)Float.valueOf(value));
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(double value) throws IOException
+    {
+        if (beginScalar(false))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(long value) throws IOException
+    {
+        if (beginScalar(false))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public JsonWriter value(Number value) throws IOException
+    {
+        if (beginScalar(value == null))
+        {
+            out.value(value);
+        }
+
+        return this;
+    }
+
+
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        out.close();
+    }
+
+
+    private JsonWriter beginContainer(boolean object) throws IOException
+    {
+        switch (beginValue(false))
+        {
+            case IGNORE:
+            case SKIP:
+                // Discard the container.
+                skipDepth++;
+                break;
+
+            case PASS:
+                // Copy the container as is.
+                passDepth++;
+                begin(object);
+                break;
+
+            default:
+                // Filter the container based on the node of the value.
+                push(currentNode, object);
+                begin(object);
+        }
+
+        return this;
+    }
+
+
+    private JsonWriter endContainer(boolean object) throws IOException
+    {
+        if (skipDepth > 0)
+        {
+            if (--skipDepth == 0)
+            {
+                // The discarded value has ended.
+                skipped();
+            }
+
+            return this;
+        }
+
+        if (passDepth > 0)
+        {
+            passDepth--;
+        }
+        else
+        {
+            if (depth == 0 || objects[depth - 1] != object || nextAction != NONE)
+            {
+                // The container doesn't match the open one, or a value is missing.
+                throw new IllegalStateException("Nesting problem.");
+            }
+
+            depth--;
+        }
+
+        if (object)
+        {
+            out.endObject();
+        }
+        else
+        {
+            out.endArray();
+        }
+
+        return this;
+    }
+
+
+    private void begin(boolean object) throws IOException
+    {
+        if (object)
+        {
+            out.beginObject();
+        }
+        else
+        {
+            out.beginArray();
+        }
+    }
+
+
+    /**
+     * Starts a scalar value and returns whether it should be written to the
+     * underlying writer.
+     */
+    private boolean beginScalar(boolean isNull) throws IOException
+    {
+        switch (beginValue(isNull))
+        {
+            case IGNORE:
+                // Inside a discarded value.
+                return false;
+
+            case SKIP:
+                // The scalar itself is discarded.
+                skipped();
+                return false;
+
+            default:
+                return true;
+        }
+    }
+
+
+    /**
+     * Decides the action for the value being started, and writes the pending name
+     * if the value is written.
+     */
+    private int beginValue(boolean isNull) throws IOException
+    {
+        if (skipDepth > 0)
+        {
+            // Inside a discarded value.
+            return IGNORE;
+        }
+
+        if (passDepth > 0)
+        {
+            // Inside a value copied as is.
+            return PASS;
+        }
+
+        int action;
+
+        if (nextAction != NONE)
+        {
+            // A member of a JSON object, decided by its name.
+            action      = nextAction;
+            currentNode = nextNode;
+        }
+        else if (depth > 0)
+        {
+            if (objects[depth - 1])
+            {
+                // A member of a JSON object needs a name.
+                throw new IllegalStateException("A name is expected.");
+            }
+
+            // An element of a JSON array. Elements are filtered by the node of the
+            // array, and never removed.
+            action      = FILTER;
+            currentNode = nodes[depth - 1];
+        }
+        else
+        {
+            // A root value.
+            currentNode = root;
+            action      = (root.getSubNodes() != null) ? FILTER : inclusion ? PASS : SKIP;
+        }
+
+        if (action == FILTER && isNull && removedIfNull)
+        {
+            // A null member looked into by the exclusion is removed together
+            // with its name.
+            action = IGNORE;
+        }
+        else if (action != SKIP && pendingName != null)
+        {
+            out.name(pendingName);
+        }
+
+        nextAction    = NONE;
+        nextNode      = null;
+        pendingName   = null;
+        removedIfNull = false;
+
+        return action;
+    }
+
+
+    /**
+     * Called when a discarded value has ended.
+     */
+    private void skipped() throws IOException
+    {
+        if (depth == 0)
+        {
+            // The whole root value is excluded. Write null in the same way as
+            // ExclusionFilter.
+            out.nullValue();
+        }
+    }
+
+
+    private void push(Node node, boolean object)
+    {
+        if (depth == nodes.length)
+        {
+            nodes   = Arrays.copyOf(nodes, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+
+        nodes[depth]   = node;
+        objects[depth] = object;
+        depth++;
+    }
+}
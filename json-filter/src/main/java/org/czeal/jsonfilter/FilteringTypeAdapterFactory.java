@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A {@link TypeAdapterFactory} which filters Java objects while Gson serializes
+ * them.
+ *
+ * <p>
+ * Without this factory, filtering a serialized object takes three passes: the
+ * object is serialized, parsed back into a {@link com.google.gson.JsonElement}
+ * and filtered. With this factory registered, the object is serialized once
+ * into a {@link FilteringJsonWriter}. Before any type adapter writes a value, it
+ * checks whether the value will be discarded, and in that case writes nothing
+ * and doesn't look into the value. Unselected fields are therefore never
+ * converted, and their nested objects are never reflected.
+ * </p>
+ *
+ * <p>
+ * The compiled filter is given either explicitly by {@link #toJson(Gson, Object,
+ * CompiledFilter)}, or for the current thread by {@link #setFilter(CompiledFilter)}
+ * so that plain {@link Gson#toJson(Object)} calls, e.g. made by a framework, are
+ * filtered. Serialization without a filter is not affected. Deserialization is
+ * not affected either, except that a {@link Map} is read from a {@link
+ * FilteringJsonReader} as a {@link JsonElement} first and then converted, which
+ * lets Gson read the entries the reader has filtered.
+ * </p>
+ *
+ * <p>
+ * Register this factory after the other type adapters and factories. Gson gives
+ * precedence to the ones registered later, so this factory then wraps them. Only
+ * the public API of Gson is used, so this factory also works on the module path.
+ * </p>
+ *
+ * <p>
+ * Gson writes a value with the adapter of its declared type instead of the one
+ * of its class only if the latter is the reflective adapter, which Gson tells by
+ * its class. The reflective adapter of a class is therefore not wrapped if a
+ * super type of the class has a type adapter of its own. Unselected values of
+ * such a class are reflected before being discarded, and the filter set for the
+ * thread is not applied when such an object is serialized as the root value.
+ * Use {@link #toJson(Gson, Object, CompiledFilter)} for them. Conversely, Gson
+ * doesn't see a wrapped reflective adapter as reflective, so a field declared
+ * with a class written by reflection is written with the adapter of its declared
+ * type if its value is of a subclass of it which has such a super type.
+ * </p>
+ *
+ * <p>
+ * The result is the same as the one of the streaming filters applied to the
+ * unfiltered JSON: members keep the order in which Gson writes them. Instances
+ * of this class can be shared across threads.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * FilteringTypeAdapterFactory filtering = new FilteringTypeAdapterFactory();
+ * Gson gson = new GsonBuilder().registerTypeAdapterFactory(filtering).create();
+ *
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * // Explicitly.
+ * String json = filtering.toJson(gson, article, compiled);
+ *
+ * // For the current thread.
+ * filtering.setFilter(compiled);
+ *
+ * try
+ * {
+ *     json = gson.toJson(article);
+ * }
+ * finally
+ * {
+ *     filtering.removeFilter();
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class FilteringTypeAdapterFactory implements TypeAdapterFactory
+{
+    /**
+     * The class of the adapters Gson creates for classes written by reflection.
+     */
+    private static final Class<?> REFLECTIVE = new Gson().getAdapter(Probe.class).getClass();
+
+
+    private final ThreadLocal<CompiledFilter> filters = new ThreadLocal<>();
+
+
+    /**
+     * The number of threads for which a filter is set. While it is zero, the
+     * filter of the thread is not looked up.
+     */
+    private final AtomicInteger filtered = new AtomicInteger();
+
+
+    /**
+     * Sets the compiled filter applied to the objects serialized by the current
+     * thread, until {@link #removeFilter()} is called.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     */
+    public void setFilter(CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        if (filters.get() == null)
+        {
+            filtered.incrementAndGet();
+        }
+
+        filters.set(filter);
+    }
+
+
+    /**
+     * Removes the compiled filter set for the current thread.
+     */
+    public void removeFilter()
+    {
+        if (filters.get() != null)
+        {
+            filtered.decrementAndGet();
+        }
+
+        filters.remove();
+    }
+
+
+    /**
+     * Serializes the given object into JSON, applying the given compiled filter
+     * while serializing.
+     *
+     * <p>
+     * The given Gson instance should have this factory registered. Otherwise,
+     * the result is the same, but unselected fields are converted before being
+     * discarded.
+     * </p>
+     *
+     * @param gson
+     *         The Gson instance to serialize the object with.
+     *
+     * @param source
+     *         The object to serialize, which may be {@code null}.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @return
+     *         The filtered JSON.
+     *
+     * @throws NullPointerException
+     *         If the Gson instance or the compiled filter is {@code null}.
+     */
+    public String toJson(Gson gson, Object source, CompiledFilter filter)
+    {
+        if (gson == null)
+        {
+            // The Gson instance can't be null.
+            throw new NullPointerException("The Gson instance can't be null.");
+        }
+
+        StringWriter buffer = new StringWriter();
+
+        try
+        {
+            JsonWriter out = gson.newJsonWriter(buffer);
+
+            // Gson.toJson() makes its writer lenient, and leaves the checks of
+            // special floating point values to its type adapters. Do the same
+            // for the underlying writer, which Gson doesn't see.
+            out.setLenient(true);
+
+            JsonWriter writer = new FilteringJsonWriter(out, filter);
+
+            if (source == null)
+            {
+                gson.toJson(JsonNull.INSTANCE, writer);
+            }
+            else
+            {
+                gson.toJson(source, source.getClass(), writer);
+            }
+
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            // Never happens with a StringWriter.
+            throw new UncheckedIOException(e);
+        }
+
+        return buffer.toString();
+    }
+
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+
+        if (isReflective(delegate) && !hasReflectiveSuperTypes(gson, type.getRawType()))
+        {
+            // Gson would write a value of this class with the adapter of its
+            // declared type only if it sees this reflective adapter unwrapped.
+            return delegate;
+        }
+
+        // Gson can't read the entries of a Map from FilteringJsonReader directly.
+        TypeAdapter<JsonElement> elements =
+                Map.class.isAssignableFrom(type.getRawType()) ? gson.getAdapter(JsonElement.class) : null;
+
+        return new FilteringTypeAdapter<>(delegate, elements);
+    }
+
+
+    private static boolean isReflective(TypeAdapter<?> adapter)
+    {
+        if (adapter instanceof FilteringTypeAdapter)
+        {
+            adapter = ((FilteringTypeAdapter<?>)adapter).delegate;
+        }
+
+        return REFLECTIVE.isInstance(adapter);
+    }
+
+
+    /**
+     * Returns whether the adapters of all the super classes and interfaces of the
+     * given class, except {@link Object}, are reflective ones.
+     */
+    private static boolean hasReflectiveSuperTypes(Gson gson, Class<?> raw)
+    {
+        Deque<Class<?>> superTypes = new ArrayDeque<>();
+
+        addSuperTypes(superTypes, raw);
+
+        while (!superTypes.isEmpty())
+        {
+            Class<?> superType = superTypes.poll();
+
+            try
+            {
+                if (!isReflective(gson.getAdapter(superType)))
+                {
+                    return false;
+                }
+            }
+            catch (RuntimeException e)
+            {
+                // Gson can't serialize the super type by reflection. Its adapter
+                // is not known.
+                return false;
+            }
+
+            addSuperTypes(superTypes, superType);
+        }
+
+        return true;
+    }
+
+
+    private static void addSuperTypes(Deque<Class<?>> superTypes, Class<?> raw)
+    {
+        Class<?> superClass = raw.getSuperclass();
+
+        if (superClass != null && superClass != Object.class)
+        {
+            superTypes.add(superClass);
+        }
+
+        for (Class<?> superInterface : raw.getInterfaces())
+        {
+            superTypes.add(superInterface);
+        }
+    }
+
+
+    /**
+     * A class without fields, which Gson writes by reflection.
+     */
+    private static final class Probe
+    {
+    }
+
+
+    /**
+     * A type adapter which writes nothing for values discarded by the filter.
+     */
+    private final class FilteringTypeAdapter<T> extends TypeAdapter<T>
+    {
+        private final TypeAdapter<T> delegate;
+
+
+        /**
+         * The adapter reading a Map from FilteringJsonReader as a JSON element,
+         * or {@code null} if the type is not a Map.
+         */
+        private final TypeAdapter<JsonElement> elements;
+
+
+        FilteringTypeAdapter(TypeAdapter<T> delegate, TypeAdapter<JsonElement> elements)
+        {
+            this.delegate = delegate;
+            this.elements = elements;
+        }
+
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException
+        {
+            if (out instanceof FilteringJsonWriter)
+            {
+                if (((FilteringJsonWriter)out).skipsNextValue())
+                {
+                    // The value is discarded. Don't look into it.
+                    out.nullValue();
+                    return;
+                }
+
+                delegate.write(out, value);
+                return;
+            }
+
+            // The root value of a serialization, or a value nested in a value
+            // which is not filtered. The filter of the thread is looked up only
+            // if a filter is set for any thread. Values nested in a filtered
+            // value are written into the filtering writer and don't look it up.
+            CompiledFilter filter = (filtered.get() == 0) ? null : filters.get();
+
+            if (filter == null)
+            {
+                // No filter is set for this thread. Write the value as is.
+                delegate.write(out, value);
+                return;
+            }
+
+            // While the root value is written, the filter is removed from the
+            // thread, so that nested serializations made by custom serializers,
+            // e.g. into a JsonElement by Gson.toJsonTree(), are not filtered by
+            // themselves. Their results are filtered when they are written into
+            // the filtering writer.
+            filters.remove();
+
+            try
+            {
+                delegate.write(new FilteringJsonWriter(out, filter), value);
+            }
+            finally
+            {
+                filters.set(filter);
+            }
+        }
+
+
+        @Override
+        public T read(JsonReader in) throws IOException
+        {
+            if (elements != null && in instanceof FilteringJsonReader)
+            {
+                // Gson reads the entries of a Map by promoting their names to
+                // values, which works only on the state of its own readers. Read
+                // the filtered entries into a JSON object and convert it.
+                return delegate.fromJsonTree(elements.read(in));
+            }
+
+            return delegate.read(in);
+        }
+    }
+}
@@ -0,0 +1,1125 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * A filter implementation that includes only specified JSON elements from a given
+ * JSON element. The inclusion rules are defined using a comma-separated string
+ * where nested fields can be specified using parentheses.
+ *
+ * <p>Example of node specification:</p>
+ * <ul>
+ * <li>{@code "a,b(c,d)"} - Includes only the top-level elements {@code a} and
+ * sub-elements {@code c} and {@code d} inside {@code b}.</li>
+ * <li>{@code "x(y)"} - Includes only {@code x.y} but keeps other elements in
+ * {@code x}.</li>
+ * </ul>
+ *
+ * <p>
+ * If the input JSON is a primitive value or {@code null}, it is returned as is.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+public class InclusionFilter implements Filter
+{
+    /**
+     * The array size threshold meaning arrays are never filtered in parallel.
+     */
+    private static final int SEQUENTIAL = Integer.MAX_VALUE;
+
+
+    private final FilterCache cache;
+
+
+    /**
+     * Constructs an {@link InclusionFilter} instance which parses the filter
+     * expression on every call of {@link #apply(JsonElement, String)}.
+     */
+    public InclusionFilter()
+    {
+        this(null);
+    }
+
+
+    /**
+     * Constructs an {@link InclusionFilter} instance which looks up parsed filter
+     * expressions in the given cache.
+     *
+     * @param cache
+     *         The cache of parsed filter expressions, or {@code null} to parse
+     *         the filter expression on every call of {@link #apply(JsonElement,
+     *         String)}.
+     */
+    public InclusionFilter(FilterCache cache)
+    {
+        this.cache = cache;
+    }
+
+
+    /**
+     * Creates a JSON element by extracting JSON elements from the given JSON element
+     * based on the nodes string. The nodes are provided as a comma-separated string,
+     * where each node defines a portion of the JSON structure to include in the result.
+     * Nested fields can be specified using parentheses. For example, a nodes string
+     * might be {@code "a,b(c,d)"}, indicating that the output should include the top-level
+     * element {@code a} and the element {@code b} with only the {@code c} and {@code d} sub-nodes.
+     *
+     * <p><b>Examples:</b></p>
+     *
+     * <p><b>Example 1: For a flat JSON object</b></p>
+     * <pre><code>
+     * JsonElement jsonElement = JsonParser.parseString("{\"a\":1,\"b\":2,\"c\":3}");
+     *
+     * JsonElement filtered = new InclusionFilter().apply(jsonElement, "a,b");
+     *
+     * System.out.println(filtered); // {"a":1,"b":2}
+     * </code></pre>
+     *
+     * <p><b>Example 2: For a nested JSON object</b></p>
+     * <pre><code>
+     * JsonElement jsonElement = JsonParser.parseString("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}");
+     *
+     * JsonElement filtered = new InclusionFilter().apply(jsonElement, "x(y)");
+     *
+     * System.out.println(filtered); // {"x":{"y":{"z":5}}}
+     * </code></pre>
+     *
+     * <p><b>Example 3: For nested arrays</b></p>
+     * <pre><code>
+     * JsonElement jsonElement = JsonParser.parseString("[[[{\"name\":\"john\",\"type\":0}]]]");
+     *
+     * JsonElement filtered = new InclusionFilter().apply(jsonElement, "name");
+     *
+     * System.out.println(filtered); // [[[{"name":"john"}]]]
+     * </code></pre>
+     *
+     * <p>
+     * If the source JSON is a primitive or {@code null}, filtering is not applicable
+     * and the deep copy of the source is returned unmodified.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter, which should be either a JSON
+     *         object or an array.
+     *
+     * @param nodes
+     *         A comma-separated string defining allowed JSON nodes to include.
+     *         Each node can specify nested fields using parentheses.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code source}
+     *         based on the given {@code nodes}.
+     *
+     * @throws IllegalArgumentException
+     *         If the source JSON element is an invalid JSON element.
+     */
+    @Override
+    public JsonElement apply(JsonElement source, String nodes)
+    {
+        return apply(source, parse(nodes), SEQUENTIAL);
+    }
+
+
+    /**
+     * Creates a JSON element by extracting JSON elements from the given JSON element
+     * based on the compiled filter.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonElement, String)}
+     * except that the filter expression has been parsed in advance by {@link
+     * FilterFactory#compile(FilterType, String)}.
+     * </p>
+     *
+     * <p>
+     * If the compiled filter was compiled by {@link
+     * FilterFactory#compile(FilterType, String, int)} and has been used often
+     * enough, a program specialized for its node tree is run instead of
+     * interpreting the node tree.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter, which should be either a JSON
+     *         object or an array.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code source}
+     *         based on the given compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    @Override
+    public JsonElement apply(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.INCLUSION);
+
+        // Run the specialized program if the compiled filter is hot enough.
+        InclusionProgram program = filter.getProgram();
+
+        if (program != null)
+        {
+            return program.apply(source);
+        }
+
+        return apply(source, node, SEQUENTIAL);
+    }
+
+
+    /**
+     * Creates a JSON element by extracting JSON elements from the given JSON element
+     * based on the compiled filter, filtering large JSON arrays in parallel.
+     *
+     * <p>
+     * This method produces the same JSON as {@link #apply(JsonElement, CompiledFilter)}.
+     * Every JSON array, at the top level or nested, whose size is equal to or
+     * greater than {@code threshold} is split into chunks which are filtered
+     * independently on the given pool, and the filtered chunks are reassembled in
+     * the original order. Smaller arrays are filtered sequentially.
+     * </p>
+     *
+     * <p>
+     * The source must not be modified during this call.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,name");
+     *
+     * // Filter arrays having 10,000 or more elements on the common pool.
+     * JsonElement filtered = new InclusionFilter().applyInParallel(
+     *         jsonElement, compiled, ForkJoinPool.commonPool(), 10_000);
+     * </pre>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @param pool
+     *         The pool to filter large JSON arrays on, such as {@link
+     *         ForkJoinPool#commonPool()}.
+     *
+     * @param threshold
+     *         The minimum size of a JSON array to filter in parallel.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source} based on the given compiled filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the pool is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter, or the threshold
+     *         is less than 1.
+     */
+    public JsonElement applyInParallel(JsonElement source, CompiledFilter filter, ForkJoinPool pool, int threshold)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        if (pool == null)
+        {
+            // The pool can't be null.
+            throw new NullPointerException("The pool can't be null.");
+        }
+
+        if (threshold < 1)
+        {
+            // The threshold must be positive.
+            throw new IllegalArgumentException("The threshold must be positive.");
+        }
+
+        Node node = filter.getNode(FilterType.INCLUSION);
+
+        // Filter the source in the pool so that large arrays are split into tasks
+        // of the pool.
+        return pool.invoke(ForkJoinTask.adapt(() -> apply(source, node, threshold)));
+    }
+
+
+    /**
+     * Creates a JSON element by extracting JSON elements from the given JSON element
+     * based on the compiled filter, sharing unchanged subtrees with the source.
+     *
+     * <p>
+     * This method produces the same JSON as {@link #apply(JsonElement, CompiledFilter)},
+     * but it does not copy the source. New {@link JsonObject} and {@link JsonArray}
+     * instances are allocated only along the paths that actually change, and all
+     * the other elements of the result are the very instances of the source. The
+     * allocation is therefore proportional to the number of touched elements
+     * rather than to the size of the source.
+     * </p>
+     *
+     * <p>
+     * <b>NOTE:</b> The result aliases the source. Modifying either of them after
+     * calling this method may modify the other as well, so this method should be
+     * used only when both are treated as read-only.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @return
+     *         A {@link JsonElement} instance built by filtering the {@code source}
+     *         based on the given compiled filter, which may share elements with
+     *         the {@code source}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public JsonElement applyShared(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return share(source, filter.getNode(FilterType.INCLUSION));
+    }
+
+
+    /**
+     * Returns a lazy view of the result of filtering the given JSON element based
+     * on the compiled filter.
+     *
+     * <p>
+     * The view represents the same JSON as {@link #apply(JsonElement,
+     * CompiledFilter)} would return, but nothing is copied when this method is
+     * called. The members and the elements of the view are computed on their
+     * first access, and {@link FilteredView#write(JsonWriter)} writes the result
+     * directly from the source. This is cheaper than {@link #apply(JsonElement,
+     * CompiledFilter)} when the result is consumed partially or written once.
+     * </p>
+     *
+     * <p>
+     * The source must not be modified while the view is in use.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @return
+     *         A view of the filtered JSON element.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public FilteredView view(JsonElement source, CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        return FilteredView.of(source, filter.getNode(FilterType.INCLUSION), true);
+    }
+
+
+    /**
+     * Writes the JSON built by filtering the given JSON element based on the
+     * compiled filter to the given {@link Appendable}.
+     *
+     * <p>
+     * The written JSON is the same as the string representation of the result of
+     * {@link #apply(JsonElement, CompiledFilter)}, but the result is never built:
+     * the source is walked and the selected elements are written directly. This
+     * method does not close the destination.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @param out
+     *         The destination of the filtered JSON, such as a {@link Writer} or
+     *         a {@link StringBuilder}.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the destination is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public void applyTo(JsonElement source, CompiledFilter filter, Appendable out) throws IOException
+    {
+        if (out == null)
+        {
+            // The destination can't be null.
+            throw new NullPointerException("The destination can't be null.");
+        }
+
+        JsonWriter writer = new JsonWriter(JsonStreams.writer(out));
+
+        // Write NaN and infinite numbers as JsonElement.toString() does.
+        writer.setLenient(true);
+
+        view(source, filter).write(writer);
+        writer.flush();
+    }
+
+
+    /**
+     * Writes the JSON built by filtering the given JSON element based on the
+     * compiled filter to the given output stream in UTF-8.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #applyTo(JsonElement,
+     * CompiledFilter, Appendable)}. The JSON is encoded into a buffer taken from
+     * a pool shared by all filters, so that no buffer is allocated for each call.
+     * This method does not close the output stream.
+     * </p>
+     *
+     * @param source
+     *         The source JSON element to filter.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON into.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the output stream is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     */
+    public void applyTo(JsonElement source, CompiledFilter filter, OutputStream out) throws IOException
+    {
+        if (out == null)
+        {
+            // The output stream can't be null.
+            throw new NullPointerException("The output stream can't be null.");
+        }
+
+        FilteredView view = view(source, filter);
+
+        try (PooledUtf8Writer encoder = new PooledUtf8Writer(out))
+        {
+            JsonWriter writer = new JsonWriter(encoder);
+
+            // Write NaN and infinite numbers as JsonElement.toString() does.
+            writer.setLenient(true);
+
+            view.write(writer);
+        }
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON value built by
+     * extracting JSON elements based on the compiled filter to the writer.
+     *
+     * <p>
+     * Unlike {@link #apply(JsonElement, CompiledFilter)}, this method never builds
+     * a {@link JsonElement} tree. Tokens are read from the reader while walking the
+     * node tree in lockstep; the values of unselected keys are skipped by {@link
+     * JsonReader#skipValue()} and the selected tokens are written to the writer
+     * immediately. The memory used by this method is therefore bounded by the
+     * nesting depth of the JSON value rather than by its size.
+     * </p>
+     *
+     * <p>
+     * The members of a JSON object are written in the order they appear in the
+     * source. This method does not close the reader or the writer.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre><code>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y)");
+     *
+     * JsonReader reader = new JsonReader(new StringReader("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}"));
+     * StringWriter out  = new StringWriter();
+     *
+     * new InclusionFilter().apply(reader, new JsonWriter(out), compiled);
+     *
+     * System.out.println(out); // {"x":{"y":{"z":5}}}
+     * </code></pre>
+     *
+     * @param reader
+     *         The reader positioned at the beginning of the source JSON value.
+     *
+     * @param writer
+     *         The writer to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public void apply(JsonReader reader, JsonWriter writer, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        apply(reader, writer, filter.getNode(FilterType.INCLUSION));
+    }
+
+
+    /**
+     * Reads a JSON value from the reader and writes the JSON value built by
+     * extracting JSON elements based on the compiled filter to the writer.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonReader, JsonWriter,
+     * CompiledFilter)}, except that data after the JSON value is rejected. The
+     * writer is flushed, but neither the reader nor the writer is closed.
+     * </p>
+     *
+     * @param reader
+     *         The reader to read the source JSON value from.
+     *
+     * @param writer
+     *         The writer to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public void apply(Reader reader, Writer writer, CompiledFilter filter) throws IOException
+    {
+        JsonReader jsonReader = new JsonReader(reader);
+        JsonWriter jsonWriter = new JsonWriter(writer);
+
+        apply(jsonReader, jsonWriter, filter);
+
+        if (jsonReader.peek() != JsonToken.END_DOCUMENT)
+        {
+            // The reader must hold exactly one JSON value.
+            throw new MalformedJsonException("Unexpected data after the JSON value.");
+        }
+
+        jsonWriter.flush();
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the input stream and writes the UTF-8
+     * encoded JSON value built by extracting JSON elements based on the compiled
+     * filter to the output stream.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(JsonReader, JsonWriter,
+     * CompiledFilter)}, except that data after the JSON value is rejected. The
+     * output stream is flushed, but neither the input stream nor the output
+     * stream is closed.
+     * </p>
+     *
+     * @param in
+     *         The input stream to read the source JSON value from.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public void apply(InputStream in, OutputStream out, CompiledFilter filter) throws IOException
+    {
+        apply(new InputStreamReader(in, StandardCharsets.UTF_8),
+              new OutputStreamWriter(out, StandardCharsets.UTF_8), filter);
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the source file and writes the UTF-8
+     * encoded JSON value built by extracting JSON elements based on the compiled
+     * filter to the target file.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(ByteBuffer,
+     * OutputStream, CompiledFilter)}. The source file is read through
+     * memory-mapped segments, which are filtered in place by a {@link
+     * NonBlockingFilter} without decoding the source into characters, and the
+     * output is written to the target file through a buffered channel. Therefore,
+     * the heap usage does not depend on the file size. The target file is created
+     * if it does not exist, and truncated otherwise.
+     * </p>
+     *
+     * @param source
+     *         The file to read the source JSON value from.
+     *
+     * @param target
+     *         The file to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public void apply(Path source, Path target, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        // Check the type of the compiled filter before creating the target file.
+        filter.getNode(FilterType.INCLUSION);
+
+        try (FileChannel in  = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            new NonBlockingFilter(filter).transfer(new MappedSegments(in), out);
+        }
+    }
+
+
+    /**
+     * Reads a UTF-8 encoded JSON value from the buffer and writes the UTF-8
+     * encoded JSON value built by extracting JSON elements based on the compiled
+     * filter to the output stream, without decoding the source into characters.
+     *
+     * <p>
+     * Keys are matched against the compiled filter by comparing their encoded
+     * bytes, values which are not written are skipped, and the written keys and
+     * values are copied from the source byte for byte. Therefore, no strings are
+     * created for the source except for keys having escape sequences or non-ASCII
+     * characters. Skipped and copied values are validated against the JSON
+     * grammar in the same way as {@link JsonReader}, so an invalid source is
+     * rejected even where it is not written.
+     * </p>
+     *
+     * <p>
+     * The output is equivalent to the output of {@link #apply(JsonReader,
+     * JsonWriter, CompiledFilter)}, except that copied values keep their original
+     * bytes, including whitespace and escape sequences. The JSON value must be the
+     * only content of the buffer between its position and limit, except for
+     * whitespace and a leading byte order mark. The position of the buffer is not
+     * changed. The output stream is flushed, but not closed.
+     * </p>
+     *
+     * @param source
+     *         The buffer holding the source JSON value.
+     *
+     * @param out
+     *         The output stream to write the filtered JSON value into.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public void apply(ByteBuffer source, OutputStream out, CompiledFilter filter) throws IOException
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        Node node = filter.getNode(FilterType.INCLUSION);
+
+        Utf8JsonReader reader = new Utf8JsonReader(source);
+        Utf8JsonWriter writer = new Utf8JsonWriter(out);
+
+        apply(reader, writer, node);
+
+        reader.endDocument();
+        writer.flush();
+    }
+
+
+    /**
+     * Creates a UTF-8 encoded JSON value by extracting JSON elements from the
+     * given UTF-8 encoded JSON value based on the compiled filter, without
+     * decoding the source into characters.
+     *
+     * <p>
+     * This method behaves in the same way as {@link #apply(ByteBuffer,
+     * OutputStream, CompiledFilter)}.
+     * </p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre><code>
+     * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y)");
+     *
+     * byte[] source   = "{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}".getBytes(StandardCharsets.UTF_8);
+     * byte[] filtered = new InclusionFilter().apply(source, compiled);
+     *
+     * System.out.println(new String(filtered, StandardCharsets.UTF_8)); // {"x":{"y":{"z":5}}}
+     * </code></pre>
+     *
+     * @param source
+     *         The source JSON value.
+     *
+     * @param filter
+     *         A compiled inclusion filter.
+     *
+     * @return
+     *         The filtered JSON value.
+     *
+     * @throws IOException
+     *         If the source is not a valid JSON value.
+     *
+     * @throws NullPointerException
+     *         If the source or the compiled filter is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the compiled filter is not an inclusion filter.
+     */
+    public byte[] apply(byte[] source, CompiledFilter filter) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length);
+
+        apply(ByteBuffer.wrap(source), out, filter);
+
+        return out.toByteArray();
+    }
+
+
+    private JsonElement apply(JsonElement source, Node node, int threshold)
+    {
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            return filterJsonObject((JsonObject)source, node, threshold);
+        }
+
+        if (source.isJsonArray())
+        {
+            // The source is a JSON array.
+            return filterJsonArray((JsonArray)source, node, threshold);
+        }
+
+        // JsonPrimitive values can't be filtered. Then, in this case, the deep
+        // copy of the original element is returned.
+        return source.deepCopy();
+    }
+
+
+    private JsonElement filterJsonObject(JsonObject source, Node node, int threshold)
+    {
+        // Sub nodes of the given node.
+        List<Node> subNodes = node.getSubNodes();
+
+        if (subNodes == null)
+        {
+            // Sub nodes are empty. This means there are no more nodes to look into.
+            // Just return the deep-copy of the original source object.
+            return source.deepCopy();
+        }
+
+        // Sub nodes are not empty. Then, we filter JSON elements from the source
+        // based on the specified sub nodes.
+
+        // The target JSON object we copy filtered JSON elements into.
+        JsonObject filteredObject = new JsonObject();
+
+        for (Node subNode : subNodes)
+        {
+            String keyOfSubNode = subNode.getKey();
+
+            // Get the JSON element for the key from the source. A single lookup
+            // tells whether the key exists as well.
+            JsonElement newSource = source.get(keyOfSubNode);
+
+            if (newSource != null)
+            {
+                // Filter the JSON element based on the sub node. Then, add the
+                // filtered element to the target JSON object.
+                JsonElement filteredElement = apply(newSource, subNode, threshold);
+                filteredObject.add(keyOfSubNode, filteredElement);
+            }
+        }
+
+        return filteredObject;
+    }
+
+
+    private JsonElement filterJsonArray(JsonArray source, Node node, int threshold)
+    {
+        if (source.size() >= threshold && ForkJoinTask.inForkJoinPool())
+        {
+            // The array is large enough. Split it into chunks and filter them
+            // in parallel on the current pool.
+            return ParallelArrays.map(source, e -> apply(e, node, threshold));
+        }
+
+        // The target JSON array we copy JSON elements into.
+        JsonArray target = new JsonArray();
+
+        // For each JSON element in the JSON array.
+        for (JsonElement e : source)
+        {
+            // Filter the JSON element based on the node. Then, add the filtered
+            // element to the target JSON object.
+            JsonElement filtered = apply(e, node, threshold);
+            target.add(filtered);
+        }
+
+        return target;
+    }
+
+
+    private JsonElement share(JsonElement source, Node node)
+    {
+        if (source == null || source instanceof JsonNull)
+        {
+            // The source is null.
+            return JsonNull.INSTANCE;
+        }
+
+        if (source.isJsonObject())
+        {
+            // The source is a JSON object.
+            return shareJsonObject((JsonObject)source, node);
+        }
+
+        if (source.isJsonArray())
+        {
+            // The source is a JSON array.
+            return shareJsonArray((JsonArray)source, node);
+        }
+
+        // JsonPrimitive values can't be filtered, and they are immutable. Then,
+        // in this case, the original element is shared.
+        return source;
+    }
+
+
+    private JsonElement shareJsonObject(JsonObject source, Node node)
+    {
+        // Sub nodes of the given node.
+        List<Node> subNodes = node.getSubNodes();
+
+        if (subNodes == null)
+        {
+            // Sub nodes are empty. This means there are no more nodes to look into.
+            // Just share the original source object.
+            return source;
+        }
+
+        // The target JSON object we add filtered JSON elements into.
+        JsonObject filteredObject = new JsonObject();
+
+        for (Node subNode : subNodes)
+        {
+            String keyOfSubNode = subNode.getKey();
+            JsonElement value   = source.get(keyOfSubNode);
+
+            if (value != null)
+            {
+                filteredObject.add(keyOfSubNode, share(value, subNode));
+            }
+        }
+
+        return filteredObject;
+    }
+
+
+    private JsonElement shareJsonArray(JsonArray source, Node node)
+    {
+        // The target JSON array, which is created only when any element changes.
+        JsonArray target = null;
+
+        for (int i = 0; i < source.size(); i++)
+        {
+            JsonElement e        = source.get(i);
+            JsonElement filtered = share(e, node);
+
+            if (target == null && filtered != e)
+            {
+                // The first changed element. Copy the preceding elements, which
+                // have not changed.
+                target = new JsonArray(source.size());
+
+                for (int j = 0; j < i; j++)
+                {
+                    target.add(source.get(j));
+                }
+            }
+
+            if (target != null)
+            {
+                target.add(filtered);
+            }
+        }
+
+        // If no element has changed, share the original source array.
+        return (target == null) ? source : target;
+    }
+
+
+    private void apply(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        switch (reader.peek())
+        {
+            case BEGIN_OBJECT:
+                // The source is a JSON object.
+                filterJsonObject(reader, writer, node);
+                break;
+
+            case BEGIN_ARRAY:
+                // The source is a JSON array.
+                filterJsonArray(reader, writer, node);
+                break;
+
+            default:
+                // JsonPrimitive values and null can't be filtered. Then, in this
+                // case, the original value is copied as is.
+                JsonStreams.copy(reader, writer);
+        }
+    }
+
+
+    private void filterJsonObject(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // Sub nodes are empty. This means there are no more nodes to look into.
+            // Just copy the original source object.
+            JsonStreams.copy(reader, writer);
+            return;
+        }
+
+        reader.beginObject();
+        writer.beginObject();
+
+        while (reader.hasNext())
+        {
+            String key   = reader.nextName();
+            Node subNode = node.getSubNode(key);
+
+            if (subNode == null)
+            {
+                // The key is not selected. Skip the value without reading it.
+                reader.skipValue();
+                continue;
+            }
+
+            // Write the key and then filter the value based on the sub node.
+            writer.name(key);
+            apply(reader, writer, subNode);
+        }
+
+        reader.endObject();
+        writer.endObject();
+    }
+
+
+    private void filterJsonArray(JsonReader reader, JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginArray();
+        writer.beginArray();
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        while (reader.hasNext())
+        {
+            apply(reader, writer, node);
+        }
+
+        reader.endArray();
+        writer.endArray();
+    }
+
+
+    private void apply(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        switch (reader.peek())
+        {
+            case '{':
+                // The source is a JSON object.
+                filterJsonObject(reader, writer, node);
+                break;
+
+            case '[':
+                // The source is a JSON array.
+                filterJsonArray(reader, writer, node);
+                break;
+
+            default:
+                // JsonPrimitive values and null can't be filtered. Then, in this
+                // case, the original bytes are copied as is.
+                reader.copyValue(writer);
+        }
+    }
+
+
+    private void filterJsonObject(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // Sub nodes are empty. This means there are no more nodes to look into.
+            // Just copy the original bytes of the source object.
+            reader.copyValue(writer);
+            return;
+        }
+
+        reader.beginObject();
+        writer.beginObject();
+
+        while (reader.hasNext())
+        {
+            Node subNode = reader.nextName(node);
+
+            if (subNode == null)
+            {
+                // The key is not selected. Skip the value without copying it.
+                reader.skipValue();
+                continue;
+            }
+
+            // Copy the key and then filter the value based on the sub node.
+            reader.copyName(writer);
+            apply(reader, writer, subNode);
+        }
+
+        reader.endObject();
+        writer.endObject();
+    }
+
+
+    private void filterJsonArray(Utf8JsonReader reader, Utf8JsonWriter writer, Node node) throws IOException
+    {
+        reader.beginArray();
+        writer.beginArray();
+
+        // For each JSON element in the JSON array, filter the element based on
+        // the node.
+        while (reader.hasNext())
+        {
+            apply(reader, writer, node);
+        }
+
+        reader.endArray();
+        writer.endArray();
+    }
+
+
+    private Node parse(String nodes)
+    {
+        // Look up the cache if available. Otherwise, parse the nodes.
+        return (cache == null) ? new NodeParser().parse(nodes) : cache.get(nodes);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A program specialized for one inclusion {@link Node} tree.
+ *
+ * <p>
+ * {@link #compile(Node)} writes a class for the node tree by {@link
+ * InclusionProgramWriter} and defines it in this package by {@link
+ * MethodHandles.Lookup#defineClass(byte[])}. The keys of the nodes are constants
+ * of the class and the nodes are its static methods, so applying the program
+ * doesn't walk the node tree, iterate lists of nodes or test whether sub nodes
+ * exist, and the JIT can inline the whole tree.
+ * </p>
+ *
+ * <p>
+ * Applying the program gives the same result as {@link
+ * InclusionFilter#apply(JsonElement, CompiledFilter)}. Instances of this class
+ * are immutable and can be shared across threads.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+abstract class InclusionProgram
+{
+    /**
+     * The number of the last class defined, to name the next one.
+     */
+    private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
+
+
+    /**
+     * Constructs a program. Called by the generated classes.
+     */
+    InclusionProgram()
+    {
+    }
+
+
+    /**
+     * Compiles the given inclusion node tree into a program.
+     *
+     * <p>
+     * Each call defines a new class, which is never unloaded while this class
+     * is loaded, so a node tree should be compiled once and its program kept.
+     * </p>
+     *
+     * @param node
+     *         The root of the inclusion node tree.
+     *
+     * @return
+     *         The program specialized for the node tree, or {@code null} if the
+     *         node tree is too large for a class or the class can't be defined,
+     *         e.g. by a security policy.
+     */
+    static InclusionProgram compile(Node node)
+    {
+        String name = "org/czeal/jsonfilter/InclusionProgram$Tree" + CLASS_NUMBER.incrementAndGet();
+
+        try
+        {
+            byte[] bytes = new InclusionProgramWriter(name).write(node);
+
+            return (InclusionProgram)MethodHandles.lookup().defineClass(bytes)
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (IllegalArgumentException | ReflectiveOperationException | LinkageError | SecurityException e)
+        {
+            // The node tree can't be compiled. The caller keeps interpreting it.
+            return null;
+        }
+    }
+
+
+    /**
+     * Creates a JSON element by applying this program to the given JSON element.
+     *
+     * @param source
+     *         The source JSON element, which may be {@code null}.
+     *
+     * @return
+     *         A new {@link JsonElement} instance built by filtering the {@code
+     *         source}.
+     */
+    abstract JsonElement apply(JsonElement source);
+
+
+    /**
+     * Copies the given value as a whole. Called by the generated classes for
+     * values which are included as a whole or can't be filtered.
+     *
+     * @param source
+     *         The source JSON element, which may be {@code null}.
+     *
+     * @return
+     *         A deep copy of the {@code source}, or {@link JsonNull#INSTANCE} if
+     *         it is {@code null}.
+     */
+    static JsonElement copy(JsonElement source)
+    {
+        return (source == null) ? JsonNull.INSTANCE : source.deepCopy();
+    }
+}
@@ -0,0 +1,719 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A writer of the class file of an {@link InclusionProgram} specialized for one
+ * inclusion {@link Node} tree.
+ *
+ * <p>
+ * The class has three static methods for each node with sub nodes, numbered in
+ * the order the nodes are visited:
+ * </p>
+ *
+ * <ul>
+ * <li>{@code element<i>(JsonElement)} dispatches on the kind of the value.
+ * <li>{@code object<i>(JsonObject)} looks up the keys of the sub nodes one after
+ *     another in straight-line code, with the keys as constants, and calls the
+ *     method of each sub node directly.
+ * <li>{@code array<i>(JsonArray)} applies {@code element<i>} to every element.
+ * </ul>
+ *
+ * <p>
+ * Values selected as a whole are copied by {@link InclusionProgram#copy(
+ * com.google.gson.JsonElement)}. {@link InclusionProgram#apply(
+ * com.google.gson.JsonElement)} calls the method of the root node, so the only
+ * virtual call of the program is the one into it. The class file has version 52
+ * (Java 8), with the stack map frames the verifier requires.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class InclusionProgramWriter
+{
+    private static final String PROGRAM      = "org/czeal/jsonfilter/InclusionProgram";
+    private static final String JSON_ELEMENT = "com/google/gson/JsonElement";
+    private static final String JSON_OBJECT  = "com/google/gson/JsonObject";
+    private static final String JSON_ARRAY   = "com/google/gson/JsonArray";
+
+
+    /**
+     * Method descriptors.
+     */
+    private static final String ELEMENT_TO_ELEMENT = "(L" + JSON_ELEMENT + ";)L" + JSON_ELEMENT + ";";
+    private static final String OBJECT_TO_ELEMENT  = "(L" + JSON_OBJECT + ";)L" + JSON_ELEMENT + ";";
+    private static final String ARRAY_TO_ELEMENT   = "(L" + JSON_ARRAY + ";)L" + JSON_ELEMENT + ";";
+
+
+    /**
+     * Access flags.
+     */
+    private static final int ACC_PRIVATE   = 0x0002;
+    private static final int ACC_STATIC    = 0x0008;
+    private static final int ACC_FINAL     = 0x0010;
+    private static final int ACC_SUPER     = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+
+    /**
+     * Constant pool tags.
+     */
+    private static final int CONSTANT_UTF8         = 1;
+    private static final int CONSTANT_CLASS        = 7;
+    private static final int CONSTANT_STRING       = 8;
+    private static final int CONSTANT_METHODREF    = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+
+    /**
+     * Opcodes.
+     */
+    private static final int ICONST_0      = 0x03;
+    private static final int LDC_W         = 0x13;
+    private static final int ILOAD_1       = 0x1b;
+    private static final int ILOAD_3       = 0x1d;
+    private static final int ALOAD_0       = 0x2a;
+    private static final int ALOAD_1       = 0x2b;
+    private static final int ALOAD_2       = 0x2c;
+    private static final int ISTORE_1      = 0x3c;
+    private static final int ISTORE_3      = 0x3e;
+    private static final int ASTORE_1      = 0x4c;
+    private static final int ASTORE_2      = 0x4d;
+    private static final int DUP           = 0x59;
+    private static final int IINC          = 0x84;
+    private static final int IFEQ          = 0x99;
+    private static final int IF_ICMPGE     = 0xa2;
+    private static final int GOTO          = 0xa7;
+    private static final int ARETURN       = 0xb0;
+    private static final int RETURN        = 0xb1;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC  = 0xb8;
+    private static final int NEW           = 0xbb;
+    private static final int CHECKCAST     = 0xc0;
+    private static final int INSTANCEOF    = 0xc1;
+    private static final int IFNULL        = 0xc6;
+
+
+    /**
+     * Verification types of stack map frames.
+     */
+    private static final int ITEM_INTEGER = 1;
+    private static final int ITEM_OBJECT  = 7;
+    private static final int FULL_FRAME   = 255;
+
+
+    /**
+     * The largest size of the code of a method.
+     */
+    private static final int MAX_CODE_LENGTH = 65535;
+
+
+    private final String className;
+
+
+    /**
+     * The constant pool. Entries are keyed by their tag and contents, and the
+     * bytes of each entry are kept in the order of their indexes.
+     */
+    private final Map<String, Integer> constants = new HashMap<>();
+    private final ByteArrayOutputStream pool     = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut       = new DataOutputStream(pool);
+    private int constantCount = 1;
+
+
+    /**
+     * The numbers of the nodes with sub nodes.
+     */
+    private final Map<Node, Integer> numbers = new IdentityHashMap<>();
+    private final List<Node> nodes           = new ArrayList<>();
+
+
+    /**
+     * Constructs a writer of a class with the given internal name, e.g. {@code
+     * org/czeal/jsonfilter/InclusionProgram$Tree1}.
+     *
+     * @param className
+     *         The internal name of the class, in the package of {@link
+     *         InclusionProgram}.
+     */
+    InclusionProgramWriter(String className)
+    {
+        this.className = className;
+    }
+
+
+    /**
+     * Writes the class file of a program specialized for the given node tree.
+     *
+     * @param root
+     *         The root of the inclusion node tree.
+     *
+     * @return
+     *         The class file.
+     *
+     * @throws IllegalArgumentException
+     *         If the node tree is too large for a class file, e.g. a node has
+     *         thousands of sub nodes.
+     */
+    byte[] write(Node root)
+    {
+        number(root);
+
+        try
+        {
+            ByteArrayOutputStream methods = new ByteArrayOutputStream();
+            DataOutputStream out          = new DataOutputStream(methods);
+
+            writeConstructor(out);
+            writeApply(out, root);
+
+            for (int i = 0; i < nodes.size(); i++)
+            {
+                writeElement(out, i);
+                writeObject(out, nodes.get(i));
+                writeArray(out, i);
+            }
+
+            int thisClass  = classConstant(className);
+            int superClass = classConstant(PROGRAM);
+
+            if (constantCount > 0xFFFF)
+            {
+                // Too many keys and methods.
+                throw new IllegalArgumentException("The node tree is too large to be compiled.");
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream file       = new DataOutputStream(bytes);
+
+            file.writeInt(0xCAFEBABE);
+            file.writeShort(0);
+            file.writeShort(52);
+            file.writeShort(constantCount);
+            pool.writeTo(file);
+            file.writeShort(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+            file.writeShort(thisClass);
+            file.writeShort(superClass);
+            file.writeShort(0);
+            file.writeShort(0);
+            file.writeShort(2 + nodes.size() * 3);
+            methods.writeTo(file);
+            file.writeShort(0);
+
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            // Never happens with byte arrays, except for a key whose encoded
+            // form is longer than a constant can hold.
+            throw new IllegalArgumentException("The node tree is too large to be compiled.", e);
+        }
+    }
+
+
+    /**
+     * Numbers the nodes with sub nodes in the given tree, depth first.
+     */
+    private void number(Node node)
+    {
+        if (node.getSubNodes() == null || numbers.containsKey(node))
+        {
+            // Copied as a whole, or already numbered.
+            return;
+        }
+
+        numbers.put(node, nodes.size());
+        nodes.add(node);
+
+        for (Node subNode : node.getSubNodes())
+        {
+            number(subNode);
+        }
+    }
+
+
+    private void writeConstructor(DataOutputStream out) throws IOException
+    {
+        Code code = new Code();
+
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL, methodConstant(PROGRAM, "<init>", "()V"));
+        code.op(RETURN);
+
+        writeMethod(out, 0, "<init>", "()V", code, 1, 1);
+    }
+
+
+    private void writeApply(DataOutputStream out, Node root) throws IOException
+    {
+        Code code = new Code();
+
+        code.op(ALOAD_1);
+        code.op(INVOKESTATIC, elementMethod(root));
+        code.op(ARETURN);
+
+        writeMethod(out, ACC_FINAL, "apply", ELEMENT_TO_ELEMENT, code, 1, 2);
+    }
+
+
+    /**
+     * Writes {@code element<i>}, which filters an object or an array, and copies
+     * any other value.
+     */
+    private void writeElement(DataOutputStream out, int number) throws IOException
+    {
+        Code code     = new Code();
+        int[] element = { classConstant(JSON_ELEMENT) };
+
+        code.op(ALOAD_0);
+        code.op(INSTANCEOF, classConstant(JSON_OBJECT));
+        int notObject = code.branch(IFEQ);
+        code.op(ALOAD_0);
+        code.op(CHECKCAST, classConstant(JSON_OBJECT));
+        code.op(INVOKESTATIC, methodConstant(className, "object" + number, OBJECT_TO_ELEMENT));
+        code.op(ARETURN);
+
+        code.label(notObject, element);
+        code.op(ALOAD_0);
+        code.op(INSTANCEOF, classConstant(JSON_ARRAY));
+        int notArray = code.branch(IFEQ);
+        code.op(ALOAD_0);
+        code.op(CHECKCAST, classConstant(JSON_ARRAY));
+        code.op(INVOKESTATIC, methodConstant(className, "array" + number, ARRAY_TO_ELEMENT));
+        code.op(ARETURN);
+
+        code.label(notArray, element);
+        code.op(ALOAD_0);
+        code.op(INVOKESTATIC, methodConstant(PROGRAM, "copy", ELEMENT_TO_ELEMENT));
+        code.op(ARETURN);
+
+        writeMethod(out, ACC_PRIVATE | ACC_STATIC, "element" + number, ELEMENT_TO_ELEMENT, code, 1, 1);
+    }
+
+
+    /**
+     * Writes {@code object<i>}, which copies the members selected by the sub
+     * nodes into a new JSON object, in the order of the sub nodes.
+     */
+    private void writeObject(DataOutputStream out, Node node) throws IOException
+    {
+        Code code    = new Code();
+        int object   = classConstant(JSON_OBJECT);
+        int get      = methodConstant(JSON_OBJECT, "get", "(Ljava/lang/String;)L" + JSON_ELEMENT + ";");
+        int add      = methodConstant(JSON_OBJECT, "add", "(Ljava/lang/String;L" + JSON_ELEMENT + ";)V");
+        int[] locals = { object, object, classConstant(JSON_ELEMENT) };
+
+        // JsonObject target = new JsonObject();
+        code.op(NEW, object);
+        code.op(DUP);
+        code.op(INVOKESPECIAL, methodConstant(JSON_OBJECT, "<init>", "()V"));
+        code.op(ASTORE_1);
+
+        for (Node subNode : node.getSubNodes())
+        {
+            int key = stringConstant(subNode.getKey());
+
+            // JsonElement value = source.get(key);
+            code.op(ALOAD_0);
+            code.op(LDC_W, key);
+            code.op(INVOKEVIRTUAL, get);
+            code.op(ASTORE_2);
+
+            // if (value != null) target.add(key, element<j>(value));
+            code.op(ALOAD_2);
+            int absent = code.branch(IFNULL);
+            code.op(ALOAD_1);
+            code.op(LDC_W, key);
+            code.op(ALOAD_2);
+            code.op(INVOKESTATIC, elementMethod(subNode));
+            code.op(INVOKEVIRTUAL, add);
+
+            code.label(absent, locals);
+        }
+
+        code.op(ALOAD_1);
+        code.op(ARETURN);
+
+        writeMethod(out, ACC_PRIVATE | ACC_STATIC, "object" + numbers.get(node), OBJECT_TO_ELEMENT, code, 3, 3);
+    }
+
+
+    /**
+     * Writes {@code array<i>}, which filters every element of a JSON array by
+     * {@code element<i>}.
+     */
+    private void writeArray(DataOutputStream out, int number) throws IOException
+    {
+        Code code    = new Code();
+        int array    = classConstant(JSON_ARRAY);
+        int[] locals = { array, -ITEM_INTEGER, array, -ITEM_INTEGER };
+
+        // int size = source.size();
+        code.op(ALOAD_0);
+        code.op(INVOKEVIRTUAL, methodConstant(JSON_ARRAY, "size", "()I"));
+        code.op(ISTORE_1);
+
+        // JsonArray target = new JsonArray(size);
+        code.op(NEW, array);
+        code.op(DUP);
+        code.op(ILOAD_1);
+        code.op(INVOKESPECIAL, methodConstant(JSON_ARRAY, "<init>", "(I)V"));
+        code.op(ASTORE_2);
+
+        // for (int i = 0; i < size; i++) target.add(element<i>(source.get(i)));
+        code.op(ICONST_0);
+        code.op(ISTORE_3);
+        int loop = code.position();
+        code.frame(locals);
+        code.op(ILOAD_3);
+        code.op(ILOAD_1);
+        int end = code.branch(IF_ICMPGE);
+        code.op(ALOAD_2);
+        code.op(ALOAD_0);
+        code.op(ILOAD_3);
+        code.op(INVOKEVIRTUAL, methodConstant(JSON_ARRAY, "get", "(I)L" + JSON_ELEMENT + ";"));
+        code.op(INVOKESTATIC, methodConstant(className, "element" + number, ELEMENT_TO_ELEMENT));
+        code.op(INVOKEVIRTUAL, methodConstant(JSON_ARRAY, "add", "(L" + JSON_ELEMENT + ";)V"));
+        code.op(IINC);
+        code.u1(3);
+        code.u1(1);
+        code.jump(GOTO, loop);
+
+        code.label(end, locals);
+        code.op(ALOAD_2);
+        code.op(ARETURN);
+
+        writeMethod(out, ACC_PRIVATE | ACC_STATIC, "array" + number, ARRAY_TO_ELEMENT, code, 3, 4);
+    }
+
+
+    /**
+     * Returns the constant of the method which filters a value by the given node.
+     */
+    private int elementMethod(Node node) throws IOException
+    {
+        if (node.getSubNodes() == null)
+        {
+            // The value is copied as a whole.
+            return methodConstant(PROGRAM, "copy", ELEMENT_TO_ELEMENT);
+        }
+
+        return methodConstant(className, "element" + numbers.get(node), ELEMENT_TO_ELEMENT);
+    }
+
+
+    private void writeMethod(DataOutputStream out, int access, String name, String descriptor,
+            Code code, int maxStack, int maxLocals) throws IOException
+    {
+        byte[] bytes = code.bytes.toByteArray();
+
+        if (bytes.length > MAX_CODE_LENGTH)
+        {
+            // A node with too many sub nodes.
+            throw new IllegalArgumentException("The node tree is too large to be compiled.");
+        }
+
+        byte[] frames = code.frames.toByteArray();
+        int frameAttribute = (code.frameCount == 0) ? 0 : 6 + 2 + frames.length;
+
+        out.writeShort(access);
+        out.writeShort(utf8Constant(name));
+        out.writeShort(utf8Constant(descriptor));
+        out.writeShort(1);
+
+        // The Code attribute.
+        out.writeShort(utf8Constant("Code"));
+        out.writeInt(2 + 2 + 4 + bytes.length + 2 + 2 + frameAttribute);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeShort(0);
+
+        if (code.frameCount == 0)
+        {
+            out.writeShort(0);
+            return;
+        }
+
+        // The StackMapTable attribute of the code.
+        out.writeShort(1);
+        out.writeShort(utf8Constant("StackMapTable"));
+        out.writeInt(2 + frames.length);
+        out.writeShort(code.frameCount);
+        out.write(frames);
+    }
+
+
+    private int utf8Constant(String value) throws IOException
+    {
+        String entry   = CONSTANT_UTF8 + ":" + value;
+        Integer index  = constants.get(entry);
+
+        if (index != null)
+        {
+            return index;
+        }
+
+        poolOut.writeByte(CONSTANT_UTF8);
+        poolOut.writeUTF(value);
+
+        return addConstant(entry);
+    }
+
+
+    private int classConstant(String name) throws IOException
+    {
+        String entry  = CONSTANT_CLASS + ":" + name;
+        Integer index = constants.get(entry);
+
+        if (index != null)
+        {
+            return index;
+        }
+
+        int nameIndex = utf8Constant(name);
+
+        poolOut.writeByte(CONSTANT_CLASS);
+        poolOut.writeShort(nameIndex);
+
+        return addConstant(entry);
+    }
+
+
+    private int stringConstant(String value) throws IOException
+    {
+        String entry  = CONSTANT_STRING + ":" + value;
+        Integer index = constants.get(entry);
+
+        if (index != null)
+        {
+            return index;
+        }
+
+        int valueIndex = utf8Constant(value);
+
+        poolOut.writeByte(CONSTANT_STRING);
+        poolOut.writeShort(valueIndex);
+
+        return addConstant(entry);
+    }
+
+
+    private int methodConstant(String owner, String name, String descriptor) throws IOException
+    {
+        String entry  = CONSTANT_METHODREF + ":" + owner + "." + name + descriptor;
+        Integer index = constants.get(entry);
+
+        if (index != null)
+        {
+            return index;
+        }
+
+        int ownerIndex       = classConstant(owner);
+        int nameIndex        = utf8Constant(name);
+        int descriptorIndex  = utf8Constant(descriptor);
+        String nameAndType   = CONSTANT_NAME_AND_TYPE + ":" + name + descriptor;
+        Integer nameAndIndex = constants.get(nameAndType);
+
+        if (nameAndIndex == null)
+        {
+            poolOut.writeByte(CONSTANT_NAME_AND_TYPE);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descriptorIndex);
+            nameAndIndex = addConstant(nameAndType);
+        }
+
+        poolOut.writeByte(CONSTANT_METHODREF);
+        poolOut.writeShort(ownerIndex);
+        poolOut.writeShort(nameAndIndex);
+
+        return addConstant(entry);
+    }
+
+
+    private int addConstant(String entry)
+    {
+        int index = constantCount++;
+
+        constants.put(entry, index);
+
+        return index;
+    }
+
+
+    /**
+     * The code of a method being written, with its stack map frames.
+     */
+    private static final class Code
+    {
+        final Bytes bytes                  = new Bytes();
+        final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        int frameCount;
+
+
+        /**
+         * The position of the last frame, or -1 if there is none.
+         */
+        private int lastFrame = -1;
+
+
+        int position()
+        {
+            return bytes.size();
+        }
+
+
+        void u1(int value)
+        {
+            bytes.write(value);
+        }
+
+
+        void op(int opcode)
+        {
+            bytes.write(opcode);
+        }
+
+
+        /**
+         * Writes an instruction with a constant pool index.
+         */
+        void op(int opcode, int index)
+        {
+            bytes.write(opcode);
+            bytes.write(index >>> 8);
+            bytes.write(index);
+        }
+
+
+        /**
+         * Writes a branch instruction whose target is set by {@link #label(int,
+         * int[])}, and returns its position.
+         */
+        int branch(int opcode)
+        {
+            int position = position();
+
+            bytes.write(opcode);
+            bytes.write(0);
+            bytes.write(0);
+
+            return position;
+        }
+
+
+        /**
+         * Writes a branch instruction to the given earlier position.
+         */
+        void jump(int opcode, int target)
+        {
+            int offset = target - position();
+
+            bytes.write(opcode);
+            bytes.write(offset >>> 8);
+            bytes.write(offset);
+        }
+
+
+        /**
+         * Makes the branch at the given position jump to the current position,
+         * and records the frame there.
+         */
+        void label(int branch, int[] locals)
+        {
+            int offset = position() - branch;
+
+            if (offset > Short.MAX_VALUE)
+            {
+                // Never happens, as the code of a method is limited.
+                throw new IllegalArgumentException("The node tree is too large to be compiled.");
+            }
+
+            bytes.set(branch + 1, offset >>> 8);
+            bytes.set(branch + 2, offset);
+
+            frame(locals);
+        }
+
+
+        /**
+         * Records a full frame with the given locals and an empty stack at the
+         * current position. A negative local is a verification type, any other
+         * one is the constant of the class of an object.
+         */
+        void frame(int[] locals)
+        {
+            int position = position();
+            int delta    = (lastFrame < 0) ? position : position - lastFrame - 1;
+
+            frames.write(FULL_FRAME);
+            frames.write(delta >>> 8);
+            frames.write(delta);
+            frames.write(locals.length >>> 8);
+            frames.write(locals.length);
+
+            for (int local : locals)
+            {
+                if (local < 0)
+                {
+                    frames.write(-local);
+                    continue;
+                }
+
+                frames.write(ITEM_OBJECT);
+                frames.write(local >>> 8);
+                frames.write(local);
+            }
+
+            // An empty stack.
+            frames.write(0);
+            frames.write(0);
+
+            frameCount++;
+            lastFrame = position;
+        }
+    }
+
+
+    /**
+     * A byte array output stream whose bytes can be overwritten, to set the
+     * targets of forward branches.
+     */
+    private static final class Bytes extends ByteArrayOutputStream
+    {
+        void set(int position, int value)
+        {
+            buf[position] = (byte)value;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.Writer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A utility class for the streaming filters built on Gson's {@link JsonReader}
+ * and {@link JsonWriter}.
+ *
+ * @author Hideki Ikeda
+ */
+final class JsonStreams
+{
+    private JsonStreams()
+    {
+    }
+
+
+    /**
+     * Copies the next JSON value from the reader to the writer token by token.
+     *
+     * <p>
+     * Numbers are copied as they appear in the source, without being converted
+     * to any Java number type.
+     * </p>
+     *
+     * @param reader
+     *         The reader positioned at the beginning of a JSON value.
+     *
+     * @param writer
+     *         The writer to copy the JSON value into.
+     *
+     * @throws IOException
+     *         If an I/O error occurs.
+     *
+     * @throws IllegalStateException
+     *         If the reader has no more JSON value to read.
+     */
+    static void copy(JsonReader reader, JsonWriter writer) throws IOException
+    {
+        // The nesting depth relative to the first token.
+        int depth = 0;
+
+        do
+        {
+            switch (reader.peek())
+            {
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    writer.beginArray();
+                    depth++;
+                    break;
+
+                case END_ARRAY:
+                    reader.endArray();
+                    writer.endArray();
+                    depth--;
+                    break;
+
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    writer.beginObject();
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                    reader.endObject();
+                    writer.endObject();
+                    depth--;
+                    break;
+
+                case NAME:
+                    writer.name(reader.nextName());
+                    break;
+
+                case STRING:
+                    writer.value(reader.nextString());
+                    break;
+
+                case NUMBER:
+                    // Copy the number literal as is.
+                    writer.jsonValue(reader.nextString());
+                    break;
+
+                case BOOLEAN:
+                    writer.value(reader.nextBoolean());
+                    break;
+
+                case NULL:
+                    reader.nextNull();
+                    writer.nullValue();
+                    break;
+
+                default:
+                    // The end of the document.
+                    throw new IllegalStateException("Expected a JSON value but was END_DOCUMENT.");
+            }
+        }
+        while (depth > 0);
+    }
+
+
+    /**
+     * Returns a {@link Writer} which appends characters to the given {@link
+     * Appendable}, or the {@code Appendable} itself if it is a {@code Writer}.
+     *
+     * @param out
+     *         The destination of the characters.
+     *
+     * @return
+     *         A writer appending to {@code out}.
+     */
+    static Writer writer(Appendable out)
+    {
+        if (out instanceof Writer)
+        {
+            return (Writer)out;
+        }
+
+        return new AppendableWriter(out);
+    }
+
+
+    private static final class AppendableWriter extends Writer
+    {
+        private final Appendable out;
+
+
+        AppendableWriter(Appendable out)
+        {
+            this.out = out;
+        }
+
+
+        @Override
+        public void write(int c) throws IOException
+        {
+            out.append((char)c);
+        }
+
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException
+        {
+            for (int i = off; i < off + len; i++)
+            {
+                out.append(cbuf[i]);
+            }
+        }
+
+
+        @Override
+        public void write(String str, int off, int len) throws IOException
+        {
+            out.append(str, off, off + len);
+        }
+
+
+        @Override
+        public void flush()
+        {
+        }
+
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A sequence of the memory-mapped segments of a file.
+ *
+ * <p>
+ * A single {@link MappedByteBuffer} can't map more than 2 GB, so the file is
+ * mapped one segment at a time while it is read sequentially. Only the current
+ * segment is referenced, so the heap usage does not depend on the file size and
+ * the bytes are read directly from the page cache. The channel is not closed by
+ * this class.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class MappedSegments
+{
+    /**
+     * The default size of a mapped segment.
+     */
+    static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+
+    private final FileChannel channel;
+    private final long size;
+    private final long segmentSize;
+
+    /**
+     * The position of the next segment in the file.
+     */
+    private long position;
+
+
+    MappedSegments(FileChannel channel) throws IOException
+    {
+        this(channel, DEFAULT_SEGMENT_SIZE);
+    }
+
+
+    MappedSegments(FileChannel channel, long segmentSize) throws IOException
+    {
+        if (segmentSize < 1 || segmentSize > Integer.MAX_VALUE)
+        {
+            // The segment size must fit in a mapped byte buffer.
+            throw new IllegalArgumentException("The segment size is out of range.");
+        }
+
+        this.channel     = channel;
+        this.size        = channel.size();
+        this.segmentSize = segmentSize;
+    }
+
+
+    /**
+     * Maps the next segment of the file.
+     *
+     * @return
+     *         The next segment, or {@code null} if the end of the file has been
+     *         reached.
+     */
+    ByteBuffer next() throws IOException
+    {
+        if (position >= size)
+        {
+            // The end of the file.
+            return null;
+        }
+
+        MappedByteBuffer segment = channel.map(
+                FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+
+        position += segment.capacity();
+
+        return segment;
+    }
+}
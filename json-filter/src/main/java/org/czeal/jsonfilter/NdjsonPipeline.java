@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * A pipeline filtering newline-delimited JSON (NDJSON, also known as JSON Lines)
+ * on multiple threads.
+ *
+ * <p>
+ * The input is split on line boundaries and every non-blank line is filtered as
+ * an independent JSON value with a single compiled filter. Lines are grouped into
+ * batches which are filtered on the given executor, and the filtered batches are
+ * written to the output in the input order, one record per line. Blank lines are
+ * skipped.
+ * </p>
+ *
+ * <p>
+ * The input is read and the output is written on the calling thread. At most
+ * a bounded number of batches is in flight at a time, so memory usage does not
+ * grow with the size of the input. The executor is not shut down by this class.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,user(name)");
+ * ExecutorService executor = Executors.newFixedThreadPool(8);
+ *
+ * NdjsonPipeline pipeline = new NdjsonPipeline(compiled, executor);
+ *
+ * try (OutputStream out = Files.newOutputStream(Paths.get("filtered.ndjson")))
+ * {
+ *     NdjsonStats stats = pipeline.apply(Paths.get("events.ndjson"), out);
+ *
+ *     System.out.println(stats.getRecordsPerSecond());
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class NdjsonPipeline
+{
+    /**
+     * The default number of lines in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+
+    /**
+     * The number of batches in flight per available processor.
+     */
+    private static final int PENDING_BATCHES_PER_PROCESSOR = 2;
+
+
+    /**
+     * An input stream counting the bytes read.
+     */
+    private static final class CountingInputStream extends FilterInputStream
+    {
+        private long count;
+
+
+        private CountingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+
+        @Override
+        public int read() throws IOException
+        {
+            int b = super.read();
+
+            if (b >= 0)
+            {
+                count++;
+            }
+
+            return b;
+        }
+
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            int n = super.read(b, off, len);
+
+            if (n > 0)
+            {
+                count += n;
+            }
+
+            return n;
+        }
+    }
+
+
+    /**
+     * An output stream counting the bytes written.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream
+    {
+        private long count;
+
+
+        private CountingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            count++;
+        }
+
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+
+    private final CompiledFilter filter;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final InclusionFilter inclusionFilter = new InclusionFilter();
+    private final ExclusionFilter exclusionFilter = new ExclusionFilter();
+
+
+    /**
+     * Constructs an {@link NdjsonPipeline} instance with the default batch size.
+     *
+     * @param filter
+     *         The compiled filter to apply to every record.
+     *
+     * @param executor
+     *         The executor to filter batches on.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the executor is {@code null}.
+     */
+    public NdjsonPipeline(CompiledFilter filter, ExecutorService executor)
+    {
+        this(filter, executor, DEFAULT_BATCH_SIZE);
+    }
+
+
+    /**
+     * Constructs an {@link NdjsonPipeline} instance.
+     *
+     * @param filter
+     *         The compiled filter to apply to every record.
+     *
+     * @param executor
+     *         The executor to filter batches on.
+     *
+     * @param batchSize
+     *         The number of lines in a batch.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter or the executor is {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the batch size is less than 1.
+     */
+    public NdjsonPipeline(CompiledFilter filter, ExecutorService executor, int batchSize)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        if (executor == null)
+        {
+            // The executor can't be null.
+            throw new NullPointerException("The executor can't be null.");
+        }
+
+        if (batchSize < 1)
+        {
+            // The batch size must be positive.
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+
+        this.filter    = filter;
+        this.executor  = executor;
+        this.batchSize = batchSize;
+    }
+
+
+    /**
+     * Filters the NDJSON in the given file and writes the filtered records to the
+     * given output stream.
+     *
+     * @param source
+     *         The NDJSON file encoded in UTF-8.
+     *
+     * @param out
+     *         The output stream to write the filtered NDJSON to in UTF-8. The
+     *         stream is flushed but not closed.
+     *
+     * @return
+     *         The statistics of this run.
+     *
+     * @throws IOException
+     *         If an I/O error occurs, or a record is not valid JSON.
+     */
+    public NdjsonStats apply(Path source, OutputStream out) throws IOException
+    {
+        try (InputStream in = Files.newInputStream(source))
+        {
+            return apply(in, out);
+        }
+    }
+
+
+    /**
+     * Filters the NDJSON read from the given input stream and writes the filtered
+     * records to the given output stream.
+     *
+     * @param in
+     *         The input stream to read NDJSON from in UTF-8. The stream is not
+     *         closed.
+     *
+     * @param out
+     *         The output stream to write the filtered NDJSON to in UTF-8. The
+     *         stream is flushed but not closed.
+     *
+     * @return
+     *         The statistics of this run.
+     *
+     * @throws IOException
+     *         If an I/O error occurs, or a record is not valid JSON.
+     */
+    public NdjsonStats apply(InputStream in, OutputStream out) throws IOException
+    {
+        long start = System.nanoTime();
+
+        CountingInputStream countingIn   = new CountingInputStream(in);
+        CountingOutputStream countingOut = new CountingOutputStream(out);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(countingIn, StandardCharsets.UTF_8));
+        Writer writer         = new BufferedWriter(new OutputStreamWriter(countingOut, StandardCharsets.UTF_8));
+
+        int maxPending = Runtime.getRuntime().availableProcessors() * PENDING_BATCHES_PER_PROCESSOR;
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+
+        long recordCount = 0;
+        long lineNumber  = 0;
+
+        try
+        {
+            List<String> batch = new ArrayList<>(batchSize);
+            long firstLineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+
+                if (line.isBlank())
+                {
+                    // Skip blank lines. Inside a batch, a placeholder is kept so
+                    // that errors refer to the right line.
+                    if (!batch.isEmpty())
+                    {
+                        batch.add(null);
+                    }
+
+                    continue;
+                }
+
+                if (batch.isEmpty())
+                {
+                    firstLineNumber = lineNumber;
+                }
+
+                batch.add(line);
+                recordCount++;
+
+                if (batch.size() < batchSize)
+                {
+                    continue;
+                }
+
+                if (pending.size() >= maxPending)
+                {
+                    // Too many batches are in flight. Write the oldest one first.
+                    writer.write(await(pending.removeFirst()));
+                }
+
+                pending.addLast(submit(batch, firstLineNumber));
+                batch = new ArrayList<>(batchSize);
+            }
+
+            if (!batch.isEmpty())
+            {
+                pending.addLast(submit(batch, firstLineNumber));
+            }
+
+            // Write the remaining batches in order.
+            while (!pending.isEmpty())
+            {
+                writer.write(await(pending.removeFirst()));
+            }
+
+            writer.flush();
+        }
+        finally
+        {
+            // Cancel the batches left behind by a failure.
+            for (Future<String> future : pending)
+            {
+                future.cancel(true);
+            }
+        }
+
+        return new NdjsonStats(recordCount, countingIn.count, countingOut.count, System.nanoTime() - start);
+    }
+
+
+    private Future<String> submit(List<String> batch, long firstLineNumber)
+    {
+        return executor.submit(() -> filterBatch(batch, firstLineNumber));
+    }
+
+
+    private static String await(Future<String> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            // Restore the interrupt status for the caller.
+            Thread.currentThread().interrupt();
+
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while filtering NDJSON.");
+            ex.initCause(e);
+            throw ex;
+        }
+        catch (ExecutionException e)
+        {
+            // Rethrow the failure of the batch as it is. Some executors, such as
+            // ForkJoinPool, wrap a checked exception in a RuntimeException, so
+            // look for an IOException along the chain of causes.
+            Throwable cause = e.getCause();
+
+            for (Throwable t = cause; t != null; t = t.getCause())
+            {
+                if (t instanceof IOException)
+                {
+                    throw (IOException)t;
+                }
+            }
+
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+
+            if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
+
+    private String filterBatch(List<String> batch, long firstLineNumber) throws IOException
+    {
+        StringWriter out = new StringWriter(batch.size() * 64);
+        long lineNumber  = firstLineNumber;
+
+        for (String line : batch)
+        {
+            if (line != null)
+            {
+                filterRecord(line, lineNumber, out);
+                out.write('\n');
+            }
+
+            lineNumber++;
+        }
+
+        return out.toString();
+    }
+
+
+    private void filterRecord(String line, long lineNumber, Writer out) throws IOException
+    {
+        try
+        {
+            JsonReader reader = new JsonReader(new StringReader(line));
+            JsonWriter writer = new JsonWriter(out);
+
+            if (filter.getType() == FilterType.INCLUSION)
+            {
+                inclusionFilter.apply(reader, writer, filter);
+            }
+            else
+            {
+                exclusionFilter.apply(reader, writer, filter);
+            }
+
+            if (reader.peek() != JsonToken.END_DOCUMENT)
+            {
+                // A line must hold exactly one JSON value.
+                throw new IOException("Unexpected data after the JSON value.");
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            throw new IOException(String.format("The record at line %d is invalid.", lineNumber), e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+/**
+ * The statistics of a single run of an {@link NdjsonPipeline}.
+ *
+ * <p>
+ * The throughput figures are measured over the wall-clock time of the whole run,
+ * including reading the input and writing the output, so they can be used to
+ * estimate the time needed for a job of a given size.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+public final class NdjsonStats
+{
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+
+    private final long recordCount;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+
+
+    NdjsonStats(long recordCount, long bytesRead, long bytesWritten, long elapsedNanos)
+    {
+        this.recordCount  = recordCount;
+        this.bytesRead    = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+
+    /**
+     * Returns the number of records filtered. Blank lines are not counted.
+     *
+     * @return
+     *         The number of records.
+     */
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Returns the number of bytes read from the input.
+     *
+     * @return
+     *         The number of bytes read.
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+
+    /**
+     * Returns the number of bytes written to the output.
+     *
+     * @return
+     *         The number of bytes written.
+     */
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+
+    /**
+     * Returns the wall-clock time of the run in nanoseconds.
+     *
+     * @return
+     *         The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+
+    /**
+     * Returns the number of records filtered per second.
+     *
+     * @return
+     *         The record throughput, or 0 if no time has elapsed.
+     */
+    public double getRecordsPerSecond()
+    {
+        return perSecond(recordCount);
+    }
+
+
+    /**
+     * Returns the number of input bytes processed per second.
+     *
+     * @return
+     *         The byte throughput, or 0 if no time has elapsed.
+     */
+    public double getBytesPerSecond()
+    {
+        return perSecond(bytesRead);
+    }
+
+
+    private double perSecond(long count)
+    {
+        if (elapsedNanos <= 0)
+        {
+            return 0;
+        }
+
+        return count * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("%d records, %d bytes read, %d bytes written in %.3f ms (%.0f records/s, %.0f bytes/s)",
+                recordCount, bytesRead, bytesWritten, elapsedNanos / 1_000_000d,
+                getRecordsPerSecond(), getBytesPerSecond());
+    }
+}
@@ -16,6 +16,8 @@
 package org.czeal.jsonfilter;
 
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -28,6 +30,12 @@ import java.util.stream.Collectors;
  *
  * A class representing a hierarchical node.
  *
+ * <p>
+ * Instances of this class are immutable. The given sub nodes are copied into
+ * an unmodifiable list on construction, so a node tree can be safely shared
+ * across threads once it has been built.
+ * </p>
+ *
  * <h2>Node Properties</h2>
  * <p>A node has two properties: {@code key} and {@code subNodes}.</p>
  *
@@ -80,6 +88,19 @@ class Node
     private final String key;
     private final List<Node> subNodes;
 
+    /**
+     * The UTF-8 encoded key, or {@code null} if the key is {@code null}.
+     */
+    private final byte[] encodedKey;
+
+    /**
+     * An open-addressing hash table of the sub nodes keyed by their keys, or
+     * {@code null} if this node has no sub nodes. The length is a power of two
+     * and at least twice the number of the sub nodes, so that a lookup always
+     * terminates at an empty slot.
+     */
+    private final Node[] index;
+
 
     /**
      * Constructs a {@link Node} instance from the given key and sub nodes.
@@ -92,8 +113,49 @@ class Node
      */
     Node(String key, List<Node> subNodes)
     {
-        this.key      = key;
-        this.subNodes = subNodes;
+        this.key        = key;
+        this.subNodes   = (subNodes == null) ? null : List.copyOf(subNodes);
+        this.index      = (subNodes == null) ? null : buildIndex(this.subNodes);
+        this.encodedKey = (key == null) ? null : key.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static Node[] buildIndex(List<Node> subNodes)
+    {
+        int capacity = 2;
+
+        while (capacity < subNodes.size() * 2)
+        {
+            capacity <<= 1;
+        }
+
+        Node[] table = new Node[capacity];
+        int mask     = capacity - 1;
+
+        for (Node subNode : subNodes)
+        {
+            int i = spread(subNode.key.hashCode()) & mask;
+
+            // Find an empty slot by linear probing. If there is a sub node having
+            // the same key, keep the first one.
+            while (table[i] != null && !table[i].key.equals(subNode.key))
+            {
+                i = (i + 1) & mask;
+            }
+
+            if (table[i] == null)
+            {
+                table[i] = subNode;
+            }
+        }
+
+        return table;
+    }
+
+
+    private static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
     }
 
 
@@ -121,6 +183,108 @@ class Node
     }
 
 
+    /**
+     * Returns the sub node which has the given key.
+     *
+     * <p>
+     * The sub node is looked up in a hash table built on construction, so the
+     * cost does not depend on the number of the sub nodes.
+     * </p>
+     *
+     * @param key
+     *         The key of the sub node.
+     *
+     * @return
+     *         The sub node which has the given key, or {@code null} if this node
+     *         has no such sub node.
+     */
+    Node getSubNode(String key)
+    {
+        if (index == null)
+        {
+            return null;
+        }
+
+        int mask = index.length - 1;
+
+        for (int i = spread(key.hashCode()) & mask; ; i = (i + 1) & mask)
+        {
+            Node subNode = index[i];
+
+            if (subNode == null || subNode.key.equals(key))
+            {
+                return subNode;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the sub node whose key matches the given UTF-8 encoded bytes.
+     *
+     * <p>
+     * This method is intended for keys consisting of ASCII characters only, for
+     * which the given hash is equal to the hash code of the key string. Then, the
+     * key can be looked up without decoding it into a string.
+     * </p>
+     *
+     * @param source
+     *         The buffer holding the key.
+     *
+     * @param offset
+     *         The index of the first byte of the key in the buffer.
+     *
+     * @param length
+     *         The number of bytes of the key.
+     *
+     * @param hash
+     *         The hash code of the key computed in the same way as {@link
+     *         String#hashCode()}.
+     *
+     * @return
+     *         The sub node which has the given key, or {@code null} if this node
+     *         has no such sub node.
+     */
+    Node getSubNode(ByteBuffer source, int offset, int length, int hash)
+    {
+        if (index == null)
+        {
+            return null;
+        }
+
+        int mask = index.length - 1;
+
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask)
+        {
+            Node subNode = index[i];
+
+            if (subNode == null || subNode.matches(source, offset, length))
+            {
+                return subNode;
+            }
+        }
+    }
+
+
+    private boolean matches(ByteBuffer source, int offset, int length)
+    {
+        if (encodedKey.length != length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (encodedKey[i] != source.get(offset + i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
     /**
      * Converts this node to the string representation.
      *
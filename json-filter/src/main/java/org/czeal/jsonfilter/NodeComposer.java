@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A class for composing an inclusion {@link Node} tree with an exclusion {@link
+ * Node} tree into a single {@link ComposedNode} program.
+ *
+ * <p>
+ * Applying the program is equivalent to applying the inclusion and then applying
+ * the exclusion to the result. The composition is computed once here, following
+ * these principles:
+ * </p>
+ * <ul>
+ * <li>
+ * Where the exclusion specifies nothing, only the inclusion is left.
+ * </li>
+ * <li>
+ * Where the inclusion selects a whole value, only the exclusion is left.
+ * </li>
+ * <li>
+ * Members which are included but excluded as a whole are dropped from the
+ * program, so they are never looked at.
+ * </li>
+ * <li>
+ * Members which the exclusion does not specify are never looked up in the
+ * exclusion tree.
+ * </li>
+ * </ul>
+ *
+ * @author Hideki Ikeda
+ */
+class NodeComposer
+{
+    /**
+     * Composes the given inclusion and exclusion node trees.
+     *
+     * @param inclusion
+     *         The root of the inclusion node tree, applied first.
+     *
+     * @param exclusion
+     *         The root of the exclusion node tree, applied second.
+     *
+     * @return
+     *         The root of the composed program.
+     */
+    ComposedNode compose(Node inclusion, Node exclusion)
+    {
+        return compose(inclusion, exclusion, false);
+    }
+
+
+    private ComposedNode compose(Node inclusion, Node exclusion, boolean removedIfNull)
+    {
+        if (exclusion == null)
+        {
+            // The exclusion specifies nothing below here.
+            return ComposedNode.include(inclusion, removedIfNull);
+        }
+
+        if (exclusion.getSubNodes() == null)
+        {
+            // The exclusion removes the whole value, whatever the inclusion selects.
+            return ComposedNode.remove(inclusion.getKey());
+        }
+
+        if (inclusion.getSubNodes() == null)
+        {
+            // The inclusion selects the whole value. Only the exclusion is left.
+            return ComposedNode.exclude(exclusion, removedIfNull);
+        }
+
+        List<ComposedNode> subNodes = new ArrayList<>();
+
+        for (Node included : inclusion.getSubNodes())
+        {
+            Node excluded = exclusion.getSubNode(included.getKey());
+
+            if (excluded != null && excluded.getSubNodes() == null)
+            {
+                // The member is included and then excluded. Drop it.
+                continue;
+            }
+
+            // A member which the exclusion specifies is removed if it is null.
+            subNodes.add(compose(included, excluded, excluded != null));
+        }
+
+        return ComposedNode.composite(inclusion.getKey(), removedIfNull, subNodes);
+    }
+}
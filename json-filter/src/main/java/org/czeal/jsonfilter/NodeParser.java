@@ -16,11 +16,10 @@
 package org.czeal.jsonfilter;
 
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 
 /**
@@ -36,6 +35,13 @@ import java.util.stream.Collectors;
  * expected to be a comma-separated list where nested nodes are enclosed in parentheses.
  * </p>
  *
+ * <p>
+ * The input is scanned only once by a recursive-descent parser. Nodes having the
+ * same key are merged while scanning, in the order of their first occurrences,
+ * without building an unmerged tree or any substring of the input other than the
+ * keys.
+ * </p>
+ *
  * <h2>Example Usage</h2>
  * <h3>Example 1: A normal node.</h3>
  *
@@ -76,45 +82,42 @@ import java.util.stream.Collectors;
 class NodeParser
 {
     /**
-     * The pattern that expresses a node.
+     * A mutable node used while parsing. Sub nodes having the same key are merged
+     * into a single builder.
      */
-    private static final Pattern PATTERN = Pattern.compile("^([a-zA-Z0-9_\\s]*)(\\(([a-zA-Z0-9,()_\\s]*)\\))?$");
-
-
-    /**
-     * Helper method to split the input by the top-level commas.
-     */
-    private static List<String> splitByTopLevelCommas(String input)
+    private static final class Builder
     {
-        List<String> tokens = new LinkedList<>();
+        private final String key;
 
-        int depth      = 0;
-        int tokenStart = 0;
+        /**
+         * The sub nodes keyed by their keys, or {@code null} if the node has no
+         * parenthesized sub nodes.
+         */
+        private Map<String, Builder> subNodes;
 
-        // Process tokens.
-        for (int i = 0; i < input.length(); i++)
+
+        private Builder(String key)
         {
-            char c = input.charAt(i);
+            this.key = key;
+        }
 
-            if (c == '(')
-            {
-                depth++;
-            }
-            else if (c == ')')
+
+        private Node build()
+        {
+            if (subNodes == null)
             {
-                depth--;
+                return new Node(key, null);
             }
-            else if (c == ',' && depth == 0)
+
+            List<Node> built = new ArrayList<>(subNodes.size());
+
+            for (Builder subNode : subNodes.values())
             {
-                tokens.add(input.substring(tokenStart, i).trim());
-                tokenStart = i + 1;
+                built.add(subNode.build());
             }
-        }
 
-        // Process the last token.
-        tokens.add(input.substring(tokenStart).trim());
-
-        return tokens;
+            return new Node(key, built);
+        }
     }
 
 
@@ -168,6 +171,9 @@ class NodeParser
      * @return
      *         A parsed {@link Node} object, or {@code null} if the input is {@code
      *         null}.
+     *
+     * @throws IllegalArgumentException
+     *         If the input has invalid syntax.
      */
     Node parse(String input)
     {
@@ -176,54 +182,133 @@ class NodeParser
         // [Node Info]
         //   - key: "ROOT"
         //   - sub nodes: Nodes generated by parsing the input.
-        Node parsed = createNode("ROOT", input);
+        Builder root = new Builder("ROOT");
+
+        if (input == null)
+        {
+            return root.build();
+        }
+
+        root.subNodes = new LinkedHashMap<>();
+
+        int pos = parseNodes(input, 0, root.subNodes);
+
+        if (pos != input.length())
+        {
+            // The input has an unexpected character (e.g. an unbalanced closing
+            // parenthesis).
+            throw invalid(input, pos);
+        }
 
-        // Merge the parsed node if necessary.
-        return new NodeMerger().merge(parsed);
+        return root.build();
     }
 
 
-    private Node createNode(String key, String nodesAsString)
+    /**
+     * Parses comma-separated nodes starting at the given position into the given
+     * map, and returns the position of the first character which is not a part
+     * of the nodes.
+     */
+    private int parseNodes(String input, int pos, Map<String, Builder> target)
     {
-        return new Node(key.trim(), parseNodes(nodesAsString));
+        pos = parseNode(input, pos, target);
+
+        while (pos < input.length() && input.charAt(pos) == ',')
+        {
+            pos = parseNode(input, pos + 1, target);
+        }
+
+        return pos;
     }
 
 
-    private Node parseNode(String input)
+    /**
+     * Parses a node starting at the given position into the given map, and returns
+     * the position of the first character which is not a part of the node.
+     */
+    private int parseNode(String input, int pos, Map<String, Builder> target)
     {
-        // Matcher for a single node.
-        Matcher m = PATTERN.matcher(input);
+        int length = input.length();
 
-        // If the input does not match the pattern, throw an exception.
-        if (!m.matches())
+        // Find the bounds of the key excluding the surrounding whitespace.
+        pos = skipWhitespace(input, pos);
+
+        int keyStart = pos;
+        int keyEnd   = pos;
+
+        while (pos < length && isKeyChar(input.charAt(pos)))
         {
-            throw new IllegalArgumentException(
-                    String.format("The node format is invalid: '%s'.", input));
+            if (!isWhitespace(input.charAt(pos)))
+            {
+                keyEnd = pos + 1;
+            }
+
+            pos++;
         }
 
-        // Create the top-level node.
-        //
-        // [Node Info]
-        //   - key: The first matched group.
-        //   - sub nodes: Nodes generated by parsing the the third matched group.
-        return createNode(m.group(1), m.group(3));
+        String key = input.substring(keyStart, keyEnd);
+
+        // Merge the node into the existing one having the same key, if any.
+        Builder builder = target.get(key);
+
+        if (builder == null)
+        {
+            builder = new Builder(key);
+            target.put(key, builder);
+        }
+
+        if (pos < length && input.charAt(pos) == '(')
+        {
+            if (builder.subNodes == null)
+            {
+                builder.subNodes = new LinkedHashMap<>();
+            }
+
+            // Parse the sub nodes.
+            pos = parseNodes(input, pos + 1, builder.subNodes);
+
+            if (pos >= length || input.charAt(pos) != ')')
+            {
+                // The parenthesis is not closed.
+                throw invalid(input, pos);
+            }
+
+            pos = skipWhitespace(input, pos + 1);
+        }
+
+        return pos;
     }
 
 
-    private List<Node> parseNodes(String input)
+    private static int skipWhitespace(String input, int pos)
     {
-        if (input == null)
+        while (pos < input.length() && isWhitespace(input.charAt(pos)))
         {
-            return null;
+            pos++;
         }
 
-        // Split the input string by the top-level commas after trimming it.
-        List<String> topLevelNodes = splitByTopLevelCommas(input);
+        return pos;
+    }
+
 
-        // Parse each string in the list into a Node object and collect them as
-        // a list.
-        return topLevelNodes.stream()
-                            .map(this::parseNode)
-                            .collect(Collectors.toList());
+    private static boolean isKeyChar(char c)
+    {
+        return ('a' <= c && c <= 'z') ||
+               ('A' <= c && c <= 'Z') ||
+               ('0' <= c && c <= '9') ||
+               c == '_' || isWhitespace(c);
+    }
+
+
+    private static boolean isWhitespace(char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+
+    private static IllegalArgumentException invalid(String input, int pos)
+    {
+        return new IllegalArgumentException(
+                String.format("The node format is invalid: '%s' at index %d.", input, pos));
     }
 }
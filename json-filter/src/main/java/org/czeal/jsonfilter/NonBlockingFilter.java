@@ -0,0 +1,933 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * A push-style filter which filters a UTF-8 encoded JSON value received as a
+ * sequence of {@link ByteBuffer} chunks, without ever blocking.
+ *
+ * <p>
+ * The source is fed chunk by chunk with {@link #feed(ByteBuffer)}, which
+ * consumes the whole chunk and returns immediately, and the filtered output is
+ * taken with {@link #drain(ByteBuffer)} whenever the caller is ready to write it.
+ * {@link #end()} signals the end of the source. The filter is a state machine
+ * driven by the node tree of the compiled filter: between chunks it keeps only
+ * the nesting of the containers being filtered, the name being read, and the
+ * output not drained yet. A chunk may end anywhere, even inside a name, a string
+ * or a byte order mark. This makes the filter suitable for event loops such as
+ * the ones of Netty or NIO servers, where a thread can't wait for a whole
+ * document.
+ * </p>
+ *
+ * <p>
+ * The memory used by an instance doesn't depend on the size of the source. The
+ * output produced by one chunk is at most a few bytes more than the chunk plus
+ * the longest name, so draining the output after every chunk keeps the memory
+ * constant.
+ * </p>
+ *
+ * <p>
+ * The output is the same as the one of {@link InclusionFilter#apply(ByteBuffer,
+ * java.io.OutputStream, CompiledFilter)} or {@link ExclusionFilter#apply(
+ * ByteBuffer, java.io.OutputStream, CompiledFilter)} applied to the whole
+ * source, regardless of how the source is split into chunks. Values which are
+ * copied or skipped are validated against the JSON grammar in the same way as
+ * the byte filters, so a malformed source is rejected even where it is not
+ * written. An instance filters one JSON value, must not be used after it has
+ * thrown an exception, and is not thread-safe.
+ * </p>
+ *
+ * <p>Usage example:</p>
+ * <pre style="border:1px solid lightgray; padding:1px;">
+ * <code>
+ * CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id,author(name)");
+ *
+ * // One instance per response.
+ * NonBlockingFilter filter = new NonBlockingFilter(compiled);
+ *
+ * // On every chunk received.
+ * filter.feed(chunk);
+ * filter.drain(outputBuffer);
+ *
+ * // At the end of the response.
+ * filter.end();
+ * filter.drain(outputBuffer);
+ * </code>
+ * </pre>
+ *
+ * @author Hideki Ikeda
+ */
+public final class NonBlockingFilter
+{
+    /**
+     * The states of the filter.
+     */
+    private static final int START         = 0;
+    private static final int BOM           = 1;
+    private static final int VALUE         = 2;
+    private static final int OBJECT_FIRST  = 3;
+    private static final int OBJECT_NAME   = 4;
+    private static final int NAME          = 5;
+    private static final int COLON         = 6;
+    private static final int OBJECT_NEXT   = 7;
+    private static final int ARRAY_FIRST   = 8;
+    private static final int ARRAY_NEXT    = 9;
+    private static final int RAW           = 10;
+    private static final int END           = 11;
+
+
+    /**
+     * Actions for a value.
+     */
+    private static final int COPY   = 0;
+    private static final int FILTER = 1;
+    private static final int SKIP   = 2;
+
+
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+
+
+    /**
+     * The size of the pieces fed and of the buffer drained by {@link
+     * #transfer(MappedSegments, WritableByteChannel)}.
+     */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+
+    private final boolean inclusion;
+    private final Node root;
+    private final RawValueScanner raw = new RawValueScanner(StructuralScanner.getDefault());
+
+
+    private int state = START;
+
+
+    /**
+     * The nodes of the containers being filtered, and whether each of them is a
+     * JSON object.
+     */
+    private Node[] nodes      = new Node[16];
+    private boolean[] objects = new boolean[16];
+    private int depth;
+
+
+    /**
+     * The name being read or the last name read, including the quotes, and the
+     * hash code of its content.
+     */
+    private byte[] name = new byte[64];
+    private ByteBuffer nameView = ByteBuffer.wrap(name);
+    private int nameLength;
+    private int nameHash;
+    private boolean nameFast;
+    private boolean nameEscape;
+
+
+    /**
+     * The action and the node for the value of the current member, decided by
+     * its name.
+     */
+    private int memberAction;
+    private Node memberNode;
+
+
+    /**
+     * Whether the value being copied or skipped as is by {@link #raw} is written.
+     */
+    private boolean rawEmit;
+
+
+    /**
+     * The number of bytes of the byte order mark read.
+     */
+    private int bomLength;
+
+
+    /**
+     * The output not drained yet, between {@code outStart} and {@code outEnd}.
+     */
+    private byte[] out = new byte[1024];
+    private int outStart;
+    private int outEnd;
+    private boolean needsComma;
+
+
+    /**
+     * The number of bytes consumed before the current chunk, and the offset of the
+     * index 0 of the current chunk, for error messages.
+     */
+    private long consumed;
+    private long base;
+
+
+    /**
+     * A view of the current chunk to copy bytes from, created on demand.
+     */
+    private ByteBuffer copyView;
+
+
+    private boolean ended;
+
+
+    /**
+     * Constructs a {@link NonBlockingFilter} instance.
+     *
+     * @param filter
+     *         A compiled inclusion or exclusion filter.
+     *
+     * @throws NullPointerException
+     *         If the compiled filter is {@code null}.
+     */
+    public NonBlockingFilter(CompiledFilter filter)
+    {
+        if (filter == null)
+        {
+            // The compiled filter can't be null.
+            throw new NullPointerException("The compiled filter can't be null.");
+        }
+
+        this.inclusion = (filter.getType() == FilterType.INCLUSION);
+        this.root      = filter.getNode();
+    }
+
+
+    /**
+     * Consumes all the remaining bytes of the chunk.
+     *
+     * <p>
+     * The position of the chunk is advanced to its limit. The chunk is not
+     * referenced after this method returns, so the caller can reuse or release it.
+     * </p>
+     *
+     * @param chunk
+     *         The next chunk of the source.
+     *
+     * @throws NullPointerException
+     *         If the chunk is {@code null}.
+     *
+     * @throws IllegalStateException
+     *         If {@link #end()} has been called.
+     *
+     * @throws MalformedJsonException
+     *         If the source is not a valid JSON value.
+     */
+    public void feed(ByteBuffer chunk) throws MalformedJsonException
+    {
+        if (chunk == null)
+        {
+            // The chunk can't be null.
+            throw new NullPointerException("The chunk can't be null.");
+        }
+
+        if (ended)
+        {
+            // No more chunks can be fed after the end.
+            throw new IllegalStateException("The end of the source has been signaled.");
+        }
+
+        // Read words in little-endian order as the scanners expect, without
+        // changing the order of the given buffer.
+        ByteBuffer source = chunk.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int pos           = chunk.position();
+        int limit         = chunk.limit();
+
+        base     = consumed - pos;
+        copyView = null;
+
+        while (pos < limit)
+        {
+            pos = step(source, pos, limit);
+        }
+
+        consumed += limit - chunk.position();
+        copyView  = null;
+
+        chunk.position(limit);
+    }
+
+
+    /**
+     * Signals the end of the source.
+     *
+     * <p>
+     * The rest of the output, if any, becomes available to {@link
+     * #drain(ByteBuffer)}. Calling this method more than once has no effect.
+     * </p>
+     *
+     * @throws MalformedJsonException
+     *         If the source ends before its JSON value is complete.
+     */
+    public void end() throws MalformedJsonException
+    {
+        if (ended)
+        {
+            return;
+        }
+
+        ended = true;
+        base  = consumed;
+
+        if (state == RAW)
+        {
+            // A number or a keyword may end with the source.
+            raw.end(base);
+            endValue();
+        }
+
+        if (state != END)
+        {
+            throw error("Unexpected end of input", 0);
+        }
+    }
+
+
+    /**
+     * Returns whether the JSON value of the source is complete.
+     *
+     * <p>
+     * Only whitespace can be fed after the value is complete.
+     * </p>
+     *
+     * @return
+     *         {@code true} if the JSON value is complete.
+     */
+    public boolean isComplete()
+    {
+        return state == END;
+    }
+
+
+    /**
+     * Returns the number of the output bytes not drained yet.
+     *
+     * @return
+     *         The number of the pending output bytes.
+     */
+    public int pending()
+    {
+        return outEnd - outStart;
+    }
+
+
+    /**
+     * Moves as many pending output bytes as possible into the target buffer.
+     *
+     * @param target
+     *         The buffer to put the output bytes into.
+     *
+     * @return
+     *         The number of the bytes put into the target buffer.
+     *
+     * @throws NullPointerException
+     *         If the target buffer is {@code null}.
+     */
+    public int drain(ByteBuffer target)
+    {
+        if (target == null)
+        {
+            // The target buffer can't be null.
+            throw new NullPointerException("The target buffer can't be null.");
+        }
+
+        int n = Math.min(target.remaining(), outEnd - outStart);
+
+        target.put(out, outStart, n);
+        outStart += n;
+
+        if (outStart == outEnd)
+        {
+            // Everything has been drained. Start over from the beginning.
+            outStart = 0;
+            outEnd   = 0;
+        }
+
+        return n;
+    }
+
+
+    /**
+     * Filters the source file by reading its remaining mapped segments to the
+     * end, writing the output to the channel.
+     *
+     * <p>
+     * Each mapped segment is fed in pieces, and the output is drained after every
+     * piece, so the heap usage does not depend on the size of the segments. A value
+     * may be split across segments. Data after the JSON value is rejected by
+     * {@link #end()}.
+     * </p>
+     *
+     * @param in
+     *         The mapped segments of the source file.
+     *
+     * @param out
+     *         The channel to write the output into.
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the source is not a valid JSON value.
+     */
+    void transfer(MappedSegments in, WritableByteChannel out) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+
+        for (ByteBuffer segment = in.next(); segment != null; segment = in.next())
+        {
+            int limit = segment.limit();
+
+            while (segment.position() < limit)
+            {
+                segment.limit(Math.min(limit, segment.position() + TRANSFER_BUFFER_SIZE));
+                feed(segment);
+                segment.limit(limit);
+
+                write(out, buffer);
+            }
+        }
+
+        end();
+        write(out, buffer);
+    }
+
+
+    /**
+     * Writes all the pending output bytes to the channel through the buffer.
+     */
+    private void write(WritableByteChannel out, ByteBuffer buffer) throws IOException
+    {
+        while (pending() > 0)
+        {
+            buffer.clear();
+            drain(buffer);
+            buffer.flip();
+
+            while (buffer.hasRemaining())
+            {
+                out.write(buffer);
+            }
+        }
+    }
+
+
+    /**
+     * Processes bytes from the given index in the current state, and returns the
+     * index of the next byte to process.
+     */
+    private int step(ByteBuffer source, int pos, int limit) throws MalformedJsonException
+    {
+        switch (state)
+        {
+            case RAW:
+                return rawValue(source, pos, limit);
+
+            case NAME:
+                return readName(source, pos, limit);
+
+            case START:
+                if (source.get(pos) == (byte)0xEF)
+                {
+                    // The beginning of the byte order mark.
+                    state     = BOM;
+                    bomLength = 1;
+                    return pos + 1;
+                }
+
+                state = VALUE;
+                return pos;
+
+            case BOM:
+                if (source.get(pos) != ((bomLength == 1) ? (byte)0xBB : (byte)0xBF))
+                {
+                    throw error("Unexpected character", pos);
+                }
+
+                if (++bomLength == 3)
+                {
+                    state = VALUE;
+                }
+
+                return pos + 1;
+
+            default:
+                break;
+        }
+
+        byte b = source.get(pos);
+
+        if (b == ' ' || b == '\n' || b == '\r' || b == '\t')
+        {
+            // Whitespace between tokens is dropped.
+            return pos + 1;
+        }
+
+        switch (state)
+        {
+            case VALUE:
+                return beginValue(b, pos);
+
+            case OBJECT_FIRST:
+                if (b == '}')
+                {
+                    endContainer(true);
+                    return pos + 1;
+                }
+
+                return beginName(b, pos);
+
+            case OBJECT_NAME:
+                if (b == '}')
+                {
+                    throw error("Unexpected trailing comma", pos);
+                }
+
+                return beginName(b, pos);
+
+            case COLON:
+                if (b != ':')
+                {
+                    throw error("Expected ':'", pos);
+                }
+
+                lookUp();
+                state = VALUE;
+                return pos + 1;
+
+            case OBJECT_NEXT:
+                if (b == ',')
+                {
+                    state = OBJECT_NAME;
+                }
+                else if (b == '}')
+                {
+                    endContainer(true);
+                }
+                else
+                {
+                    throw error("Expected ','", pos);
+                }
+
+                return pos + 1;
+
+            case ARRAY_FIRST:
+                if (b == ']')
+                {
+                    endContainer(false);
+                    return pos + 1;
+                }
+
+                state = VALUE;
+                return pos;
+
+            case ARRAY_NEXT:
+                if (b == ',')
+                {
+                    state = VALUE;
+                }
+                else if (b == ']')
+                {
+                    endContainer(false);
+                }
+                else
+                {
+                    throw error("Expected ','", pos);
+                }
+
+                return pos + 1;
+
+            default:
+                throw error("Unexpected data after the JSON value", pos);
+        }
+    }
+
+
+    /**
+     * Decides the action for the value starting with the given byte, and starts
+     * it.
+     */
+    private int beginValue(byte b, int pos) throws MalformedJsonException
+    {
+        int action;
+        Node node;
+
+        if (depth == 0)
+        {
+            // The root value.
+            node   = root;
+            action = (inclusion || root.getSubNodes() != null) ? FILTER : SKIP;
+
+            if (action == SKIP)
+            {
+                // The whole root value is excluded. Write null in the same way as
+                // the tree-based filter.
+                separate();
+                put(NULL, 0, NULL.length);
+                needsComma = true;
+            }
+        }
+        else if (!objects[depth - 1])
+        {
+            // An element of a JSON array, filtered by the node of the array.
+            node   = nodes[depth - 1];
+            action = FILTER;
+        }
+        else
+        {
+            // A member of a JSON object, decided by its name.
+            node   = memberNode;
+            action = memberAction;
+
+            if (action == FILTER && !inclusion && b == 'n')
+            {
+                // A null member looked into by the exclusion is removed in the
+                // same way as the tree-based filter.
+                action = SKIP;
+            }
+
+            if (action != SKIP)
+            {
+                writeName();
+            }
+        }
+
+        if (action == FILTER && (b == '[' || (b == '{' && node.getSubNodes() != null)))
+        {
+            // Filter the container based on the node.
+            boolean object = (b == '{');
+
+            separate();
+            put(b);
+            needsComma = false;
+
+            push(node, object);
+            state = object ? OBJECT_FIRST : ARRAY_FIRST;
+
+            return pos + 1;
+        }
+
+        // Copy or skip the value as is. Primitive values and null can't be
+        // filtered, and neither can an object whose node has no sub nodes.
+        rawEmit = (action != SKIP);
+
+        if (rawEmit)
+        {
+            separate();
+        }
+
+        // The value, including its first byte, is scanned and validated in the
+        // next state.
+        raw.begin();
+        state = RAW;
+
+        return pos;
+    }
+
+
+    private int rawValue(ByteBuffer source, int pos, int limit) throws MalformedJsonException
+    {
+        int start = pos;
+
+        pos = raw.scan(source, pos, limit, base);
+        emit(source, start, pos);
+
+        if (raw.isDone())
+        {
+            endValue();
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Called when a value copied or skipped as is has ended.
+     */
+    private void endValue()
+    {
+        if (rawEmit)
+        {
+            needsComma = true;
+        }
+
+        next();
+    }
+
+
+    private void endContainer(boolean object)
+    {
+        put(object ? (byte)'}' : (byte)']');
+        needsComma = true;
+
+        nodes[--depth] = null;
+        next();
+    }
+
+
+    /**
+     * Moves to the state after a value.
+     */
+    private void next()
+    {
+        state = (depth == 0) ? END : objects[depth - 1] ? OBJECT_NEXT : ARRAY_NEXT;
+    }
+
+
+    private int beginName(byte b, int pos) throws MalformedJsonException
+    {
+        if (b != '"')
+        {
+            throw error("Expected a name", pos);
+        }
+
+        nameLength = 0;
+        nameHash   = 0;
+        nameFast   = true;
+        nameEscape = false;
+
+        appendName(b);
+        state = NAME;
+
+        return pos + 1;
+    }
+
+
+    private int readName(ByteBuffer source, int pos, int limit) throws MalformedJsonException
+    {
+        while (pos < limit)
+        {
+            byte b = source.get(pos);
+
+            appendName(b);
+
+            if (nameEscape)
+            {
+                // The escaped character.
+                nameEscape = false;
+                pos++;
+                continue;
+            }
+
+            if (b == '"')
+            {
+                state = COLON;
+                return pos + 1;
+            }
+
+            if (b == '\\')
+            {
+                // The name has an escape sequence. It has to be decoded before the
+                // lookup.
+                nameFast   = false;
+                nameEscape = true;
+            }
+            else if (b < 0)
+            {
+                // The name has a non-ASCII character, whose hash code can't be
+                // computed from the bytes.
+                nameFast = false;
+            }
+            else if (b < 0x20)
+            {
+                throw error("Unescaped control character", pos);
+            }
+
+            nameHash = 31 * nameHash + b;
+            pos++;
+        }
+
+        return pos;
+    }
+
+
+    private void appendName(byte b)
+    {
+        if (nameLength == name.length)
+        {
+            name     = Arrays.copyOf(name, nameLength * 2);
+            nameView = ByteBuffer.wrap(name);
+        }
+
+        name[nameLength++] = b;
+    }
+
+
+    /**
+     * Looks up the sub node for the name read, and decides the action for the
+     * value of the member.
+     */
+    private void lookUp() throws MalformedJsonException
+    {
+        Node node    = nodes[depth - 1];
+        Node subNode = nameFast ? node.getSubNode(nameView, 1, nameLength - 2, nameHash)
+                                : node.getSubNode(decodeName());
+
+        if (inclusion)
+        {
+            // Not selected, or selected. A value selected as a whole is filtered
+            // by the node without sub nodes in the same way as InclusionFilter,
+            // which copies objects as is but walks through arrays.
+            memberAction = (subNode == null) ? SKIP : FILTER;
+        }
+        else
+        {
+            // Not specified, excluded as a whole, or looked into.
+            memberAction = (subNode == null) ? COPY : (subNode.getSubNodes() == null) ? SKIP : FILTER;
+        }
+
+        memberNode = subNode;
+    }
+
+
+    private String decodeName() throws MalformedJsonException
+    {
+        try
+        {
+            // Let the JSON reader unescape the name. This is rare enough that the
+            // cost does not matter.
+            return new JsonReader(new StringReader(
+                    new String(name, 0, nameLength, StandardCharsets.UTF_8))).nextString();
+        }
+        catch (IOException e)
+        {
+            throw new MalformedJsonException("Malformed name: " + e.getMessage());
+        }
+    }
+
+
+    private void writeName()
+    {
+        separate();
+        put(name, 0, nameLength);
+        put((byte)':');
+        needsComma = false;
+    }
+
+
+    private void push(Node node, boolean object)
+    {
+        if (depth == nodes.length)
+        {
+            nodes   = Arrays.copyOf(nodes, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+
+        nodes[depth]   = node;
+        objects[depth] = object;
+        depth++;
+    }
+
+
+    private void separate()
+    {
+        if (needsComma)
+        {
+            put((byte)',');
+        }
+    }
+
+
+    /**
+     * Appends the bytes of the current chunk between the given indexes to the
+     * output, if the value being read is written.
+     */
+    private void emit(ByteBuffer source, int from, int to)
+    {
+        int length = to - from;
+
+        if (!rawEmit || length == 0)
+        {
+            return;
+        }
+
+        reserve(length);
+
+        if (source.hasArray())
+        {
+            // Copy from the backing array without a view.
+            System.arraycopy(source.array(), source.arrayOffset() + from, out, outEnd, length);
+        }
+        else
+        {
+            if (copyView == null)
+            {
+                copyView = source.duplicate();
+            }
+
+            copyView.limit(to).position(from);
+            copyView.get(out, outEnd, length);
+        }
+
+        outEnd += length;
+    }
+
+
+    private void put(byte b)
+    {
+        reserve(1);
+        out[outEnd++] = b;
+    }
+
+
+    private void put(byte[] bytes, int offset, int length)
+    {
+        reserve(length);
+        System.arraycopy(bytes, offset, out, outEnd, length);
+        outEnd += length;
+    }
+
+
+    /**
+     * Makes room for the given number of bytes at the end of the output.
+     */
+    private void reserve(int length)
+    {
+        if (out.length - outEnd >= length)
+        {
+            return;
+        }
+
+        int pending = outEnd - outStart;
+
+        if (out.length - pending < length)
+        {
+            // Grow the buffer.
+            out = Arrays.copyOfRange(out, outStart, outStart + Math.max(out.length * 2, pending + length));
+        }
+        else
+        {
+            // Move the pending bytes to the beginning.
+            System.arraycopy(out, outStart, out, 0, pending);
+        }
+
+        outStart = 0;
+        outEnd   = pending;
+    }
+
+
+    private MalformedJsonException error(String message, int pos)
+    {
+        return new MalformedJsonException(String.format("%s at offset %d.", message, base + pos));
+    }
+}
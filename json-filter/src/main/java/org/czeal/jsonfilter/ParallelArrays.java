@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.UnaryOperator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A utility class for transforming the elements of a JSON array in parallel on
+ * the current {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+ *
+ * @author Hideki Ikeda
+ */
+final class ParallelArrays
+{
+    /**
+     * The number of chunks per worker thread. Splitting an array into more chunks
+     * than worker threads balances the load when elements differ in cost.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+
+    /**
+     * A task transforming the elements in a range of a JSON array.
+     */
+    private static final class MapTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonArray source;
+        private final JsonElement[] results;
+        private final UnaryOperator<JsonElement> function;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+
+        private MapTask(
+                JsonArray source, JsonElement[] results, UnaryOperator<JsonElement> function,
+                int from, int to, int grain)
+        {
+            this.source   = source;
+            this.results  = results;
+            this.function = function;
+            this.from     = from;
+            this.to       = to;
+            this.grain    = grain;
+        }
+
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= grain)
+            {
+                // The range is small enough. Transform the elements sequentially.
+                for (int i = from; i < to; i++)
+                {
+                    results[i] = function.apply(source.get(i));
+                }
+
+                return;
+            }
+
+            // Split the range into halves and transform them in parallel.
+            int middle = (from + to) >>> 1;
+
+            invokeAll(new MapTask(source, results, function, from, middle, grain),
+                      new MapTask(source, results, function, middle, to, grain));
+        }
+    }
+
+
+    private ParallelArrays()
+    {
+    }
+
+
+    /**
+     * Transforms each element of the given JSON array in parallel and returns a
+     * new JSON array holding the results in the original order.
+     *
+     * <p>
+     * This method must be called from a task running in a {@link
+     * java.util.concurrent.ForkJoinPool ForkJoinPool}. The given function may be
+     * called concurrently from multiple threads.
+     * </p>
+     *
+     * @param source
+     *         The source JSON array, which must not be modified during this call.
+     *
+     * @param function
+     *         The function transforming each element.
+     *
+     * @return
+     *         A new JSON array holding the transformed elements.
+     */
+    static JsonArray map(JsonArray source, UnaryOperator<JsonElement> function)
+    {
+        int size    = source.size();
+        int threads = ForkJoinTask.getPool().getParallelism();
+        int grain   = Math.max(1, size / (threads * CHUNKS_PER_THREAD));
+
+        JsonElement[] results = new JsonElement[size];
+
+        new MapTask(source, results, function, 0, size, grain).invoke();
+
+        // Reassemble the results in order.
+        JsonArray target = new JsonArray(size);
+
+        for (JsonElement e : results)
+        {
+            target.add(e);
+        }
+
+        return target;
+    }
+}
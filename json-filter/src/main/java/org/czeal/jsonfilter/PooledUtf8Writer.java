@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A {@link Writer} which encodes characters in UTF-8 into a buffer taken from a
+ * shared pool, and writes the buffer to an output stream.
+ *
+ * <p>
+ * The buffer is returned to the pool when this writer is closed, so that
+ * serializing many small results doesn't allocate a buffer for each of them.
+ * Closing this writer doesn't close the output stream. An unpaired surrogate is
+ * encoded as {@code '?'}, in the same way as {@link String#getBytes(
+ * java.nio.charset.Charset)}.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class PooledUtf8Writer extends Writer
+{
+    static final int BUFFER_SIZE = 8192;
+
+
+    /**
+     * The pooled buffers. An empty slot is {@code null}.
+     */
+    private static final AtomicReferenceArray<byte[]> POOL =
+            new AtomicReferenceArray<>(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count;
+
+
+    /**
+     * The high surrogate waiting for the low surrogate, or 0.
+     */
+    private char highSurrogate;
+
+
+    PooledUtf8Writer(OutputStream out)
+    {
+        this.out    = out;
+        this.buffer = acquire();
+    }
+
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        ensureOpen();
+        encode((char)c);
+    }
+
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException
+    {
+        ensureOpen();
+
+        for (int i = off; i < off + len; i++)
+        {
+            encode(cbuf[i]);
+        }
+    }
+
+
+    @Override
+    public void write(String str, int off, int len) throws IOException
+    {
+        ensureOpen();
+
+        for (int i = off; i < off + len; i++)
+        {
+            encode(str.charAt(i));
+        }
+    }
+
+
+    @Override
+    public void flush() throws IOException
+    {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (buffer == null)
+        {
+            // Already closed.
+            return;
+        }
+
+        try
+        {
+            if (highSurrogate != 0)
+            {
+                // The last high surrogate is unpaired.
+                highSurrogate = 0;
+                put((byte)'?');
+            }
+
+            flushBuffer();
+            out.flush();
+        }
+        finally
+        {
+            release(buffer);
+            buffer = null;
+        }
+    }
+
+
+    private void encode(char c) throws IOException
+    {
+        if (buffer.length - count < 4)
+        {
+            // Make room for the longest sequence.
+            flushBuffer();
+        }
+
+        if (highSurrogate != 0)
+        {
+            char high     = highSurrogate;
+            highSurrogate = 0;
+
+            if (Character.isLowSurrogate(c))
+            {
+                // A supplementary character, encoded in four bytes.
+                int cp = Character.toCodePoint(high, c);
+
+                buffer[count++] = (byte)(0xF0 | (cp >> 18));
+                buffer[count++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                buffer[count++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                buffer[count++] = (byte)(0x80 | (cp & 0x3F));
+                return;
+            }
+
+            // The high surrogate is unpaired.
+            buffer[count++] = '?';
+        }
+
+        if (c < 0x80)
+        {
+            buffer[count++] = (byte)c;
+        }
+        else if (c < 0x800)
+        {
+            buffer[count++] = (byte)(0xC0 | (c >> 6));
+            buffer[count++] = (byte)(0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c))
+        {
+            // Wait for the low surrogate.
+            highSurrogate = c;
+        }
+        else if (Character.isLowSurrogate(c))
+        {
+            // An unpaired low surrogate.
+            buffer[count++] = '?';
+        }
+        else
+        {
+            buffer[count++] = (byte)(0xE0 | (c >> 12));
+            buffer[count++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte)(0x80 | (c & 0x3F));
+        }
+    }
+
+
+    private void put(byte b) throws IOException
+    {
+        if (count == buffer.length)
+        {
+            flushBuffer();
+        }
+
+        buffer[count++] = b;
+    }
+
+
+    private void flushBuffer() throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+
+    private void ensureOpen() throws IOException
+    {
+        if (buffer == null)
+        {
+            throw new IOException("The writer is closed.");
+        }
+    }
+
+
+    /**
+     * Takes a buffer from the pool, or allocates one if the pool is empty.
+     */
+    private static byte[] acquire()
+    {
+        for (int i = 0; i < POOL.length(); i++)
+        {
+            byte[] buffer = POOL.get(i);
+
+            if (buffer != null && POOL.compareAndSet(i, buffer, null))
+            {
+                return buffer;
+            }
+        }
+
+        return new byte[BUFFER_SIZE];
+    }
+
+
+    /**
+     * Returns a buffer to the pool, or drops it if the pool is full.
+     */
+    private static void release(byte[] buffer)
+    {
+        for (int i = 0; i < POOL.length(); i++)
+        {
+            if (POOL.get(i) == null && POOL.compareAndSet(i, null, buffer))
+            {
+                return;
+            }
+        }
+    }
+}
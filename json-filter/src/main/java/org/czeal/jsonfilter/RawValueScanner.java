@@ -0,0 +1,1017 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A scanner finding the end of a UTF-8 encoded JSON value which is copied or
+ * skipped as is, validating the value on the way.
+ *
+ * <p>
+ * The value is validated against the JSON grammar in the same way as {@link
+ * com.google.gson.stream.JsonReader} in strict mode: the kinds of the brackets
+ * and braces are matched, names and values are separated by colons and commas
+ * where they are expected, numbers follow the number grammar, {@code true},
+ * {@code false} and {@code null} are spelled correctly, and strings have only
+ * valid escape sequences and no control characters. The kinds of the open
+ * containers are kept in a bit stack, one bit per depth. The contents of strings
+ * are skipped with a {@link StructuralScanner}.
+ * </p>
+ *
+ * <p>
+ * An object or array held by one buffer is skipped by {@link #skip(ByteBuffer,
+ * int, int)} in bulk: the {@link StructuralScanner} jumps from one quote,
+ * bracket, brace, comma or colon to the next, and only the few bytes between
+ * them, i.e. whitespace, numbers and keywords, are examined one at a time. If
+ * the value turns out to be malformed, it is scanned again byte by byte to
+ * report the error.
+ * </p>
+ *
+ * <p>
+ * The value can be scanned across several buffers: {@link #scan(ByteBuffer, int,
+ * int, long)} can be called with each of them until {@link #isDone()} returns
+ * {@code true}, and {@link #end(long)} is called if the input ends before that.
+ * A number or a keyword ends with the first byte which is not part of it, and
+ * that byte is not consumed.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class RawValueScanner
+{
+    /**
+     * The states of the scanner.
+     */
+    private static final int VALUE        = 0;
+    private static final int ARRAY_FIRST  = 1;
+    private static final int OBJECT_FIRST = 2;
+    private static final int NAME         = 3;
+    private static final int COLON        = 4;
+    private static final int NEXT         = 5;
+    private static final int STRING       = 6;
+    private static final int ESCAPE       = 7;
+    private static final int UNICODE      = 8;
+    private static final int NUMBER       = 9;
+    private static final int KEYWORD      = 10;
+    private static final int DONE         = 11;
+
+
+    /**
+     * The parts of a number read last.
+     */
+    private static final int MINUS           = 0;
+    private static final int ZERO            = 1;
+    private static final int INTEGER         = 2;
+    private static final int POINT           = 3;
+    private static final int FRACTION        = 4;
+    private static final int EXPONENT        = 5;
+    private static final int EXPONENT_SIGN   = 6;
+    private static final int EXPONENT_DIGITS = 7;
+
+
+    private static final byte[] TRUE  = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+    private static final byte[] NULL  = { 'n', 'u', 'l', 'l' };
+
+
+    private final StructuralScanner scanner;
+
+
+    private int state = DONE;
+
+
+    /**
+     * The bit stack of the open containers, whose bit is set for a JSON object,
+     * and the number of them.
+     */
+    private long[] objects = new long[1];
+    private int depth;
+
+
+    /**
+     * Whether the string being read is a name, the number of the hex digits of
+     * a unicode escape sequence read, the part of the number read last, and the
+     * keyword being read with the number of its bytes read.
+     */
+    private boolean name;
+    private int hexDigits;
+    private int number;
+    private byte[] keyword;
+    private int keywordLength;
+
+
+    /**
+     * The offset of the index 0 of the current buffer, for error messages.
+     */
+    private long base;
+
+
+    RawValueScanner(StructuralScanner scanner)
+    {
+        this.scanner = scanner;
+    }
+
+
+    /**
+     * Starts scanning a new value.
+     */
+    void begin()
+    {
+        state = VALUE;
+        depth = 0;
+    }
+
+
+    /**
+     * Returns whether the value has ended.
+     */
+    boolean isDone()
+    {
+        return state == DONE;
+    }
+
+
+    /**
+     * Skips the value starting at the given index of a buffer holding the whole
+     * value.
+     *
+     * @param source
+     *         The buffer holding the value, in little-endian byte order.
+     *
+     * @param pos
+     *         The index of the first byte of the value.
+     *
+     * @param limit
+     *         The index after the last byte that can be read.
+     *
+     * @return
+     *         The index after the value.
+     *
+     * @throws MalformedJsonException
+     *         If the value is not valid or not terminated.
+     */
+    int skip(ByteBuffer source, int pos, int limit) throws MalformedJsonException
+    {
+        if (pos < limit && (source.get(pos) == '{' || source.get(pos) == '['))
+        {
+            int end = skipContainer(source, pos, limit);
+
+            if (end >= 0)
+            {
+                return end;
+            }
+
+            // The container is malformed or not terminated. Scan it again to
+            // report the error.
+        }
+
+        begin();
+
+        pos = scan(source, pos, limit, 0);
+
+        if (!isDone())
+        {
+            end(pos);
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Scans the value from the given index up to its end or the limit.
+     *
+     * @param source
+     *         The buffer holding the next part of the value, in little-endian
+     *         byte order.
+     *
+     * @param pos
+     *         The index of the first byte to scan.
+     *
+     * @param limit
+     *         The index after the last byte that can be read.
+     *
+     * @param base
+     *         The offset of the index 0 of the buffer in the input, for error
+     *         messages.
+     *
+     * @return
+     *         The index after the value if it has ended, or the limit otherwise.
+     *
+     * @throws MalformedJsonException
+     *         If the value is not valid.
+     */
+    int scan(ByteBuffer source, int pos, int limit, long base) throws MalformedJsonException
+    {
+        this.base = base;
+
+        while (pos < limit && state != DONE)
+        {
+            byte b = source.get(pos);
+
+            switch (state)
+            {
+                case STRING:
+                    pos = scanner.nextStringSpecial(source, pos, limit);
+
+                    if (pos < limit)
+                    {
+                        pos = stringSpecial(source.get(pos), pos);
+                    }
+
+                    continue;
+
+                case ESCAPE:
+                    if (b == 'u')
+                    {
+                        hexDigits = 0;
+                        state     = UNICODE;
+                    }
+                    else if (b == '"' || b == '\\' || b == '/' || b == 'b' ||
+                             b == 'f' || b == 'n' || b == 'r' || b == 't')
+                    {
+                        state = STRING;
+                    }
+                    else
+                    {
+                        throw error("Invalid escape sequence", pos);
+                    }
+
+                    pos++;
+                    continue;
+
+                case UNICODE:
+                    if (!isHexDigit(b))
+                    {
+                        throw error("Invalid escape sequence", pos);
+                    }
+
+                    if (++hexDigits == 4)
+                    {
+                        state = STRING;
+                    }
+
+                    pos++;
+                    continue;
+
+                case NUMBER:
+                    if (nextNumberPart(b))
+                    {
+                        pos++;
+                    }
+                    else
+                    {
+                        // The byte ends the number, and is processed in the next
+                        // state.
+                        endNumber(b, pos);
+                    }
+
+                    continue;
+
+                case KEYWORD:
+                    if (keywordLength < keyword.length)
+                    {
+                        if (b != keyword[keywordLength])
+                        {
+                            throw error("Unexpected literal", pos);
+                        }
+
+                        keywordLength++;
+                        pos++;
+                    }
+                    else if (isLiteralByte(b))
+                    {
+                        throw error("Unexpected literal", pos);
+                    }
+                    else
+                    {
+                        // The byte ends the keyword, and is processed in the next
+                        // state.
+                        endValue();
+                    }
+
+                    continue;
+
+                default:
+                    break;
+            }
+
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t')
+            {
+                pos++;
+                continue;
+            }
+
+            switch (state)
+            {
+                case VALUE:
+                    beginValue(b, pos);
+                    break;
+
+                case ARRAY_FIRST:
+                    if (b == ']')
+                    {
+                        endContainer();
+                    }
+                    else
+                    {
+                        // The first element, processed in the next state.
+                        state = VALUE;
+                        continue;
+                    }
+
+                    break;
+
+                case OBJECT_FIRST:
+                    if (b == '}')
+                    {
+                        endContainer();
+                    }
+                    else
+                    {
+                        beginName(b, pos);
+                    }
+
+                    break;
+
+                case NAME:
+                    beginName(b, pos);
+                    break;
+
+                case COLON:
+                    if (b != ':')
+                    {
+                        throw error("Expected ':'", pos);
+                    }
+
+                    state = VALUE;
+                    break;
+
+                default:
+                    // After a value in a container.
+                    boolean object = isObject();
+
+                    if (b == ',')
+                    {
+                        state = object ? NAME : VALUE;
+                    }
+                    else if (b == (object ? '}' : ']'))
+                    {
+                        endContainer();
+                    }
+                    else
+                    {
+                        throw error(object ? "Expected ',' or '}'" : "Expected ',' or ']'", pos);
+                    }
+
+                    break;
+            }
+
+            pos++;
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Skips the object or array starting at the given index, jumping from one
+     * structural character to the next.
+     *
+     * @return
+     *         The index after the object or array, or {@code -1} if it is
+     *         malformed or not terminated.
+     */
+    private int skipContainer(ByteBuffer source, int pos, int limit)
+    {
+        // The state expected at the next structural character. The first one is
+        // the opening brace or bracket.
+        int expected = VALUE;
+
+        depth = 0;
+
+        while (true)
+        {
+            // In compact JSON, a structural character often follows the previous
+            // one immediately.
+            int next = (pos < limit && isStructural(source.get(pos))) ? pos : scanner.nextStructural(source, pos, limit);
+
+            if (next >= limit)
+            {
+                // Not terminated.
+                return -1;
+            }
+
+            // The bytes up to the structural character are whitespace, or a
+            // number or a keyword surrounded by whitespace.
+            pos = skipWhitespace(source, pos, next);
+
+            if (pos < next)
+            {
+                if (expected != VALUE && expected != ARRAY_FIRST)
+                {
+                    return -1;
+                }
+
+                pos = skipScalar(source, pos, next);
+
+                if (pos < 0 || skipWhitespace(source, pos, next) < next)
+                {
+                    return -1;
+                }
+
+                expected = NEXT;
+            }
+
+            byte b = source.get(next);
+            pos    = next + 1;
+
+            switch (b)
+            {
+                case '"':
+                    if (expected == VALUE || expected == ARRAY_FIRST)
+                    {
+                        expected = NEXT;
+                    }
+                    else if (expected == NAME || expected == OBJECT_FIRST)
+                    {
+                        expected = COLON;
+                    }
+                    else
+                    {
+                        return -1;
+                    }
+
+                    pos = skipString(source, pos, limit);
+
+                    if (pos < 0)
+                    {
+                        return -1;
+                    }
+
+                    break;
+
+                case '{':
+                case '[':
+                    if (expected != VALUE && expected != ARRAY_FIRST)
+                    {
+                        return -1;
+                    }
+
+                    push(b == '{');
+                    expected = (b == '{') ? OBJECT_FIRST : ARRAY_FIRST;
+                    break;
+
+                case '}':
+                case ']':
+                    boolean object = (b == '}');
+
+                    if (isObject() != object || (expected != NEXT && expected != (object ? OBJECT_FIRST : ARRAY_FIRST)))
+                    {
+                        return -1;
+                    }
+
+                    if (--depth == 0)
+                    {
+                        return pos;
+                    }
+
+                    expected = NEXT;
+                    break;
+
+                case ':':
+                    if (expected != COLON)
+                    {
+                        return -1;
+                    }
+
+                    expected = VALUE;
+                    break;
+
+                default:
+                    // A comma.
+                    if (expected != NEXT)
+                    {
+                        return -1;
+                    }
+
+                    expected = isObject() ? NAME : VALUE;
+                    break;
+            }
+        }
+    }
+
+
+    /**
+     * Skips the rest of the string after its opening quote.
+     *
+     * @return
+     *         The index after the closing quote, or {@code -1} if the string is
+     *         malformed or not terminated.
+     */
+    private int skipString(ByteBuffer source, int pos, int limit)
+    {
+        while (true)
+        {
+            pos = scanner.nextStringSpecial(source, pos, limit);
+
+            if (pos >= limit)
+            {
+                return -1;
+            }
+
+            byte b = source.get(pos);
+
+            if (b == '"')
+            {
+                return pos + 1;
+            }
+
+            if (b != '\\' || pos + 1 >= limit)
+            {
+                // A control character, or an incomplete escape sequence.
+                return -1;
+            }
+
+            byte e = source.get(pos + 1);
+
+            if (e == 'u')
+            {
+                if (pos + 6 > limit || !isHexDigit(source.get(pos + 2)) || !isHexDigit(source.get(pos + 3)) ||
+                    !isHexDigit(source.get(pos + 4)) || !isHexDigit(source.get(pos + 5)))
+                {
+                    return -1;
+                }
+
+                pos += 6;
+            }
+            else if (e == '"' || e == '\\' || e == '/' || e == 'b' || e == 'f' || e == 'n' || e == 'r' || e == 't')
+            {
+                pos += 2;
+            }
+            else
+            {
+                return -1;
+            }
+        }
+    }
+
+
+    /**
+     * Skips the number or the keyword starting at the given index, which ends
+     * before the given end.
+     *
+     * @return
+     *         The index after the number or the keyword, or {@code -1} if it is
+     *         malformed.
+     */
+    private static int skipScalar(ByteBuffer source, int pos, int end)
+    {
+        switch (source.get(pos))
+        {
+            case 't':
+                return skipKeyword(source, pos, end, TRUE);
+
+            case 'f':
+                return skipKeyword(source, pos, end, FALSE);
+
+            case 'n':
+                return skipKeyword(source, pos, end, NULL);
+
+            default:
+                return skipNumber(source, pos, end);
+        }
+    }
+
+
+    private static int skipKeyword(ByteBuffer source, int pos, int end, byte[] keyword)
+    {
+        if (pos + keyword.length > end)
+        {
+            return -1;
+        }
+
+        for (int i = 1; i < keyword.length; i++)
+        {
+            if (source.get(pos + i) != keyword[i])
+            {
+                return -1;
+            }
+        }
+
+        return pos + keyword.length;
+    }
+
+
+    private static int skipNumber(ByteBuffer source, int pos, int end)
+    {
+        if (source.get(pos) == '-')
+        {
+            pos++;
+        }
+
+        if (pos < end && source.get(pos) == '0')
+        {
+            pos++;
+        }
+        else if ((pos = skipDigits(source, pos, end)) < 0)
+        {
+            return -1;
+        }
+
+        if (pos < end && source.get(pos) == '.' && (pos = skipDigits(source, pos + 1, end)) < 0)
+        {
+            return -1;
+        }
+
+        if (pos < end && (source.get(pos) == 'e' || source.get(pos) == 'E'))
+        {
+            pos++;
+
+            if (pos < end && (source.get(pos) == '+' || source.get(pos) == '-'))
+            {
+                pos++;
+            }
+
+            pos = skipDigits(source, pos, end);
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Skips one or more digits.
+     *
+     * @return
+     *         The index after the digits, or {@code -1} if there is no digit.
+     */
+    private static int skipDigits(ByteBuffer source, int pos, int end)
+    {
+        int start = pos;
+
+        while (pos < end && source.get(pos) >= '0' && source.get(pos) <= '9')
+        {
+            pos++;
+        }
+
+        return (pos > start) ? pos : -1;
+    }
+
+
+    private static int skipWhitespace(ByteBuffer source, int pos, int end)
+    {
+        for (; pos < end; pos++)
+        {
+            byte b = source.get(pos);
+
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t')
+            {
+                break;
+            }
+        }
+
+        return pos;
+    }
+
+
+    /**
+     * Signals the end of the input.
+     *
+     * <p>
+     * A number or a keyword which is the whole value ends with the input. Any
+     * other value which has not ended is not terminated.
+     * </p>
+     *
+     * @param offset
+     *         The offset of the end of the input, for error messages.
+     *
+     * @throws MalformedJsonException
+     *         If the value is not terminated.
+     */
+    void end(long offset) throws MalformedJsonException
+    {
+        if (state == DONE)
+        {
+            return;
+        }
+
+        if (depth == 0 && state == NUMBER && isNumberComplete())
+        {
+            state = DONE;
+            return;
+        }
+
+        if (depth == 0 && state == KEYWORD && keywordLength == keyword.length)
+        {
+            state = DONE;
+            return;
+        }
+
+        if (state == STRING || state == ESCAPE || state == UNICODE)
+        {
+            throw StructuralScanner.syntaxError("Unterminated string", offset);
+        }
+
+        if (depth > 0)
+        {
+            throw StructuralScanner.syntaxError("Unterminated object or array", offset);
+        }
+
+        throw StructuralScanner.syntaxError("Unexpected end of input", offset);
+    }
+
+
+    private void beginValue(byte b, int pos) throws MalformedJsonException
+    {
+        switch (b)
+        {
+            case '"':
+                name  = false;
+                state = STRING;
+                break;
+
+            case '{':
+                push(true);
+                state = OBJECT_FIRST;
+                break;
+
+            case '[':
+                push(false);
+                state = ARRAY_FIRST;
+                break;
+
+            case '-':
+                number = MINUS;
+                state  = NUMBER;
+                break;
+
+            case '0':
+                number = ZERO;
+                state  = NUMBER;
+                break;
+
+            case 't':
+                beginKeyword(TRUE);
+                break;
+
+            case 'f':
+                beginKeyword(FALSE);
+                break;
+
+            case 'n':
+                beginKeyword(NULL);
+                break;
+
+            default:
+                if (b < '1' || b > '9')
+                {
+                    throw error("Unexpected character", pos);
+                }
+
+                number = INTEGER;
+                state  = NUMBER;
+        }
+    }
+
+
+    private void beginName(byte b, int pos) throws MalformedJsonException
+    {
+        if (b != '"')
+        {
+            throw error("Expected a name", pos);
+        }
+
+        name  = true;
+        state = STRING;
+    }
+
+
+    private void beginKeyword(byte[] keyword)
+    {
+        this.keyword  = keyword;
+        keywordLength = 1;
+        state         = KEYWORD;
+    }
+
+
+    /**
+     * Processes a quote, a backslash or a control character in a string, and
+     * returns the index of the next byte to process.
+     */
+    private int stringSpecial(byte b, int pos) throws MalformedJsonException
+    {
+        if (b == '"')
+        {
+            if (name)
+            {
+                state = COLON;
+            }
+            else
+            {
+                endValue();
+            }
+        }
+        else if (b == '\\')
+        {
+            state = ESCAPE;
+        }
+        else
+        {
+            throw error("Unescaped control character", pos);
+        }
+
+        return pos + 1;
+    }
+
+
+    /**
+     * Moves to the next part of the number if the byte continues it.
+     *
+     * @return
+     *         {@code false} if the byte does not continue the number.
+     */
+    private boolean nextNumberPart(byte b)
+    {
+        boolean digit    = (b >= '0' && b <= '9');
+        boolean exponent = (b == 'e' || b == 'E');
+
+        switch (number)
+        {
+            case MINUS:
+                if (!digit)
+                {
+                    return false;
+                }
+
+                number = (b == '0') ? ZERO : INTEGER;
+                return true;
+
+            case ZERO:
+            case INTEGER:
+                if (digit && number == INTEGER)
+                {
+                    return true;
+                }
+
+                if (b == '.')
+                {
+                    number = POINT;
+                    return true;
+                }
+
+                return nextExponent(exponent);
+
+            case POINT:
+            case FRACTION:
+                if (digit)
+                {
+                    number = FRACTION;
+                    return true;
+                }
+
+                return number == FRACTION && nextExponent(exponent);
+
+            case EXPONENT:
+                if (b == '+' || b == '-')
+                {
+                    number = EXPONENT_SIGN;
+                    return true;
+                }
+
+                return nextExponentDigit(digit);
+
+            default:
+                return nextExponentDigit(digit);
+        }
+    }
+
+
+    private boolean nextExponent(boolean exponent)
+    {
+        if (exponent)
+        {
+            number = EXPONENT;
+        }
+
+        return exponent;
+    }
+
+
+    private boolean nextExponentDigit(boolean digit)
+    {
+        if (digit)
+        {
+            number = EXPONENT_DIGITS;
+        }
+
+        return digit;
+    }
+
+
+    private boolean isNumberComplete()
+    {
+        return number == ZERO || number == INTEGER || number == FRACTION || number == EXPONENT_DIGITS;
+    }
+
+
+    private void endNumber(byte b, int pos) throws MalformedJsonException
+    {
+        if (!isNumberComplete() || isLiteralByte(b))
+        {
+            throw error("Malformed number", pos);
+        }
+
+        endValue();
+    }
+
+
+    private void endContainer()
+    {
+        depth--;
+        endValue();
+    }
+
+
+    /**
+     * Moves to the state after a value.
+     */
+    private void endValue()
+    {
+        state = (depth == 0) ? DONE : NEXT;
+    }
+
+
+    private void push(boolean object)
+    {
+        int index = depth >>> 6;
+
+        if (index == objects.length)
+        {
+            objects = Arrays.copyOf(objects, index * 2);
+        }
+
+        long bit = 1L << (depth & 63);
+
+        objects[index] = object ? (objects[index] | bit) : (objects[index] & ~bit);
+        depth++;
+    }
+
+
+    /**
+     * Returns whether the innermost open container is a JSON object.
+     */
+    private boolean isObject()
+    {
+        int top = depth - 1;
+
+        return (objects[top >>> 6] & (1L << (top & 63))) != 0;
+    }
+
+
+    private static boolean isStructural(byte b)
+    {
+        return b == '"' || b == ',' || b == ':' || b == '{' || b == '}' || b == '[' || b == ']';
+    }
+
+
+    private static boolean isHexDigit(byte b)
+    {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'f') || (b >= 'A' && b <= 'F');
+    }
+
+
+    private static boolean isLiteralByte(byte b)
+    {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') ||
+               b == '-' || b == '+' || b == '.';
+    }
+
+
+    private MalformedJsonException error(String message, int pos)
+    {
+        return StructuralScanner.syntaxError(message, base + pos);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A structural scanner examining one byte at a time.
+ *
+ * @author Hideki Ikeda
+ */
+final class ScalarStructuralScanner extends StructuralScanner
+{
+    @Override
+    int nextStructural(ByteBuffer source, int pos, int limit)
+    {
+        for (; pos < limit; pos++)
+        {
+            byte b = source.get(pos);
+
+            if (b == '"' || b == '{' || b == '}' || b == '[' || b == ']' || b == ',' || b == ':')
+            {
+                break;
+            }
+        }
+
+        return pos;
+    }
+
+
+    @Override
+    int nextStringSpecial(ByteBuffer source, int pos, int limit)
+    {
+        for (; pos < limit; pos++)
+        {
+            byte b = source.get(pos);
+
+            if (b == '"' || b == '\\' || (b >= 0 && b < 0x20))
+            {
+                break;
+            }
+        }
+
+        return pos;
+    }
+}
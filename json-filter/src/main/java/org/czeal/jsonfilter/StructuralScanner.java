@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.nio.ByteBuffer;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A scanner finding structural characters in UTF-8 encoded JSON, used by {@link
+ * RawValueScanner} to skip objects, arrays and the contents of strings in bulk.
+ *
+ * <p>
+ * Three implementations are available. The SWAR (SIMD within a register)
+ * implementation examines eight bytes at a time with 64-bit arithmetic, and the
+ * scalar implementation examines one byte at a time. The vector implementation
+ * examines 64 bytes at a time with the Vector API; it is available on Java 16 or
+ * newer with the {@code jdk.incubator.vector} module added (e.g. {@code
+ * --add-modules jdk.incubator.vector}), and is replaced by the SWAR
+ * implementation otherwise. The implementation used by default can be selected
+ * by setting the system property {@value #PROPERTY} to {@code swar} (the
+ * default), {@code scalar} or {@code vector}.
+ * </p>
+ *
+ * <p>
+ * The source buffers given to the scanners must be in little-endian byte order.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+abstract class StructuralScanner
+{
+    /**
+     * The name of the system property selecting the default scanner.
+     */
+    static final String PROPERTY = "org.czeal.jsonfilter.scanner";
+
+
+    /**
+     * The scanner examining one byte at a time.
+     */
+    static final StructuralScanner SCALAR = new ScalarStructuralScanner();
+
+
+    /**
+     * The scanner examining eight bytes at a time.
+     */
+    static final StructuralScanner SWAR = new SwarStructuralScanner();
+
+
+    /**
+     * The scanner examining 64 bytes at a time with the Vector API, or {@link
+     * #SWAR} if the Vector API is not available.
+     */
+    static final StructuralScanner VECTOR = loadVector();
+
+
+    private static final StructuralScanner DEFAULT = select(System.getProperty(PROPERTY));
+
+
+    /**
+     * Returns the scanner selected by the system property {@value #PROPERTY}.
+     *
+     * @return
+     *         The default scanner.
+     */
+    static StructuralScanner getDefault()
+    {
+        return DEFAULT;
+    }
+
+
+    /**
+     * Returns the scanner having the given name.
+     *
+     * @param name
+     *         {@code "scalar"}, {@code "swar"} or {@code "vector"}. Any other
+     *         value including {@code null} selects the SWAR scanner.
+     *
+     * @return
+     *         The scanner.
+     */
+    static StructuralScanner select(String name)
+    {
+        if ("scalar".equalsIgnoreCase(name))
+        {
+            return SCALAR;
+        }
+
+        if ("vector".equalsIgnoreCase(name))
+        {
+            return VECTOR;
+        }
+
+        return SWAR;
+    }
+
+
+    /**
+     * Loads the scanner using the Vector API, which is compiled only into the
+     * versioned part of the multi-release jar for Java 16 or newer.
+     */
+    private static StructuralScanner loadVector()
+    {
+        try
+        {
+            return (StructuralScanner)Class.forName("org.czeal.jsonfilter.VectorStructuralScanner")
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            // Older than Java 16, or the jdk.incubator.vector module is not
+            // added.
+            return SWAR;
+        }
+    }
+
+
+    /**
+     * Returns the index of the first quote, bracket, brace, comma or colon at or
+     * after the given index.
+     *
+     * @return
+     *         The index of the structural character, or {@code limit} if there
+     *         is none.
+     */
+    abstract int nextStructural(ByteBuffer source, int pos, int limit);
+
+
+    /**
+     * Returns the index of the first quote, backslash or control character at or
+     * after the given index.
+     *
+     * @return
+     *         The index of the character, or {@code limit} if there is none.
+     */
+    abstract int nextStringSpecial(ByteBuffer source, int pos, int limit);
+
+
+    /**
+     * Creates an exception reporting a syntax error at the given index.
+     */
+    static MalformedJsonException syntaxError(String message, long pos)
+    {
+        return new MalformedJsonException(String.format("%s at offset %d.", message, pos));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A structural scanner examining eight bytes at a time.
+ *
+ * <p>
+ * Eight bytes are read as a little-endian {@code long}, and the bytes equal to
+ * each character of interest are marked at once with the well-known SWAR
+ * expression {@code (v - 0x01..01) & ~v & 0x80..80}, which sets the high bit of
+ * every zero byte of {@code v}. The expression may also mark a byte just above a
+ * zero byte because of the borrow, but the lowest marked byte is always exact,
+ * so the index of the first character of interest is given by the number of
+ * trailing zero bits of the mask. The remaining bytes less than eight are
+ * examined one at a time.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class SwarStructuralScanner extends StructuralScanner
+{
+    private static final long ONES      = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES    = ONES * '"';
+    private static final long BACKSLASH = ONES * '\\';
+    private static final long SPACES    = ONES * 0x20;
+    private static final long LBRACES   = ONES * '{';
+    private static final long RBRACES   = ONES * '}';
+    private static final long COMMAS    = ONES * ',';
+    private static final long COLONS    = ONES * ':';
+
+
+    @Override
+    int nextStructural(ByteBuffer source, int pos, int limit)
+    {
+        for (; pos + Long.BYTES <= limit; pos += Long.BYTES)
+        {
+            long word = source.getLong(pos);
+
+            // Setting the 0x20 bit maps '[' to '{' and ']' to '}', and no other
+            // byte to either of them.
+            long folded = word | SPACES;
+
+            long mask = zeroBytes(word ^ QUOTES) | zeroBytes(folded ^ LBRACES) | zeroBytes(folded ^ RBRACES) |
+                        zeroBytes(word ^ COMMAS) | zeroBytes(word ^ COLONS);
+
+            if (mask != 0)
+            {
+                return pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+        }
+
+        return SCALAR.nextStructural(source, pos, limit);
+    }
+
+
+    @Override
+    int nextStringSpecial(ByteBuffer source, int pos, int limit)
+    {
+        for (; pos + Long.BYTES <= limit; pos += Long.BYTES)
+        {
+            long word = source.getLong(pos);
+
+            long mask = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASH) | lessThanSpace(word);
+
+            if (mask != 0)
+            {
+                return pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+        }
+
+        return SCALAR.nextStringSpecial(source, pos, limit);
+    }
+
+
+    /**
+     * Marks the zero bytes of the given word with their high bits.
+     */
+    private static long zeroBytes(long word)
+    {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+
+    /**
+     * Marks the bytes of the given word less than 0x20 with their high bits.
+     */
+    private static long lessThanSpace(long word)
+    {
+        return (word - SPACES) & ~word & HIGH_BITS;
+    }
+}
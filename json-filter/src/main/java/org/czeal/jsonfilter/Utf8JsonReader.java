@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A reader of a UTF-8 encoded JSON value held in a {@link ByteBuffer}.
+ *
+ * <p>
+ * Unlike {@link JsonReader}, this reader never decodes keys or values into
+ * strings. Keys are matched against nodes by comparing their encoded bytes, and
+ * values are either skipped or copied to a {@link Utf8JsonWriter} as raw byte
+ * ranges. Skipped and copied values are scanned by a {@link RawValueScanner},
+ * which validates them against the JSON grammar without decoding them.
+ * </p>
+ *
+ * <p>
+ * The bytes are read with absolute indexes, so the position of the buffer is not
+ * changed.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class Utf8JsonReader
+{
+    private final ByteBuffer source;
+    private final int limit;
+    private final RawValueScanner scanner;
+
+    /**
+     * The index of the next byte to read.
+     */
+    private int pos;
+
+    /**
+     * Whether a comma is expected before the next element of the current
+     * container.
+     */
+    private boolean expectComma;
+
+    /**
+     * The range of the last name read, including the quotes.
+     */
+    private int nameStart;
+    private int nameEnd;
+
+
+    Utf8JsonReader(ByteBuffer source)
+    {
+        this(source, StructuralScanner.getDefault());
+    }
+
+
+    Utf8JsonReader(ByteBuffer source, StructuralScanner scanner)
+    {
+        // Read words in little-endian order as the scanners expect, without
+        // changing the order of the given buffer.
+        this.source  = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.limit   = source.limit();
+        this.pos     = source.position();
+        this.scanner = new RawValueScanner(scanner);
+
+        // Skip the byte order mark if present.
+        if (limit - pos >= 3 && source.get(pos) == (byte)0xEF &&
+            source.get(pos + 1) == (byte)0xBB && source.get(pos + 2) == (byte)0xBF)
+        {
+            pos += 3;
+        }
+    }
+
+
+    /**
+     * Returns the first byte of the next value without consuming it.
+     */
+    byte peek() throws IOException
+    {
+        skipWhitespace();
+
+        if (pos >= limit)
+        {
+            throw syntaxError("Unexpected end of input");
+        }
+
+        return source.get(pos);
+    }
+
+
+    void beginObject() throws IOException
+    {
+        consume('{');
+        expectComma = false;
+    }
+
+
+    void endObject() throws IOException
+    {
+        consume('}');
+        expectComma = true;
+    }
+
+
+    void beginArray() throws IOException
+    {
+        consume('[');
+        expectComma = false;
+    }
+
+
+    void endArray() throws IOException
+    {
+        consume(']');
+        expectComma = true;
+    }
+
+
+    /**
+     * Returns whether the current object or array has another element, consuming
+     * the comma before it.
+     */
+    boolean hasNext() throws IOException
+    {
+        byte b = peek();
+
+        if (b == '}' || b == ']')
+        {
+            return false;
+        }
+
+        if (expectComma)
+        {
+            consume(',');
+
+            b = peek();
+
+            if (b == '}' || b == ']')
+            {
+                throw syntaxError("Unexpected trailing comma");
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Reads the next name of the current object and the colon following it, and
+     * returns the sub node of the given node which has the name.
+     */
+    Node nextName(Node node) throws IOException
+    {
+        if (peek() != '"')
+        {
+            throw syntaxError("Expected a name");
+        }
+
+        int start    = pos++;
+        int hash     = 0;
+        boolean fast = true;
+
+        while (true)
+        {
+            if (pos >= limit)
+            {
+                throw syntaxError("Unterminated string");
+            }
+
+            byte b = source.get(pos++);
+
+            if (b == '"')
+            {
+                break;
+            }
+
+            if (b == '\\')
+            {
+                // The name has an escape sequence. It has to be decoded before the
+                // lookup.
+                fast = false;
+                pos++;
+            }
+            else if (b < 0)
+            {
+                // The name has a non-ASCII character, whose hash code can't be
+                // computed from the bytes.
+                fast = false;
+            }
+            else if (b < 0x20)
+            {
+                throw syntaxError("Unescaped control character");
+            }
+
+            hash = 31 * hash + b;
+        }
+
+        nameStart = start;
+        nameEnd   = pos;
+
+        consume(':');
+        expectComma = false;
+
+        if (fast)
+        {
+            return node.getSubNode(source, start + 1, nameEnd - start - 2, hash);
+        }
+
+        return node.getSubNode(decodeName());
+    }
+
+
+    /**
+     * Copies the last name read, including the quotes, to the writer.
+     */
+    void copyName(Utf8JsonWriter writer) throws IOException
+    {
+        writer.name(source, nameStart, nameEnd);
+    }
+
+
+    /**
+     * Skips the next value.
+     */
+    void skipValue() throws IOException
+    {
+        peek();
+
+        pos         = scanner.skip(source, pos, limit);
+        expectComma = true;
+    }
+
+
+    /**
+     * Copies the next value to the writer as is.
+     */
+    void copyValue(Utf8JsonWriter writer) throws IOException
+    {
+        peek();
+
+        int start = pos;
+
+        skipValue();
+
+        writer.value(source, start, pos);
+    }
+
+
+    /**
+     * Ensures that nothing but whitespace follows the value.
+     */
+    void endDocument() throws IOException
+    {
+        skipWhitespace();
+
+        if (pos < limit)
+        {
+            throw syntaxError("Unexpected data after the JSON value");
+        }
+    }
+
+
+    private void skipWhitespace()
+    {
+        while (pos < limit)
+        {
+            byte b = source.get(pos);
+
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t')
+            {
+                return;
+            }
+
+            pos++;
+        }
+    }
+
+
+    private void consume(char c) throws IOException
+    {
+        if (peek() != c)
+        {
+            throw syntaxError("Expected '" + c + "'");
+        }
+
+        pos++;
+    }
+
+
+    private String decodeName() throws IOException
+    {
+        byte[] bytes = new byte[nameEnd - nameStart];
+
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = source.get(nameStart + i);
+        }
+
+        // Let the JSON reader unescape the name. This is rare enough that the
+        // cost does not matter.
+        return new JsonReader(new StringReader(new String(bytes, StandardCharsets.UTF_8))).nextString();
+    }
+
+
+    private MalformedJsonException syntaxError(String message)
+    {
+        return StructuralScanner.syntaxError(message, pos);
+    }
+}
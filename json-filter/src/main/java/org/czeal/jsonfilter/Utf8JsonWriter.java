@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A buffered writer of a UTF-8 encoded JSON value.
+ *
+ * <p>
+ * This writer writes the structure of objects and arrays, and copies names and
+ * values as raw byte ranges read by {@link Utf8JsonReader}. Commas between
+ * elements are inserted automatically. The output is compact, except that copied
+ * values keep their original bytes, including any whitespace inside them.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class Utf8JsonWriter
+{
+    private static final int BUFFER_SIZE = 8192;
+
+
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+
+    /**
+     * Whether a comma is needed before the next element of the current container.
+     */
+    private boolean needsComma;
+
+    /**
+     * A view of the last source buffer copied from, used for bulk copies from
+     * buffers not backed by an array.
+     */
+    private ByteBuffer source;
+    private ByteBuffer view;
+
+
+    Utf8JsonWriter(OutputStream out)
+    {
+        this.out = out;
+    }
+
+
+    void beginObject() throws IOException
+    {
+        separate();
+        write((byte)'{');
+        needsComma = false;
+    }
+
+
+    void endObject() throws IOException
+    {
+        write((byte)'}');
+        needsComma = true;
+    }
+
+
+    void beginArray() throws IOException
+    {
+        separate();
+        write((byte)'[');
+        needsComma = false;
+    }
+
+
+    void endArray() throws IOException
+    {
+        write((byte)']');
+        needsComma = true;
+    }
+
+
+    /**
+     * Writes a name, including the quotes, followed by a colon.
+     */
+    void name(ByteBuffer source, int from, int to) throws IOException
+    {
+        separate();
+        write(source, from, to);
+        write((byte)':');
+        needsComma = false;
+    }
+
+
+    /**
+     * Writes an encoded value as is.
+     */
+    void value(ByteBuffer source, int from, int to) throws IOException
+    {
+        separate();
+        write(source, from, to);
+        needsComma = true;
+    }
+
+
+    void nullValue() throws IOException
+    {
+        separate();
+        write(NULL, 0, NULL.length);
+        needsComma = true;
+    }
+
+
+    void flush() throws IOException
+    {
+        flushBuffer();
+        out.flush();
+    }
+
+
+    private void separate() throws IOException
+    {
+        if (needsComma)
+        {
+            write((byte)',');
+        }
+    }
+
+
+    private void write(byte b) throws IOException
+    {
+        if (count == buffer.length)
+        {
+            flushBuffer();
+        }
+
+        buffer[count++] = b;
+    }
+
+
+    private void write(byte[] bytes, int offset, int length) throws IOException
+    {
+        if (length > buffer.length - count)
+        {
+            flushBuffer();
+
+            if (length >= buffer.length)
+            {
+                // Too large to buffer. Write the bytes directly.
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+
+    private void write(ByteBuffer source, int from, int to) throws IOException
+    {
+        if (source.hasArray())
+        {
+            // Copy from the backing array without a view.
+            write(source.array(), source.arrayOffset() + from, to - from);
+            return;
+        }
+
+        if (this.source != source)
+        {
+            this.source = source;
+            this.view   = source.duplicate();
+        }
+
+        for (int i = from; i < to; )
+        {
+            if (count == buffer.length)
+            {
+                flushBuffer();
+            }
+
+            int n = Math.min(to - i, buffer.length - count);
+
+            view.limit(i + n).position(i);
+            view.get(buffer, count, n);
+
+            count += n;
+            i     += n;
+        }
+    }
+
+
+    private void flushBuffer() throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
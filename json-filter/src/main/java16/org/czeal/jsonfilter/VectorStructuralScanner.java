@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.nio.ByteBuffer;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * <p>
+ * <i>NOTE: This class is intended for internal use only.</i>
+ * </p>
+ *
+ * A structural scanner examining a block of up to 64 bytes at a time with the
+ * Vector API.
+ *
+ * <p>
+ * In the style of simdjson, each block is loaded as one vector of the preferred
+ * shape of the platform (e.g. 64 bytes with AVX-512, 32 bytes with AVX2) and
+ * classified at once into one mask per character class: quotes, backslashes,
+ * braces, brackets, commas, colons and control characters. The masks of the
+ * characters searched for are combined, and the index of the first one is given
+ * by the first set lane. The masks are not converted into {@code long} bitmaps,
+ * as {@link VectorMask#toLong()} is not compiled into vector instructions
+ * before Java 19, which makes it slower than the SWAR scanner. The remaining
+ * bytes less than a block are examined by the SWAR scanner.
+ * </p>
+ *
+ * <p>
+ * This class is compiled only by JDK 16 or newer into the versioned part of the
+ * multi-release jar, and needs the {@code jdk.incubator.vector} module at run
+ * time. {@link StructuralScanner} loads it reflectively and falls back to the
+ * SWAR scanner when either is missing.
+ * </p>
+ *
+ * @author Hideki Ikeda
+ */
+final class VectorStructuralScanner extends StructuralScanner
+{
+    /**
+     * The shape of the blocks. Platforms with vectors longer than 64 bytes, e.g.
+     * SVE, use 64-byte vectors.
+     */
+    private static final VectorSpecies<Byte> SPECIES =
+            (ByteVector.SPECIES_PREFERRED.length() <= 64) ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+
+    /**
+     * The number of bytes of a block.
+     */
+    private static final int BLOCK = SPECIES.length();
+
+
+    @Override
+    int nextStructural(ByteBuffer source, int pos, int limit)
+    {
+        byte[] block = source.hasArray() ? source.array() : new byte[BLOCK];
+
+        for (; pos + BLOCK <= limit; pos += BLOCK)
+        {
+            ByteVector bytes = ByteVector.fromArray(SPECIES, block, load(source, pos, block));
+
+            VectorMask<Byte> structurals =
+                    quotes(bytes).or(braces(bytes)).or(brackets(bytes)).or(commas(bytes)).or(colons(bytes));
+
+            if (structurals.anyTrue())
+            {
+                return pos + structurals.firstTrue();
+            }
+        }
+
+        return SWAR.nextStructural(source, pos, limit);
+    }
+
+
+    @Override
+    int nextStringSpecial(ByteBuffer source, int pos, int limit)
+    {
+        byte[] block = source.hasArray() ? source.array() : new byte[BLOCK];
+
+        for (; pos + BLOCK <= limit; pos += BLOCK)
+        {
+            ByteVector bytes = ByteVector.fromArray(SPECIES, block, load(source, pos, block));
+
+            VectorMask<Byte> specials = quotes(bytes).or(backslashes(bytes)).or(controls(bytes));
+
+            if (specials.anyTrue())
+            {
+                return pos + specials.firstTrue();
+            }
+        }
+
+        return SWAR.nextStringSpecial(source, pos, limit);
+    }
+
+
+    /**
+     * Makes the block at the given index of the source readable from the given
+     * array, and returns the offset of the block in the array.
+     */
+    private static int load(ByteBuffer source, int pos, byte[] block)
+    {
+        if (source.hasArray())
+        {
+            // The block is read from the backing array in place.
+            return source.arrayOffset() + pos;
+        }
+
+        // A direct or read-only buffer. Copy the block.
+        source.get(pos, block);
+
+        return 0;
+    }
+
+
+    private static VectorMask<Byte> quotes(ByteVector bytes)
+    {
+        return bytes.eq((byte)'"');
+    }
+
+
+    private static VectorMask<Byte> backslashes(ByteVector bytes)
+    {
+        return bytes.eq((byte)'\\');
+    }
+
+
+    private static VectorMask<Byte> braces(ByteVector bytes)
+    {
+        return bytes.eq((byte)'{').or(bytes.eq((byte)'}'));
+    }
+
+
+    private static VectorMask<Byte> brackets(ByteVector bytes)
+    {
+        return bytes.eq((byte)'[').or(bytes.eq((byte)']'));
+    }
+
+
+    private static VectorMask<Byte> commas(ByteVector bytes)
+    {
+        return bytes.eq((byte)',');
+    }
+
+
+    private static VectorMask<Byte> colons(ByteVector bytes)
+    {
+        return bytes.eq((byte)':');
+    }
+
+
+    /**
+     * Marks the control characters. Bytes are signed, so the bytes of multi-byte
+     * characters (0x80 and above) are negative and are not marked.
+     */
+    private static VectorMask<Byte> controls(ByteVector bytes)
+    {
+        return bytes.lt((byte)0x20).andNot(bytes.lt((byte)0));
+    }
+}
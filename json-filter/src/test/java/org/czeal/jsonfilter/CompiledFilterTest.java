@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class CompiledFilterTest
+{
+    @Test
+    @DisplayName("retrieve type from compiled filter")
+    void testGetType1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "a");
+        assertEquals(FilterType.EXCLUSION, compiled.getType());
+    }
+
+
+    @Test
+    @DisplayName("retrieve node tree for the expected type")
+    void testGetNode1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        assertSame(compiled.getNode(), compiled.getNode(FilterType.INCLUSION));
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException when retrieving node tree for another type")
+    void testGetNode2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        assertThrows(IllegalArgumentException.class, () -> { compiled.getNode(FilterType.EXCLUSION); });
+    }
+
+
+    @Test
+    @DisplayName("reject modification of compiled node tree")
+    void testGetNode3()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a,b");
+        assertThrows(UnsupportedOperationException.class, () -> { compiled.getNode().getSubNodes().clear(); });
+    }
+
+
+    @Test
+    @DisplayName("retrieve normalized expression from compiled filter")
+    void testGetExpression1()
+    {
+        FilterFactory factory = new FilterFactory();
+
+        assertEquals("b(c,d),a", factory.compile(FilterType.INCLUSION, " b ( c ) , a, b(d)").getExpression());
+        assertEquals("a(b(c)),d", factory.compile(FilterType.EXCLUSION, "a(b(c)),d").getExpression());
+        assertEquals("", factory.compile(FilterType.INCLUSION, "").getExpression());
+        assertEquals(null, factory.compile(FilterType.INCLUSION, null).getExpression());
+    }
+
+
+    @Test
+    @DisplayName("convert compiled filter to string")
+    void testToString1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a,b(c),b(d)");
+        assertEquals("INCLUSION:ROOT(a,b(c,d))", compiled.toString());
+    }
+
+
+    @Test
+    @DisplayName("build no program for a filter compiled without a number of uses")
+    void testGetProgram1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertNull(compiled.getProgram());
+        }
+    }
+
+
+    @Test
+    @DisplayName("build a program after the given number of uses")
+    void testGetProgram2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a", 3);
+
+        assertNull(compiled.getProgram());
+        assertNull(compiled.getProgram());
+        assertNull(compiled.getProgram());
+
+        InclusionProgram program = compiled.getProgram();
+
+        assertNotNull(program);
+        assertSame(program, compiled.getProgram());
+    }
+
+
+    @Test
+    @DisplayName("build a program on the first use, but never for exclusion filters")
+    void testGetProgram3()
+    {
+        FilterFactory factory = new FilterFactory();
+
+        assertNotNull(factory.compile(FilterType.INCLUSION, "a", 0).getProgram());
+        assertNull(factory.compile(FilterType.EXCLUSION, "a", 0).getProgram());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class ComposedFilterTest
+{
+    private static final String SOURCE =
+            "{\"id\":1,\"user\":{\"name\":\"n\",\"ssn\":\"s\",\"tags\":null},\"extra\":[{\"a\":1,\"b\":2}]}";
+
+
+    private final FilterFactory factory = new FilterFactory();
+
+
+    private static String applyStream(ComposedFilter filter, String json) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        filter.apply(new JsonReader(new StringReader(json)), new JsonWriter(out));
+        return out.toString();
+    }
+
+
+    private static String applySequentially(
+            CompiledFilter inclusion, CompiledFilter exclusion, String json) throws IOException
+    {
+        StringWriter included = new StringWriter();
+        new InclusionFilter().apply(new JsonReader(new StringReader(json)), new JsonWriter(included), inclusion);
+
+        StringWriter excluded = new StringWriter();
+        new ExclusionFilter().apply(
+                new JsonReader(new StringReader(included.toString())), new JsonWriter(excluded), exclusion);
+
+        return excluded.toString();
+    }
+
+
+    private static String random(Random random)
+    {
+        // A null expression selects or excludes the whole value.
+        return (random.nextInt(10) == 0) ? null : RandomJson.expression(random, 3);
+    }
+
+
+    @Test
+    @DisplayName("apply a composed filter to a tree")
+    void testApply1()
+    {
+        ComposedFilter filter = factory.compose(
+                factory.compile(FilterType.INCLUSION, "user(tags,name,ssn),id,extra(b)"),
+                factory.compile(FilterType.EXCLUSION, "user(ssn,tags(x)),extra"));
+
+        assertEquals("{\"user\":{\"name\":\"n\"},\"id\":1}",
+                filter.apply(JsonParser.parseString(SOURCE)).toString());
+    }
+
+
+    @Test
+    @DisplayName("apply a composed filter to a stream")
+    void testApply2() throws IOException
+    {
+        ComposedFilter filter = factory.compose(
+                factory.compile(FilterType.INCLUSION, "user(tags,name,ssn),id,extra(b)"),
+                factory.compile(FilterType.EXCLUSION, "user(ssn,tags(x)),extra"));
+
+        assertEquals("{\"id\":1,\"user\":{\"name\":\"n\"}}", applyStream(filter, SOURCE));
+    }
+
+
+    @Test
+    @DisplayName("return null when the whole value is excluded")
+    void testApply3() throws IOException
+    {
+        ComposedFilter filter = factory.compose(
+                factory.compile(FilterType.INCLUSION, "id"),
+                factory.compile(FilterType.EXCLUSION, null));
+
+        assertEquals(JsonNull.INSTANCE, filter.apply(JsonParser.parseString(SOURCE)));
+        assertEquals("null", applyStream(filter, SOURCE));
+    }
+
+
+    @Test
+    @DisplayName("the result is independent of the source")
+    void testApply4()
+    {
+        ComposedFilter filter = factory.compose(
+                factory.compile(FilterType.INCLUSION, "user"),
+                factory.compile(FilterType.EXCLUSION, "id"));
+
+        JsonElement source = JsonParser.parseString(SOURCE);
+        JsonElement result = filter.apply(source);
+
+        result.getAsJsonObject().getAsJsonObject("user").addProperty("x", 1);
+
+        assertEquals(JsonParser.parseString(SOURCE), source);
+    }
+
+
+    @Test
+    @DisplayName("a composed filter is equivalent to the sequential filters on random trees")
+    void testApply5()
+    {
+        Random random = new Random(7);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, random(random));
+            CompiledFilter exclusion = factory.compile(FilterType.EXCLUSION, random(random));
+            ComposedFilter filter = factory.compose(inclusion, exclusion);
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+
+            JsonElement expected = new ExclusionFilter().apply(new InclusionFilter().apply(source, inclusion), exclusion);
+
+            assertEquals(expected.toString(), filter.apply(source).toString(),
+                    inclusion + " " + exclusion + " " + source);
+        }
+    }
+
+
+    @Test
+    @DisplayName("a composed filter is equivalent to the sequential filters on random streams")
+    void testApply6() throws IOException
+    {
+        Random random = new Random(11);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, random(random));
+            CompiledFilter exclusion = factory.compile(FilterType.EXCLUSION, random(random));
+            ComposedFilter filter = factory.compose(inclusion, exclusion);
+            String json = RandomJson.generate(random, 4);
+
+            assertEquals(applySequentially(inclusion, exclusion, json), applyStream(filter, json),
+                    inclusion + " " + exclusion + " " + json);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FanOutFilterTest
+{
+    private static final String[][] FILTERS = {
+        { "INCLUSION", "a" },
+        { "INCLUSION", "b(a),a(c)" },
+        { "INCLUSION", null },
+        { "EXCLUSION", "a" },
+        { "EXCLUSION", "b(a,c(a)),d()" },
+        { "EXCLUSION", null },
+    };
+
+
+    private static List<CompiledFilter> compile()
+    {
+        FilterFactory factory = new FilterFactory();
+        List<CompiledFilter> filters = new ArrayList<>();
+
+        for (String[] f : FILTERS)
+        {
+            filters.add(factory.compile(FilterType.valueOf(f[0]), f[1]));
+        }
+
+        return filters;
+    }
+
+
+    private static JsonElement applyOne(JsonElement source, CompiledFilter filter)
+    {
+        return (filter.getType() == FilterType.INCLUSION)
+                ? new InclusionFilter().apply(source, filter)
+                : new ExclusionFilter().apply(source, filter);
+    }
+
+
+    private static String applyOne(String json, CompiledFilter filter) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonReader reader = new JsonReader(new StringReader(json));
+
+        if (filter.getType() == FilterType.INCLUSION)
+        {
+            new InclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+        else
+        {
+            new ExclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+
+        return out.toString();
+    }
+
+
+    private static List<String> applyStream(FanOutFilter filter, String json) throws IOException
+    {
+        List<StringWriter> outs = new ArrayList<>();
+        List<JsonWriter> writers = new ArrayList<>();
+
+        for (int i = 0; i < filter.getFilters().size(); i++)
+        {
+            outs.add(new StringWriter());
+            writers.add(new JsonWriter(outs.get(i)));
+        }
+
+        filter.apply(new JsonReader(new StringReader(json)), writers);
+
+        List<String> results = new ArrayList<>();
+
+        for (StringWriter out : outs)
+        {
+            results.add(out.toString());
+        }
+
+        return results;
+    }
+
+
+    @Test
+    @DisplayName("apply several filters to a tree")
+    void testApply1()
+    {
+        FilterFactory factory = new FilterFactory();
+        FanOutFilter filter = new FanOutFilter(Arrays.asList(
+                factory.compile(FilterType.INCLUSION, "id,title"),
+                factory.compile(FilterType.INCLUSION, "title,id,author(name)"),
+                factory.compile(FilterType.EXCLUSION, "author(email)")));
+
+        JsonElement source = JsonParser.parseString(
+                "{\"id\":1,\"title\":\"t\",\"author\":{\"name\":\"n\",\"email\":\"e\"}}");
+
+        List<JsonElement> results = filter.apply(source);
+
+        assertEquals("{\"id\":1,\"title\":\"t\"}", results.get(0).toString());
+        assertEquals("{\"title\":\"t\",\"id\":1,\"author\":{\"name\":\"n\"}}", results.get(1).toString());
+        assertEquals("{\"id\":1,\"title\":\"t\",\"author\":{\"name\":\"n\"}}", results.get(2).toString());
+    }
+
+
+    @Test
+    @DisplayName("results are independent of the source and of each other")
+    void testApply2()
+    {
+        FilterFactory factory = new FilterFactory();
+        FanOutFilter filter = new FanOutFilter(Arrays.asList(
+                factory.compile(FilterType.INCLUSION, "a"),
+                factory.compile(FilterType.INCLUSION, "a")));
+
+        JsonElement source = JsonParser.parseString("{\"a\":{\"b\":1}}");
+        List<JsonElement> results = filter.apply(source);
+
+        results.get(0).getAsJsonObject().getAsJsonObject("a").addProperty("c", 2);
+
+        assertEquals("{\"a\":{\"b\":1}}", source.toString());
+        assertEquals("{\"a\":{\"b\":1}}", results.get(1).toString());
+    }
+
+
+    @Test
+    @DisplayName("tree fan-out produces the same results as separate filters")
+    void testApply3()
+    {
+        List<CompiledFilter> filters = compile();
+        FanOutFilter filter = new FanOutFilter(filters);
+        Random random = new Random(3);
+
+        for (int n = 0; n < 500; n++)
+        {
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+            List<JsonElement> results = filter.apply(source);
+
+            for (int i = 0; i < filters.size(); i++)
+            {
+                assertEquals(applyOne(source, filters.get(i)).toString(), results.get(i).toString(), source + " " + i);
+            }
+        }
+
+        assertEquals(JsonNull.INSTANCE, filter.apply(null).get(0));
+    }
+
+
+    @Test
+    @DisplayName("stream fan-out produces the same results as separate stream filters")
+    void testApply4() throws IOException
+    {
+        List<CompiledFilter> filters = compile();
+        FanOutFilter filter = new FanOutFilter(filters);
+        Random random = new Random(5);
+
+        for (int n = 0; n < 500; n++)
+        {
+            String json = RandomJson.generate(random, 4);
+            List<String> results = applyStream(filter, json);
+
+            for (int i = 0; i < filters.size(); i++)
+            {
+                assertEquals(applyOne(json, filters.get(i)), results.get(i), json + " " + i);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments")
+    void testConstructor1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> { new FanOutFilter(null); });
+        assertThrows(NullPointerException.class, () -> { new FanOutFilter(Arrays.asList(compiled, null)); });
+        assertThrows(IllegalArgumentException.class, () -> { new FanOutFilter(Collections.emptyList()); });
+
+        FanOutFilter filter = new FanOutFilter(Arrays.asList(compiled, compiled));
+        JsonReader reader = new JsonReader(new StringReader("{}"));
+
+        assertThrows(NullPointerException.class, () -> { filter.apply(reader, null); });
+        assertThrows(IllegalArgumentException.class, () -> { filter.apply(reader, Collections.emptyList()); });
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+
+public class FilterCacheTest
+{
+    @Test
+    @DisplayName("throw IllegalArgumentException when maximum size is not positive")
+    void testConstructor1()
+    {
+        assertThrows(IllegalArgumentException.class, () -> { new FilterCache(0); });
+    }
+
+
+    @Test
+    @DisplayName("return cached node tree on second lookup")
+    void testGet1()
+    {
+        FilterCache cache = new FilterCache(10);
+        Node first = cache.get("a,b(c),b(d)");
+        Node second = cache.get("a,b(c),b(d)");
+        assertSame(first, second);
+        assertEquals("ROOT(a,b(c,d))", second.toString());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+
+    @Test
+    @DisplayName("parse null expression without caching it")
+    void testGet2()
+    {
+        FilterCache cache = new FilterCache(10);
+        assertEquals("ROOT", cache.get(null).toString());
+        assertEquals(0, cache.size());
+    }
+
+
+    @Test
+    @DisplayName("do not cache invalid expression")
+    void testGet3()
+    {
+        FilterCache cache = new FilterCache(10);
+        assertThrows(IllegalArgumentException.class, () -> { cache.get("a(b"); });
+        assertEquals(0, cache.size());
+    }
+
+
+    @Test
+    @DisplayName("evict unreferenced entry when cache is full")
+    void testGet4()
+    {
+        FilterCache cache = new FilterCache(2);
+        cache.get("a");
+        cache.get("b");
+
+        // Reference "a" so that "b" is evicted first.
+        cache.get("a");
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        // "a" is still cached.
+        long hits = cache.getHitCount();
+        cache.get("a");
+        assertEquals(hits + 1, cache.getHitCount());
+    }
+
+
+    @Test
+    @DisplayName("never exceed maximum size")
+    void testGet5()
+    {
+        FilterCache cache = new FilterCache(8);
+
+        for (int i = 0; i < 100; i++)
+        {
+            cache.get("k" + i);
+            cache.get("k" + (i / 2));
+        }
+
+        assertEquals(8, cache.size());
+    }
+
+
+    @Test
+    @DisplayName("remove all entries by clear")
+    void testClear1()
+    {
+        FilterCache cache = new FilterCache(10);
+        cache.get("a");
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.get("a");
+        assertEquals(2, cache.getMissCount());
+    }
+
+
+    @Test
+    @DisplayName("filters created by factory share cache")
+    void testFactory1()
+    {
+        FilterCache cache = new FilterCache(10);
+        FilterFactory factory = new FilterFactory(cache);
+        JsonElement jsonElement = JsonParser.parseString("{\"a\":1,\"b\":2,\"c\":3}");
+
+        assertEquals("{\"a\":1,\"b\":2}", factory.create(FilterType.INCLUSION).apply(jsonElement, "a,b").toString());
+        assertEquals("{\"c\":3}", factory.create(FilterType.EXCLUSION).apply(jsonElement, "a,b").toString());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilterFactoryTest
+{
+    @Test
+    @DisplayName("throw NullPointerException when creating filter with null type")
+    void testCreate1()
+    {
+        assertThrows(NullPointerException.class, () -> { new FilterFactory().create(null); });
+    }
+
+
+    @Test
+    @DisplayName("create InclusionFilter when FilterType.INCLUSION is specified")
+    void testCreate2()
+    {
+        Filter filter = new FilterFactory().create(FilterType.INCLUSION);
+        assertNotNull(filter);
+        assertTrue(filter instanceof InclusionFilter);
+    }
+
+
+    @Test
+    @DisplayName("create ExclusionFilter when FilterType.EXCLUSION is specified")
+    void testCreate3()
+    {
+        Filter filter = new FilterFactory().create(FilterType.EXCLUSION);
+        assertNotNull(filter);
+        assertTrue(filter instanceof ExclusionFilter);
+    }
+
+
+    @Test
+    @DisplayName("throw NullPointerException when compiling filter with null type")
+    void testCompile1()
+    {
+        assertThrows(NullPointerException.class, () -> { new FilterFactory().compile(null, "a"); });
+    }
+
+
+    @Test
+    @DisplayName("compile inclusion filter expression")
+    void testCompile2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a(b(c),b(d))");
+        assertEquals(FilterType.INCLUSION, compiled.getType());
+        assertEquals("ROOT(a(b(c,d)))", compiled.getNode().toString());
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException when compiling invalid expression")
+    void testCompile3()
+    {
+        assertThrows(IllegalArgumentException.class, () -> { new FilterFactory().compile(FilterType.EXCLUSION, "a(b"); });
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions when compiling specialized filter with invalid arguments")
+    void testCompileSpecialized1()
+    {
+        FilterFactory factory = new FilterFactory();
+
+        assertThrows(NullPointerException.class, () -> { factory.compile(null, "a", 10); });
+        assertThrows(IllegalArgumentException.class, () -> { factory.compile(FilterType.INCLUSION, "a", -1); });
+    }
+
+
+    @Test
+    @DisplayName("throw NullPointerException when composing null filters")
+    void testCompose1()
+    {
+        FilterFactory factory = new FilterFactory();
+        CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, "a");
+        CompiledFilter exclusion = factory.compile(FilterType.EXCLUSION, "b");
+
+        assertThrows(NullPointerException.class, () -> { factory.compose(null, exclusion); });
+        assertThrows(NullPointerException.class, () -> { factory.compose(inclusion, null); });
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException when composing filters of wrong types")
+    void testCompose2()
+    {
+        FilterFactory factory = new FilterFactory();
+        CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, "a");
+        CompiledFilter exclusion = factory.compile(FilterType.EXCLUSION, "b");
+
+        assertThrows(IllegalArgumentException.class, () -> { factory.compose(exclusion, exclusion); });
+        assertThrows(IllegalArgumentException.class, () -> { factory.compose(inclusion, inclusion); });
+        assertThrows(IllegalArgumentException.class, () -> { factory.compose(exclusion, inclusion); });
+    }
+
+
+    @Test
+    @DisplayName("compose an inclusion filter and an exclusion filter")
+    void testCompose3()
+    {
+        FilterFactory factory = new FilterFactory();
+        ComposedFilter filter = factory.compose(
+                factory.compile(FilterType.INCLUSION, "id,user(name,ssn)"),
+                factory.compile(FilterType.EXCLUSION, "user(ssn)"));
+
+        assertEquals("COMPOSED:ROOT(+id,user(+name))", filter.toString());
+    }
+}
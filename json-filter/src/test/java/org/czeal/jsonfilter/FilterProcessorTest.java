@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.MalformedJsonException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilterProcessorTest
+{
+    /**
+     * A publisher which emits the items of a list on request, recording the total
+     * number of the requested items.
+     */
+    private static final class ListPublisher<T> implements Flow.Publisher<T>
+    {
+        private final List<T> items;
+        private Flow.Subscriber<? super T> subscriber;
+        private long requested;
+        private long totalRequested;
+        private int index;
+        private boolean emitting;
+        private boolean cancelled;
+
+
+        ListPublisher(List<T> items)
+        {
+            this.items = items;
+        }
+
+
+        @Override
+        public synchronized void subscribe(Flow.Subscriber<? super T> subscriber)
+        {
+            this.subscriber = subscriber;
+
+            subscriber.onSubscribe(new Flow.Subscription()
+            {
+                @Override
+                public void request(long n)
+                {
+                    synchronized (ListPublisher.this)
+                    {
+                        requested      += n;
+                        totalRequested += n;
+                        emit();
+                    }
+                }
+
+
+                @Override
+                public void cancel()
+                {
+                    synchronized (ListPublisher.this)
+                    {
+                        cancelled = true;
+                    }
+                }
+            });
+        }
+
+
+        private void emit()
+        {
+            if (emitting)
+            {
+                return;
+            }
+
+            emitting = true;
+
+            while (!cancelled && requested > 0 && index < items.size())
+            {
+                requested--;
+                subscriber.onNext(items.get(index++));
+            }
+
+            if (!cancelled && index == items.size())
+            {
+                cancelled = true;
+                subscriber.onComplete();
+            }
+
+            emitting = false;
+        }
+    }
+
+
+    /**
+     * A subscriber which records the results, requesting the given number of them
+     * at first.
+     */
+    private static final class RecordingSubscriber<T> implements Flow.Subscriber<T>
+    {
+        private final List<T> results = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final long initialRequest;
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+
+
+        RecordingSubscriber(long initialRequest)
+        {
+            this.initialRequest = initialRequest;
+        }
+
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+
+            if (initialRequest > 0)
+            {
+                subscription.request(initialRequest);
+            }
+        }
+
+
+        @Override
+        public void onNext(T item)
+        {
+            results.add(item);
+        }
+
+
+        @Override
+        public void onError(Throwable throwable)
+        {
+            error = throwable;
+            latch.countDown();
+        }
+
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+            latch.countDown();
+        }
+
+
+        void await() throws InterruptedException
+        {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+
+    private final FilterFactory factory = new FilterFactory();
+
+
+    private ExecutorService executor;
+
+
+    @BeforeEach
+    void setUp()
+    {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+
+    private static List<JsonElement> documents(Random random, int count)
+    {
+        List<JsonElement> documents = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            documents.add(JsonParser.parseString(RandomJson.generate(random, 4)));
+        }
+
+        return documents;
+    }
+
+
+    private static List<JsonElement> expected(List<JsonElement> documents, CompiledFilter compiled)
+    {
+        List<JsonElement> expected = new ArrayList<>();
+
+        for (JsonElement document : documents)
+        {
+            expected.add((compiled.getType() == FilterType.INCLUSION)
+                    ? new InclusionFilter().apply(document, compiled) : new ExclusionFilter().apply(document, compiled));
+        }
+
+        return expected;
+    }
+
+
+    @Test
+    @DisplayName("filter elements in order")
+    void testForElements1() throws InterruptedException
+    {
+        Random random = new Random(1);
+
+        for (FilterType type : FilterType.values())
+        {
+            CompiledFilter compiled = factory.compile(type, RandomJson.expression(random, 3));
+            List<JsonElement> documents = documents(random, 50);
+
+            FilterProcessor<JsonElement> processor = FilterProcessor.forElements(compiled);
+            RecordingSubscriber<JsonElement> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+            new ListPublisher<>(documents).subscribe(processor);
+            processor.subscribe(subscriber);
+            subscriber.await();
+
+            assertTrue(subscriber.completed);
+            assertEquals(expected(documents, compiled), subscriber.results);
+        }
+    }
+
+
+    @Test
+    @DisplayName("request no more items than the downstream demand")
+    void testForElements2() throws InterruptedException
+    {
+        CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a");
+        List<JsonElement> documents = documents(new Random(2), 10);
+        ListPublisher<JsonElement> publisher = new ListPublisher<>(documents);
+
+        FilterProcessor<JsonElement> processor = FilterProcessor.forElements(compiled);
+        RecordingSubscriber<JsonElement> subscriber = new RecordingSubscriber<>(0);
+
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+        assertEquals(0, publisher.totalRequested);
+
+        subscriber.subscription.request(3);
+        assertEquals(3, subscriber.results.size());
+        assertEquals(3, publisher.totalRequested);
+
+        subscriber.subscription.request(20);
+        subscriber.await();
+
+        assertTrue(subscriber.completed);
+        assertEquals(expected(documents, compiled), subscriber.results);
+    }
+
+
+    @Test
+    @DisplayName("filter elements in parallel, keeping the order and reading ahead")
+    void testForElements3() throws InterruptedException
+    {
+        Random random = new Random(3);
+        CompiledFilter compiled = factory.compile(FilterType.EXCLUSION, RandomJson.expression(random, 3));
+        List<JsonElement> documents = documents(random, 200);
+
+        ListPublisher<JsonElement> publisher = new ListPublisher<>(documents);
+
+        FilterProcessor<JsonElement> processor = FilterProcessor.forElements(compiled, executor, 4);
+        RecordingSubscriber<JsonElement> subscriber = new RecordingSubscriber<>(0);
+
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+
+        // Read ahead up to the parallelism without demand.
+        assertEquals(4, publisher.totalRequested);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.await();
+
+        assertTrue(subscriber.completed);
+        assertEquals(expected(documents, compiled), subscriber.results);
+    }
+
+
+    @Test
+    @DisplayName("signal an upstream error and reject a second subscriber")
+    void testForElements4() throws InterruptedException
+    {
+        FilterProcessor<JsonElement> processor = FilterProcessor.forElements(factory.compile(FilterType.INCLUSION, "a"));
+        RecordingSubscriber<JsonElement> subscriber = new RecordingSubscriber<>(1);
+        RecordingSubscriber<JsonElement> second = new RecordingSubscriber<>(1);
+        IllegalStateException error = new IllegalStateException();
+
+        processor.subscribe(subscriber);
+        processor.subscribe(second);
+        second.await();
+        assertTrue(second.error instanceof IllegalStateException);
+
+        processor.onSubscribe(new Flow.Subscription()
+        {
+            @Override
+            public void request(long n)
+            {
+            }
+
+
+            @Override
+            public void cancel()
+            {
+            }
+        });
+        processor.onError(error);
+        subscriber.await();
+        assertEquals(error, subscriber.error);
+    }
+
+
+    @Test
+    @DisplayName("reject invalid arguments")
+    void testForElements5()
+    {
+        CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> FilterProcessor.forElements(null));
+        assertThrows(NullPointerException.class, () -> FilterProcessor.forElements(compiled, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> FilterProcessor.forElements(compiled, executor, 0));
+        assertThrows(NullPointerException.class, () -> FilterProcessor.forChunks(null));
+        assertThrows(NullPointerException.class, () -> FilterProcessor.forElements(compiled).subscribe(null));
+    }
+
+
+    @Test
+    @DisplayName("reject a null item without queueing it")
+    void testForElements6() throws InterruptedException
+    {
+        CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a");
+        List<JsonElement> documents = documents(new Random(5), 3);
+
+        FilterProcessor<JsonElement> processor = FilterProcessor.forElements(compiled);
+        RecordingSubscriber<JsonElement> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        processor.subscribe(subscriber);
+        assertThrows(NullPointerException.class, () -> processor.onNext(null));
+
+        new ListPublisher<>(documents).subscribe(processor);
+        subscriber.await();
+
+        assertTrue(subscriber.completed);
+        assertEquals(expected(documents, compiled), subscriber.results);
+    }
+
+
+    @Test
+    @DisplayName("filter a source received in chunks")
+    void testForChunks1() throws IOException, InterruptedException
+    {
+        Random random = new Random(4);
+
+        for (int i = 0; i < 50; i++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            CompiledFilter compiled = factory.compile(type, RandomJson.expression(random, 3));
+            byte[] source = RandomJson.generate(random, 4).getBytes(StandardCharsets.UTF_8);
+            List<ByteBuffer> chunks = new ArrayList<>();
+
+            for (int j = 0; j < source.length; )
+            {
+                int n = Math.min(source.length - j, 1 + random.nextInt(16));
+                chunks.add(ByteBuffer.wrap(source, j, n));
+                j += n;
+            }
+
+            FilterProcessor<ByteBuffer> processor = FilterProcessor.forChunks(compiled);
+            RecordingSubscriber<ByteBuffer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+            processor.subscribe(subscriber);
+            new ListPublisher<>(chunks).subscribe(processor);
+            subscriber.await();
+            assertTrue(subscriber.completed);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            for (ByteBuffer result : subscriber.results)
+            {
+                assertTrue(result.hasRemaining());
+                output.write(result.array(), result.position(), result.remaining());
+            }
+
+            byte[] expected = (type == FilterType.INCLUSION)
+                    ? new InclusionFilter().apply(source, compiled) : new ExclusionFilter().apply(source, compiled);
+
+            assertEquals(new String(expected, StandardCharsets.UTF_8), output.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+
+    @Test
+    @DisplayName("signal a malformed source as an error")
+    void testForChunks2() throws InterruptedException
+    {
+        FilterProcessor<ByteBuffer> processor = FilterProcessor.forChunks(factory.compile(FilterType.INCLUSION, "a"));
+        RecordingSubscriber<ByteBuffer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        ListPublisher<ByteBuffer> publisher = new ListPublisher<>(List.of(
+                ByteBuffer.wrap("{\"a\":".getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap("}".getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8))));
+
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+        subscriber.await();
+
+        assertTrue(subscriber.error instanceof UncheckedIOException);
+        assertTrue(subscriber.error.getCause() instanceof MalformedJsonException);
+        assertTrue(publisher.cancelled);
+    }
+}
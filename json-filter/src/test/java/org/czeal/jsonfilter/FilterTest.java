@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilterTest
+{
+    @Test
+    @DisplayName("apply the normalized expression of compiled filters by default")
+    void testApply1()
+    {
+        Filter inclusion = (source, nodes) -> new InclusionFilter().apply(source, nodes);
+        Filter exclusion = (source, nodes) -> new ExclusionFilter().apply(source, nodes);
+        JsonElement source = JsonParser.parseString("{\"a\":1,\"b\":{\"c\":2,\"d\":3},\"e\":4}");
+        FilterFactory factory = new FilterFactory();
+
+        assertEquals(JsonParser.parseString("{\"b\":{\"c\":2},\"a\":1}"),
+                inclusion.apply(source, factory.compile(FilterType.INCLUSION, " b ( c ) , a")));
+        assertEquals(JsonParser.parseString("{\"b\":{\"d\":3},\"e\":4}"),
+                exclusion.apply(source, factory.compile(FilterType.EXCLUSION, "a,b(c)")));
+        assertEquals(inclusion.apply(source, (String)null),
+                inclusion.apply(source, factory.compile(FilterType.INCLUSION, null)));
+    }
+
+
+    @Test
+    @DisplayName("throw NullPointerException for null compiled filter by default")
+    void testApply2()
+    {
+        Filter filter = (source, nodes) -> source;
+        JsonElement source = JsonParser.parseString("{\"a\":1}");
+
+        assertThrows(NullPointerException.class, () -> { filter.apply(source, (CompiledFilter)null); });
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilteredViewTest
+{
+    private final FilterFactory factory = new FilterFactory();
+
+
+    /**
+     * Rebuilds a JSON element by walking the view member by member.
+     */
+    private static JsonElement walk(FilteredView view)
+    {
+        if (view.isJsonObject())
+        {
+            JsonObject object = new JsonObject();
+
+            for (String name : view.keySet())
+            {
+                object.add(name, walk(view.get(name)));
+            }
+
+            return object;
+        }
+
+        if (view.isJsonArray())
+        {
+            JsonArray array = new JsonArray();
+
+            for (int i = 0; i < view.size(); i++)
+            {
+                array.add(walk(view.get(i)));
+            }
+
+            return array;
+        }
+
+        return view.toJsonElement();
+    }
+
+
+    private static FilteredView view(JsonElement source, CompiledFilter filter)
+    {
+        return (filter.getType() == FilterType.INCLUSION)
+                ? new InclusionFilter().view(source, filter) : new ExclusionFilter().view(source, filter);
+    }
+
+
+    private static JsonElement apply(JsonElement source, CompiledFilter filter)
+    {
+        return (filter.getType() == FilterType.INCLUSION)
+                ? new InclusionFilter().apply(source, filter) : new ExclusionFilter().apply(source, filter);
+    }
+
+
+    @Test
+    @DisplayName("access the members of an inclusion view in the order of the filter")
+    void testGet1()
+    {
+        JsonElement source = JsonParser.parseString("{\"a\":1,\"b\":{\"c\":true,\"d\":[1]},\"e\":[{\"c\":2,\"x\":3}]}");
+        FilteredView view  = new InclusionFilter().view(source, factory.compile(FilterType.INCLUSION, "e(c),b(c),z"));
+
+        assertEquals(Arrays.asList("e", "b"), Arrays.asList(view.keySet().toArray()));
+        assertTrue(view.has("b"));
+        assertFalse(view.has("a"));
+        assertNull(view.get("z"));
+        assertEquals(2, view.size());
+        assertEquals("{\"c\":true}", view.get("b").toString());
+        assertEquals("{\"c\":2}", view.get("e").get(0).toString());
+        assertEquals(2, view.get("e").get(0).get("c").toJsonElement().getAsInt());
+
+        // Members are computed once.
+        assertSame(view.get("b"), view.get("b"));
+        assertSame(view.get("e").get(0), view.get("e").get(0));
+    }
+
+
+    @Test
+    @DisplayName("access the members of an exclusion view in the source order")
+    void testGet2()
+    {
+        JsonElement source = JsonParser.parseString("{\"a\":1,\"b\":null,\"c\":{\"d\":2,\"e\":3},\"f\":[null]}");
+        FilteredView view  = new ExclusionFilter().view(source, factory.compile(FilterType.EXCLUSION, "a,b(x),c(d),f(x)"));
+
+        assertEquals(Arrays.asList("c", "f"), Arrays.asList(view.keySet().toArray()));
+        assertEquals("{\"e\":3}", view.get("c").toString());
+        assertTrue(view.get("f").get(0).isJsonNull());
+
+        assertTrue(new ExclusionFilter().view(source, factory.compile(FilterType.EXCLUSION, null)).isJsonNull());
+    }
+
+
+    @Test
+    @DisplayName("views represent the same JSON as the filters on random documents")
+    void testToJsonElement1() throws IOException
+    {
+        Random random = new Random(37);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            String expression = (random.nextInt(10) == 0) ? null : RandomJson.expression(random, 3);
+            CompiledFilter filter = factory.compile(type, expression);
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+            JsonElement expected = apply(source, filter);
+            String message = filter + " " + source;
+
+            assertEquals(expected, view(source, filter).toJsonElement(), message);
+            assertEquals(expected, walk(view(source, filter)), message);
+            assertEquals(expected.toString(), view(source, filter).toString(), message);
+
+            StringWriter out = new StringWriter();
+            view(source, filter).write(new JsonWriter(out));
+            assertEquals(expected, JsonParser.parseString(out.toString()), message);
+        }
+    }
+
+
+    @Test
+    @DisplayName("build a new JSON element on every call without modifying the source")
+    void testToJsonElement2()
+    {
+        JsonElement source = JsonParser.parseString("{\"a\":{\"b\":1},\"c\":2}");
+        FilteredView view  = new InclusionFilter().view(source, factory.compile(FilterType.INCLUSION, "a"));
+
+        JsonElement first = view.toJsonElement();
+        first.getAsJsonObject().getAsJsonObject("a").addProperty("b", 5);
+
+        assertEquals("{\"a\":{\"b\":1}}", view.toJsonElement().toString());
+        assertEquals("{\"a\":{\"b\":1},\"c\":2}", source.toString());
+    }
+
+
+    @Test
+    @DisplayName("write NaN and infinite numbers as the string representation of the filtered element does")
+    void testToString1()
+    {
+        JsonObject source = new JsonObject();
+        source.addProperty("x", Double.NaN);
+        source.addProperty("y", 1);
+        source.addProperty("z", Double.POSITIVE_INFINITY);
+
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "x,y,z");
+
+        assertEquals("{\"x\":NaN,\"y\":1,\"z\":Infinity}", new InclusionFilter().view(source, filter).toString());
+        assertEquals(new InclusionFilter().apply(source, filter).toString(), new InclusionFilter().view(source, filter).toString());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for accesses not matching the kind of the view")
+    void testGet3()
+    {
+        JsonElement source = JsonParser.parseString("[1,{\"a\":2}]");
+        FilteredView view  = new InclusionFilter().view(source, factory.compile(FilterType.INCLUSION, "a"));
+
+        assertThrows(IllegalStateException.class, () -> { view.get("a"); });
+        assertThrows(IllegalStateException.class, () -> { view.keySet(); });
+        assertThrows(IndexOutOfBoundsException.class, () -> { view.get(2); });
+        assertThrows(IllegalStateException.class, () -> { view.get(0).size(); });
+        assertThrows(IllegalStateException.class, () -> { view.get(1).get(0); });
+        assertThrows(NullPointerException.class, () -> { view.write(null); });
+    }
+}
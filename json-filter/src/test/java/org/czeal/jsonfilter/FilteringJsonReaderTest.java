@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilteringJsonReaderTest
+{
+    static final class Author
+    {
+        String name;
+        String email;
+    }
+
+
+    static final class Article
+    {
+        long id;
+        String title;
+        Author author;
+        List<Author> refs;
+        Map<String, Integer> counts;
+    }
+
+
+    private final FilterFactory factory = new FilterFactory();
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new FilteringTypeAdapterFactory()).create();
+
+
+    private static String read(String json, CompiledFilter filter) throws IOException
+    {
+        StringWriter out = new StringWriter();
+
+        JsonStreams.copy(new FilteringJsonReader(new StringReader(json), filter), new JsonWriter(out));
+
+        return out.toString();
+    }
+
+
+    private static String applyStream(String json, CompiledFilter filter) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonReader reader = new JsonReader(new StringReader(json));
+
+        if (filter.getType() == FilterType.INCLUSION)
+        {
+            new InclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+        else
+        {
+            new ExclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+
+        return out.toString();
+    }
+
+
+    @Test
+    @DisplayName("read only the selected members")
+    void testRead1() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "b(c),a");
+
+        assertEquals("{\"a\":1,\"b\":[{\"c\":true},{}]}",
+                read("{\"a\":1,\"b\":[{\"c\":true,\"d\":{\"e\":[1]}},{\"d\":2}],\"z\":null}", filter));
+    }
+
+
+    @Test
+    @DisplayName("read without the excluded members and null members looked into")
+    void testRead2() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.EXCLUSION, "b(c),a");
+
+        assertEquals("{\"d\":[1]}", read("{\"a\":1,\"b\":null,\"d\":[1]}", filter));
+        assertEquals("[{\"b\":{}},null]", read("[{\"b\":{\"c\":2}},null]", filter));
+        assertEquals("null", read("{\"a\":1}", factory.compile(FilterType.EXCLUSION, null)));
+    }
+
+
+    @Test
+    @DisplayName("reading produces the same JSON as the streaming filters on random documents")
+    void testRead3() throws IOException
+    {
+        Random random = new Random(31);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            String expression = (random.nextInt(10) == 0) ? null : RandomJson.expression(random, 3);
+            CompiledFilter filter = factory.compile(type, expression);
+            String json = RandomJson.generate(random, 4);
+
+            assertEquals(applyStream(json, filter), read(json, filter), filter + " " + json);
+        }
+    }
+
+
+    @Test
+    @DisplayName("deserialize only the selected fields")
+    void testFromJson1()
+    {
+        String json = "{\"id\":1,\"title\":\"t\",\"author\":{\"name\":\"n\",\"email\":\"e\"},"
+                + "\"refs\":[{\"name\":\"r\",\"email\":\"f\"}],\"counts\":{\"x\":1}}";
+
+        Article article = gson.fromJson(new FilteringJsonReader(new StringReader(json),
+                factory.compile(FilterType.INCLUSION, "id,author(name),refs(email),counts")), Article.class);
+
+        assertEquals(1, article.id);
+        assertNull(article.title);
+        assertEquals("n", article.author.name);
+        assertNull(article.author.email);
+        assertNull(article.refs.get(0).name);
+        assertEquals("f", article.refs.get(0).email);
+        assertEquals(Integer.valueOf(1), article.counts.get("x"));
+
+        JsonElement element = gson.fromJson(new FilteringJsonReader(new StringReader(json),
+                factory.compile(FilterType.EXCLUSION, "author,refs,counts")), JsonElement.class);
+
+        assertEquals("{\"id\":1,\"title\":\"t\"}", element.toString());
+    }
+
+
+    @Test
+    @DisplayName("skip unselected members when asked for the next token")
+    void testPeek1() throws IOException
+    {
+        JsonReader reader = new FilteringJsonReader(new StringReader("{\"x\":{\"y\":[1]},\"a\":2,\"z\":3}"),
+                factory.compile(FilterType.INCLUSION, "a"));
+
+        assertEquals(JsonToken.BEGIN_OBJECT, reader.peek());
+        reader.beginObject();
+        assertEquals(JsonToken.NAME, reader.peek());
+        assertTrue(reader.hasNext());
+        assertEquals("a", reader.nextName());
+        assertEquals(2, reader.nextInt());
+        assertFalse(reader.hasNext());
+        assertEquals(JsonToken.END_OBJECT, reader.peek());
+        reader.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+
+        JsonReader excluded = new FilteringJsonReader(new StringReader("[1]"),
+                factory.compile(FilterType.EXCLUSION, null));
+
+        assertEquals(JsonToken.NULL, excluded.peek());
+        assertThrows(IllegalStateException.class, () -> { excluded.beginArray(); });
+        excluded.nextNull();
+        assertEquals(JsonToken.END_DOCUMENT, excluded.peek());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments")
+    void testRead4()
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "counts(x)");
+
+        assertThrows(NullPointerException.class, () -> { new FilteringJsonReader(null, filter); });
+        assertThrows(NullPointerException.class, () -> { new FilteringJsonReader(new StringReader("{}"), null); });
+    }
+
+
+    @Test
+    @DisplayName("look into maps while deserializing")
+    void testFromJson2()
+    {
+        String json = "{\"a\":{\"x\":1,\"y\":2},\"b\":{\"1\":\"p\",\"2\":\"q\"},\"c\":3}";
+
+        Map<String, Object> map = gson.fromJson(new FilteringJsonReader(new StringReader(json),
+                factory.compile(FilterType.INCLUSION, "a(x),c")), new TypeToken<Map<String, Object>>() {}.getType());
+
+        assertEquals(Map.of("a", Map.of("x", 1.0), "c", 3.0), map);
+
+        Map<String, Map<Integer, String>> nested = gson.fromJson(new FilteringJsonReader(new StringReader(json),
+                factory.compile(FilterType.EXCLUSION, "a,b(2),c")), new TypeToken<Map<String, Map<Integer, String>>>() {}.getType());
+
+        assertEquals(Map.of("b", Map.of(1, "p")), nested);
+
+        Article article = gson.fromJson(new FilteringJsonReader(new StringReader("{\"counts\":{\"x\":1,\"y\":2}}"),
+                factory.compile(FilterType.INCLUSION, "counts(x)")), Article.class);
+
+        assertEquals(Map.of("x", 1), article.counts);
+    }
+
+
+    @Test
+    @DisplayName("require the filtering type adapter factory to read maps")
+    void testFromJson3()
+    {
+        JsonReader reader = new FilteringJsonReader(new StringReader("{\"a\":1}"), factory.compile(FilterType.INCLUSION, "a"));
+
+        assertThrows(JsonSyntaxException.class, () -> { new Gson().fromJson(reader, Map.class); });
+    }
+
+
+    @Test
+    @DisplayName("reject data after the JSON value on request")
+    void testRead5() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "a");
+
+        for (String json : new String[] { "{\"a\":1} x", "{\"a\":1}}", "[1] 2", "1 2" })
+        {
+            FilteringJsonReader reader = new FilteringJsonReader(new StringReader(json), filter);
+
+            gson.fromJson(reader, JsonElement.class);
+            assertThrows(IOException.class, () -> { reader.endDocument(); }, json);
+        }
+
+        FilteringJsonReader reader = new FilteringJsonReader(new StringReader("{\"a\":1,\"b\":2} \n"), filter);
+
+        assertThrows(IllegalStateException.class, () -> { reader.endDocument(); });
+        assertEquals(Map.of("a", 1.0), gson.fromJson(reader, Map.class));
+        reader.endDocument();
+    }
+
+
+    @Test
+    @DisplayName("don't read the source after the JSON value")
+    void testRead6()
+    {
+        // A source which stays open after the JSON value, and fails when it is
+        // read again instead of blocking.
+        Reader open = new Reader()
+        {
+            private boolean read;
+
+
+            @Override
+            public int read(char[] buffer, int off, int len)
+            {
+                if (read)
+                {
+                    throw new AssertionError("The source was read after the JSON value.");
+                }
+
+                read = true;
+                "{\"a\":1,\"b\":2}".getChars(0, 13, buffer, off);
+
+                return 13;
+            }
+
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        assertEquals(Map.of("a", 1.0), gson.fromJson(
+                new FilteringJsonReader(open, factory.compile(FilterType.INCLUSION, "a")), Map.class));
+    }
+}
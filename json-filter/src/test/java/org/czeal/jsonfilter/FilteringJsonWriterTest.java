@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilteringJsonWriterTest
+{
+    private final FilterFactory factory = new FilterFactory();
+
+
+    private static String write(String json, CompiledFilter filter) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonReader reader = new JsonReader(new StringReader(json));
+        FilteringJsonWriter writer = new FilteringJsonWriter(new JsonWriter(out), filter);
+
+        JsonStreams.copy(reader, writer);
+        writer.flush();
+
+        return out.toString();
+    }
+
+
+    private static String applyStream(String json, CompiledFilter filter) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        JsonReader reader = new JsonReader(new StringReader(json));
+
+        if (filter.getType() == FilterType.INCLUSION)
+        {
+            new InclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+        else
+        {
+            new ExclusionFilter().apply(reader, new JsonWriter(out), filter);
+        }
+
+        return out.toString();
+    }
+
+
+    @Test
+    @DisplayName("write only the selected members")
+    void testWrite1() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "b(c),a");
+
+        assertEquals("{\"a\":1,\"b\":[{\"c\":true},{}]}",
+                write("{\"a\":1,\"b\":[{\"c\":true,\"d\":{\"e\":[1]}},{\"d\":2}],\"z\":null}", filter));
+    }
+
+
+    @Test
+    @DisplayName("remove the excluded members and null members looked into")
+    void testWrite2() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.EXCLUSION, "b(c),a");
+
+        assertEquals("{\"d\":[null,{\"b\":{\"c\":{\"x\":1}}}]}",
+                write("{\"a\":1,\"b\":null,\"d\":[null,{\"b\":{\"c\":{\"x\":1}}}]}", filter));
+        assertEquals("[{},null]", write("[{\"b\":null},null]", filter));
+        assertEquals("null", write("{\"a\":1}", factory.compile(FilterType.EXCLUSION, null)));
+    }
+
+
+    @Test
+    @DisplayName("writing produces the same JSON as the streaming filters on random documents")
+    void testWrite3() throws IOException
+    {
+        Random random = new Random(29);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            String expression = (random.nextInt(10) == 0) ? null : RandomJson.expression(random, 3);
+            CompiledFilter filter = factory.compile(type, expression);
+            String json = RandomJson.generate(random, 4);
+
+            assertEquals(applyStream(json, filter), write(json, filter), filter + " " + json);
+        }
+    }
+
+
+    @Test
+    @DisplayName("tell whether the next value is discarded")
+    void testSkipsNextValue1() throws IOException
+    {
+        FilteringJsonWriter writer = new FilteringJsonWriter(
+                new JsonWriter(new StringWriter()), factory.compile(FilterType.INCLUSION, "a(b)"));
+
+        assertFalse(writer.skipsNextValue());
+        writer.beginObject();
+        writer.name("x");
+        assertTrue(writer.skipsNextValue());
+        writer.beginObject();
+        assertTrue(writer.skipsNextValue());
+        writer.endObject();
+        writer.name("a");
+        assertFalse(writer.skipsNextValue());
+        writer.beginObject();
+        writer.name("b");
+        assertFalse(writer.skipsNextValue());
+        writer.value(1);
+        writer.name("c");
+        assertTrue(writer.skipsNextValue());
+
+        FilteringJsonWriter excluding = new FilteringJsonWriter(
+                new JsonWriter(new StringWriter()), factory.compile(FilterType.EXCLUSION, null));
+
+        assertTrue(excluding.skipsNextValue());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments and nesting")
+    void testWrite4() throws IOException
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "a");
+        JsonWriter out = new JsonWriter(new StringWriter());
+
+        assertThrows(NullPointerException.class, () -> { new FilteringJsonWriter(null, filter); });
+        assertThrows(NullPointerException.class, () -> { new FilteringJsonWriter(out, null); });
+
+        FilteringJsonWriter writer = new FilteringJsonWriter(out, filter);
+
+        assertThrows(IllegalStateException.class, () -> { writer.name("a"); });
+        writer.beginObject();
+        assertThrows(IllegalStateException.class, () -> { writer.value(1); });
+        assertThrows(IllegalStateException.class, () -> { writer.endArray(); });
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class FilteringTypeAdapterFactoryTest
+{
+    static final class Author
+    {
+        String name  = "n";
+        String email = "e";
+    }
+
+
+    static final class Heavy
+    {
+        int value = 1;
+    }
+
+
+    static final class Article
+    {
+        long id           = 1;
+        String title      = "t";
+        Author author     = new Author();
+        List<Author> refs = Arrays.asList(new Author(), new Author());
+        Heavy heavy       = new Heavy();
+        String missing    = null;
+    }
+
+
+    static class Animal
+    {
+        String name = "x";
+    }
+
+
+    static final class Dog extends Animal
+    {
+        int legs = 4;
+    }
+
+
+    static final class Holder
+    {
+        Animal pet = new Dog();
+    }
+
+
+    static final class Measure
+    {
+        double value = Double.NaN;
+    }
+
+
+    /**
+     * The number of Heavy values converted.
+     */
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final FilteringTypeAdapterFactory filtering = new FilteringTypeAdapterFactory();
+    private final FilterFactory factory = new FilterFactory();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Heavy.class, new TypeAdapter<Heavy>()
+            {
+                @Override
+                public void write(JsonWriter out, Heavy value) throws IOException
+                {
+                    conversions.incrementAndGet();
+                    out.beginObject().name("value").value(value.value).endObject();
+                }
+
+
+                @Override
+                public Heavy read(JsonReader in) throws IOException
+                {
+                    throw new UnsupportedOperationException();
+                }
+            })
+            .registerTypeAdapterFactory(filtering)
+            .create();
+
+
+    @Test
+    @DisplayName("serialize only the selected fields")
+    void testToJson1()
+    {
+        String json = filtering.toJson(gson, new Article(),
+                factory.compile(FilterType.INCLUSION, "title,author(name),refs(email)"));
+
+        assertEquals("{\"title\":\"t\",\"author\":{\"name\":\"n\"},\"refs\":[{\"email\":\"e\"},{\"email\":\"e\"}]}", json);
+        assertEquals(0, conversions.get());
+    }
+
+
+    @Test
+    @DisplayName("serialize without the excluded fields")
+    void testToJson2()
+    {
+        String json = filtering.toJson(gson, new Article(), factory.compile(FilterType.EXCLUSION, "heavy,refs,author(email)"));
+
+        assertEquals("{\"id\":1,\"title\":\"t\",\"author\":{\"name\":\"n\"}}", json);
+        assertEquals(0, conversions.get());
+    }
+
+
+    @Test
+    @DisplayName("serialization produces the same JSON as filtering the serialized JSON")
+    void testToJson3() throws IOException
+    {
+        String[] expressions = { "id", "heavy", "author", "refs(name),id", "heavy(value),missing" };
+        Article article = new Article();
+        JsonElement tree = JsonParser.parseString(gson.toJson(article));
+
+        for (String expression : expressions)
+        {
+            for (FilterType type : FilterType.values())
+            {
+                CompiledFilter filter = factory.compile(type, expression);
+                String expected = (type == FilterType.INCLUSION)
+                        ? new InclusionFilter().apply(tree, filter).toString()
+                        : new ExclusionFilter().apply(tree, filter).toString();
+
+                assertEquals(JsonParser.parseString(expected),
+                        JsonParser.parseString(filtering.toJson(gson, article, filter)), filter.toString());
+            }
+        }
+
+        assertEquals("null", filtering.toJson(gson, null, factory.compile(FilterType.INCLUSION, "a")));
+    }
+
+
+    @Test
+    @DisplayName("filter plain serialization with the filter set for the thread")
+    void testSetFilter1()
+    {
+        filtering.setFilter(factory.compile(FilterType.INCLUSION, "id,heavy"));
+
+        try
+        {
+            assertEquals("{\"id\":1,\"heavy\":{\"value\":1}}", gson.toJson(new Article()));
+        }
+        finally
+        {
+            filtering.removeFilter();
+        }
+
+        assertEquals(1, conversions.get());
+        assertEquals(gson.toJson(new Article()), new Gson().toJson(new Article()));
+    }
+
+
+    @Test
+    @DisplayName("choose the adapter of the declared type for a subtype in the same way as Gson")
+    void testRuntimeType1()
+    {
+        TypeAdapter<Animal> custom = new TypeAdapter<Animal>()
+        {
+            @Override
+            public void write(JsonWriter out, Animal value) throws IOException
+            {
+                out.value("custom:" + value.name);
+            }
+
+
+            @Override
+            public Animal read(JsonReader in) throws IOException
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Gson plain = new GsonBuilder().registerTypeAdapter(Animal.class, custom).create();
+        Gson gson  = new GsonBuilder().registerTypeAdapter(Animal.class, custom)
+                .registerTypeAdapterFactory(filtering).create();
+
+        assertEquals("{\"pet\":\"custom:x\"}", plain.toJson(new Holder()));
+        assertEquals("{\"pet\":\"custom:x\"}", gson.toJson(new Holder()));
+        assertEquals("{\"pet\":\"custom:x\"}",
+                filtering.toJson(gson, new Holder(), factory.compile(FilterType.INCLUSION, "pet")));
+    }
+
+
+    @Test
+    @DisplayName("write a subtype written by reflection with the adapter of its class")
+    void testRuntimeType2()
+    {
+        String expected = new Gson().toJson(new Holder());
+
+        assertEquals(expected, gson.toJson(new Holder()));
+        assertEquals(expected, filtering.toJson(gson, new Holder(), factory.compile(FilterType.INCLUSION, "pet")));
+        assertEquals("{\"pet\":{\"legs\":4}}",
+                filtering.toJson(gson, new Holder(), factory.compile(FilterType.INCLUSION, "pet(legs)")));
+    }
+
+
+    @Test
+    @DisplayName("write special floating point values if the Gson instance allows them")
+    void testSpecialFloats1()
+    {
+        Gson gson = new GsonBuilder().serializeSpecialFloatingPointValues()
+                .registerTypeAdapterFactory(filtering).create();
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "value");
+
+        assertEquals("{\"value\":NaN}", filtering.toJson(gson, new Measure(), filter));
+
+        filtering.setFilter(filter);
+
+        try
+        {
+            assertEquals("{\"value\":NaN}", gson.toJson(new Measure()));
+        }
+        finally
+        {
+            filtering.removeFilter();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> { filtering.toJson(this.gson, new Measure(), filter); });
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments")
+    void testSetFilter2()
+    {
+        CompiledFilter filter = factory.compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> { filtering.setFilter(null); });
+        assertThrows(NullPointerException.class, () -> { filtering.toJson(null, new Article(), filter); });
+        assertThrows(NullPointerException.class, () -> { filtering.toJson(gson, new Article(), null); });
+    }
+}
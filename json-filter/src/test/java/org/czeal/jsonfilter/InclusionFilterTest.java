@@ -0,0 +1,853 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class InclusionFilterTest
+{
+    @Test
+    @DisplayName("apply filtering to null")
+    void testApply1()
+    {
+        assertEquals(JsonNull.INSTANCE, new InclusionFilter().apply(null, "key"));
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to string")
+    void testApply2() {
+        JsonElement jsonElement = JsonParser.parseString("\"Hello World\"");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("\"Hello World\"", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to number")
+    void testApply3()
+    {
+        JsonElement jsonElement = JsonParser.parseString("42");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("42", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to empty object")
+    void testApply4()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("{}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to empty array")
+    void testApply5()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("[]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with unknown node to empty object")
+    void testApply6()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name");
+        assertEquals("{}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with unknown node to empty array")
+    void testApply7()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name");
+        assertEquals("[]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to object")
+    void testApply8()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"name\":\"John\",\"age\":30}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("{}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with empty node to object")
+    void testApply9()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[ {\"name\":\"John\", \"age\":30}, \"Hello\", null, {\"name\":\"Cali\", \"city\":\"NY\"} ]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "");
+        assertEquals("[{},\"Hello\",null,{}]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply filtering with unknown node to object")
+    void testApply10()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"name\":\"john\",\"type\":0}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "key");
+        assertEquals("{}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified node from double-array object")
+    void testApply11()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[[{\"name\":\"john\",\"type\":0}]]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name");
+        assertEquals("[[{\"name\":\"john\"}]]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified node from triple-array object")
+    void testApply12()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[[[{\"name\":\"john\",\"type\":0}]]]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name");
+        assertEquals("[[[{\"name\":\"john\"}]]]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified node from object in array")
+    void testApply13()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"arr\":[{\"name\":\"john\",\"type\":0}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "arr(name)");
+        assertEquals("{\"arr\":[{\"name\":\"john\"}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract full object in array by parent node key")
+    void testApply14()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"arr\":[{\"name\":\"john\",\"type\":0}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "arr");
+        assertEquals("{\"arr\":[{\"name\":\"john\",\"type\":0}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract multiple specified nodes from object in array")
+    void testApply15()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"arr\":[{\"name\":\"john\",\"type\":0}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "arr(name),arr(type)");
+        assertEquals("{\"arr\":[{\"name\":\"john\",\"type\":0}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract multiple specified nodes from multiple objects in arrays")
+    void testApply16()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"arr\":[{\"name\":\"john\",\"type\":0}],\"arr2\":[{\"name\":\"cali\",\"type\":1}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "arr(name),arr2(name,type)");
+        assertEquals("{\"arr\":[{\"name\":\"john\"}],\"arr2\":[{\"name\":\"cali\",\"type\":1}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified nodes from objects in array")
+    void testApply17()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[{\"name\":\"john\",\"type\":0},{\"name\":\"cali\",\"type\":1}]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name,type");
+        assertEquals("[{\"name\":\"john\",\"type\":0},{\"name\":\"cali\",\"type\":1}]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified node from mixed-type array")
+    void testApply18()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[{\"name\":\"john\",\"type\":0},\"secondElement\",{\"name\":\"cali\",\"type\":1}]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name");
+        assertEquals("[{\"name\":\"john\"},\"secondElement\",{\"name\":\"cali\"}]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified nodes with unknown node from mixed-type array")
+    void testApply19()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[{\"name\":\"john\",\"type\":0},\"secondElement\",{\"name\":\"cali\",\"type\":1}]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name,hoge,type");
+        assertEquals("[{\"name\":\"john\",\"type\":0},\"secondElement\",{\"name\":\"cali\",\"type\":1}]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified nodes from objects in mixed-type array")
+    void testApply20()
+    {
+        JsonElement jsonElement = JsonParser.parseString("[{\"name\":\"john\",\"type\":0},null,{\"key\":\"value\"}]");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name,key");
+        assertEquals("[{\"name\":\"john\"},null,{\"key\":\"value\"}]", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract multiple specified nodes, including nested properties, from object")
+    void testApply21()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"name\":\"john\",\"desc\":null,\"prop1\":[{\"key\":\"key1\",\"value\":\"value1\"},{\"key\":\"key2\",\"value\":\"value2\"}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "name,desc,prop1(key)");
+        assertEquals("{\"name\":\"john\",\"desc\":null,\"prop1\":[{\"key\":\"key1\"},{\"key\":\"key2\"}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified sub-node from nested object")
+    void testApply22()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"prop\":{\"name\":\"john\",\"type\":0}}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "prop(name)");
+        assertEquals("{\"prop\":{\"name\":\"john\"}}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract nothing from nested object by empty sub-nodes")
+    void testApply23()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"prop\":{\"key1\":\"value1\",\"key2\":\"value2\"}}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "prop()");
+        assertEquals("{\"prop\":{}}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified sub-node from object in array")
+    void testApply24()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"prop\":[{\"key1\":\"value1\",\"key2\":\"value2\"}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "prop(key1)");
+        assertEquals("{\"prop\":[{\"key1\":\"value1\"}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract nothing from object in array by empty sub-nodes")
+    void testApply25()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"prop\":[{\"key1\":\"value1\",\"key2\":\"value2\"},null]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "prop()");
+        assertEquals("{\"prop\":[{},null]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract entire value from object by key")
+    void testApply26()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"prop\":{\"key1\":\"value1\",\"key2\":\"value2\"}}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "prop");
+        assertEquals("{\"prop\":{\"key1\":\"value1\",\"key2\":\"value2\"}}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified sub-node from objects in array")
+    void testApply27()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"arr\":[{\"remove\":\"yes\"},{\"keep\":\"yes\"}]}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "arr(keep)");
+        assertEquals("{\"arr\":[{},{\"keep\":\"yes\"}]}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("extract specified sub-node from nested object")
+    void testApply28()
+    {
+        JsonElement jsonElement = JsonParser.parseString("{\"deep\":{\"nested\":{\"object\":{\"remove\":\"yes\",\"keep\":\"yes\"}}}}");
+        JsonElement result = new InclusionFilter().apply(jsonElement, "deep(nested(object(keep)))");
+        assertEquals("{\"deep\":{\"nested\":{\"object\":{\"keep\":\"yes\"}}}}", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("apply compiled filter repeatedly")
+    void testApplyCompiled1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y)");
+        InclusionFilter filter = new InclusionFilter();
+
+        for (int i = 0; i < 3; i++)
+        {
+            JsonElement jsonElement = JsonParser.parseString("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}");
+            JsonElement result = filter.apply(jsonElement, compiled);
+            assertEquals("{\"x\":{\"y\":{\"z\":5}}}", result.toString());
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException when applying compiled filter of other type")
+    void testApplyCompiled2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "a");
+        assertThrows(IllegalArgumentException.class, () -> { new InclusionFilter().apply(JsonNull.INSTANCE, compiled); });
+    }
+
+
+    @Test
+    @DisplayName("throw NullPointerException when applying null compiled filter")
+    void testApplyCompiled3()
+    {
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().apply(JsonNull.INSTANCE, (CompiledFilter)null); });
+    }
+
+
+    private static String applyStream(String json, String nodes) throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, nodes);
+        StringWriter out = new StringWriter();
+        new InclusionFilter().apply(new JsonReader(new StringReader(json)), new JsonWriter(out), compiled);
+        return out.toString();
+    }
+
+
+    @Test
+    @DisplayName("stream filtering of nested object")
+    void testApplyStream1() throws IOException
+    {
+        String result = applyStream("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}", "x(y)");
+        assertEquals("{\"x\":{\"y\":{\"z\":5}}}", result);
+    }
+
+
+    @Test
+    @DisplayName("stream filtering of nested arrays")
+    void testApplyStream2() throws IOException
+    {
+        String result = applyStream("[[[{\"name\":\"john\",\"type\":0}]]]", "name");
+        assertEquals("[[[{\"name\":\"john\"}]]]", result);
+    }
+
+
+    @Test
+    @DisplayName("stream filtering keeps primitives, nulls and number literals as is")
+    void testApplyStream3() throws IOException
+    {
+        String result = applyStream("[{\"a\":1.50,\"b\":2},\"Hello\",null,true,{\"a\":null}]", "a");
+        assertEquals("[{\"a\":1.50},\"Hello\",null,true,{\"a\":null}]", result);
+    }
+
+
+    @Test
+    @DisplayName("stream filtering writes members in source order")
+    void testApplyStream4() throws IOException
+    {
+        String result = applyStream("{\"a\":1,\"b\":2,\"c\":3}", "c,a");
+        assertEquals("{\"a\":1,\"c\":3}", result);
+    }
+
+
+    @Test
+    @DisplayName("stream filtering produces the same result as tree filtering")
+    void testApplyStream5() throws IOException
+    {
+        String[][] cases = {
+            { "{\"prop\":[{\"key1\":\"value1\",\"key2\":\"value2\"},null]}", "prop()" },
+            { "{\"prop\":{\"key1\":\"value1\",\"key2\":\"value2\"}}", "prop" },
+            { "{\"arr\":[{\"remove\":\"yes\"},{\"keep\":\"yes\"}]}", "arr(keep)" },
+            { "{\"deep\":{\"nested\":{\"object\":{\"remove\":\"yes\",\"keep\":\"yes\"}}}}", "deep(nested(object(keep)))" },
+            { "{\"a\":{\"b\":[1,{\"c\":2,\"d\":3}]},\"e\":\"f\"}", "a(b(c)),e" },
+            { "[ {\"name\":\"John\", \"age\":30}, \"Hello\", null, {\"name\":\"Cali\", \"city\":\"NY\"} ]", "" },
+            { "{\"a\":1}", null },
+        };
+
+        for (String[] c : cases)
+        {
+            JsonElement expected = new InclusionFilter().apply(JsonParser.parseString(c[0]), c[1]);
+            assertEquals(expected, JsonParser.parseString(applyStream(c[0], c[1])));
+        }
+    }
+
+
+    @Test
+    @DisplayName("stream filtering from input stream to output stream")
+    void testApplyStream6() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "user");
+        byte[] json = "{\"user\":\"\u00e9l\u00e8ve\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new InclusionFilter().apply(new ByteArrayInputStream(json), out, compiled);
+        assertEquals("{\"user\":\"\u00e9l\u00e8ve\"}", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    @DisplayName("stream filtering rejects data after the JSON value")
+    void testApplyStream7() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "b");
+        StringWriter out = new StringWriter();
+        new InclusionFilter().apply(new StringReader("{\"b\":1} \n"), out, compiled);
+        assertEquals("{\"b\":1}", out.toString());
+
+        for (String json : new String[] { "{\"b\":1}}", "{\"b\":1} x", "{\"b\":1}{}", "{\"b\":1} 2" })
+        {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            assertThrows(IOException.class, () -> { new InclusionFilter().apply(new StringReader(json), new StringWriter(), compiled); }, json);
+            assertThrows(IOException.class, () -> { new InclusionFilter().apply(new ByteArrayInputStream(bytes), new ByteArrayOutputStream(), compiled); }, json);
+        }
+    }
+
+
+    @Test
+    @DisplayName("shared filtering shares selected subtrees with source")
+    void testApplyShared1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y),v");
+        JsonObject source = JsonParser.parseString("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":[1,2]}").getAsJsonObject();
+        JsonElement result = new InclusionFilter().applyShared(source, compiled);
+        assertEquals("{\"x\":{\"y\":{\"z\":5}},\"v\":[1,2]}", result.toString());
+        assertSame(source.getAsJsonObject("x").get("y"), result.getAsJsonObject().getAsJsonObject("x").get("y"));
+        assertSame(source.get("v"), result.getAsJsonObject().get("v"));
+    }
+
+
+    @Test
+    @DisplayName("shared filtering shares unchanged arrays with source")
+    void testApplyShared2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        JsonArray source = JsonParser.parseString("[1,\"b\",null,[2,3]]").getAsJsonArray();
+        assertSame(source, new InclusionFilter().applyShared(source, compiled));
+    }
+
+
+    @Test
+    @DisplayName("shared filtering produces the same result as copying filtering")
+    void testApplyShared3()
+    {
+        String[][] cases = {
+            { "{\"prop\":[{\"key1\":\"value1\",\"key2\":\"value2\"},null]}", "prop()" },
+            { "{\"arr\":[{\"remove\":\"yes\"},{\"keep\":\"yes\"}]}", "arr(keep)" },
+            { "[1,{\"a\":{\"b\":[1,{\"c\":2,\"d\":3}]},\"e\":\"f\"}]", "a(b(c)),e" },
+            { "{\"a\":1}", null },
+            { "\"Hello\"", "" },
+        };
+
+        for (String[] c : cases)
+        {
+            CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, c[1]);
+            JsonElement source = JsonParser.parseString(c[0]);
+            assertEquals(new InclusionFilter().apply(source, compiled).toString(),
+                         new InclusionFilter().applyShared(source, compiled).toString());
+        }
+    }
+
+
+    private static JsonArray largeArray(int size)
+    {
+        JsonArray source = new JsonArray();
+
+        for (int i = 0; i < size; i++)
+        {
+            JsonObject element = new JsonObject();
+            JsonObject a = new JsonObject();
+            a.addProperty("b", i);
+            a.addProperty("x", "y");
+            element.add("a", a);
+            element.addProperty("c", i % 2 == 0 ? "even" : "odd");
+            element.addProperty("d", i);
+            source.add(element);
+        }
+
+        return source;
+    }
+
+
+    @Test
+    @DisplayName("parallel filtering produces the same result as sequential filtering")
+    void testApplyInParallel1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a(b),c");
+        JsonArray source = largeArray(1000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            String expected = new InclusionFilter().apply(source, compiled).toString();
+
+            for (int threshold : new int[] { 1, 2, 10, 999, 1000, 1001 })
+            {
+                assertEquals(expected, new InclusionFilter().applyInParallel(source, compiled, pool, threshold).toString());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    @DisplayName("parallel filtering of nested arrays")
+    void testApplyInParallel2()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "items(a(b),c)");
+        JsonArray source = new JsonArray();
+
+        for (int i = 0; i < 50; i++)
+        {
+            JsonObject element = new JsonObject();
+            element.add("items", largeArray(i));
+            source.add(element);
+        }
+
+        String expected = new InclusionFilter().apply(source, compiled).toString();
+        assertEquals(expected, new InclusionFilter().applyInParallel(source, compiled, ForkJoinPool.commonPool(), 8).toString());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid parallel filtering arguments")
+    void testApplyInParallel3()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().applyInParallel(JsonNull.INSTANCE, null, pool, 1); });
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().applyInParallel(JsonNull.INSTANCE, compiled, null, 1); });
+        assertThrows(IllegalArgumentException.class, () -> { new InclusionFilter().applyInParallel(JsonNull.INSTANCE, compiled, pool, 0); });
+    }
+
+
+    @Test
+    @DisplayName("filter file into file")
+    void testApplyFile1() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y)");
+        Path source = Files.createTempFile("source", ".json");
+        Path target = Files.createTempFile("target", ".json");
+
+        try
+        {
+            Files.write(source, "{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":\"\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+            Files.write(target, "stale content longer than the result".getBytes(StandardCharsets.UTF_8));
+            new InclusionFilter().apply(source, target, compiled);
+            assertEquals("{\"x\":{\"y\":{\"z\":5}}}", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        }
+        finally
+        {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw IOException when filtering invalid file")
+    void testApplyFile2() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        Path source = Files.createTempFile("source", ".json");
+        Path target = Files.createTempFile("target", ".json");
+
+        try
+        {
+            Files.write(source, "{\"a\":".getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> { new InclusionFilter().apply(source, target, compiled); });
+
+            Files.write(source, "{\"a\":1,\"b\":2} garbage".getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> { new InclusionFilter().apply(source, target, compiled); });
+
+            // Malformed values which are copied or skipped.
+            for (String json : new String[] {
+                    "{\"a\":[1},\"b\":1}", "{\"a\":1,\"b\":[1}}", "{\"a\":tru,\"b\":1}",
+                    "{\"b\":01,\"a\":1}", "{\"a\":\"\\x\"}", "{\"b\":{\"c\" 1},\"a\":1}" })
+            {
+                Files.write(source, json.getBytes(StandardCharsets.UTF_8));
+                assertThrows(IOException.class, () -> { new InclusionFilter().apply(source, target, compiled); }, json);
+            }
+        }
+        finally
+        {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
+
+
+    private static String applyBytes(String json, String nodes) throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, nodes);
+        byte[] result = new InclusionFilter().apply(json.getBytes(StandardCharsets.UTF_8), compiled);
+        return new String(result, StandardCharsets.UTF_8);
+    }
+
+
+    @Test
+    @DisplayName("byte filtering of nested object")
+    void testApplyBytes1() throws IOException
+    {
+        assertEquals("{\"x\":{\"y\":{\"z\":5}}}", applyBytes("{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}", "x(y)"));
+    }
+
+
+    @Test
+    @DisplayName("byte filtering produces the same JSON as stream filtering")
+    void testApplyBytes2() throws IOException
+    {
+        String[][] cases = {
+            { " { \"a\" : [ 1 , { \"b\" : \"c\" , \"d\" : null } ] , \"e\" : true } ", "a(b),e" },
+            { "{\"\\u0061\":1,\"b\":2,\"\u00e9\":3}", "a" },
+            { "{\"a\":\"q\\\"}]\",\"b\":{\"c\":[\"}\",{}]},\"d\":-1.5e3}", "b(c)" },
+            { "{\"a\":null,\"b\":{\"c\":null}}", "a(x),b(c)" },
+            { "[[{\"a\":1,\"b\":false}],[],{}]", "a" },
+            { "\ufeff{\"a\":1,\"b\":2}", "b" },
+            { "\"Hello\"", "" },
+            { "{\"a\":1}", null },
+        };
+
+        for (String[] c : cases)
+        {
+            String expected = applyStream(c[0].replace("\ufeff", ""), c[1]);
+            assertEquals(JsonParser.parseString(expected), JsonParser.parseString(applyBytes(c[0], c[1]).replace("\ufeff", "")));
+        }
+    }
+
+
+    @Test
+    @DisplayName("byte filtering from a direct buffer")
+    void testApplyBytes3() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x(y)");
+        byte[] json = "{\"x\":{\"y\":{\"z\":5},\"w\":10},\"v\":20}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer source = ByteBuffer.allocateDirect(json.length + 2);
+        source.put((byte)' ').put(json).put((byte)' ').flip().position(1);
+        source.limit(json.length + 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new InclusionFilter().apply(source, out, compiled);
+
+        assertEquals("{\"x\":{\"y\":{\"z\":5}}}", out.toString(StandardCharsets.UTF_8));
+        assertEquals(1, source.position());
+    }
+
+
+    @Test
+    @DisplayName("throw IOException when byte filtering invalid JSON")
+    void testApplyBytes4()
+    {
+        String[] cases = { "", "{", "{\"a\":1,}", "{\"a\" 1}", "[1 2]", "{\"a\":1} x", "{\"b\":\"x}", "{\"b\":tru}", "{\"b\":[1}" };
+
+        for (String c : cases)
+        {
+            assertThrows(IOException.class, () -> { applyBytes(c, "a"); });
+        }
+    }
+
+
+    @Test
+    @DisplayName("byte filtering of random documents produces the same JSON as stream filtering")
+    void testApplyBytes5() throws IOException
+    {
+        Random random = new Random(42);
+        String[] expressions = { "a", "a,b", "a(b),c", "a(b(c)),d", "b(a,c(a)),a()" };
+
+        for (int i = 0; i < 500; i++)
+        {
+            String json = RandomJson.generate(random, 4);
+
+            for (String expression : expressions)
+            {
+                assertEquals(JsonParser.parseString(applyStream(json, expression)),
+                             JsonParser.parseString(applyBytes(json, expression)), json + " " + expression);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw IOException when byte filtering JSON malformed inside copied or skipped values")
+    void testApplyBytes6()
+    {
+        String[] cases = {
+            "{\"a\":[1},\"b\":1}", "{\"a\":-}", "{\"a\":01}", "{\"a\":1e}", "{\"a\":1.}", "{\"a\":.5}",
+            "{\"a\":+1}", "{\"a\":1.5.3}", "{\"a\":truex}", "{\"a\":nul}", "{\"a\":\"\\q\"}",
+            "{\"a\":\"\\u12g4\"}", "{\"a\":{1:2}}", "{\"a\":[\"x\":1]}", "{\"a\":{\"x\" 1}}",
+            "{\"a\":{\"x\":1,}}", "{\"a\":[1,]}", "{\"a\":[{\"x\":[1}]}]}",
+        };
+
+        for (String c : cases)
+        {
+            for (String expression : new String[] { "a", "z", "a(x)" })
+            {
+                assertThrows(IOException.class, () -> { applyStream(c, expression); }, c + " " + expression);
+                assertThrows(IOException.class, () -> { applyBytes(c, expression); }, c + " " + expression);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("a specialized compiled filter produces the same results before and after specialization")
+    void testApplySpecialized1()
+    {
+        FilterFactory factory = new FilterFactory();
+        CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "b(x(z)),a,c()", 2);
+        JsonElement source = JsonParser.parseString(
+                "{\"a\":1,\"b\":{\"x\":[{\"y\":1,\"z\":2}],\"w\":0},\"c\":{\"d\":1}}");
+
+        for (int i = 0; i < 5; i++)
+        {
+            assertEquals("{\"b\":{\"x\":[{\"z\":2}]},\"a\":1,\"c\":{}}",
+                    new InclusionFilter().apply(source, compiled).toString());
+        }
+    }
+
+
+    @Test
+    @DisplayName("a specialized compiled filter produces the same results as the interpreter on random documents")
+    void testApplySpecialized2()
+    {
+        Random random = new Random(23);
+        FilterFactory factory = new FilterFactory();
+        InclusionFilter filter = new InclusionFilter();
+
+        for (int n = 0; n < 500; n++)
+        {
+            String expression = RandomJson.expression(random, 3);
+            CompiledFilter interpreted = factory.compile(FilterType.INCLUSION, expression);
+            CompiledFilter specialized = factory.compile(FilterType.INCLUSION, expression, 0);
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+
+            assertEquals(filter.apply(source, interpreted).toString(),
+                    filter.apply(source, specialized).toString(), expression + " " + source);
+        }
+    }
+
+
+    @Test
+    @DisplayName("a view can't be created without a compiled inclusion filter")
+    void testView1()
+    {
+        JsonElement source = JsonParser.parseString("{\"a\":1}");
+
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().view(source, null); });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new InclusionFilter().view(source, new FilterFactory().compile(FilterType.EXCLUSION, "a")); });
+    }
+
+
+    @Test
+    @DisplayName("writing directly produces the same JSON as the filtered element on random documents")
+    void testApplyTo1() throws IOException
+    {
+        Random random = new Random(41);
+        FilterFactory factory = new FilterFactory();
+        InclusionFilter filter = new InclusionFilter();
+
+        for (int n = 0; n < 500; n++)
+        {
+            CompiledFilter compiled = factory.compile(FilterType.INCLUSION, RandomJson.expression(random, 3));
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+            String expected = filter.apply(source, compiled).toString();
+
+            StringBuilder chars = new StringBuilder();
+            filter.applyTo(source, compiled, chars);
+            assertEquals(expected, chars.toString(), compiled + " " + source);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            filter.applyTo(source, compiled, bytes);
+            assertEquals(expected, new String(bytes.toByteArray(), StandardCharsets.UTF_8), compiled + " " + source);
+        }
+    }
+
+
+    @Test
+    @DisplayName("writing directly requires a destination and a compiled inclusion filter")
+    void testApplyTo2()
+    {
+        JsonElement source = JsonParser.parseString("{\"a\":1}");
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().applyTo(source, compiled, (Appendable)null); });
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().applyTo(source, compiled, (OutputStream)null); });
+        assertThrows(NullPointerException.class, () -> { new InclusionFilter().applyTo(source, null, new StringBuilder()); });
+    }
+
+
+    @Test
+    @DisplayName("writing directly writes NaN and infinite numbers as the filtered element does")
+    void testApplyTo3() throws IOException
+    {
+        JsonObject source = new JsonObject();
+        source.addProperty("x", Double.NaN);
+        source.addProperty("y", 1);
+        source.addProperty("z", Double.NEGATIVE_INFINITY);
+
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "x,y,z");
+        String expected = "{\"x\":NaN,\"y\":1,\"z\":-Infinity}";
+
+        assertEquals(expected, new InclusionFilter().apply(source, compiled).toString());
+
+        StringBuilder chars = new StringBuilder();
+        new InclusionFilter().applyTo(source, compiled, chars);
+        assertEquals(expected, chars.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new InclusionFilter().applyTo(source, compiled, bytes);
+        assertEquals(expected, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.util.Random;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class InclusionProgramTest
+{
+    private static final String SOURCE =
+            "{\"a\":1,\"b\":{\"x\":[{\"y\":1,\"z\":2},3,null]},\"c\":null,\"d\":\"s\",\"e\":[],\"f\":{},\"g\":true}";
+
+
+    private static String apply(String expression, String json)
+    {
+        Node node = new NodeParser().parse(expression);
+        return InclusionProgram.compile(node).apply(JsonParser.parseString(json)).toString();
+    }
+
+
+    @Test
+    @DisplayName("programs for each number of sub nodes select members in the expression order")
+    void testApply1()
+    {
+        assertEquals("{\"f\":{}}", apply("f()", SOURCE));
+        assertEquals("{\"b\":{\"x\":[{\"y\":1},3,null]}}", apply("b(x(y))", SOURCE));
+        assertEquals("{\"d\":\"s\",\"a\":1}", apply("d,a", SOURCE));
+        assertEquals("{\"c\":null,\"b\":{},\"a\":1}", apply("c,b(q),a", SOURCE));
+        assertEquals("{\"g\":true,\"f\":{},\"e\":[],\"d\":\"s\"}", apply("g,f,e,d", SOURCE));
+        assertEquals("{\"a\":1,\"b\":{\"x\":[{\"z\":2},3,null]},\"c\":null,\"e\":[],\"f\":{},\"g\":true}",
+                apply("a,b(x(z)),c,e,f,g,h", SOURCE));
+    }
+
+
+    @Test
+    @DisplayName("a program for a node without sub nodes copies the whole value")
+    void testApply2()
+    {
+        JsonElement source = JsonParser.parseString(SOURCE);
+        JsonElement result = InclusionProgram.compile(new Node("ROOT", null)).apply(source);
+
+        assertEquals(source, result);
+        assertNotSame(source, result);
+    }
+
+
+    @Test
+    @DisplayName("null and primitive sources are returned as is")
+    void testApply3()
+    {
+        InclusionProgram program = InclusionProgram.compile(new NodeParser().parse("a"));
+
+        assertEquals(JsonNull.INSTANCE, program.apply(null));
+        assertEquals(JsonNull.INSTANCE, program.apply(JsonNull.INSTANCE));
+        assertEquals("3", program.apply(JsonParser.parseString("3")).toString());
+    }
+
+
+    @Test
+    @DisplayName("programs produce the same results as the interpreter on random documents")
+    void testApply4()
+    {
+        Random random = new Random(17);
+        InclusionFilter filter = new InclusionFilter();
+        FilterFactory factory = new FilterFactory();
+
+        for (int n = 0; n < 2000; n++)
+        {
+            CompiledFilter compiled = factory.compile(FilterType.INCLUSION, RandomJson.expression(random, 3));
+            JsonElement source = JsonParser.parseString(RandomJson.generate(random, 4));
+
+            assertEquals(filter.apply(source, compiled).toString(),
+                    InclusionProgram.compile(compiled.getNode()).apply(source).toString(), compiled + " " + source);
+        }
+    }
+
+
+    @Test
+    @DisplayName("a node tree too large for a class is not compiled")
+    void testCompile1()
+    {
+        StringBuilder expression = new StringBuilder("k0");
+
+        for (int i = 1; i < 5000; i++)
+        {
+            expression.append(",k").append(i);
+        }
+
+        Node node = new NodeParser().parse(expression.toString());
+
+        assertNull(InclusionProgram.compile(node));
+    }
+
+
+    @Test
+    @DisplayName("programs of deep node trees filter every level")
+    void testCompile2()
+    {
+        StringBuilder expression = new StringBuilder();
+        StringBuilder json       = new StringBuilder();
+
+        for (int i = 0; i < 100; i++)
+        {
+            expression.append("k(");
+            json.append("{\"k\":[");
+        }
+
+        expression.append("k");
+        json.append("1");
+
+        for (int i = 0; i < 100; i++)
+        {
+            expression.append(")");
+            json.append("],\"q\":2}");
+        }
+
+        assertEquals(json.toString().replace(",\"q\":2", ""), apply(expression.toString(), json.toString()));
+    }
+}
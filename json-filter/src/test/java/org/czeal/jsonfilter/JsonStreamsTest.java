@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+
+public class JsonStreamsTest
+{
+    @Test
+    @DisplayName("copy nested value token by token")
+    void testCopy1() throws IOException
+    {
+        String json = "{\"a\":[1,2.50,-3e10],\"b\":{\"c\":null,\"d\":true},\"e\":\"\\u00e9\"}";
+        StringWriter out = new StringWriter();
+        JsonStreams.copy(new JsonReader(new StringReader(json)), new JsonWriter(out));
+        assertEquals("{\"a\":[1,2.50,-3e10],\"b\":{\"c\":null,\"d\":true},\"e\":\"\u00e9\"}", out.toString());
+    }
+
+
+    @Test
+    @DisplayName("copy only the next value")
+    void testCopy2() throws IOException
+    {
+        JsonReader reader = new JsonReader(new StringReader("[{\"a\":1},2]"));
+        StringWriter out = new StringWriter();
+        reader.beginArray();
+        JsonStreams.copy(reader, new JsonWriter(out));
+        assertEquals("{\"a\":1}", out.toString());
+        assertEquals(JsonToken.NUMBER, reader.peek());
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalStateException at the end of the document")
+    void testCopy3() throws IOException
+    {
+        JsonReader reader = new JsonReader(new StringReader("1"));
+        reader.nextInt();
+        assertThrows(IllegalStateException.class, () -> { JsonStreams.copy(reader, new JsonWriter(new StringWriter())); });
+    }
+}
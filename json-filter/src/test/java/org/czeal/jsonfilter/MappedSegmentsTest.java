@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class MappedSegmentsTest
+{
+    private static byte[] readAll(Path file, long segmentSize) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file))
+        {
+            MappedSegments segments = new MappedSegments(channel, segmentSize);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            for (ByteBuffer segment = segments.next(); segment != null; segment = segments.next())
+            {
+                byte[] bytes = new byte[segment.remaining()];
+                segment.get(bytes);
+                out.write(bytes);
+            }
+
+            return out.toByteArray();
+        }
+    }
+
+
+    @Test
+    @DisplayName("read a file across segment boundaries")
+    void testNext1() throws IOException
+    {
+        byte[] content = new byte[1000];
+
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte)i;
+        }
+
+        Path file = Files.createTempFile("mapped", ".bin");
+
+        try
+        {
+            Files.write(file, content);
+
+            for (long segmentSize : new long[] { 1, 7, 999, 1000, 1001 })
+            {
+                assertArrayEquals(content, readAll(file, segmentSize));
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+
+    @Test
+    @DisplayName("map the segments of a file and of an empty file")
+    void testNext2() throws IOException
+    {
+        Path file = Files.createTempFile("mapped", ".bin");
+
+        try
+        {
+            try (FileChannel channel = FileChannel.open(file))
+            {
+                assertNull(new MappedSegments(channel, 4).next());
+            }
+
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5 });
+
+            try (FileChannel channel = FileChannel.open(file))
+            {
+                MappedSegments segments = new MappedSegments(channel, 2);
+
+                assertEquals(ByteBuffer.wrap(new byte[] { 1, 2 }), segments.next());
+                assertEquals(ByteBuffer.wrap(new byte[] { 3, 4 }), segments.next());
+                assertEquals(ByteBuffer.wrap(new byte[] { 5 }), segments.next());
+                assertNull(segments.next());
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException for invalid segment size")
+    void testConstructor1() throws IOException
+    {
+        Path file = Files.createTempFile("mapped", ".bin");
+
+        try (FileChannel channel = FileChannel.open(file))
+        {
+            assertThrows(IllegalArgumentException.class, () -> { new MappedSegments(channel, 0); });
+            assertThrows(IllegalArgumentException.class, () -> { new MappedSegments(channel, 1L << 31); });
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class NdjsonPipelineTest
+{
+    private ExecutorService executor;
+
+
+    @BeforeEach
+    void setUp()
+    {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+
+    private static String apply(NdjsonPipeline pipeline, String ndjson) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipeline.apply(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+
+    @Test
+    @DisplayName("filter records with inclusion filter")
+    void testApply1() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a,c(d)");
+        String ndjson = "{\"a\":1,\"b\":2}\n{\"c\":{\"d\":3,\"e\":4}}\r\n[{\"a\":5}]\n";
+        String result = apply(new NdjsonPipeline(compiled, executor), ndjson);
+        assertEquals("{\"a\":1}\n{\"c\":{\"d\":3}}\n[{\"a\":5}]\n", result);
+    }
+
+
+    @Test
+    @DisplayName("filter records with exclusion filter, skipping blank lines")
+    void testApply2() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.EXCLUSION, "b");
+        String ndjson = "\n{\"a\":1,\"b\":2}\n  \n{\"b\":3}";
+        String result = apply(new NdjsonPipeline(compiled, executor), ndjson);
+        assertEquals("{\"a\":1}\n{}\n", result);
+    }
+
+
+    @Test
+    @DisplayName("preserve the input order across many batches")
+    void testApply3() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "id");
+        StringBuilder ndjson   = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 10000; i++)
+        {
+            ndjson.append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\"}\n");
+            expected.append("{\"id\":").append(i).append("}\n");
+        }
+
+        assertEquals(expected.toString(), apply(new NdjsonPipeline(compiled, executor, 7), ndjson.toString()));
+    }
+
+
+    @Test
+    @DisplayName("report statistics")
+    void testApply4() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        byte[] ndjson = "{\"a\":\"\u00e9\",\"b\":2}\n\n{\"b\":3}\n".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        NdjsonStats stats = new NdjsonPipeline(compiled, executor).apply(new ByteArrayInputStream(ndjson), out);
+
+        assertEquals(2, stats.getRecordCount());
+        assertEquals(ndjson.length, stats.getBytesRead());
+        assertEquals(out.size(), stats.getBytesWritten());
+        assertTrue(stats.getElapsedNanos() > 0);
+        assertTrue(stats.getRecordsPerSecond() > 0);
+        assertTrue(stats.getBytesPerSecond() > 0);
+    }
+
+
+    @Test
+    @DisplayName("filter records in a file")
+    void testApply5() throws IOException
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        Path file = Files.createTempFile("records", ".ndjson");
+
+        try
+        {
+            Files.write(file, "{\"a\":1,\"b\":2}\n{\"a\":3}\n".getBytes(StandardCharsets.UTF_8));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new NdjsonPipeline(compiled, executor).apply(file, out);
+            assertEquals("{\"a\":1}\n{\"a\":3}\n", out.toString(StandardCharsets.UTF_8));
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw IOException with the line number of an invalid record")
+    void testApply6()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        NdjsonPipeline pipeline = new NdjsonPipeline(compiled, executor, 2);
+
+        IOException e1 = assertThrows(IOException.class, () -> { apply(pipeline, "{\"a\":1}\n\n{\"a\":2}\n{\"a\":\n"); });
+        assertEquals("The record at line 4 is invalid.", e1.getMessage());
+
+        IOException e2 = assertThrows(IOException.class, () -> { apply(pipeline, "{\"a\":1} {\"a\":2}\n"); });
+        assertEquals("The record at line 1 is invalid.", e2.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("throw IOException of an invalid record filtered on a fork/join pool")
+    void testApply7()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        NdjsonPipeline pipeline = new NdjsonPipeline(compiled, ForkJoinPool.commonPool(), 2);
+
+        IOException e = assertThrows(IOException.class, () -> { apply(pipeline, "{\"a\":1}\n{\"a\":2}\n{\"a\":\n"); });
+        assertEquals("The record at line 3 is invalid.", e.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid constructor arguments")
+    void testConstructor1()
+    {
+        CompiledFilter compiled = new FilterFactory().compile(FilterType.INCLUSION, "a");
+        assertThrows(NullPointerException.class, () -> { new NdjsonPipeline(null, executor); });
+        assertThrows(NullPointerException.class, () -> { new NdjsonPipeline(compiled, null); });
+        assertThrows(IllegalArgumentException.class, () -> { new NdjsonPipeline(compiled, executor, 0); });
+    }
+}
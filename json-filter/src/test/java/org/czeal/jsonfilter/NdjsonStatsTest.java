@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class NdjsonStatsTest
+{
+    @Test
+    @DisplayName("compute throughput per second")
+    void testThroughput1()
+    {
+        NdjsonStats stats = new NdjsonStats(500, 2000, 1000, 500_000_000L);
+        assertEquals(1000d, stats.getRecordsPerSecond());
+        assertEquals(4000d, stats.getBytesPerSecond());
+    }
+
+
+    @Test
+    @DisplayName("report zero throughput when no time has elapsed")
+    void testThroughput2()
+    {
+        NdjsonStats stats = new NdjsonStats(1, 10, 10, 0);
+        assertEquals(0d, stats.getRecordsPerSecond());
+        assertEquals(0d, stats.getBytesPerSecond());
+    }
+}
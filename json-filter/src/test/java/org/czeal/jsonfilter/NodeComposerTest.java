@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class NodeComposerTest
+{
+    private final FilterFactory factory = new FilterFactory();
+
+
+    private ComposedNode compose(String inclusion, String exclusion)
+    {
+        return new NodeComposer().compose(
+                factory.compile(FilterType.INCLUSION, inclusion).getNode(),
+                factory.compile(FilterType.EXCLUSION, exclusion).getNode());
+    }
+
+
+    @Test
+    @DisplayName("members excluded as a whole are dropped")
+    void testCompose1()
+    {
+        assertEquals("ROOT(+a,+c)", compose("a,b,c", "b,d").toString());
+    }
+
+
+    @Test
+    @DisplayName("members not specified by the exclusion are left to the inclusion")
+    void testCompose2()
+    {
+        ComposedNode root = compose("a(x,y),b", "b(z)");
+
+        assertEquals("ROOT(+a(x,y),-b(z))", root.toString());
+        assertFalse(root.getSubNode("a").isRemovedIfNull());
+        assertTrue(root.getSubNode("b").isRemovedIfNull());
+        assertNull(root.getSubNode("c"));
+    }
+
+
+    @Test
+    @DisplayName("members specified by both are composed recursively in the inclusion order")
+    void testCompose3()
+    {
+        ComposedNode root = compose("c,a(x,y,z)", "a(y,w(v))");
+
+        assertEquals("ROOT(+c,a(+x,+z))", root.toString());
+        assertEquals(ComposedNode.Kind.COMPOSITE, root.getSubNode("a").getKind());
+        assertTrue(root.getSubNode("a").isRemovedIfNull());
+    }
+
+
+    @Test
+    @DisplayName("an exclusion of the whole root removes everything")
+    void testCompose4()
+    {
+        assertEquals("-ROOT", compose("a", null).toString());
+    }
+
+
+    @Test
+    @DisplayName("an inclusion of the whole root leaves the exclusion")
+    void testCompose5()
+    {
+        assertEquals("-ROOT(a)", compose(null, "a").toString());
+    }
+}
@@ -81,4 +81,45 @@ public class NodeParserTest
         NodeParser parser = new NodeParser();
         assertThrows(IllegalArgumentException.class, () -> { parser.parse("a(b"); });
     }
+
+
+    @Test
+    @DisplayName("merge node without sub-nodes into later node with sub-nodes")
+    void testParse7()
+    {
+        NodeParser parser = new NodeParser();
+        assertEquals("ROOT(a(b),c)", parser.parse("a,c,a(b)").toString());
+        assertEquals("ROOT(a(b),c)", parser.parse("a(b),c,a").toString());
+    }
+
+
+    @Test
+    @DisplayName("parse empty parentheses as a node having an empty key")
+    void testParse8()
+    {
+        Node result = new NodeParser().parse("a()");
+        assertEquals("", result.getSubNodes().get(0).getSubNodes().get(0).getKey());
+    }
+
+
+    @Test
+    @DisplayName("parse deeply nested nodes")
+    void testParse9()
+    {
+        NodeParser parser = new NodeParser();
+        Node result = parser.parse("a(b(c(d(e(f)))),b(c(g)))");
+        assertEquals("ROOT(a(b(c(d(e(f)),g))))", result.toString());
+    }
+
+
+    @Test
+    @DisplayName("throw IllegalArgumentException when input has unexpected characters")
+    void testParse10()
+    {
+        NodeParser parser = new NodeParser();
+        assertThrows(IllegalArgumentException.class, () -> { parser.parse("a)"); });
+        assertThrows(IllegalArgumentException.class, () -> { parser.parse("a(b)c"); });
+        assertThrows(IllegalArgumentException.class, () -> { parser.parse("a.b"); });
+        assertThrows(IllegalArgumentException.class, () -> { parser.parse("a(b(c)"); });
+    }
 }
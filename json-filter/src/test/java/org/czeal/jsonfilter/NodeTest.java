@@ -19,8 +19,13 @@ package org.czeal.jsonfilter;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -145,4 +150,73 @@ public class NodeTest
         Node node = new Node("a", subNodes);
         assertEquals(subNodes, node.getSubNodes());
     }
+
+
+    @Test
+    @DisplayName("retrieve sub-node by key")
+    void testGetSubNode1()
+    {
+        Node b = new Node("b", null);
+        Node c = new Node("c", null);
+        Node node = new Node("a", Arrays.asList(b, c));
+        assertSame(c, node.getSubNode("c"));
+        assertNull(node.getSubNode("d"));
+    }
+
+
+    @Test
+    @DisplayName("retrieve no sub-node from node without sub-nodes")
+    void testGetSubNode2()
+    {
+        assertNull(new Node("a", null).getSubNode("b"));
+    }
+
+
+    @Test
+    @DisplayName("retrieve every sub-node of wide node by key")
+    void testGetSubNode3()
+    {
+        List<Node> subNodes = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++)
+        {
+            subNodes.add(new Node("key" + i, null));
+        }
+
+        Node node = new Node("a", subNodes);
+
+        for (int i = 0; i < 300; i++)
+        {
+            assertSame(subNodes.get(i), node.getSubNode("key" + i));
+        }
+
+        assertNull(node.getSubNode("key300"));
+    }
+
+
+    @Test
+    @DisplayName("retrieve first sub-node when keys are duplicated")
+    void testGetSubNode4()
+    {
+        Node b1 = new Node("b", null);
+        Node b2 = new Node("b", Collections.emptyList());
+        Node node = new Node("a", Arrays.asList(b1, b2));
+        assertSame(b1, node.getSubNode("b"));
+    }
+
+
+    @Test
+    @DisplayName("get sub node by encoded key")
+    void testGetSubNode5()
+    {
+        Node b = new Node("b", null);
+        Node cd = new Node("cd", null);
+        Node node = new Node("a", Arrays.asList(b, cd));
+        ByteBuffer source = ByteBuffer.wrap("xcdbz".getBytes(StandardCharsets.UTF_8));
+        assertSame(cd, node.getSubNode(source, 1, 2, "cd".hashCode()));
+        assertSame(b, node.getSubNode(source, 3, 1, "b".hashCode()));
+        assertNull(node.getSubNode(source, 4, 1, "z".hashCode()));
+        assertNull(node.getSubNode(source, 1, 1, "c".hashCode()));
+        assertNull(new Node("a", null).getSubNode(source, 3, 1, "b".hashCode()));
+    }
 }
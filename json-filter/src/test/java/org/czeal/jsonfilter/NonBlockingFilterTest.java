@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import com.google.gson.stream.MalformedJsonException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class NonBlockingFilterTest
+{
+    private final FilterFactory factory = new FilterFactory();
+
+
+    /**
+     * Feeds the source in chunks of random sizes, draining the output into a small
+     * buffer after every chunk.
+     */
+    private static String filter(byte[] source, CompiledFilter compiled, Random random, boolean direct)
+            throws IOException
+    {
+        NonBlockingFilter filter      = new NonBlockingFilter(compiled);
+        ByteArrayOutputStream output  = new ByteArrayOutputStream();
+        ByteBuffer target             = ByteBuffer.allocate(7);
+
+        for (int i = 0; i < source.length; )
+        {
+            int n = Math.min(source.length - i, 1 + random.nextInt(16));
+            ByteBuffer chunk = direct ? ByteBuffer.allocateDirect(n) : ByteBuffer.allocate(n + 2).position(1);
+
+            chunk.put(source, i, n).flip();
+
+            if (!direct)
+            {
+                chunk.position(1);
+            }
+
+            filter.feed(chunk);
+            assertFalse(chunk.hasRemaining());
+            drain(filter, target, output);
+
+            i += n;
+        }
+
+        filter.end();
+        drain(filter, target, output);
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    private static void drain(NonBlockingFilter filter, ByteBuffer target, ByteArrayOutputStream output)
+    {
+        while (filter.pending() > 0)
+        {
+            target.clear();
+            filter.drain(target);
+            output.write(target.array(), 0, target.position());
+        }
+    }
+
+
+    private static String applyBytes(byte[] source, CompiledFilter compiled) throws IOException
+    {
+        byte[] filtered = (compiled.getType() == FilterType.INCLUSION)
+                ? new InclusionFilter().apply(source, compiled) : new ExclusionFilter().apply(source, compiled);
+
+        return new String(filtered, StandardCharsets.UTF_8);
+    }
+
+
+    private String filter(String source, FilterType type, String expression) throws IOException
+    {
+        return filter(source.getBytes(StandardCharsets.UTF_8), factory.compile(type, expression), new Random(1), false);
+    }
+
+
+    @Test
+    @DisplayName("filter a source split into chunks")
+    void testFeed1() throws IOException
+    {
+        assertEquals("{\"a\":1,\"b\":[{\"c\":true},{}]}",
+                filter("{\"a\":1, \"b\":[{\"c\":true,\"d\":{\"e\":[1]}},{\"d\":2}],\"z\":null}", FilterType.INCLUSION, "b(c),a"));
+        assertEquals("{\"d\":[null,{\"b\":{\"c\":{ \"x\" : 1 }}}]}",
+                filter("{\"a\":1,\"b\":null,\"d\":[null,{\"b\":{\"c\":{ \"x\" : 1 }}}]}", FilterType.EXCLUSION, "b(c),a"));
+        assertEquals("null", filter(" [1, 2] ", FilterType.EXCLUSION, null));
+        assertEquals("\"s\"", filter("\"s\"", FilterType.INCLUSION, "a"));
+        assertEquals("-1.5e3", filter("-1.5e3", FilterType.INCLUSION, "a"));
+    }
+
+
+    @Test
+    @DisplayName("match names with escape sequences and non-ASCII characters")
+    void testFeed2() throws IOException
+    {
+        String source = "{\"\\u0061\":1,\"\u00e9\":2,\"x\\\"\":3}";
+
+        assertEquals("{\"\\u0061\":1}", filter(source, FilterType.INCLUSION, "a"));
+        assertEquals("{\"\u00e9\":2,\"x\\\"\":3}", filter(source, FilterType.EXCLUSION, "a"));
+        assertEquals("{\"\\\"\":\"\\\"}\"}", filter("{\"\\\"\":\"\\\"}\",\"b\":[\"]\"]}", FilterType.EXCLUSION, "b"));
+    }
+
+
+    @Test
+    @DisplayName("skip a byte order mark split across chunks")
+    void testFeed3() throws IOException
+    {
+        NonBlockingFilter filter = new NonBlockingFilter(factory.compile(FilterType.INCLUSION, "a"));
+        ByteBuffer target        = ByteBuffer.allocate(64);
+
+        filter.feed(ByteBuffer.wrap(new byte[] { (byte)0xEF }));
+        filter.feed(ByteBuffer.wrap(new byte[] { (byte)0xBB, (byte)0xBF, '{', '"', 'a' }));
+        assertFalse(filter.isComplete());
+        filter.feed(ByteBuffer.wrap("\":12}".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(filter.isComplete());
+        filter.end();
+        filter.end();
+
+        assertEquals(8, filter.drain(target));
+        assertEquals("{\"a\":12}", new String(target.array(), 0, target.position(), StandardCharsets.UTF_8));
+        assertEquals(0, filter.pending());
+    }
+
+
+    @Test
+    @DisplayName("produce the same output as the byte filters on random documents split at random")
+    void testFeed4() throws IOException
+    {
+        Random random = new Random(53);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            String expression = (random.nextInt(10) == 0) ? null : RandomJson.expression(random, 3);
+            CompiledFilter compiled = factory.compile(type, expression);
+            byte[] source = RandomJson.generate(random, 4).getBytes(StandardCharsets.UTF_8);
+
+            assertEquals(applyBytes(source, compiled), filter(source, compiled, random, random.nextBoolean()),
+                    compiled + " " + new String(source, StandardCharsets.UTF_8));
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for malformed sources")
+    void testFeed5()
+    {
+        String[] sources = {
+            "", "{", "{\"a\":1", "[1,]", "{\"a\":1,}", "{\"a\" 1}", "{a:1}", "[1 2]", "tru", "nulll",
+            "[1]]", "{\"a\":\"x}", "[\"\u0001\"]", "x", "{\"a\":{\"b\":[}",
+            "[1}", "{\"x\":[1},\"b\":1}", "{\"b\":[{\"x\":1]}]}", "{\"x\":-}", "{\"b\":01}", "1e", "-", "[1.]",
+            "{\"x\":truex}", "{\"x\":nul}", "{\"x\":\"\\q\"}", "{\"x\":\"\\u12g4\"}", "{\"x\":{1:2}}",
+            "{\"x\":[\"y\":1]}", "{\"x\":{\"y\" 1}}", "{\"x\":[1,]}", "{\"b\":{\"y\":1,}}",
+        };
+
+        for (String source : sources)
+        {
+            assertThrows(MalformedJsonException.class, () -> {
+                filter(source, FilterType.INCLUSION, "b"); }, source);
+        }
+    }
+
+
+    @Test
+    @DisplayName("reject mismatched bracket kinds and unterminated numbers split across chunks")
+    void testFeed7() throws IOException
+    {
+        // The root array is filtered, and the array in x is skipped.
+        String[][] cases = {
+            { "[1", "}",               "Expected ',' at offset 2." },
+            { "{\"x\":[1", "}}",       "Expected ',' or ']' at offset 7." },
+            { "{\"x\":[{\"y\":[]", "]}", "Expected ',' or '}' at offset 13." },
+        };
+
+        for (String[] c : cases)
+        {
+            NonBlockingFilter filter = new NonBlockingFilter(factory.compile(FilterType.INCLUSION, "a"));
+
+            filter.feed(ByteBuffer.wrap(c[0].getBytes(StandardCharsets.UTF_8)));
+
+            MalformedJsonException e = assertThrows(MalformedJsonException.class, () -> {
+                filter.feed(ByteBuffer.wrap(c[1].getBytes(StandardCharsets.UTF_8)));
+                filter.end();
+            });
+            assertEquals(c[2], e.getMessage());
+        }
+
+        NonBlockingFilter filter = new NonBlockingFilter(factory.compile(FilterType.INCLUSION, "a"));
+
+        filter.feed(ByteBuffer.wrap("-1.".getBytes(StandardCharsets.UTF_8)));
+
+        MalformedJsonException e = assertThrows(MalformedJsonException.class, () -> { filter.end(); });
+        assertEquals("Unexpected end of input at offset 3.", e.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("throw exceptions for invalid arguments and calls")
+    void testFeed6() throws IOException
+    {
+        assertThrows(NullPointerException.class, () -> { new NonBlockingFilter(null); });
+
+        NonBlockingFilter filter = new NonBlockingFilter(factory.compile(FilterType.INCLUSION, "a"));
+
+        assertThrows(NullPointerException.class, () -> { filter.feed(null); });
+        assertThrows(NullPointerException.class, () -> { filter.drain(null); });
+
+        filter.feed(ByteBuffer.wrap("1".getBytes(StandardCharsets.UTF_8)));
+        filter.end();
+
+        assertThrows(IllegalStateException.class, () -> { filter.feed(ByteBuffer.allocate(1)); });
+    }
+
+
+    private static String transfer(byte[] source, CompiledFilter compiled, long segmentSize) throws IOException
+    {
+        Path file = Files.createTempFile("source", ".json");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(source));
+        }
+
+        try (FileChannel channel = FileChannel.open(file))
+        {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            new NonBlockingFilter(compiled).transfer(
+                    new MappedSegments(channel, segmentSize), Channels.newChannel(output));
+
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+
+    @Test
+    @DisplayName("produce the same output as the byte filters on files mapped in small segments")
+    void testTransfer1() throws IOException
+    {
+        Random random = new Random(59);
+
+        for (int n = 0; n < 200; n++)
+        {
+            FilterType type = random.nextBoolean() ? FilterType.INCLUSION : FilterType.EXCLUSION;
+            CompiledFilter compiled = factory.compile(type, RandomJson.expression(random, 3));
+            byte[] source = RandomJson.generate(random, 4).getBytes(StandardCharsets.UTF_8);
+
+            assertEquals(applyBytes(source, compiled), transfer(source, compiled, 1 + random.nextInt(16)),
+                    compiled + " " + new String(source, StandardCharsets.UTF_8));
+        }
+    }
+
+
+    @Test
+    @DisplayName("reject data after the JSON value and empty files")
+    void testTransfer2()
+    {
+        CompiledFilter compiled = factory.compile(FilterType.INCLUSION, "a");
+        byte[] source = "{\"a\":1} garbage".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(MalformedJsonException.class, () -> { new InclusionFilter().apply(source, compiled); });
+        assertThrows(MalformedJsonException.class, () -> { transfer(source, compiled, 3); });
+        assertThrows(MalformedJsonException.class, () -> { transfer(new byte[0], compiled, 3); });
+    }
+
+
+    @Test
+    @DisplayName("reject malformed values split across small segments")
+    void testTransfer3()
+    {
+        CompiledFilter inclusion = factory.compile(FilterType.INCLUSION, "a");
+        CompiledFilter exclusion = factory.compile(FilterType.EXCLUSION, "a");
+
+        for (String json : new String[] {
+                "[1}", "{\"a\":[1},\"b\":1}", "{\"a\":1,\"b\":[1}}", "{\"a\":[tru],\"b\":1}",
+                "{\"b\":-01,\"a\":1}", "{\"b\":\"\\u12x4\",\"a\":1}", "{\"a\":{\"c\",1}}" })
+        {
+            byte[] source = json.getBytes(StandardCharsets.UTF_8);
+
+            for (long segmentSize = 1; segmentSize <= source.length; segmentSize++)
+            {
+                long size = segmentSize;
+
+                assertThrows(MalformedJsonException.class, () -> { transfer(source, inclusion, size); }, json);
+                assertThrows(MalformedJsonException.class, () -> { transfer(source, exclusion, size); }, json);
+            }
+        }
+    }
+}
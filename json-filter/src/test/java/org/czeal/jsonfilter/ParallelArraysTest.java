@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class ParallelArraysTest
+{
+    private static JsonArray map(int parallelism, JsonArray source)
+    {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try
+        {
+            return pool.invoke(ForkJoinTask.adapt(() -> ParallelArrays.map(
+                    source, e -> new JsonPrimitive(e.getAsInt() * 2))));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    @DisplayName("map elements in the original order")
+    void testMap1()
+    {
+        JsonArray source = new JsonArray();
+        JsonArray expected = new JsonArray();
+
+        for (int i = 0; i < 10000; i++)
+        {
+            source.add(i);
+            expected.add(i * 2);
+        }
+
+        assertEquals(expected, map(4, source));
+        assertEquals(expected, map(1, source));
+    }
+
+
+    @Test
+    @DisplayName("map an empty array and a single-element array")
+    void testMap2()
+    {
+        JsonArray single = new JsonArray();
+        single.add(21);
+
+        assertEquals(new JsonArray(), map(4, new JsonArray()));
+        assertEquals("[42]", map(4, single).toString());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class PooledUtf8WriterTest
+{
+    private static byte[] encode(String text) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PooledUtf8Writer writer = new PooledUtf8Writer(out))
+        {
+            writer.write(text);
+        }
+
+        return out.toByteArray();
+    }
+
+
+    @Test
+    @DisplayName("encode characters of every length in UTF-8")
+    void testWrite1() throws IOException
+    {
+        String text = "a\u00e9\u3042\ud83d\ude00z";
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), encode(text));
+    }
+
+
+    @Test
+    @DisplayName("encode unpaired surrogates as question marks")
+    void testWrite2() throws IOException
+    {
+        String[] texts = { "\ud83d", "\ude00", "a\ud83db", "\ude00\ud83d", "\ud83d\ud83d\ude00" };
+
+        for (String text : texts)
+        {
+            assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), encode(text), text);
+        }
+    }
+
+
+    @Test
+    @DisplayName("encode texts larger than the buffer across calls")
+    void testWrite3() throws IOException
+    {
+        Random random = new Random(47);
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < 3 * PooledUtf8Writer.BUFFER_SIZE; i++)
+        {
+            int cp = random.nextBoolean() ? 'a' + random.nextInt(26) : 0x80 + random.nextInt(0x1FF80);
+
+            // Skip the surrogate range, which is tested separately.
+            text.appendCodePoint((Character.MIN_SURROGATE <= cp && cp <= Character.MAX_SURROGATE) ? cp + 0x800 : cp);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (PooledUtf8Writer writer = new PooledUtf8Writer(out))
+        {
+            for (int i = 0; i < text.length(); )
+            {
+                int n = Math.min(text.length() - i, 1 + random.nextInt(100));
+
+                writer.write(text.toString().toCharArray(), i, n);
+                i += n;
+            }
+        }
+
+        assertEquals(text.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    @DisplayName("reject writes after closing")
+    void testClose1() throws IOException
+    {
+        PooledUtf8Writer writer = new PooledUtf8Writer(new ByteArrayOutputStream());
+
+        writer.close();
+        writer.close();
+
+        assertThrows(IOException.class, () -> { writer.write('a'); });
+    }
+}
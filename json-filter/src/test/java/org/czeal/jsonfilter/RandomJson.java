@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import java.util.Random;
+
+
+/**
+ * A generator of random JSON documents for comparing filtering engines.
+ *
+ * <p>
+ * The documents use a small set of keys, so that filter expressions made of the
+ * same keys select, exclude and descend into their members. Whitespace, escape
+ * sequences and non-ASCII characters are inserted at random.
+ * </p>
+ */
+final class RandomJson
+{
+    private static final String[] KEYS = { "a", "b", "c", "d", "\\u0061", "\u00e9" };
+
+
+    private static final String[] STRINGS = { "", "x", "q\\\"}]", "\\u00e9\\n", "\u00e9\u3042" };
+
+
+    private static final String[] NUMBERS = { "0", "-1", "3.25", "1e10", "-2.5E-3" };
+
+
+    private RandomJson()
+    {
+    }
+
+
+    /**
+     * Generates a random JSON document nested up to the given depth.
+     */
+    static String generate(Random random, int depth)
+    {
+        StringBuilder json = new StringBuilder();
+        appendValue(json, random, depth);
+        return json.toString();
+    }
+
+
+    /**
+     * Generates a random filter expression nested up to the given depth, using
+     * the ASCII keys of the generated documents.
+     */
+    static String expression(Random random, int depth)
+    {
+        StringBuilder expression = new StringBuilder();
+        int size = 1 + random.nextInt(3);
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                expression.append(',');
+            }
+
+            expression.append(KEYS[random.nextInt(4)]);
+
+            if (depth > 0 && random.nextInt(3) == 0)
+            {
+                // Empty sub nodes are allowed, e.g. "a()".
+                expression.append('(');
+                expression.append(random.nextInt(4) == 0 ? "" : expression(random, depth - 1));
+                expression.append(')');
+            }
+        }
+
+        return expression.toString();
+    }
+
+
+    private static void appendValue(StringBuilder json, Random random, int depth)
+    {
+        int kind = random.nextInt(depth > 0 ? 7 : 5);
+
+        space(json, random);
+
+        switch (kind)
+        {
+            case 0:
+                json.append("null");
+                break;
+
+            case 1:
+                json.append(random.nextBoolean());
+                break;
+
+            case 2:
+                json.append(NUMBERS[random.nextInt(NUMBERS.length)]);
+                break;
+
+            case 3:
+            case 4:
+                json.append('"').append(STRINGS[random.nextInt(STRINGS.length)]).append('"');
+                break;
+
+            case 5:
+                appendObject(json, random, depth - 1);
+                break;
+
+            default:
+                appendArray(json, random, depth - 1);
+        }
+
+        space(json, random);
+    }
+
+
+    private static void appendObject(StringBuilder json, Random random, int depth)
+    {
+        int size = random.nextInt(5);
+
+        json.append('{');
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+
+            space(json, random);
+            json.append('"').append(KEYS[random.nextInt(KEYS.length)]).append('"');
+            space(json, random);
+            json.append(':');
+            appendValue(json, random, depth);
+        }
+
+        space(json, random);
+        json.append('}');
+    }
+
+
+    private static void appendArray(StringBuilder json, Random random, int depth)
+    {
+        int size = random.nextInt(4);
+
+        json.append('[');
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+
+            appendValue(json, random, depth);
+        }
+
+        space(json, random);
+        json.append(']');
+    }
+
+
+    private static void space(StringBuilder json, Random random)
+    {
+        if (random.nextInt(4) == 0)
+        {
+            json.append(random.nextBoolean() ? " " : "\n\t");
+        }
+    }
+}
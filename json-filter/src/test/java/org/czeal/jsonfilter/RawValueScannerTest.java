@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import com.google.gson.stream.MalformedJsonException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class RawValueScannerTest
+{
+    private static final StructuralScanner[] SCANNERS = { StructuralScanner.SCALAR, StructuralScanner.SWAR };
+
+
+    private static ByteBuffer buffer(String s)
+    {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+    private static int skip(StructuralScanner scanner, String s) throws MalformedJsonException
+    {
+        return new RawValueScanner(scanner).skip(buffer(s), 0, s.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+
+    @Test
+    @DisplayName("skip valid values up to their ends")
+    void testSkip1() throws MalformedJsonException
+    {
+        String[] values = {
+            "\"abc\\\"def\\\\\u00e9ghijklmnop\\u00E9\\/\\b\\f\\n\\r\\t\"",
+            "{\"a\":[1,2,{\"b\":\"}]\"}],\"c\":{\"d\":[[[]]]}}",
+            "[ 0 , -0 , 12 , -3.25 , 1e10 , 2E+3 , -4.5e-6 , true , false , null ]",
+            "{ }", "[ ]", "{\"a\" : {\"b\" : [ { } ] } }",
+            "[".repeat(100) + "{\"x\":1}" + "]".repeat(100),
+        };
+
+        for (StructuralScanner scanner : SCANNERS)
+        {
+            for (String value : values)
+            {
+                int length = value.getBytes(StandardCharsets.UTF_8).length;
+
+                assertEquals(length, skip(scanner, value + ",x"), value);
+                assertEquals(length, skip(scanner, value + "}"), value);
+            }
+
+            // A number or a keyword ends with the input, or before the byte
+            // following it.
+            assertEquals(6, skip(scanner, "-1.5e0"));
+            assertEquals(4, skip(scanner, "true"));
+            assertEquals(4, skip(scanner, "null ]"));
+            assertEquals(2, skip(scanner, "12,"));
+        }
+    }
+
+
+    @Test
+    @DisplayName("throw MalformedJsonException for malformed values")
+    void testSkip2()
+    {
+        String[][] cases = {
+            { "\"abcdefghij",             "Unterminated string at offset 11." },
+            { "\"abcdefghij\nk\"",        "Unescaped control character at offset 11." },
+            { "[[1,2],[3]",               "Unterminated object or array at offset 10." },
+            { "[1}",                      "Expected ',' or ']' at offset 2." },
+            { "{\"a\":1]",                "Expected ',' or '}' at offset 6." },
+            { "[{\"a\":[1}]}",            "Expected ',' or ']' at offset 8." },
+            { "-",                        "Unexpected end of input at offset 1." },
+            { "-}",                       "Malformed number at offset 1." },
+            { "01",                       "Malformed number at offset 1." },
+            { "1e",                       "Unexpected end of input at offset 2." },
+            { "[1e]",                     "Malformed number at offset 3." },
+            { "[1.]",                     "Malformed number at offset 3." },
+            { "[.5]",                     "Unexpected character at offset 1." },
+            { "[+1]",                     "Unexpected character at offset 1." },
+            { "[1.5.3]",                  "Malformed number at offset 4." },
+            { "[1x]",                     "Malformed number at offset 2." },
+            { "[tru]",                    "Unexpected literal at offset 4." },
+            { "[truex]",                  "Unexpected literal at offset 5." },
+            { "[nul",                     "Unterminated object or array at offset 4." },
+            { "\"\\q\"",                  "Invalid escape sequence at offset 2." },
+            { "\"\\u12g4\"",              "Invalid escape sequence at offset 5." },
+            { "{1:2}",                    "Expected a name at offset 1." },
+            { "[\"x\":1]",                "Expected ',' or ']' at offset 4." },
+            { "{\"x\" 1}",                "Expected ':' at offset 5." },
+            { "{\"x\":1,}",               "Expected a name at offset 7." },
+            { "[1,]",                     "Unexpected character at offset 3." },
+            { "[1 2]",                    "Expected ',' or ']' at offset 3." },
+            { "[".repeat(70) + "{}}",      "Expected ',' or ']' at offset 72." },
+            { "[".repeat(70) + "{\"a\":1]", "Expected ',' or '}' at offset 76." },
+        };
+
+        for (StructuralScanner scanner : SCANNERS)
+        {
+            for (String[] c : cases)
+            {
+                MalformedJsonException e = assertThrows(MalformedJsonException.class, () -> { skip(scanner, c[0]); }, c[0]);
+                assertEquals(c[1], e.getMessage(), c[0]);
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("scan a value split into buffers at every index")
+    void testScan1() throws MalformedJsonException
+    {
+        String value = "{\"a\":[1,-2.5e+3,{\"b\":\"x\\u00e9\\\"\"}],\"c\":[true,false,null],\"d\":0}";
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        for (int split = 0; split <= bytes.length; split++)
+        {
+            RawValueScanner scanner = new RawValueScanner(StructuralScanner.getDefault());
+            ByteBuffer first = ByteBuffer.wrap(bytes, 0, split).slice().order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer second = ByteBuffer.wrap(bytes, split, bytes.length - split).slice().order(ByteOrder.LITTLE_ENDIAN);
+
+            scanner.begin();
+            assertEquals(split, scanner.scan(first, 0, split, 0));
+            assertFalse(scanner.isDone() && split < bytes.length);
+            assertEquals(bytes.length - split, scanner.scan(second, 0, bytes.length - split, split));
+            assertTrue(scanner.isDone());
+        }
+
+        // An error in the second buffer is reported at its offset in the input.
+        RawValueScanner scanner = new RawValueScanner(StructuralScanner.getDefault());
+
+        scanner.begin();
+        scanner.scan(buffer("[1,"), 0, 3, 0);
+        MalformedJsonException e = assertThrows(MalformedJsonException.class, () -> { scanner.scan(buffer("2}"), 0, 2, 3); });
+        assertEquals("Expected ',' or ']' at offset 4.", e.getMessage());
+    }
+}
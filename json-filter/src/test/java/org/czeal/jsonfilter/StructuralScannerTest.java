@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class StructuralScannerTest
+{
+    private static final StructuralScanner[] SCANNERS = {
+            StructuralScanner.SCALAR, StructuralScanner.SWAR, StructuralScanner.VECTOR };
+
+
+    private static ByteBuffer buffer(String s)
+    {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+    @Test
+    @DisplayName("select scanner by name")
+    void testSelect1()
+    {
+        assertSame(StructuralScanner.SCALAR, StructuralScanner.select("scalar"));
+        assertSame(StructuralScanner.SCALAR, StructuralScanner.select("SCALAR"));
+        assertSame(StructuralScanner.SWAR, StructuralScanner.select("swar"));
+        assertSame(StructuralScanner.SWAR, StructuralScanner.select(null));
+        assertSame(StructuralScanner.VECTOR, StructuralScanner.select("vector"));
+    }
+
+
+    @Test
+    @DisplayName("the vector scanner is the Vector API scanner or falls back to the SWAR scanner")
+    void testSelect2()
+    {
+        String name = StructuralScanner.VECTOR.getClass().getSimpleName();
+
+        assertTrue(name.equals("VectorStructuralScanner") || StructuralScanner.VECTOR == StructuralScanner.SWAR, name);
+    }
+
+
+    @Test
+    @DisplayName("find string special characters at every offset")
+    void testNextStringSpecial1()
+    {
+        for (StructuralScanner scanner : SCANNERS)
+        {
+            for (char c : new char[] { '"', '\\', '\n', '\u0001', '\u001f' })
+            {
+                for (int i = 0; i < 150; i++)
+                {
+                    String s = "a{:,_ [x".repeat(19).substring(0, i) + c + "xxxxxxxxxxxx";
+                    assertEquals(i, scanner.nextStringSpecial(buffer(s), 0, s.length()));
+                }
+            }
+
+            assertEquals(17, scanner.nextStringSpecial(buffer("abcdefghijklmnopq"), 0, 17));
+        }
+    }
+
+
+    @Test
+    @DisplayName("scanners agree on random bytes")
+    void testNextStringSpecial2()
+    {
+        Random random = new Random(7);
+        byte[] alphabet = "\"\\{}[]_;{a \u0001".getBytes(StandardCharsets.UTF_8);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            byte[] bytes = new byte[random.nextInt(200)];
+
+            for (int i = 0; i < bytes.length; i++)
+            {
+                bytes[i] = random.nextInt(4) == 0 ? (byte)random.nextInt(256) : alphabet[random.nextInt(alphabet.length)];
+            }
+
+            ByteBuffer source = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+
+            for (StructuralScanner scanner : SCANNERS)
+            {
+                assertEquals(StructuralScanner.SCALAR.nextStringSpecial(source, from, bytes.length),
+                             scanner.nextStringSpecial(source, from, bytes.length));
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("find structural characters at every offset")
+    void testNextStructural1()
+    {
+        for (StructuralScanner scanner : SCANNERS)
+        {
+            for (char c : new char[] { '"', '{', '}', '[', ']', ',', ':' })
+            {
+                for (int i = 0; i < 150; i++)
+                {
+                    String s = "a1 ;_\\\n;x".repeat(17).substring(0, i) + c + "xxxxxxxxxxxx";
+                    assertEquals(i, scanner.nextStructural(buffer(s), 0, s.length()));
+                }
+            }
+
+            assertEquals(17, scanner.nextStructural(buffer("abcdefghijklmnopq"), 0, 17));
+        }
+    }
+
+
+    @Test
+    @DisplayName("scanners agree on structural characters in random bytes")
+    void testNextStructural2()
+    {
+        Random random = new Random(13);
+        byte[] alphabet = "\"{}[],:;{a 1\u0001".getBytes(StandardCharsets.UTF_8);
+
+        for (int n = 0; n < 2000; n++)
+        {
+            byte[] bytes = new byte[random.nextInt(200)];
+
+            for (int i = 0; i < bytes.length; i++)
+            {
+                bytes[i] = random.nextInt(4) == 0 ? (byte)random.nextInt(256) : alphabet[random.nextInt(alphabet.length)];
+            }
+
+            ByteBuffer source = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+
+            for (StructuralScanner scanner : SCANNERS)
+            {
+                assertEquals(StructuralScanner.SCALAR.nextStructural(source, from, bytes.length),
+                             scanner.nextStructural(source, from, bytes.length));
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("scanners agree on direct buffers")
+    void testNextStructural3()
+    {
+        Random random = new Random(19);
+        byte[] alphabet = "\"\\{}[],:;a 1\u0001".getBytes(StandardCharsets.UTF_8);
+
+        for (int n = 0; n < 500; n++)
+        {
+            ByteBuffer source = ByteBuffer.allocateDirect(random.nextInt(300)).order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int i = 0; i < source.limit(); i++)
+            {
+                source.put(i, random.nextInt(8) == 0 ? alphabet[random.nextInt(alphabet.length)] : (byte)'x');
+            }
+
+            int from = source.limit() == 0 ? 0 : random.nextInt(source.limit());
+
+            for (StructuralScanner scanner : SCANNERS)
+            {
+                assertEquals(StructuralScanner.SCALAR.nextStructural(source, from, source.limit()),
+                             scanner.nextStructural(source, from, source.limit()));
+                assertEquals(StructuralScanner.SCALAR.nextStringSpecial(source, from, source.limit()),
+                             scanner.nextStringSpecial(source, from, source.limit()));
+            }
+        }
+    }
+
+
+    @Test
+    @DisplayName("readers using any scanner produce the same JSON")
+    void testReader1() throws IOException
+    {
+        Random random = new Random(11);
+
+        for (int n = 0; n < 300; n++)
+        {
+            String json = RandomJson.generate(random, 4);
+            ByteBuffer source = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+
+            for (StructuralScanner scanner : SCANNERS)
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                copy(new Utf8JsonReader(source, scanner), new Utf8JsonWriter(out));
+
+                assertEquals(json.trim(), out.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+
+    private static void copy(Utf8JsonReader reader, Utf8JsonWriter writer) throws IOException
+    {
+        reader.copyValue(writer);
+        reader.endDocument();
+        writer.flush();
+    }
+}
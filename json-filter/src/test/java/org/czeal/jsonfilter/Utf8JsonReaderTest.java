@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import com.google.gson.stream.MalformedJsonException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class Utf8JsonReaderTest
+{
+    private static Utf8JsonReader reader(String json)
+    {
+        return new Utf8JsonReader(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    @Test
+    @DisplayName("look up names by bytes and by decoded strings")
+    void testNextName1() throws IOException
+    {
+        Node a = new Node("a", null);
+        Node b = new Node("b", null);
+        Node root = new Node(null, Arrays.asList(a, b));
+
+        Utf8JsonReader reader = reader("{\"a\":1, \"\\u0062\" : 2,\"\u00e9\":3,\"c\":4}");
+        reader.beginObject();
+
+        assertTrue(reader.hasNext());
+        assertSame(a, reader.nextName(root));
+        reader.skipValue();
+
+        assertTrue(reader.hasNext());
+        assertSame(b, reader.nextName(root));
+        reader.skipValue();
+
+        assertTrue(reader.hasNext());
+        assertNull(reader.nextName(root));
+        reader.skipValue();
+
+        assertTrue(reader.hasNext());
+        assertNull(reader.nextName(root));
+        reader.skipValue();
+
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+
+    @Test
+    @DisplayName("copy names and values byte for byte")
+    void testCopyValue1() throws IOException
+    {
+        Node root = new Node(null, Arrays.asList(new Node("k", null)));
+        Utf8JsonReader reader = reader("{ \"k\" : [ 1, \"]\\\"\" , {\"x\":null} ] }");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8JsonWriter writer = new Utf8JsonWriter(out);
+
+        reader.beginObject();
+        writer.beginObject();
+        reader.hasNext();
+        reader.nextName(root);
+        reader.copyName(writer);
+        reader.copyValue(writer);
+        reader.endObject();
+        writer.endObject();
+        writer.flush();
+
+        assertEquals("{\"k\":[ 1, \"]\\\"\" , {\"x\":null} ]}", out.toString(StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    @DisplayName("skip the byte order mark")
+    void testPeek1() throws IOException
+    {
+        Utf8JsonReader reader = new Utf8JsonReader(ByteBuffer.wrap(new byte[] { (byte)0xEF, (byte)0xBB, (byte)0xBF, ' ', '1' }));
+        assertEquals('1', reader.peek());
+    }
+
+
+    @Test
+    @DisplayName("report the offset of a syntax error")
+    void testSyntaxError1()
+    {
+        MalformedJsonException e = assertThrows(MalformedJsonException.class, () -> {
+            Utf8JsonReader reader = reader("[1,]");
+            reader.beginArray();
+            reader.hasNext();
+            reader.skipValue();
+            reader.hasNext();
+        });
+
+        assertEquals("Unexpected trailing comma at offset 3.", e.getMessage());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2025 Hideki Ikeda
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.czeal.jsonfilter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class Utf8JsonWriterTest
+{
+    @Test
+    @DisplayName("insert commas between elements")
+    void testWrite1() throws IOException
+    {
+        ByteBuffer source = ByteBuffer.wrap("\"a\"1".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8JsonWriter writer = new Utf8JsonWriter(out);
+
+        writer.beginArray();
+        writer.beginObject();
+        writer.name(source, 0, 3);
+        writer.value(source, 3, 4);
+        writer.name(source, 0, 3);
+        writer.nullValue();
+        writer.endObject();
+        writer.value(source, 3, 4);
+        writer.beginArray();
+        writer.endArray();
+        writer.endArray();
+        writer.flush();
+
+        assertEquals("[{\"a\":1,\"a\":null},1,[]]", out.toString(StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    @DisplayName("copy large values from heap and direct buffers")
+    void testWrite2() throws IOException
+    {
+        byte[] value = new byte[20000];
+        Arrays.fill(value, (byte)'7');
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(value.length);
+        direct.put(value).flip();
+
+        for (ByteBuffer source : new ByteBuffer[] { ByteBuffer.wrap(value), direct })
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Utf8JsonWriter writer = new Utf8JsonWriter(out);
+
+            writer.beginArray();
+            writer.value(source, 0, 5);
+            writer.value(source, 0, value.length);
+            writer.endArray();
+            writer.flush();
+
+            String expected = "[77777," + new String(value, StandardCharsets.US_ASCII) + "]";
+            assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        }
+    }
+}